@@ -0,0 +1,60 @@
+package space.akko.foundation.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 限流注解
+ * 按限流维度为每个对象维护一个令牌桶：每个周期补充 {@link #limit()} 个令牌，最多积累 {@link #limit()} 个
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimit {
+
+    /**
+     * 规则名称，同名规则共用令牌桶；为空时使用 类名.方法名
+     */
+    String name() default "";
+
+    /**
+     * 每个周期允许的次数
+     */
+    long limit();
+
+    /**
+     * 周期（秒）
+     */
+    long periodSeconds() default 1;
+
+    /**
+     * 限流维度
+     */
+    Dimension dimension() default Dimension.IP;
+
+    /**
+     * 限流维度
+     */
+    enum Dimension {
+        /**
+         * 按当前用户，未登录时按客户端IP
+         */
+        USER,
+
+        /**
+         * 按客户端IP
+         */
+        IP,
+
+        /**
+         * 整个规则共用一个令牌桶
+         */
+        ROUTE
+    }
+}
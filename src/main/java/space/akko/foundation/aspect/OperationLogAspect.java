@@ -9,13 +9,15 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import space.akko.foundation.annotation.OperationLog;
 import space.akko.foundation.utils.SecurityUtils;
 import space.akko.foundation.utils.TraceUtils;
+import space.akko.platform.audit.model.entity.AuditOperationLog;
+import space.akko.platform.audit.service.AuditLogService;
 
 import java.lang.reflect.Method;
 import java.time.LocalDateTime;
@@ -34,6 +36,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OperationLogAspect {
 
+    /**
+     * 延迟获取，避免切面创建时提前初始化审计服务
+     */
+    private final ObjectProvider<AuditLogService> auditLogServiceProvider;
+
     @Around("@annotation(space.akko.foundation.annotation.OperationLog)")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
         long startTime = System.currentTimeMillis();
@@ -74,11 +81,7 @@ public class OperationLogAspect {
             logInfo.setOperationTime(LocalDateTime.now());
 
             // 记录日志
-            if (operationLog.async()) {
-                recordLogAsync(logInfo);
-            } else {
-                recordLog(logInfo);
-            }
+            recordLog(logInfo, operationLog.async());
         }
 
         return result;
@@ -174,21 +177,12 @@ public class OperationLogAspect {
     }
 
     /**
-     * 异步记录日志
-     */
-    @Async
-    public void recordLogAsync(OperationLogInfo logInfo) {
-        recordLog(logInfo);
-    }
-
-    /**
-     * 记录日志
+     * 记录日志：异步时放入审计日志写入管道，同步时直接写入
      */
-    private void recordLog(OperationLogInfo logInfo) {
+    private void recordLog(OperationLogInfo logInfo, boolean async) {
         try {
             // 转换为实体对象并保存到数据库
-            space.akko.platform.audit.model.entity.AuditOperationLog auditLog =
-                new space.akko.platform.audit.model.entity.AuditOperationLog();
+            AuditOperationLog auditLog = new AuditOperationLog();
 
             auditLog.setTraceId(logInfo.getTraceId());
             auditLog.setUserId(logInfo.getUserId());
@@ -209,15 +203,14 @@ public class OperationLogAspect {
             auditLog.setErrorMessage(logInfo.getErrorMessage());
             auditLog.setOperationTime(logInfo.getOperationTime());
 
-            // 通过Spring上下文获取AuditLogService并保存
-            try {
-                space.akko.platform.audit.service.AuditLogService auditLogService =
-                    space.akko.foundation.utils.ApplicationContextHolder.getApplicationContext()
-                        .getBean(space.akko.platform.audit.service.AuditLogService.class);
-                auditLogService.recordOperationLog(auditLog);
-            } catch (Exception e) {
+            AuditLogService auditLogService = auditLogServiceProvider.getIfAvailable();
+            if (auditLogService == null) {
                 // 如果服务不可用，则只记录到日志文件
                 log.info("操作日志: {}", JSONUtil.toJsonStr(logInfo));
+            } else if (async) {
+                auditLogService.recordOperationLogAsync(auditLog);
+            } else {
+                auditLogService.recordOperationLog(auditLog);
             }
         } catch (Exception e) {
             log.error("记录操作日志失败: {}", e.getMessage(), e);
@@ -0,0 +1,68 @@
+package space.akko.foundation.aspect;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import space.akko.foundation.annotation.RateLimit;
+import space.akko.foundation.exception.RateLimitException;
+import space.akko.foundation.ratelimit.RateLimitRule;
+import space.akko.foundation.ratelimit.RateLimiter;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流切面
+ * 按 {@link RateLimit} 注解限流，超限时抛出 {@link RateLimitException}（429，附带 Retry-After）
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Order(0) // 在权限验证切面之前执行，超限的请求不再做后续处理
+@ConditionalOnProperty(name = "platform.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitAspect {
+
+    private final RateLimiter rateLimiter;
+
+    /**
+     * 各方法的限流规则
+     */
+    private final Map<Method, RateLimitRule> rules = new ConcurrentHashMap<>();
+
+    /**
+     * 限流
+     */
+    @Around("@annotation(space.akko.foundation.annotation.RateLimit) || " +
+            "@within(space.akko.foundation.annotation.RateLimit)")
+    public Object rateLimit(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        RateLimitRule rule = rules.computeIfAbsent(method, this::resolveRule);
+
+        long retryAfterMillis = rateLimiter.tryAcquire(rule);
+        if (retryAfterMillis > 0) {
+            throw new RateLimitException(Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999)));
+        }
+        return joinPoint.proceed();
+    }
+
+    /**
+     * 方法上的注解优先，其次是类上的注解；类上的注解按方法分别限流
+     */
+    private RateLimitRule resolveRule(Method method) {
+        RateLimit annotation = method.getAnnotation(RateLimit.class);
+        if (annotation == null) {
+            annotation = method.getDeclaringClass().getAnnotation(RateLimit.class);
+        }
+        return RateLimitRule.of(annotation, method.getDeclaringClass().getSimpleName() + "." + method.getName());
+    }
+}
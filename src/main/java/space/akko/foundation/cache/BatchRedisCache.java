@@ -0,0 +1,258 @@
+package space.akko.foundation.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 支持批量操作的Redis缓存
+ * 批量读取使用一次MGET，批量写入使用管道，批量清除使用一次DEL；
+ * L2分片时键按 {@link RedisShardRing} 分组，每个分片各执行一次，多个分片并行
+ * 配置了 {@link CacheGenerationTracker} 时，清空缓存只递增命名空间代数，不扫描键空间
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public class BatchRedisCache extends RedisCache {
+
+    /**
+     * SCAN每批返回的键数量提示
+     */
+    private static final int SCAN_BATCH_SIZE = 500;
+
+    private final RedisShardRing shardRing;
+    private final CacheGenerationTracker generationTracker;
+
+    protected BatchRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration,
+                              RedisShardRing shardRing, CacheGenerationTracker generationTracker) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.shardRing = shardRing;
+        this.generationTracker = generationTracker;
+    }
+
+    /**
+     * 写入器是否支持异步读取（{@link #retrieve(Object)}）
+     */
+    public boolean supportsAsyncRetrieve() {
+        return getCacheWriter().supportsAsyncRetrieve();
+    }
+
+    /**
+     * 通过指定的写入器（如只读副本）异步读取，键和值的序列化与本缓存一致
+     */
+    public CompletableFuture<ValueWrapper> retrieveFrom(RedisCacheWriter writer, Object key) {
+        return writer.retrieve(getName(), toRedisKey(key))
+                .thenApply(value -> value != null ? toValueWrapper(deserializeCacheValue(value)) : null);
+    }
+
+    /**
+     * 清空缓存：递增命名空间代数，旧代数的键依靠TTL过期
+     */
+    @Override
+    public void clear() {
+        if (generationTracker == null) {
+            super.clear();
+            return;
+        }
+        generationTracker.increment(getName());
+    }
+
+    /**
+     * 注册其他节点清空该缓存时的回调
+     */
+    public void addRemoteClearListener(Runnable listener) {
+        if (generationTracker != null) {
+            generationTracker.addListener(getName(), listener);
+        }
+    }
+
+    /**
+     * 批量获取已缓存的原始值（每个分片一次MGET），未命中的键不出现在结果中
+     */
+    public Map<Object, Object> getAllPresent(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Object> keyList = new ArrayList<>(keys);
+        List<byte[]> redisKeys = keyList.stream().map(this::toRedisKey).toList();
+        Map<Integer, List<Integer>> groups = shardRing.groupByShard(redisKeys);
+
+        Map<Integer, List<byte[]>> values = shardRing.fanOut(groups.keySet(), shard -> {
+            byte[][] shardKeys = groups.get(shard).stream().map(redisKeys::get).toArray(byte[][]::new);
+            try (RedisConnection connection = shardRing.connectionFactory(shard).getConnection()) {
+                return connection.stringCommands().mGet(shardKeys);
+            }
+        });
+
+        // 不可用分片上的键按未命中处理
+        Map<Object, Object> result = new LinkedHashMap<>();
+        values.forEach((shard, shardValues) -> {
+            List<Integer> indexes = groups.get(shard);
+            for (int i = 0; shardValues != null && i < indexes.size(); i++) {
+                byte[] value = shardValues.get(i);
+                if (value != null) {
+                    result.put(keyList.get(indexes.get(i)), deserializeCacheValue(value));
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 批量写入（每个分片一次管道），每个条目按缓存配置的TTL函数设置过期时间
+     */
+    public void putAll(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<?, ?>> entryList = new ArrayList<>(entries.entrySet());
+        List<byte[]> redisKeys = entryList.stream().map(entry -> toRedisKey(entry.getKey())).toList();
+        Map<Integer, List<Integer>> groups = shardRing.groupByShard(redisKeys);
+
+        shardRing.fanOut(groups.keySet(), shard -> {
+            try (RedisConnection connection = shardRing.connectionFactory(shard).getConnection()) {
+                connection.openPipeline();
+                try {
+                    for (int index : groups.get(shard)) {
+                        Map.Entry<?, ?> entry = entryList.get(index);
+                        Duration ttl = getCacheConfiguration().getTtlFunction()
+                                .getTimeToLive(entry.getKey(), entry.getValue());
+                        Expiration expiration = ttl != null && !ttl.isZero() && !ttl.isNegative()
+                                ? Expiration.from(ttl) : Expiration.persistent();
+                        connection.stringCommands().set(redisKeys.get(index), serializeCacheValue(entry.getValue()),
+                                expiration, RedisStringCommands.SetOption.upsert());
+                    }
+                } finally {
+                    connection.closePipeline();
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 批量清除（每个分片一次DEL），任一分片失败时抛出异常，由调用方补偿
+     */
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<byte[]> redisKeys = keys.stream().map(this::toRedisKey).toList();
+        RuntimeException failure = null;
+        for (Map.Entry<Integer, List<Integer>> group : shardRing.groupByShard(redisKeys).entrySet()) {
+            int shard = group.getKey();
+            byte[][] shardKeys = group.getValue().stream().map(redisKeys::get).toArray(byte[][]::new);
+            try {
+                shardRing.executeOrThrow(shard, () -> {
+                    try (RedisConnection connection = shardRing.connectionFactory(shard).getConnection()) {
+                        return connection.keyCommands().del(shardKeys);
+                    }
+                });
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * 扫描当前代数下匹配的缓存键（SCAN，不阻塞Redis），返回去掉前缀的键，最多 limit 个
+     *
+     * @param pattern 键的glob模式（不含前缀），如 {@code 12*}
+     */
+    public List<String> scanKeys(String pattern, int limit) {
+        String prefix = getCacheConfiguration().getKeyPrefixFor(getName());
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + pattern).count(SCAN_BATCH_SIZE).build();
+
+        List<String> keys = new ArrayList<>();
+        for (int shard : shardRing.allShards()) {
+            if (keys.size() >= limit) {
+                break;
+            }
+            // 熔断或失败的分片跳过，已扫描到的键保留
+            shardRing.execute(shard, () -> {
+                try (RedisConnection connection = shardRing.connectionFactory(shard).getConnection();
+                     Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                    while (cursor.hasNext() && keys.size() < limit) {
+                        String redisKey = new String(cursor.next(), StandardCharsets.UTF_8);
+                        keys.add(redisKey.substring(prefix.length()));
+                    }
+                }
+                return null;
+            }, () -> null);
+        }
+        return keys;
+    }
+
+    /**
+     * 批量获取序列化值的字节数（每个分片一次管道STRLEN），不存在的键为0
+     */
+    public List<Long> getValueSizes(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        List<byte[]> redisKeys = keys.stream().map(this::toRedisKey).toList();
+        Map<Integer, List<Integer>> groups = shardRing.groupByShard(redisKeys);
+
+        Map<Integer, List<Object>> results = shardRing.fanOut(groups.keySet(), shard -> {
+            try (RedisConnection connection = shardRing.connectionFactory(shard).getConnection()) {
+                connection.openPipeline();
+                groups.get(shard).forEach(index -> connection.stringCommands().strLen(redisKeys.get(index)));
+                return connection.closePipeline();
+            }
+        });
+
+        Long[] sizes = new Long[redisKeys.size()];
+        Arrays.fill(sizes, 0L);
+        results.forEach((shard, shardSizes) -> {
+            List<Integer> indexes = groups.get(shard);
+            for (int i = 0; i < indexes.size(); i++) {
+                if (shardSizes.get(i) instanceof Long size) {
+                    sizes[indexes.get(i)] = size;
+                }
+            }
+        });
+        return Arrays.asList(sizes);
+    }
+
+    /**
+     * 条目剩余存活时间（毫秒），不存在或所在分片熔断时为-2，未设置过期时间时为-1
+     */
+    public long getTimeToLive(Object key) {
+        byte[] redisKey = toRedisKey(key);
+        int shard = shardRing.shardOf(redisKey);
+        Long ttl = shardRing.execute(shard, () -> {
+            try (RedisConnection connection = shardRing.connectionFactory(shard).getConnection()) {
+                return connection.keyCommands().pTtl(redisKey);
+            }
+        }, () -> null);
+        return ttl != null ? ttl : -2L;
+    }
+
+    /**
+     * 计算缓存键在Redis中的完整键（包含缓存名前缀）
+     */
+    private byte[] toRedisKey(Object key) {
+        return serializeCacheKey(createCacheKey(key));
+    }
+}
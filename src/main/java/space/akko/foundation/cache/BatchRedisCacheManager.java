@@ -0,0 +1,50 @@
+package space.akko.foundation.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+/**
+ * 创建 {@link BatchRedisCache} 的Redis缓存管理器
+ * 多个分片时单键操作使用 {@link ShardedRedisCacheWriter} 按一致性哈希路由
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public class BatchRedisCacheManager extends RedisCacheManager {
+
+    private final RedisShardRing shardRing;
+    private final CacheGenerationTracker generationTracker;
+
+    /**
+     * @param generationTracker 命名空间代数，为null时清空缓存按前缀扫描删除
+     */
+    public BatchRedisCacheManager(RedisConnectionFactory connectionFactory,
+                                  RedisCacheConfiguration defaultCacheConfiguration,
+                                  CacheGenerationTracker generationTracker) {
+        this(RedisShardRing.single(connectionFactory), defaultCacheConfiguration, generationTracker);
+    }
+
+    /**
+     * @param shardRing         L2分片环
+     * @param generationTracker 命名空间代数，为null时清空缓存按前缀扫描删除
+     */
+    public BatchRedisCacheManager(RedisShardRing shardRing, RedisCacheConfiguration defaultCacheConfiguration,
+                                  CacheGenerationTracker generationTracker) {
+        super(shardRing.size() > 1
+                        ? new ShardedRedisCacheWriter(shardRing)
+                        : RedisCacheWriter.nonLockingRedisCacheWriter(shardRing.connectionFactory(0)),
+                defaultCacheConfiguration);
+        this.shardRing = shardRing;
+        this.generationTracker = generationTracker;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        return new BatchRedisCache(name, getCacheWriter(),
+                cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration(),
+                shardRing, generationTracker);
+    }
+}
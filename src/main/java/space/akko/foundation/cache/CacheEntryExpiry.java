@@ -0,0 +1,42 @@
+package space.akko.foundation.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+
+/**
+ * L1缓存条目过期策略
+ * 普通值使用常规TTL，空值占位使用较短的TTL
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public class CacheEntryExpiry implements Expiry<Object, Object> {
+
+    private final long valueTtlNanos;
+    private final long nullValueTtlNanos;
+
+    public CacheEntryExpiry(Duration valueTtl, Duration nullValueTtl) {
+        this.valueTtlNanos = valueTtl.toNanos();
+        this.nullValueTtlNanos = nullValueTtl.toNanos();
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return ttlOf(value);
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return ttlOf(value);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    private long ttlOf(Object value) {
+        return CacheTombstone.isTombstone(value) ? nullValueTtlNanos : valueTtlNanos;
+    }
+}
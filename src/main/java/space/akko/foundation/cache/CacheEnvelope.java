@@ -0,0 +1,49 @@
+package space.akko.foundation.cache;
+
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * 预刷新缓存的值包装
+ * 记录写入时间和重新计算耗时，用于XFetch概率提前过期的判断
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Getter
+public class CacheEnvelope implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 缓存值
+     */
+    private Object value;
+
+    /**
+     * 写入时间（毫秒时间戳）
+     */
+    private long createdAt;
+
+    /**
+     * 重新计算耗时（毫秒）
+     */
+    private long computeMillis;
+
+    public CacheEnvelope() {
+    }
+
+    public CacheEnvelope(Object value, long computeMillis) {
+        this.value = value;
+        this.createdAt = System.currentTimeMillis();
+        this.computeMillis = computeMillis;
+    }
+
+    /**
+     * 取出原始缓存值，非包装对象原样返回
+     */
+    public static Object unwrap(Object value) {
+        return value instanceof CacheEnvelope envelope ? envelope.getValue() : value;
+    }
+}
@@ -0,0 +1,76 @@
+package space.akko.foundation.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存清除策略
+ * 事务中的清除推迟到事务提交之后执行（回滚时不清除），避免并发读取在提交前用旧数据回填缓存；
+ * 可选在提交后延迟一段时间再清除一次（延迟双删），覆盖提交前已开始、提交后才回填的读取
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class CacheEvictionPolicy implements DisposableBean {
+
+    private final long doubleDeleteDelayMillis;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param doubleDeleteDelay 第二次清除的延迟，为0时不启用延迟双删
+     */
+    public CacheEvictionPolicy(Duration doubleDeleteDelay) {
+        this.doubleDeleteDelayMillis = doubleDeleteDelay.toMillis();
+        this.scheduler = doubleDeleteDelayMillis > 0
+                ? Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "cache-double-delete");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * 执行清除：存在事务同步时在提交后执行，否则立即执行
+     */
+    public void evict(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(eviction);
+                }
+            });
+            return;
+        }
+        evictNow(eviction);
+    }
+
+    private void evictNow(Runnable eviction) {
+        eviction.run();
+        if (scheduler != null) {
+            scheduler.schedule(() -> {
+                try {
+                    eviction.run();
+                } catch (Exception e) {
+                    log.warn("延迟双删失败: {}", e.getMessage());
+                }
+            }, doubleDeleteDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package space.akko.foundation.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import space.akko.foundation.constant.CacheConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存命名空间代数
+ * 每个缓存在Redis中有一个代数计数器，L2键前缀中包含当前代数（{cacheName}::{generation}::），
+ * 清空缓存只需INCR计数器，旧代数的键依靠TTL自然过期。
+ * 本地保存已知代数，后台定期批量读取，发现其他节点清空时通知监听器（清空本地L1）
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class CacheGenerationTracker implements CacheKeyPrefix, DisposableBean {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private final Map<String, List<Runnable>> listeners = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller;
+
+    public CacheGenerationTracker(RedisConnectionFactory connectionFactory, Duration pollInterval) {
+        this.connectionFactory = connectionFactory;
+        this.poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-generation-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = pollInterval.toMillis();
+        poller.scheduleWithFixedDelay(this::poll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * L2键前缀，包含缓存当前代数
+     */
+    @Override
+    public String compute(String cacheName) {
+        return cacheName + SEPARATOR + current(cacheName) + SEPARATOR;
+    }
+
+    /**
+     * 缓存当前代数，首次使用时从Redis读取；之后始终返回已知的最新代数，Redis不可用时也不回退
+     *
+     * @throws RuntimeException 尚未读取过代数且Redis不可用，本次L2操作按失败处理
+     */
+    public long current(String cacheName) {
+        Long generation = generations.get(cacheName);
+        if (generation != null) {
+            return generation;
+        }
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            long loaded = parse(connection.stringCommands().get(keyOf(cacheName)));
+            generations.putIfAbsent(cacheName, loaded);
+            return generations.get(cacheName);
+        } catch (RuntimeException e) {
+            // 不能退回0代：0代下可能仍有清空前写入的旧数据
+            log.debug("读取缓存代数失败: cache={}, error={}", cacheName, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * 递增代数（清空缓存）
+     */
+    public long increment(String cacheName) {
+        Long generation;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            generation = connection.stringCommands().incr(keyOf(cacheName));
+        }
+        long next = generation != null ? generation : current(cacheName) + 1;
+        generations.merge(cacheName, next, Math::max);
+        log.debug("缓存代数递增: cache={}, generation={}", cacheName, next);
+        return next;
+    }
+
+    /**
+     * 注册其他节点清空缓存时的回调
+     */
+    public void addListener(String cacheName, Runnable listener) {
+        listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * 批量读取已知缓存的代数，发现变化时通知监听器
+     */
+    private void poll() {
+        if (generations.isEmpty()) {
+            return;
+        }
+        List<String> cacheNames = new ArrayList<>(generations.keySet());
+        byte[][] keys = cacheNames.stream().map(CacheGenerationTracker::keyOf).toArray(byte[][]::new);
+
+        List<byte[]> values;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            values = connection.stringCommands().mGet(keys);
+        } catch (Exception e) {
+            log.debug("读取缓存代数失败: {}", e.getMessage());
+            return;
+        }
+        if (values == null) {
+            return;
+        }
+
+        for (int i = 0; i < cacheNames.size(); i++) {
+            String cacheName = cacheNames.get(i);
+            long latest = parse(values.get(i));
+            Long previous = generations.get(cacheName);
+            if (previous != null && latest > previous && generations.replace(cacheName, previous, latest)) {
+                log.info("缓存已被其他节点清空: cache={}, generation={} -> {}", cacheName, previous, latest);
+                listeners.getOrDefault(cacheName, List.of()).forEach(Runnable::run);
+            }
+        }
+    }
+
+    private static byte[] keyOf(String cacheName) {
+        return (CacheConstants.CACHE_GENERATION_KEY_PREFIX + cacheName).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long parse(byte[] value) {
+        return value != null ? Long.parseLong(new String(value, StandardCharsets.UTF_8)) : 0L;
+    }
+
+    @Override
+    public void destroy() {
+        poller.shutdownNow();
+    }
+}
@@ -0,0 +1,369 @@
+package space.akko.foundation.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Policy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 缓存内容查看
+ * 按缓存层级（Caffeine / 堆外 / Redis）统计条目数和估算字节数、采样键、查看单个条目，
+ * 多级缓存分别查看L1和L2，采样和匹配的键包括固定的热点键。Redis层只扫描当前代数的键，扫描数量受上限约束。
+ * 查看条目时不影响L1的命中统计、淘汰顺序和前置缓存。
+ * 管理接口传入的键均为字符串，L1中按 {@code String.valueOf(key)} 匹配原始键
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInspector {
+
+    /**
+     * 估算字节数时采样的条目数
+     */
+    private static final int SIZE_SAMPLE = 50;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 单次统计或匹配时最多扫描的Redis键数量
+     */
+    @Value("${platform.cache.admin.scan-limit:10000}")
+    private int scanLimit;
+
+    /**
+     * 缓存概况
+     */
+    public CacheSummary summarize(Cache cache) {
+        if (cache instanceof MultiLevelCache multiLevelCache) {
+            return new CacheSummary(cache.getName(),
+                    summarizeLevel(multiLevelCache.getL1Cache()),
+                    summarizeLevel(multiLevelCache.getL2Cache()),
+                    multiLevelCache.getPinnedKeys().size());
+        }
+        return new CacheSummary(cache.getName(), summarizeLevel(cache), null, 0);
+    }
+
+    /**
+     * 采样匹配的键（L1和L2合并去重）
+     *
+     * @param pattern glob模式，支持 {@code *} 和 {@code ?}
+     */
+    public List<String> sampleKeys(Cache cache, String pattern, int limit) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (Object key : matchLocalKeys(pinnedKeysOf(cache), pattern, limit)) {
+            keys.add(String.valueOf(key));
+        }
+        for (Cache level : levelsOf(cache)) {
+            for (Object key : findKeys(level, pattern, limit - keys.size())) {
+                keys.add(String.valueOf(key));
+            }
+            if (keys.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * 查看单个条目在各层级的状态
+     */
+    public CacheEntryInfo inspect(Cache cache, String key) {
+        List<LevelEntry> levels = new ArrayList<>();
+        boolean pinned = false;
+        if (cache instanceof MultiLevelCache multiLevelCache) {
+            levels.add(inspectLevel("l1", multiLevelCache.getL1Cache(), key));
+            levels.add(inspectLevel("l2", multiLevelCache.getL2Cache(), key));
+            pinned = multiLevelCache.getPinnedKeys().stream().anyMatch(k -> String.valueOf(k).equals(key));
+        } else {
+            levels.add(inspectLevel("l1", cache, key));
+        }
+        return new CacheEntryInfo(cache.getName(), key, pinned, levels);
+    }
+
+    /**
+     * 查找匹配模式的原始键，用于按模式清除：L1返回原始键对象，Redis返回字符串键
+     * （字符串键与原始键在Redis中映射为同一个键）
+     */
+    public Set<Object> matchKeys(Cache cache, String pattern, int limit) {
+        Set<Object> keys = new LinkedHashSet<>(matchLocalKeys(pinnedKeysOf(cache), pattern, limit));
+        for (Cache level : levelsOf(cache)) {
+            keys.addAll(findKeys(level, pattern, limit - keys.size()));
+            if (keys.size() >= limit) {
+                break;
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 单个键在各层级中的原始键：字符串键本身，以及L1和固定的热点键中字符串形式相同的原始键
+     */
+    public Set<Object> resolveKeys(Cache cache, String key) {
+        Set<Object> keys = new LinkedHashSet<>();
+        keys.add(key);
+        for (Object pinnedKey : pinnedKeysOf(cache)) {
+            if (String.valueOf(pinnedKey).equals(key)) {
+                keys.add(pinnedKey);
+            }
+        }
+        for (Cache level : levelsOf(cache)) {
+            Object localKey = resolveLocalKey(level, key);
+            if (localKey != null) {
+                keys.add(localKey);
+            }
+        }
+        return keys;
+    }
+
+    private List<Cache> levelsOf(Cache cache) {
+        if (cache instanceof MultiLevelCache multiLevelCache) {
+            return List.of(multiLevelCache.getL1Cache(), multiLevelCache.getL2Cache());
+        }
+        return List.of(cache);
+    }
+
+    private static Set<Object> pinnedKeysOf(Cache cache) {
+        return cache instanceof MultiLevelCache multiLevelCache ? multiLevelCache.getPinnedKeys() : Set.of();
+    }
+
+    private LevelSummary summarizeLevel(Cache level) {
+        if (level instanceof CaffeineCache caffeineCache) {
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+            long entries = nativeCache.estimatedSize();
+            return new LevelSummary("caffeine", entries, estimateBytes(nativeCache.asMap().values(), entries), false);
+        }
+        if (level instanceof OffHeapCache offHeapCache) {
+            return new LevelSummary("off-heap", offHeapCache.getEntryCount(), offHeapCache.getUsedBytes(), false);
+        }
+        if (level instanceof BatchRedisCache redisCache) {
+            List<String> keys = redisCache.scanKeys("*", scanLimit);
+            List<Long> sizes = redisCache.getValueSizes(keys.subList(0, Math.min(SIZE_SAMPLE, keys.size())));
+            long sampled = sizes.stream().mapToLong(Long::longValue).sum();
+            long bytes = sizes.isEmpty() ? 0 : sampled * keys.size() / sizes.size();
+            return new LevelSummary("redis", (long) keys.size(), bytes, keys.size() >= scanLimit);
+        }
+        return new LevelSummary(level.getClass().getSimpleName(), null, null, false);
+    }
+
+    private List<?> findKeys(Cache level, String pattern, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        if (level instanceof BatchRedisCache redisCache) {
+            // SCAN匹配在Redis端完成，扫描上限之外的键不返回
+            return redisCache.scanKeys(pattern, limit);
+        }
+        Iterable<?> keys;
+        if (level instanceof CaffeineCache caffeineCache) {
+            keys = caffeineCache.getNativeCache().asMap().keySet();
+        } else if (level instanceof OffHeapCache offHeapCache) {
+            keys = offHeapCache.keys(Integer.MAX_VALUE);
+        } else {
+            return List.of();
+        }
+        return matchLocalKeys(keys, pattern, limit);
+    }
+
+    private static List<Object> matchLocalKeys(Iterable<?> keys, String pattern, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        Pattern regex = globToRegex(pattern);
+        List<Object> matched = new ArrayList<>();
+        for (Object key : keys) {
+            if (regex.matcher(String.valueOf(key)).matches()) {
+                matched.add(key);
+                if (matched.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return matched;
+    }
+
+    private LevelEntry inspectLevel(String levelName, Cache level, String key) {
+        if (level instanceof BatchRedisCache redisCache) {
+            long ttl = redisCache.getTimeToLive(key);
+            if (ttl == -2L) {
+                return LevelEntry.absent(levelName, "redis");
+            }
+            Object value = unwrapValue(redisCache.get(key));
+            Long bytes = redisCache.getValueSizes(List.of(key)).get(0);
+            return new LevelEntry(levelName, "redis", true, typeOf(value), ageOf(value), ttl >= 0 ? ttl : null, bytes);
+        }
+
+        Object localKey = resolveLocalKey(level, key);
+        if (localKey == null) {
+            return LevelEntry.absent(levelName, typeNameOf(level));
+        }
+        if (level instanceof CaffeineCache caffeineCache) {
+            // 静默读取，不影响命中统计和淘汰顺序
+            Policy.CacheEntry<Object, Object> entry =
+                    caffeineCache.getNativeCache().policy().getEntryIfPresentQuietly(localKey);
+            if (entry == null) {
+                return LevelEntry.absent(levelName, "caffeine");
+            }
+            Long ttl = entry.expiresAt() != Long.MAX_VALUE ? entry.expiresAfter().toMillis() : null;
+            return new LevelEntry(levelName, "caffeine", true, typeOf(entry.getValue()), ageOf(entry.getValue()),
+                    ttl, serializedSize(entry.getValue()));
+        }
+        OffHeapCache offHeapCache = (OffHeapCache) level;
+        Duration ttl = offHeapCache.getExpiresAfter(localKey);
+        if (ttl == null) {
+            return LevelEntry.absent(levelName, "off-heap");
+        }
+        // 不经过get，避免写入前置缓存和改变LRU顺序
+        Object value = offHeapCache.peek(localKey);
+        return new LevelEntry(levelName, "off-heap", true, typeOf(value), ageOf(value), ttl.toMillis(),
+                serializedSize(value));
+    }
+
+    /**
+     * 按字符串形式在本地缓存中查找原始键
+     */
+    private Object resolveLocalKey(Cache level, String key) {
+        Iterable<?> keys;
+        if (level instanceof CaffeineCache caffeineCache) {
+            keys = caffeineCache.getNativeCache().asMap().keySet();
+        } else if (level instanceof OffHeapCache offHeapCache) {
+            keys = offHeapCache.keys(Integer.MAX_VALUE);
+        } else {
+            return null;
+        }
+        for (Object candidate : keys) {
+            if (String.valueOf(candidate).equals(key)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按采样条目的JSON序列化大小估算总字节数（近似值，不等于实际堆占用）
+     */
+    private Long estimateBytes(Iterable<Object> values, long entries) {
+        long sampledBytes = 0;
+        int sampled = 0;
+        Iterator<Object> iterator = values.iterator();
+        while (iterator.hasNext() && sampled < SIZE_SAMPLE) {
+            Long size = serializedSize(iterator.next());
+            if (size != null) {
+                sampledBytes += size;
+                sampled++;
+            }
+        }
+        return sampled > 0 ? sampledBytes * entries / sampled : 0L;
+    }
+
+    private Long serializedSize(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return (long) objectMapper.writeValueAsBytes(value).length;
+        } catch (Exception e) {
+            log.debug("缓存值无法序列化，跳过大小估算: type={}", value.getClass().getName());
+            return null;
+        }
+    }
+
+    private static Object unwrapValue(Cache.ValueWrapper wrapper) {
+        return wrapper != null ? wrapper.get() : null;
+    }
+
+    /**
+     * 条目写入至今的时长，仅预刷新包装和空值占位记录了写入时间
+     */
+    private static Long ageOf(Object storeValue) {
+        long createdAt = 0L;
+        if (storeValue instanceof CacheEnvelope envelope) {
+            createdAt = envelope.getCreatedAt();
+        } else if (storeValue instanceof CacheTombstone tombstone) {
+            createdAt = tombstone.getCreatedAt();
+        }
+        return createdAt > 0 ? System.currentTimeMillis() - createdAt : null;
+    }
+
+    private static String typeOf(Object storeValue) {
+        if (CacheTombstone.isTombstone(storeValue)) {
+            return "tombstone";
+        }
+        Object value = CacheEnvelope.unwrap(storeValue);
+        return value != null ? value.getClass().getSimpleName() : null;
+    }
+
+    private static String typeNameOf(Cache level) {
+        if (level instanceof CaffeineCache) {
+            return "caffeine";
+        }
+        return level instanceof OffHeapCache ? "off-heap" : level.getClass().getSimpleName();
+    }
+
+    private static Pattern globToRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : Objects.requireNonNullElse(glob, "*").toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * 缓存概况
+     *
+     * @param pinnedKeys 固定在受保护L1分区中的热点键数量
+     */
+    public record CacheSummary(String name, LevelSummary l1, LevelSummary l2, int pinnedKeys) {
+    }
+
+    /**
+     * 单个层级的概况
+     *
+     * @param entries        条目数（Caffeine为估算值）
+     * @param estimatedBytes 估算字节数（Caffeine按序列化大小采样估算，Redis按STRLEN采样估算）
+     * @param truncated      Redis键数量达到扫描上限，条目数不完整
+     */
+    public record LevelSummary(String type, Long entries, Long estimatedBytes, boolean truncated) {
+    }
+
+    /**
+     * 单个条目的状态
+     */
+    public record CacheEntryInfo(String cacheName, String key, boolean pinned, List<LevelEntry> levels) {
+    }
+
+    /**
+     * 条目在某一层级中的状态
+     *
+     * @param valueType 值类型，空值占位为 "tombstone"
+     * @param ageMillis 写入至今的毫秒数，未记录写入时间时为null
+     * @param ttlMillis 剩余存活毫秒数，未设置过期时为null
+     * @param bytes     序列化后的字节数
+     */
+    public record LevelEntry(String level, String type, boolean present, String valueType,
+                             Long ageMillis, Long ttlMillis, Long bytes) {
+
+        static LevelEntry absent(String level, String type) {
+            return new LevelEntry(level, type, false, null, null, null, null);
+        }
+    }
+}
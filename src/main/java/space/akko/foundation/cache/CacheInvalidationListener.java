@@ -0,0 +1,253 @@
+package space.akko.foundation.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import space.akko.foundation.constant.CacheConstants;
+import space.akko.foundation.utils.CacheUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 数据库驱动的缓存失效监听器
+ * 通过 Postgres LISTEN 接收触发器发出的变更通知（见 V1.5.0 迁移脚本），转换为对应缓存的定向清除，
+ * 不依赖写入路径上的 @CacheEvict，Flyway脚本、批量SQL和其他服务的写入同样生效。
+ * 通知带有发起会话的application_name：本集群其他节点发起的变更只清除本地L1，L2由发起节点清除，
+ * 一次变更只递增一次L2代数；本节点和集群外（迁移脚本、手工SQL）发起的变更清除两级缓存。
+ * 单条通知处理失败时记录日志后继续；连接断开期间可能丢失通知，重连后清空相关缓存
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "platform.cache.db-invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationListener implements SmartLifecycle {
+
+    /**
+     * 通知通道
+     */
+    public static final String CHANNEL = "cache_invalidation";
+
+    private static final List<String> AFFECTED_CACHES = List.of(
+            CacheConstants.USER_CACHE, CacheConstants.ROLE_CACHE,
+            CacheConstants.DICTIONARY_CACHE, CacheConstants.CONFIG_CACHE);
+
+    private final DataSource dataSource;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${platform.cache.db-invalidation.poll-timeout:5s}")
+    private Duration pollTimeout;
+
+    @Value("${platform.cache.db-invalidation.reconnect-delay:5s}")
+    private Duration reconnectDelay;
+
+    /**
+     * 本节点数据库连接的application_name，用于识别本节点发起的变更
+     */
+    @Value("${platform.cache.db-invalidation.node-name:}")
+    private String nodeName;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        log.info("启用数据库缓存失效监听，通道: {}", CHANNEL);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 监听循环：保持一条专用连接，断开后重连
+     */
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnecting) {
+                    // 断开期间的通知已丢失（包括本节点发起的变更），清空两级缓存
+                    log.info("缓存失效监听已重连，清空相关缓存");
+                    AFFECTED_CACHES.forEach(cacheName -> clearCache(cacheName, false));
+                }
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        try {
+                            handle(notifications);
+                        } catch (RuntimeException e) {
+                            log.warn("处理缓存失效通知失败，继续监听: {}", e.getMessage(), e);
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("缓存失效监听连接异常，{}后重连: {}", reconnectDelay, e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 合并一批通知后执行清除：同一缓存被清空时不再逐键清除
+     * 本集群其他节点发起的变更只清除本地L1（发起节点已清除L2），
+     * 本节点或集群外发起的变更清除两级缓存
+     */
+    private void handle(PGNotification[] notifications) {
+        Invalidation full = new Invalidation();
+        Invalidation local = new Invalidation();
+
+        for (PGNotification notification : notifications) {
+            try {
+                JsonNode payload = objectMapper.readTree(notification.getParameter());
+                collect(payload, isPeer(payload.path("source").asText()) ? local : full);
+            } catch (Exception e) {
+                log.warn("无法处理缓存失效通知: {}, error={}", notification.getParameter(), e.getMessage());
+            }
+        }
+
+        full.clears.forEach(cacheName -> clearCache(cacheName, false));
+        full.evictions.forEach((cacheName, keys) -> {
+            if (!full.clears.contains(cacheName)) {
+                evictKeys(cacheName, keys, false);
+            }
+        });
+        local.clears.forEach(cacheName -> {
+            if (!full.clears.contains(cacheName)) {
+                clearCache(cacheName, true);
+            }
+        });
+        local.evictions.forEach((cacheName, keys) -> {
+            if (!full.clears.contains(cacheName) && !local.clears.contains(cacheName)) {
+                evictKeys(cacheName, keys, true);
+            }
+        });
+        log.debug("处理缓存失效通知: count={}, clears={}, evictions={}, localClears={}, localEvictions={}",
+                notifications.length, full.clears, full.evictions, local.clears, local.evictions);
+    }
+
+    private void collect(JsonNode payload, Invalidation invalidation) {
+        String table = payload.path("table").asText();
+        switch (table) {
+            case "user_profile" -> invalidation.addKey(CacheConstants.USER_CACHE, payload.path("id"));
+            case "user_role_mapping" -> {
+                invalidation.addKey(CacheConstants.USER_CACHE, payload.path("userId"));
+                invalidation.addKey(CacheConstants.ROLE_CACHE, payload.path("roleId"));
+            }
+            // 角色编码和权限包含在用户详情中，角色树键无法按ID定位
+            case "role_definition" -> {
+                invalidation.clears.add(CacheConstants.ROLE_CACHE);
+                invalidation.clears.add(CacheConstants.USER_CACHE);
+            }
+            case "role_permission_mapping" -> {
+                invalidation.addKey(CacheConstants.ROLE_CACHE, payload.path("roleId"));
+                invalidation.clears.add(CacheConstants.USER_CACHE);
+            }
+            case "dictionary_item" -> invalidation.clears.add(CacheConstants.DICTIONARY_CACHE);
+            case "config_system" -> invalidation.clears.add(CacheConstants.CONFIG_CACHE);
+            default -> log.debug("忽略缓存失效通知: {}", table);
+        }
+    }
+
+    /**
+     * 是否由本集群的其他节点发起（连接的application_name带本应用前缀且不是本节点）
+     */
+    private boolean isPeer(String source) {
+        return !source.equals(nodeName) && source.startsWith(applicationName + "@");
+    }
+
+    private void evictKeys(String cacheName, Set<Object> keys, boolean localOnly) {
+        try {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (!localOnly) {
+                CacheUtils.evictAll(cache, keys);
+            } else if (cache instanceof MultiLevelCache multiLevelCache) {
+                multiLevelCache.evictLocal(keys);
+            }
+        } catch (RuntimeException e) {
+            log.warn("缓存失效清除失败: cache={}, error={}", cacheName, e.getMessage());
+        }
+    }
+
+    private void clearCache(String cacheName, boolean localOnly) {
+        try {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (!localOnly) {
+                if (cache != null) {
+                    cache.clear();
+                }
+            } else if (cache instanceof MultiLevelCache multiLevelCache) {
+                multiLevelCache.clearLocal();
+            }
+        } catch (RuntimeException e) {
+            log.warn("缓存失效清空失败: cache={}, error={}", cacheName, e.getMessage());
+        }
+    }
+
+    /**
+     * 一批通知合并后的清除操作
+     */
+    private static final class Invalidation {
+
+        private final Map<String, Set<Object>> evictions = new HashMap<>();
+        private final Set<String> clears = new LinkedHashSet<>();
+
+        void addKey(String cacheName, JsonNode id) {
+            if (id.isNull() || id.isMissingNode()) {
+                return;
+            }
+            evictions.computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).add(Long.valueOf(id.asText()));
+        }
+    }
+}
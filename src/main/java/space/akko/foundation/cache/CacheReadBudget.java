@@ -0,0 +1,170 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * L2读取时间预算
+ * L2读取通过 {@link Cache#retrieve(Object)}（Lettuce异步命令）发出，调用线程最多等待预算时间；
+ * 超时抛出 {@link BudgetExceededException}，按未命中处理，调用方随后执行加载。
+ * 超时只说明本次等待超过预算，不计入熔断器的失败统计（Redis故障表现为命令失败，照常计入）。
+ * 可选对冲读取：主节点在对冲延迟内未返回、或在此之前已失败时，向只读副本再发一次读取，
+ * 取先成功返回的结果，两次读取都失败时才失败
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class CacheReadBudget implements DisposableBean {
+
+    private final long timeoutMillis;
+    private final long hedgeDelayMillis;
+
+    /**
+     * 对冲读取的定时线程，未配置副本时为null
+     */
+    private final ScheduledExecutorService hedgeScheduler;
+
+    /**
+     * 只读副本，未配置时为null（不对冲）
+     */
+    private final RedisConnectionFactory replicaFactory;
+    private final RedisCacheWriter replicaWriter;
+    private final Counter timeoutCounter;
+    private final Counter hedgeCounter;
+
+    /**
+     * @param timeout        单次L2读取的等待上限
+     * @param hedgeDelay     对冲读取的延迟
+     * @param replicaFactory 对冲读取的只读副本，为null时不对冲；由本对象负责关闭
+     */
+    public CacheReadBudget(Duration timeout, Duration hedgeDelay, RedisConnectionFactory replicaFactory,
+                           MeterRegistry meterRegistry) {
+        this.timeoutMillis = timeout.toMillis();
+        this.hedgeDelayMillis = hedgeDelay.toMillis();
+        this.replicaFactory = replicaFactory;
+        this.replicaWriter = replicaFactory != null ? RedisCacheWriter.nonLockingRedisCacheWriter(replicaFactory) : null;
+        this.hedgeScheduler = replicaFactory != null
+                ? Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "cache-read-hedge");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+        this.timeoutCounter = Counter.builder("cache.l2.read.timeout")
+                .description("超过时间预算的L2读取次数")
+                .register(meterRegistry);
+        this.hedgeCounter = Counter.builder("cache.l2.read.hedged")
+                .description("向副本发出的对冲读取次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 在时间预算内读取L2
+     *
+     * @throws BudgetExceededException 超过时间预算
+     */
+    public Cache.ValueWrapper read(Cache l2Cache, Object key) {
+        if (!(l2Cache instanceof BatchRedisCache batchCache) || !batchCache.supportsAsyncRetrieve()) {
+            // 不支持异步读取的缓存按同步方式读取
+            return l2Cache.get(key);
+        }
+        CompletableFuture<Cache.ValueWrapper> primary = batchCache.retrieve(key);
+        CompletableFuture<Cache.ValueWrapper> result = replicaWriter != null
+                ? hedge(primary, () -> batchCache.retrieveFrom(replicaWriter, key))
+                : primary;
+
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeoutCounter.increment();
+            log.debug("L2读取超时，按未命中处理: cache={}, key={}", l2Cache.getName(), key);
+            throw new BudgetExceededException("L2 read exceeded " + timeoutMillis + "ms");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BudgetExceededException("L2 read interrupted");
+        }
+    }
+
+    /**
+     * 对冲读取：主节点在对冲延迟内未完成、或已失败时读取副本，取先成功的结果，两次都失败时以后一个异常失败
+     */
+    CompletableFuture<Cache.ValueWrapper> hedge(CompletableFuture<Cache.ValueWrapper> primary,
+                                                Supplier<CompletableFuture<Cache.ValueWrapper>> replicaRead) {
+        CompletableFuture<Cache.ValueWrapper> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicBoolean hedged = new AtomicBoolean();
+        BiConsumer<Cache.ValueWrapper, Throwable> settle = (value, e) -> {
+            if (e == null) {
+                result.complete(value);
+            } else if (failures.incrementAndGet() == 2) {
+                result.completeExceptionally(e);
+            }
+        };
+        Runnable sendHedge = () -> {
+            if (result.isDone() || !hedged.compareAndSet(false, true)) {
+                return;
+            }
+            hedgeCounter.increment();
+            CompletableFuture<Cache.ValueWrapper> replica;
+            try {
+                replica = replicaRead.get();
+            } catch (RuntimeException e) {
+                replica = CompletableFuture.failedFuture(e);
+            }
+            replica.whenComplete(settle);
+        };
+
+        primary.whenComplete((value, e) -> {
+            if (e != null) {
+                // 主节点已失败，不等对冲延迟
+                sendHedge.run();
+            }
+            settle.accept(value, e);
+        });
+        if (!primary.isDone()) {
+            hedgeScheduler.schedule(sendHedge, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (hedgeScheduler != null) {
+            hedgeScheduler.shutdownNow();
+        }
+        if (replicaFactory instanceof DisposableBean disposable) {
+            disposable.destroy();
+        }
+    }
+
+    /**
+     * L2读取超过时间预算，按未命中处理，不计入熔断器的失败统计
+     */
+    public static class BudgetExceededException extends QueryTimeoutException {
+
+        public BudgetExceededException(String message) {
+            super(message);
+        }
+    }
+}
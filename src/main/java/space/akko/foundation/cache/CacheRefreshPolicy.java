@@ -0,0 +1,109 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存预刷新策略
+ * L1：条目存活超过TTL的指定比例后异步重新加载，旧值继续提供服务
+ * L2：按XFetch算法概率提前过期，避免多个节点在同一时刻集中重新计算
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class CacheRefreshPolicy implements DisposableBean {
+
+    private final Set<String> cacheNames;
+    private final double refreshFraction;
+    private final Duration l1Ttl;
+    private final Duration l2Ttl;
+    private final double beta;
+    private final MeterRegistry meterRegistry;
+
+    @Getter
+    private final Executor executor;
+
+    public CacheRefreshPolicy(Set<String> cacheNames, double refreshFraction, Duration l1Ttl, Duration l2Ttl,
+                              double beta, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.cacheNames = cacheNames;
+        this.refreshFraction = refreshFraction;
+        this.l1Ttl = l1Ttl;
+        this.l2Ttl = l2Ttl;
+        this.beta = beta;
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        // 队列满时直接丢弃刷新任务，旧值仍然有效
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "cache-refresh-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * 指定缓存是否启用预刷新
+     */
+    public boolean appliesTo(String cacheName) {
+        return cacheNames.contains(cacheName);
+    }
+
+    /**
+     * L1条目是否已超过TTL的刷新比例，支持Caffeine和堆外L1
+     */
+    public boolean shouldRefreshL1(Cache l1Cache, Object key) {
+        Optional<Duration> remaining;
+        if (l1Cache instanceof CaffeineCache caffeineCache) {
+            remaining = caffeineCache.getNativeCache().policy().expireVariably()
+                    .flatMap(expiry -> expiry.getExpiresAfter(key));
+        } else if (l1Cache instanceof OffHeapCache offHeapCache) {
+            remaining = Optional.ofNullable(offHeapCache.getExpiresAfter(key));
+        } else {
+            return false;
+        }
+        return remaining
+                .map(duration -> duration.toMillis() <= l1Ttl.toMillis() * (1 - refreshFraction))
+                .orElse(false);
+    }
+
+    /**
+     * L2条目是否按XFetch提前过期：now - delta * beta * ln(rand) >= expiry
+     */
+    public boolean shouldRefreshL2(Object storeValue) {
+        if (!(storeValue instanceof CacheEnvelope envelope)) {
+            return false;
+        }
+        long expiry = envelope.getCreatedAt() + l2Ttl.toMillis();
+        double random = ThreadLocalRandom.current().nextDouble(Double.MIN_VALUE, 1.0);
+        double earlyMillis = -envelope.getComputeMillis() * beta * Math.log(random);
+        return System.currentTimeMillis() + earlyMillis >= expiry;
+    }
+
+    /**
+     * 记录一次预刷新
+     */
+    public void recordRefresh(String cacheName, String trigger) {
+        meterRegistry.counter("cache.refresh.ahead", "cache", cacheName, "trigger", trigger).increment();
+    }
+
+    @Override
+    public void destroy() {
+        ((ThreadPoolExecutor) executor).shutdownNow();
+    }
+}
@@ -0,0 +1,36 @@
+package space.akko.foundation.cache;
+
+import lombok.Getter;
+import org.springframework.cache.support.NullValue;
+
+import java.io.Serializable;
+
+/**
+ * 缓存空值占位对象（墓碑）
+ * 用于标记"数据不存在"，在L1和L2中以较短的TTL保存，避免对不存在数据的重复查询穿透到数据库
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Getter
+public class CacheTombstone implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 创建时间（毫秒时间戳）
+     * 同时保证该对象能够被JSON序列化器正常写入Redis
+     */
+    private long createdAt;
+
+    public CacheTombstone() {
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 判断缓存值是否为空值占位
+     */
+    public static boolean isTombstone(Object value) {
+        return value instanceof CacheTombstone || value instanceof NullValue;
+    }
+}
@@ -0,0 +1,120 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 缓存预热
+ * 应用启动完成后并行执行所有 {@link CacheWarmer}，预热完成或超时前就绪状态保持为 REFUSING_TRAFFIC
+ * （Spring Boot 在 ApplicationReadyEvent 监听器返回后才切换为 ACCEPTING_TRAFFIC）
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheWarmUpListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final List<CacheWarmer> cacheWarmers;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${platform.cache.warm-up.enabled:true}")
+    private boolean warmUpEnabled;
+
+    @Value("${platform.cache.warm-up.timeout:30s}")
+    private Duration timeout;
+
+    @Value("${platform.cache.warm-up.threads:4}")
+    private int threads;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!warmUpEnabled || cacheWarmers.isEmpty()) {
+            log.debug("缓存预热已禁用或没有预热任务");
+            return;
+        }
+
+        AvailabilityChangeEvent.publish(event.getApplicationContext(), ReadinessState.REFUSING_TRAFFIC);
+        log.info("开始缓存预热，任务数: {}, 超时时间: {}", cacheWarmers.size(), timeout);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, cacheWarmers.size()), r -> {
+            Thread thread = new Thread(r, "cache-warm-up-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        Map<String, CompletableFuture<Duration>> futures = new LinkedHashMap<>();
+        for (CacheWarmer warmer : cacheWarmers) {
+            futures.put(warmer.getName(), CompletableFuture.supplyAsync(() -> runWarmer(warmer), executor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("缓存预热超时，未完成的任务将在后台继续执行");
+        } catch (ExecutionException e) {
+            // 单个任务的异常已在runWarmer中记录
+            log.debug("缓存预热存在失败的任务");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("缓存预热被中断");
+        } finally {
+            executor.shutdown();
+        }
+
+        futures.forEach((name, future) -> {
+            if (!future.isDone()) {
+                log.warn("缓存预热未完成: {}", name);
+                meterRegistry.counter("cache.warmup.timeout", "cache", name).increment();
+            }
+        });
+        log.info("缓存预热结束，总耗时: {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * 执行单个预热任务并记录耗时
+     */
+    private Duration runWarmer(CacheWarmer warmer) {
+        long start = System.nanoTime();
+        String result = "success";
+        try {
+            warmer.warmUp();
+        } catch (Exception e) {
+            result = "failure";
+            log.warn("缓存预热失败: {}, error: {}", warmer.getName(), e.getMessage());
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        Timer.builder("cache.warmup.duration")
+                .description("缓存预热耗时")
+                .tag("cache", warmer.getName())
+                .tag("result", result)
+                .register(meterRegistry)
+                .record(duration);
+        log.info("缓存预热完成: {}, 结果: {}, 耗时: {}ms", warmer.getName(), result, duration.toMillis());
+        return duration;
+    }
+}
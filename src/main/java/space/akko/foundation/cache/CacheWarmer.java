@@ -0,0 +1,21 @@
+package space.akko.foundation.cache;
+
+/**
+ * 缓存预热任务
+ * 各模块实现该接口并注册为Bean，应用启动后由预热流程并行执行
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public interface CacheWarmer {
+
+    /**
+     * 预热任务名称，用于日志和指标
+     */
+    String getName();
+
+    /**
+     * 加载数据并写入缓存（应通过缓存读取路径写入，保证L1和L2同时填充）
+     */
+    void warmUp();
+}
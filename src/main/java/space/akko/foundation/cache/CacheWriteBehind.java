@@ -0,0 +1,222 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * L2异步写入（write-behind）
+ * 多级缓存的L2写入先进入有界的待写表，同一个键的多次写入合并为最后一次；
+ * 后台线程按固定间隔取出待写条目，按缓存分组后以管道批量写入Redis。
+ * 清除操作仍在调用线程同步执行：先取消该键的待写条目，若该键所在批次正在写入则等待其完成，
+ * 保证清除总是落在同一个键之前的写入之后。待写表已满时丢弃新的写入（L1已写入，L2仅少一次回填）
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class CacheWriteBehind implements DisposableBean {
+
+    private final int capacity;
+    private final int batchSize;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    /**
+     * 待写条目：(缓存名, 键) -> 最新的待写值
+     */
+    private final Map<PendingKey, PendingPut> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 正在写入的批次中的键，drainLock保护
+     */
+    private final Set<PendingKey> inFlight = new HashSet<>();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Condition flushed = drainLock.newCondition();
+
+    private final ScheduledExecutorService flusher;
+    private final Counter coalescedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+
+    public CacheWriteBehind(int capacity, int batchSize, Duration flushInterval,
+                            RedisCircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.circuitBreaker = circuitBreaker;
+
+        Gauge.builder("cache.l2.write-behind.pending", pending, Map::size)
+                .description("等待写入L2的条目数")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("cache.l2.write-behind.coalesced")
+                .description("被同一键的后续写入合并的L2写入次数")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("cache.l2.write-behind.dropped")
+                .description("待写表已满时丢弃的L2写入次数")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("cache.l2.write-behind.written")
+                .description("异步写入L2的条目数")
+                .register(meterRegistry);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 加入待写表，同一个键已有待写值时覆盖
+     */
+    public void enqueue(String cacheName, Cache l2Cache, Object key, Object storeValue) {
+        PendingKey pendingKey = new PendingKey(cacheName, key);
+        if (pending.size() >= capacity && !pending.containsKey(pendingKey)) {
+            droppedCounter.increment();
+            return;
+        }
+        if (pending.put(pendingKey, new PendingPut(l2Cache, storeValue)) != null) {
+            coalescedCounter.increment();
+        }
+    }
+
+    /**
+     * 取消键的待写条目，并等待包含该键的写入批次完成；调用方随后同步清除L2
+     */
+    public void cancel(String cacheName, Object key) {
+        PendingKey pendingKey = new PendingKey(cacheName, key);
+        drainLock.lock();
+        try {
+            pending.remove(pendingKey);
+            while (inFlight.contains(pendingKey)) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * 取消缓存的全部待写条目，并等待该缓存正在写入的批次完成；调用方随后同步清空L2
+     */
+    public void cancelAll(String cacheName) {
+        drainLock.lock();
+        try {
+            pending.keySet().removeIf(pendingKey -> pendingKey.cacheName().equals(cacheName));
+            while (inFlight.stream().anyMatch(pendingKey -> pendingKey.cacheName().equals(cacheName))) {
+                flushed.awaitUninterruptibly();
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * 分批写出全部待写条目
+     */
+    private void flush() {
+        try {
+            while (!pending.isEmpty()) {
+                Map<PendingKey, PendingPut> batch = drain();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                try {
+                    write(batch);
+                } finally {
+                    drainLock.lock();
+                    try {
+                        inFlight.clear();
+                        flushed.signalAll();
+                    } finally {
+                        drainLock.unlock();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("L2异步写入失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 取出一批待写条目并标记为写入中（与取消操作互斥）
+     */
+    private Map<PendingKey, PendingPut> drain() {
+        Map<PendingKey, PendingPut> batch = new LinkedHashMap<>();
+        drainLock.lock();
+        try {
+            Iterator<Map.Entry<PendingKey, PendingPut>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                Map.Entry<PendingKey, PendingPut> entry = iterator.next();
+                // 只在值未被并发覆盖时取出，覆盖后的新值留在下一批
+                if (pending.remove(entry.getKey(), entry.getValue())) {
+                    batch.put(entry.getKey(), entry.getValue());
+                }
+            }
+            inFlight.addAll(batch.keySet());
+        } finally {
+            drainLock.unlock();
+        }
+        return batch;
+    }
+
+    /**
+     * 按缓存分组写入L2，Redis缓存使用管道一次写出
+     */
+    private void write(Map<PendingKey, PendingPut> batch) {
+        Map<Cache, Map<Object, Object>> byCache = new LinkedHashMap<>();
+        batch.forEach((pendingKey, put) ->
+                byCache.computeIfAbsent(put.l2Cache(), cache -> new LinkedHashMap<>())
+                        .put(pendingKey.key(), put.storeValue()));
+
+        byCache.forEach((l2Cache, entries) -> {
+            boolean written = circuitBreaker.run(() -> {
+                if (l2Cache instanceof BatchRedisCache batchCache) {
+                    batchCache.putAll(entries);
+                } else {
+                    entries.forEach(l2Cache::put);
+                }
+            });
+            if (written) {
+                writtenCounter.increment(entries.size());
+            }
+            log.debug("L2异步写入: cache={}, count={}, written={}", l2Cache.getName(), entries.size(), written);
+        });
+    }
+
+    /**
+     * 关闭前写出剩余条目
+     */
+    @Override
+    public void destroy() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private record PendingKey(String cacheName, Object key) {
+    }
+
+    private record PendingPut(Cache l2Cache, Object storeValue) {
+    }
+}
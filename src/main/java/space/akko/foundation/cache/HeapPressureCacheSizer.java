@@ -0,0 +1,233 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按堆预算调整L1缓存容量
+ * L1总预算为最大堆的指定比例，按每个缓存配置的份额和估算的条目大小换算为 Caffeine 最大条目数。
+ * 监听老年代的 GC 后使用量阈值通知（{@link MemoryPoolMXBean#setCollectionUsageThreshold}），
+ * 超过阈值时按比例收缩所有L1缓存；后台定期检查 GC 后使用量，压力持续时继续收缩，
+ * 回落到恢复阈值以下时逐步恢复到完整预算。
+ * 构造后由容器调用 {@link #afterPropertiesSet()} 开始监听和定期检查
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class HeapPressureCacheSizer implements NotificationListener, InitializingBean, DisposableBean {
+
+    private final long budgetBytes;
+    private final long entryBytes;
+    private final Map<String, Double> shares;
+    private final double defaultShare;
+    private final long minimumSize;
+    private final double pressureThreshold;
+    private final double recoveryThreshold;
+    private final double shrinkFactor;
+    private final double growFactor;
+    private final double minimumScale;
+    private final MeterRegistry meterRegistry;
+
+    private final List<MemoryPoolMXBean> tenuredPools;
+    private final Map<String, com.github.benmanes.caffeine.cache.Cache<Object, Object>> caches =
+            new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final long checkIntervalMillis;
+
+    /**
+     * 当前容量比例（0, 1]，1表示完整预算
+     */
+    private volatile double scale = 1.0;
+
+    /**
+     * @param heapFraction      L1总预算占最大堆的比例
+     * @param entryBytes        估算的单个条目大小（字节）
+     * @param shares            各缓存的预算份额
+     * @param defaultShare      未配置份额的缓存使用的份额
+     * @param pressureThreshold 老年代 GC 后使用率超过该值时收缩
+     * @param recoveryThreshold 老年代 GC 后使用率低于该值时恢复
+     * @param shrinkFactor      每次收缩后的容量比例
+     * @param growFactor        每次恢复的容量倍数
+     * @param minimumScale      容量比例下限
+     */
+    public HeapPressureCacheSizer(double heapFraction, long entryBytes, Map<String, Double> shares,
+                                  double defaultShare, long minimumSize, double pressureThreshold,
+                                  double recoveryThreshold, double shrinkFactor, double growFactor,
+                                  double minimumScale, Duration checkInterval, MeterRegistry meterRegistry) {
+        this.budgetBytes = (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+        this.entryBytes = Math.max(1, entryBytes);
+        this.shares = shares;
+        this.defaultShare = defaultShare;
+        this.minimumSize = minimumSize;
+        this.pressureThreshold = pressureThreshold;
+        this.recoveryThreshold = recoveryThreshold;
+        this.shrinkFactor = shrinkFactor;
+        this.growFactor = growFactor;
+        this.minimumScale = minimumScale;
+        this.meterRegistry = meterRegistry;
+
+        // 老年代：支持 GC 后使用量阈值的堆内存池
+        this.tenuredPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .filter(MemoryPoolMXBean::isCollectionUsageThresholdSupported)
+                .filter(pool -> pool.getUsage().getMax() > 0)
+                .filter(pool -> isTenured(pool.getName()))
+                .toList();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-heap-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.checkIntervalMillis = checkInterval.toMillis();
+    }
+
+    /**
+     * 设置老年代阈值并注册通知监听、指标和定期检查
+     */
+    @Override
+    public void afterPropertiesSet() {
+        for (MemoryPoolMXBean pool : tenuredPools) {
+            pool.setCollectionUsageThreshold((long) (pool.getUsage().getMax() * pressureThreshold));
+        }
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).addNotificationListener(this, null, null);
+
+        Gauge.builder("cache.l1.heap.scale", this, sizer -> sizer.scale)
+                .description("L1缓存当前容量占完整预算的比例")
+                .register(meterRegistry);
+
+        scheduler.scheduleWithFixedDelay(this::check, checkIntervalMillis, checkIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        log.info("启用L1缓存堆预算: {}MB, 老年代内存池: {}", budgetBytes / (1024 * 1024),
+                tenuredPools.stream().map(MemoryPoolMXBean::getName).toList());
+    }
+
+    /**
+     * 注册L1缓存，立即按当前比例设置最大条目数
+     */
+    public void register(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        caches.put(name, cache);
+        Gauge.builder("cache.l1.maximum.size", this, sizer -> sizer.maximumSizeOf(name, sizer.scale))
+                .description("L1缓存当前最大条目数")
+                .tag("cache", name)
+                .register(meterRegistry);
+        resize(name, cache, scale);
+    }
+
+    /**
+     * 老年代 GC 后使用量超过阈值时立即收缩
+     */
+    @Override
+    public void handleNotification(Notification notification, Object handback) {
+        if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            scheduler.execute(() -> shrink("threshold", collectionUsageRatio()));
+        }
+    }
+
+    /**
+     * 定期检查：压力持续时继续收缩，回落后逐步恢复
+     */
+    private void check() {
+        check(collectionUsageRatio());
+    }
+
+    /**
+     * 按老年代 GC 后使用率调整容量比例，介于恢复阈值和压力阈值之间时保持不变
+     *
+     * @param usage GC后使用率，小于0表示不可用
+     */
+    void check(double usage) {
+        if (usage < 0) {
+            return;
+        }
+        if (usage >= pressureThreshold) {
+            shrink("sustained", usage);
+        } else if (usage < recoveryThreshold && scale < 1.0) {
+            applyScale(Math.min(1.0, scale * growFactor), "grow");
+        }
+    }
+
+    private void shrink(String trigger, double usage) {
+        if (scale <= minimumScale) {
+            return;
+        }
+        log.warn("老年代内存压力（{}），收缩L1缓存: GC后使用率={}", trigger, String.format("%.2f", usage));
+        applyScale(Math.max(minimumScale, scale * shrinkFactor), "shrink");
+    }
+
+    private void applyScale(double newScale, String direction) {
+        if (newScale == scale) {
+            return;
+        }
+        log.info("调整L1缓存容量比例: {} -> {}", String.format("%.2f", scale), String.format("%.2f", newScale));
+        scale = newScale;
+        caches.forEach((name, cache) -> resize(name, cache, newScale));
+        meterRegistry.counter("cache.l1.resize", "direction", direction).increment();
+    }
+
+    private void resize(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, double scale) {
+        long maximumSize = maximumSizeOf(name, scale);
+        cache.policy().eviction().ifPresent(eviction -> eviction.setMaximum(maximumSize));
+        log.debug("L1缓存最大条目数: cache={}, maximumSize={}", name, maximumSize);
+    }
+
+    /**
+     * 当前容量比例
+     */
+    double scale() {
+        return scale;
+    }
+
+    long maximumSizeOf(String name, double scale) {
+        double share = shares.getOrDefault(name, defaultShare);
+        return Math.max(minimumSize, (long) (budgetBytes * share * scale / entryBytes));
+    }
+
+    /**
+     * 老年代最近一次 GC 后的最高使用率，没有可用的内存池时为-1
+     */
+    private double collectionUsageRatio() {
+        double ratio = -1;
+        for (MemoryPoolMXBean pool : tenuredPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null && usage.getMax() > 0) {
+                ratio = Math.max(ratio, (double) usage.getUsed() / usage.getMax());
+            }
+        }
+        return ratio;
+    }
+
+    private static boolean isTenured(String poolName) {
+        return poolName.contains("Old Gen") || poolName.contains("Tenured");
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        try {
+            ((NotificationEmitter) ManagementFactory.getMemoryMXBean()).removeNotificationListener(this);
+        } catch (ListenerNotFoundException e) {
+            log.debug("内存通知监听器未注册");
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package space.akko.foundation.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 热点键探测器
+ * Count-Min Sketch 估算访问频率，配合一个容量为K的候选集维护Top-K；
+ * 每记录 sampleSize 次访问将所有计数减半，使统计偏向近期流量。
+ * 计数器原子自增；已是候选的键和频率低于候选门槛的键只读取候选集，不加锁，
+ * 只有可能进入Top-K的新键才加锁更新候选集
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public class HotKeyDetector {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final AtomicLongArray[] counters;
+    private final int widthMask;
+    private final int topK;
+    private final int sampleSize;
+    private final Set<Object> candidates = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger recordCount = new AtomicInteger();
+
+    /**
+     * 进入候选集所需的频率（不含）：候选集已满时为最低候选频率，未满时为0
+     */
+    private volatile long candidateThreshold;
+
+    /**
+     * @param width      每行计数器数量（向上取2的幂）
+     * @param topK       维护的热点键数量
+     * @param sampleSize 计数衰减周期（访问次数）
+     */
+    public HotKeyDetector(int width, int topK, int sampleSize) {
+        int tableWidth = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+        this.counters = new AtomicLongArray[DEPTH];
+        for (int i = 0; i < DEPTH; i++) {
+            counters[i] = new AtomicLongArray(tableWidth);
+        }
+        this.widthMask = tableWidth - 1;
+        this.topK = Math.max(1, topK);
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * 记录一次访问
+     */
+    public void record(Object key) {
+        int hash = spread(key.hashCode());
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            estimate = Math.min(estimate, counters[i].incrementAndGet(indexOf(hash, i)));
+        }
+
+        if (estimate > candidateThreshold && !candidates.contains(key)) {
+            offer(key, estimate);
+        }
+        if (recordCount.incrementAndGet() >= sampleSize) {
+            age();
+        }
+    }
+
+    /**
+     * 估算访问频率
+     */
+    public long estimate(Object key) {
+        int hash = spread(key.hashCode());
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            estimate = Math.min(estimate, counters[i].get(indexOf(hash, i)));
+        }
+        return estimate;
+    }
+
+    /**
+     * 当前热点键（按估算频率降序）
+     */
+    public List<HotKey> getHotKeys() {
+        List<HotKey> hotKeys = new ArrayList<>(topK);
+        for (Object key : candidates) {
+            hotKeys.add(new HotKey(key, estimate(key)));
+        }
+        hotKeys.sort(Comparator.comparingLong(HotKey::count).reversed());
+        return hotKeys;
+    }
+
+    /**
+     * 更新候选集：未满时直接加入，已满时替换估算频率最低的键
+     */
+    private synchronized void offer(Object key, long estimate) {
+        if (candidates.contains(key)) {
+            return;
+        }
+        if (candidates.size() < topK) {
+            candidates.add(key);
+            if (candidates.size() >= topK) {
+                candidateThreshold = estimate(minCandidate());
+            }
+            return;
+        }
+
+        Object min = minCandidate();
+        long minEstimate = estimate(min);
+        if (estimate > minEstimate) {
+            candidates.remove(min);
+            candidates.add(key);
+            minEstimate = estimate(minCandidate());
+        }
+        candidateThreshold = minEstimate;
+    }
+
+    /**
+     * 计数衰减：所有计数器减半，移除衰减为0的候选
+     */
+    private synchronized void age() {
+        if (recordCount.get() < sampleSize) {
+            return;
+        }
+        recordCount.set(0);
+        for (AtomicLongArray row : counters) {
+            for (int i = 0; i < row.length(); i++) {
+                row.getAndUpdate(i, count -> count >>> 1);
+            }
+        }
+        candidates.removeIf(key -> estimate(key) == 0);
+        candidateThreshold = candidates.size() < topK ? 0 : estimate(minCandidate());
+    }
+
+    /**
+     * 估算频率最低的候选，候选集为空时为null
+     */
+    private Object minCandidate() {
+        Object min = null;
+        long minEstimate = Long.MAX_VALUE;
+        for (Object key : candidates) {
+            long estimate = estimate(key);
+            if (estimate < minEstimate) {
+                min = key;
+                minEstimate = estimate;
+            }
+        }
+        return min;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & widthMask;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 17;
+        hash *= 0xED5AD4BB;
+        hash ^= hash >>> 11;
+        return hash;
+    }
+
+    /**
+     * 热点键及其估算访问频率
+     */
+    public record HotKey(Object key, long count) {
+    }
+}
@@ -0,0 +1,82 @@
+package space.akko.foundation.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 热点键策略
+ * 为每个多级缓存创建 {@link HotKeyDetector}，并定期将Top-K热点键固定到受保护的L1分区，
+ * 固定的条目每个周期从L2批量刷新一次，不受L1容量淘汰影响；
+ * 固定条目与L1条目一样按普通值或空值占位的TTL过期，L2不可用而无法刷新时不会无限期保留
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class HotKeyPolicy implements DisposableBean {
+
+    private final int sketchWidth;
+    private final int topK;
+    private final int sampleSize;
+    private final Duration refreshInterval;
+    private final long valueTtlMillis;
+    private final long nullValueTtlMillis;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param valueTtl     固定条目的存活时间（与L1一致）
+     * @param nullValueTtl 固定的空值占位的存活时间
+     */
+    public HotKeyPolicy(int sketchWidth, int topK, int sampleSize, Duration refreshInterval,
+                        Duration valueTtl, Duration nullValueTtl) {
+        this.sketchWidth = sketchWidth;
+        this.topK = topK;
+        this.sampleSize = sampleSize;
+        this.refreshInterval = refreshInterval;
+        this.valueTtlMillis = valueTtl.toMillis();
+        this.nullValueTtlMillis = nullValueTtl.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-hot-key");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 创建热点键探测器
+     */
+    public HotKeyDetector createDetector() {
+        return new HotKeyDetector(sketchWidth, topK, sampleSize);
+    }
+
+    /**
+     * 固定条目的存活时间（毫秒）
+     */
+    public long pinTtlMillis(Object storeValue) {
+        return CacheTombstone.isTombstone(CacheEnvelope.unwrap(storeValue)) ? nullValueTtlMillis : valueTtlMillis;
+    }
+
+    /**
+     * 注册缓存，定期刷新其固定的热点键
+     */
+    public void register(MultiLevelCache cache) {
+        long intervalMillis = refreshInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                cache.refreshPinnedKeys();
+            } catch (Exception e) {
+                log.warn("刷新热点键失败: cache={}, error={}", cache.getName(), e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -3,13 +3,35 @@ package space.akko.foundation.cache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 多级缓存实现
  * L1: 本地缓存（Caffeine）- 快速访问
  * L2: 分布式缓存（Redis）- 数据共享
+ * 空值以 {@link CacheTombstone} 占位写入两级缓存，对调用方表现为缓存的 null
+ * L2访问受 {@link RedisCircuitBreaker} 保护，熔断期间仅使用L1，跳过的清除操作在恢复时补偿
+ * 批量操作在L2为 {@link BatchRedisCache} 时只产生一次Redis往返
+ * 配置了 {@link CacheRefreshPolicy} 的缓存以 {@link CacheEnvelope} 包装写入，命中时按策略异步预刷新
+ * 启用热点键探测时，读取会被 {@link HotKeyDetector} 统计，Top-K热点键固定在受保护的L1分区中
+ * 清除和清空按 {@link CacheEvictionPolicy} 在事务提交后执行
+ * 启用 {@link CacheWriteBehind} 时L2写入异步批量执行，清除前先取消同一个键的待写条目
+ * 配置了 {@link CacheReadBudget} 时单键L2读取异步发出并限时等待，超时按未命中处理
  *
  * @author akko
  * @since 1.0.0
@@ -18,9 +40,62 @@ import java.util.concurrent.Callable;
 @RequiredArgsConstructor
 public class MultiLevelCache implements Cache {
 
+    /**
+     * 熔断期间暂存的L2清除操作上限，超出时退化为整体清空
+     */
+    private static final int MAX_PENDING_EVICTIONS = 10000;
+
     private final String name;
     private final Cache l1Cache;
     private final Cache l2Cache;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    /**
+     * 预刷新策略，未启用时为null
+     */
+    private final CacheRefreshPolicy refreshPolicy;
+
+    /**
+     * 热点键策略（固定条目的存活时间），未启用时为null
+     */
+    private final HotKeyPolicy hotKeyPolicy;
+
+    /**
+     * 热点键探测器，未启用时为null
+     */
+    private final HotKeyDetector hotKeyDetector;
+
+    /**
+     * 清除策略（事务提交后清除、延迟双删）
+     */
+    private final CacheEvictionPolicy evictionPolicy;
+
+    /**
+     * L2异步写入，未启用时为null（同步写入L2）
+     */
+    private final CacheWriteBehind writeBehind;
+
+    /**
+     * L2读取时间预算，未配置时为null（同步读取，受Redis命令超时限制）
+     */
+    private final CacheReadBudget readBudget;
+
+    /**
+     * 熔断期间未能同步到L2的清除操作
+     */
+    private final Set<Object> pendingEvictions = ConcurrentHashMap.newKeySet();
+    private volatile boolean pendingClear;
+
+    /**
+     * 正在异步刷新的键到本次刷新的标记，清除键时移除标记，刷新完成时据此判断期间是否发生过清除
+     */
+    private final Map<Object, Object> refreshingKeys = new ConcurrentHashMap<>();
+
+    /**
+     * 受保护的L1分区：固定的热点键，不受L1容量淘汰影响，由 {@link #refreshPinnedKeys()} 定期从L2刷新，
+     * 按L1的TTL过期
+     */
+    private final Map<Object, PinnedEntry> pinnedEntries = new ConcurrentHashMap<>();
 
     @Override
     public String getName() {
@@ -34,120 +109,601 @@ public class MultiLevelCache implements Cache {
 
     @Override
     public ValueWrapper get(Object key) {
-        // 先从L1缓存获取
-        ValueWrapper l1Value = l1Cache.get(key);
-        if (l1Value != null) {
-            log.debug("L1缓存命中: cache={}, key={}", name, key);
-            return l1Value;
+        ValueWrapper wrapper = lookup(key);
+        return wrapper != null ? toValueWrapper(wrapper.get()) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
         }
+        return (T) value;
+    }
 
-        // L1缓存未命中，从L2缓存获取
-        ValueWrapper l2Value = l2Cache.get(key);
-        if (l2Value != null) {
-            log.debug("L2缓存命中: cache={}, key={}", name, key);
-            // 将L2缓存的数据回写到L1缓存
-            l1Cache.put(key, l2Value.get());
-            return l2Value;
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (refreshPolicy != null) {
+            return getWithRefresh(key, valueLoader);
         }
 
-        log.debug("缓存未命中: cache={}, key={}", name, key);
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        // 两级缓存都未命中，执行valueLoader
+        return load(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        putStoreValue(key, toStoreValue(value, 0));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existingValue = get(key);
+        if (existingValue != null) {
+            return existingValue;
+        }
+
+        // 两级缓存都没有，写入新值
+        put(key, value);
         return null;
     }
 
     @Override
-    public <T> T get(Object key, Class<T> type) {
-        // 先从L1缓存获取
-        T l1Value = l1Cache.get(key, type);
+    public void evict(Object key) {
+        evictionPolicy.evict(() -> doEvict(key));
+    }
+
+    /**
+     * 立即清除，不等待事务提交
+     */
+    @Override
+    public boolean evictIfPresent(Object key) {
+        doEvict(key);
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        evictionPolicy.evict(this::doClear);
+    }
+
+    /**
+     * 立即清空，不等待事务提交
+     */
+    @Override
+    public boolean invalidate() {
+        doClear();
+        return false;
+    }
+
+    /**
+     * 立即清除两级缓存中的单个键
+     */
+    private void doEvict(Object key) {
+        log.debug("缓存清除: cache={}, key={}", name, key);
+        // 同时清除L1和L2缓存（包括空值占位）
+        pinnedEntries.remove(key);
+        refreshingKeys.remove(key);
+        l1Cache.evict(key);
+        if (writeBehind != null) {
+            writeBehind.cancel(name, key);
+        }
+        if (!circuitBreaker.run(() -> l2Cache.evict(key))) {
+            deferEviction(key);
+        }
+    }
+
+    /**
+     * 立即清空两级缓存
+     */
+    private void doClear() {
+        log.debug("缓存全部清除: cache={}", name);
+        // 同时清除L1和L2缓存
+        pinnedEntries.clear();
+        refreshingKeys.clear();
+        l1Cache.clear();
+        if (writeBehind != null) {
+            writeBehind.cancelAll(name);
+        }
+        if (!circuitBreaker.run(l2Cache::clear)) {
+            pendingClear = true;
+            pendingEvictions.clear();
+        }
+    }
+
+    /**
+     * 批量获取：L1批量命中 → L2一次MGET → 剩余键一次批量加载
+     * 加载结果中缺失的键以空值占位写入缓存，返回结果中不包含值为null的键
+     *
+     * @param keys       缓存键
+     * @param bulkLoader 批量加载函数，参数为两级缓存都未命中的键
+     * @return 键到值的映射
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> getAll(Collection<K> keys, Function<Set<K>, Map<K, V>> bulkLoader) {
+        Map<K, Object> found = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>(keys);
+
+        // 固定的热点键优先
+        for (K key : keys) {
+            Object pinned = lookupPinned(key);
+            if (pinned != null) {
+                found.put(key, CacheEnvelope.unwrap(pinned));
+                missing.remove(key);
+            }
+        }
+
+        // L1批量查找
+        getAllPresentL1(missing).forEach((key, value) -> found.put((K) key, CacheEnvelope.unwrap(value)));
+        missing.removeAll(found.keySet());
+
+        // L2批量查找（熔断时视为未命中），命中结果回写L1
+        if (!missing.isEmpty()) {
+            Set<K> l2Keys = Set.copyOf(missing);
+            Map<Object, Object> l2Values = circuitBreaker.execute(() -> getAllPresentL2(l2Keys), Map::of);
+            l2Values.forEach((key, value) -> {
+                l1Cache.put(key, value);
+                found.put((K) key, CacheEnvelope.unwrap(value));
+            });
+            missing.removeAll(l2Values.keySet());
+        }
+
+        // 剩余键批量加载并写入两级缓存
+        if (!missing.isEmpty()) {
+            long start = System.currentTimeMillis();
+            Map<K, V> loaded = bulkLoader.apply(missing);
+            // 批量加载耗时平摊到每个键，作为XFetch的重新计算耗时
+            long computeMillis = (System.currentTimeMillis() - start) / missing.size();
+            Map<Object, Object> toStore = new LinkedHashMap<>();
+            for (K key : missing) {
+                V value = loaded != null ? loaded.get(key) : null;
+                toStore.put(key, value);
+                found.put(key, value);
+            }
+            putAll(toStore, computeMillis);
+        }
+
+        log.debug("缓存批量获取: cache={}, keys={}, loaded={}", name, keys.size(), missing.size());
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            Object value = found.get(key);
+            if (value != null && !CacheTombstone.isTombstone(value)) {
+                result.put(key, (V) value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量写入两级缓存，值为null时写入空值占位
+     */
+    public void putAll(Map<?, ?> entries) {
+        putAll(entries, 0);
+    }
+
+    /**
+     * 批量写入两级缓存
+     *
+     * @param computeMillis 每个值的重新计算耗时（毫秒）
+     */
+    private void putAll(Map<?, ?> entries, long computeMillis) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        log.debug("缓存批量写入: cache={}, count={}", name, entries.size());
+        Map<Object, Object> storeValues = new LinkedHashMap<>();
+        entries.forEach((key, value) -> storeValues.put(key, toStoreValue(value, computeMillis)));
+
+        if (l1Cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().putAll(storeValues);
+        } else {
+            storeValues.forEach(l1Cache::put);
+        }
+        storeValues.forEach((key, value) -> pinnedEntries.computeIfPresent(key, (k, v) -> pin(value)));
+        if (writeBehind != null) {
+            storeValues.forEach((key, value) -> writeBehind.enqueue(name, l2Cache, key, value));
+            return;
+        }
+        circuitBreaker.run(() -> {
+            if (l2Cache instanceof BatchRedisCache batchCache) {
+                batchCache.putAll(storeValues);
+            } else {
+                storeValues.forEach(l2Cache::put);
+            }
+        });
+    }
+
+    /**
+     * 批量清除两级缓存
+     */
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<?> evictKeys = List.copyOf(keys);
+        evictionPolicy.evict(() -> doEvictAll(evictKeys));
+    }
+
+    /**
+     * 立即批量清除两级缓存
+     */
+    private void doEvictAll(Collection<?> keys) {
+        log.debug("缓存批量清除: cache={}, count={}", name, keys.size());
+        keys.forEach(pinnedEntries::remove);
+        keys.forEach(refreshingKeys::remove);
+        if (l1Cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().invalidateAll(keys);
+        } else {
+            keys.forEach(l1Cache::evict);
+        }
+        if (writeBehind != null) {
+            keys.forEach(key -> writeBehind.cancel(name, key));
+        }
+        boolean evicted = circuitBreaker.run(() -> {
+            if (l2Cache instanceof BatchRedisCache batchCache) {
+                batchCache.evictAll(keys);
+            } else {
+                keys.forEach(l2Cache::evict);
+            }
+        });
+        if (!evicted) {
+            keys.forEach(this::deferEviction);
+        }
+    }
+
+    /**
+     * 带预刷新的读取：L1命中时按TTL比例、L2命中时按XFetch判断是否异步重新加载，旧值继续返回
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T getWithRefresh(Object key, Callable<T> valueLoader) {
+        Object pinned = lookupPinned(key);
+        if (pinned != null) {
+            return (T) toValueWrapper(pinned).get();
+        }
+
+        ValueWrapper l1Value = l1Cache.get(key);
         if (l1Value != null) {
-            log.debug("L1缓存命中: cache={}, key={}, type={}", name, key, type.getSimpleName());
-            return l1Value;
+            if (!CacheTombstone.isTombstone(l1Value.get()) && refreshPolicy.shouldRefreshL1(l1Cache, key)) {
+                scheduleRefresh(key, valueLoader, "l1");
+            }
+            return (T) toValueWrapper(l1Value.get()).get();
         }
 
-        // L1缓存未命中，从L2缓存获取
-        T l2Value = l2Cache.get(key, type);
+        ValueWrapper l2Value = circuitBreaker.execute(() -> getL2(key), () -> null);
         if (l2Value != null) {
-            log.debug("L2缓存命中: cache={}, key={}, type={}", name, key, type.getSimpleName());
-            // 将L2缓存的数据回写到L1缓存
-            l1Cache.put(key, l2Value);
-            return l2Value;
+            l1Cache.put(key, l2Value.get());
+            if (refreshPolicy.shouldRefreshL2(l2Value.get())) {
+                scheduleRefresh(key, valueLoader, "xfetch");
+            }
+            return (T) toValueWrapper(l2Value.get()).get();
         }
 
-        log.debug("缓存未命中: cache={}, key={}, type={}", name, key, type.getSimpleName());
-        return null;
+        return load(key, valueLoader);
     }
 
-    @Override
-    public <T> T get(Object key, Callable<T> valueLoader) {
+    /**
+     * 提交异步刷新任务，同一个键同时只刷新一次
+     * 刷新期间该键被清除时，刷新结果可能基于清除前的数据，写入后再次清除
+     */
+    private void scheduleRefresh(Object key, Callable<?> valueLoader, String trigger) {
+        Object token = new Object();
+        if (refreshingKeys.putIfAbsent(key, token) != null) {
+            return;
+        }
+        try {
+            refreshPolicy.getExecutor().execute(() -> {
+                try {
+                    load(key, valueLoader);
+                    if (refreshingKeys.remove(key, token)) {
+                        refreshPolicy.recordRefresh(name, trigger);
+                        log.debug("缓存预刷新完成: cache={}, key={}, trigger={}", name, key, trigger);
+                    } else {
+                        log.debug("缓存预刷新期间键已被清除，撤销刷新结果: cache={}, key={}", name, key);
+                        doEvict(key);
+                    }
+                } catch (Exception e) {
+                    log.warn("缓存预刷新失败: cache={}, key={}, error={}", name, key, e.getMessage());
+                } finally {
+                    refreshingKeys.remove(key, token);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshingKeys.remove(key, token);
+        }
+    }
+
+    /**
+     * 执行valueLoader并写入两级缓存，加载结果为null时同样写入（空值占位）
+     */
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        long start = System.currentTimeMillis();
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        putStoreValue(key, toStoreValue(value, System.currentTimeMillis() - start));
+        return value;
+    }
+
+    /**
+     * 同时写入L1和L2缓存，启用异步写入时L2写入进入待写表
+     */
+    private void putStoreValue(Object key, Object storeValue) {
+        log.debug("缓存写入: cache={}, key={}, nullValue={}", name, key, CacheTombstone.isTombstone(storeValue));
+        l1Cache.put(key, storeValue);
+        pinnedEntries.computeIfPresent(key, (k, v) -> pin(storeValue));
+        if (writeBehind != null) {
+            writeBehind.enqueue(name, l2Cache, key, storeValue);
+            return;
+        }
+        circuitBreaker.run(() -> l2Cache.put(key, storeValue));
+    }
+
+    /**
+     * 清空本节点的L1（包括固定的热点键），用于其他节点清空缓存后的同步
+     */
+    void clearLocal() {
+        log.debug("缓存本地清空: cache={}", name);
+        // 待写条目基于清空前的数据，不能写入新的命名空间
+        if (writeBehind != null) {
+            writeBehind.cancelAll(name);
+        }
+        pinnedEntries.clear();
+        refreshingKeys.clear();
+        l1Cache.clear();
+    }
+
+    /**
+     * 清除本节点L1中的键（包括固定的热点键），用于其他节点已清除L2后的同步
+     */
+    void evictLocal(Collection<?> keys) {
+        log.debug("缓存本地清除: cache={}, count={}", name, keys.size());
+        keys.forEach(pinnedEntries::remove);
+        keys.forEach(refreshingKeys::remove);
+        if (writeBehind != null) {
+            keys.forEach(key -> writeBehind.cancel(name, key));
+        }
+        if (l1Cache instanceof CaffeineCache caffeineCache) {
+            caffeineCache.getNativeCache().invalidateAll(keys);
+        } else {
+            keys.forEach(l1Cache::evict);
+        }
+    }
+
+    /**
+     * L1缓存，用于管理接口查看缓存内容
+     */
+    public Cache getL1Cache() {
+        return l1Cache;
+    }
+
+    /**
+     * L2缓存，用于管理接口查看缓存内容
+     */
+    public Cache getL2Cache() {
+        return l2Cache;
+    }
+
+    /**
+     * 当前热点键（按估算频率降序），未启用探测时为空
+     */
+    public List<HotKeyDetector.HotKey> getHotKeys() {
+        return hotKeyDetector != null ? hotKeyDetector.getHotKeys() : List.of();
+    }
+
+    /**
+     * 当前固定在受保护分区中的键
+     */
+    public Set<Object> getPinnedKeys() {
+        return Collections.unmodifiableSet(pinnedEntries.keySet());
+    }
+
+    /**
+     * 按当前Top-K重新固定热点键，并从L2批量刷新固定条目的值（预刷新）
+     * L2中已不存在的键取消固定；熔断期间保留已固定的条目，新热点键从L1补充
+     */
+    void refreshPinnedKeys() {
+        if (hotKeyDetector == null) {
+            return;
+        }
+        Set<Object> hotKeys = hotKeyDetector.getHotKeys().stream()
+                .map(HotKeyDetector.HotKey::key)
+                .collect(Collectors.toSet());
+        pinnedEntries.keySet().retainAll(hotKeys);
+        if (hotKeys.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Object> latest = circuitBreaker.execute(() -> getAllPresentL2(hotKeys), () -> null);
+        if (latest == null) {
+            for (Object key : hotKeys) {
+                if (!pinnedEntries.containsKey(key)) {
+                    ValueWrapper l1Value = l1Cache.get(key);
+                    if (l1Value != null) {
+                        pinnedEntries.put(key, pin(l1Value.get()));
+                    }
+                }
+            }
+            return;
+        }
+        for (Object key : hotKeys) {
+            Object value = latest.get(key);
+            if (value != null) {
+                pinnedEntries.put(key, pin(value));
+            } else {
+                pinnedEntries.remove(key);
+            }
+        }
+        log.debug("热点键刷新: cache={}, pinned={}", name, pinnedEntries.size());
+    }
+
+    /**
+     * 补偿熔断期间跳过的L2清除操作，由熔断器在恢复前调用
+     * 失败时抛出异常，熔断器保持打开状态
+     */
+    void replayPendingEvictions() {
+        if (pendingClear) {
+            log.info("补偿熔断期间的缓存清空: cache={}", name);
+            l2Cache.clear();
+            pendingClear = false;
+            pendingEvictions.clear();
+            return;
+        }
+        if (!pendingEvictions.isEmpty()) {
+            log.info("补偿熔断期间的缓存清除: cache={}, count={}", name, pendingEvictions.size());
+            for (Object key : pendingEvictions) {
+                l2Cache.evict(key);
+                pendingEvictions.remove(key);
+            }
+        }
+    }
+
+    /**
+     * 记录熔断期间跳过的L2清除
+     */
+    private void deferEviction(Object key) {
+        if (pendingClear) {
+            return;
+        }
+        if (pendingEvictions.size() >= MAX_PENDING_EVICTIONS) {
+            pendingClear = true;
+            pendingEvictions.clear();
+            return;
+        }
+        pendingEvictions.add(key);
+    }
+
+    /**
+     * 按 L1 → L2 顺序查找原始缓存值（可能为空值占位）
+     */
+    private ValueWrapper lookup(Object key) {
+        // 固定的热点键优先
+        Object pinned = lookupPinned(key);
+        if (pinned != null) {
+            return new SimpleValueWrapper(pinned);
+        }
+
         // 先从L1缓存获取
-        T l1Value = l1Cache.get(key, (Class<T>) null);
+        ValueWrapper l1Value = l1Cache.get(key);
         if (l1Value != null) {
             log.debug("L1缓存命中: cache={}, key={}", name, key);
             return l1Value;
         }
 
-        // L1缓存未命中，从L2缓存获取
-        T l2Value = l2Cache.get(key, (Class<T>) null);
+        // L1缓存未命中，从L2缓存获取（熔断时视为未命中）
+        ValueWrapper l2Value = circuitBreaker.execute(() -> getL2(key), () -> null);
         if (l2Value != null) {
             log.debug("L2缓存命中: cache={}, key={}", name, key);
             // 将L2缓存的数据回写到L1缓存
-            l1Cache.put(key, l2Value);
+            l1Cache.put(key, l2Value.get());
             return l2Value;
         }
 
-        // 两级缓存都未命中，执行valueLoader
-        try {
-            T value = valueLoader.call();
-            if (value != null) {
-                put(key, value);
-            }
-            return value;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to load value for key: " + key, e);
+        log.debug("缓存未命中: cache={}, key={}", name, key);
+        return null;
+    }
+
+    /**
+     * 记录访问并查找固定的热点键
+     */
+    private Object lookupPinned(Object key) {
+        if (hotKeyDetector == null) {
+            return null;
+        }
+        hotKeyDetector.record(key);
+        PinnedEntry entry = pinnedEntries.get(key);
+        if (entry == null) {
+            return null;
         }
+        if (entry.expireAt() <= System.currentTimeMillis()) {
+            // 过期的固定条目移除，回到L1/L2查找，下次刷新时重新固定
+            pinnedEntries.remove(key, entry);
+            return null;
+        }
+        return entry.value();
     }
 
-    @Override
-    public void put(Object key, Object value) {
-        log.debug("缓存写入: cache={}, key={}", name, key);
-        // 同时写入L1和L2缓存
-        l1Cache.put(key, value);
-        l2Cache.put(key, value);
+    /**
+     * 按L1的TTL创建固定条目
+     */
+    private PinnedEntry pin(Object storeValue) {
+        return new PinnedEntry(storeValue, System.currentTimeMillis() + hotKeyPolicy.pinTtlMillis(storeValue));
     }
 
-    @Override
-    public ValueWrapper putIfAbsent(Object key, Object value) {
-        // 先检查L1缓存
-        ValueWrapper existingValue = l1Cache.get(key);
-        if (existingValue != null) {
-            return existingValue;
+    /**
+     * L1批量查找原始缓存值
+     */
+    private Map<Object, Object> getAllPresentL1(Collection<?> keys) {
+        if (l1Cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().getAllPresent(keys);
+        }
+        Map<Object, Object> result = new HashMap<>();
+        for (Object key : keys) {
+            ValueWrapper wrapper = l1Cache.get(key);
+            if (wrapper != null) {
+                result.put(key, wrapper.get());
+            }
         }
+        return result;
+    }
 
-        // 检查L2缓存
-        existingValue = l2Cache.get(key);
-        if (existingValue != null) {
-            // 将L2缓存的数据回写到L1缓存
-            l1Cache.put(key, existingValue.get());
-            return existingValue;
+    /**
+     * L2批量查找原始缓存值
+     */
+    private Map<Object, Object> getAllPresentL2(Collection<?> keys) {
+        if (l2Cache instanceof BatchRedisCache batchCache) {
+            return batchCache.getAllPresent(keys);
         }
+        Map<Object, Object> result = new HashMap<>();
+        for (Object key : keys) {
+            ValueWrapper wrapper = l2Cache.get(key);
+            if (wrapper != null) {
+                result.put(key, wrapper.get());
+            }
+        }
+        return result;
+    }
 
-        // 两级缓存都没有，写入新值
-        put(key, value);
-        return null;
+    /**
+     * 将null转换为空值占位，L2（Redis）不接受直接写入null；启用预刷新时包装写入时间和计算耗时
+     */
+    private Object toStoreValue(Object value, long computeMillis) {
+        if (value == null) {
+            return new CacheTombstone();
+        }
+        return refreshPolicy != null ? new CacheEnvelope(value, computeMillis) : value;
     }
 
-    @Override
-    public void evict(Object key) {
-        log.debug("缓存清除: cache={}, key={}", name, key);
-        // 同时清除L1和L2缓存
-        l1Cache.evict(key);
-        l2Cache.evict(key);
+    /**
+     * 将原始缓存值转换为对调用方可见的值，空值占位表现为缓存的null
+     */
+    private ValueWrapper toValueWrapper(Object storeValue) {
+        Object value = CacheEnvelope.unwrap(storeValue);
+        return new SimpleValueWrapper(CacheTombstone.isTombstone(value) ? null : value);
     }
 
-    @Override
-    public void clear() {
-        log.debug("缓存全部清除: cache={}", name);
-        // 同时清除L1和L2缓存
-        l1Cache.clear();
-        l2Cache.clear();
+    /**
+     * 读取L2：配置了时间预算时异步读取并限时等待
+     */
+    private ValueWrapper getL2(Object key) {
+        return readBudget != null ? readBudget.read(l2Cache, key) : l2Cache.get(key);
+    }
+
+    /**
+     * 固定的热点键条目
+     */
+    private record PinnedEntry(Object value, long expireAt) {
     }
 }
@@ -22,6 +22,24 @@ public class MultiLevelCacheManager implements CacheManager {
 
     private final CacheManager l1CacheManager;
     private final CacheManager l2CacheManager;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final CacheRefreshPolicy refreshPolicy;
+
+    /**
+     * 热点键策略，未启用时为null
+     */
+    private final HotKeyPolicy hotKeyPolicy;
+    private final CacheEvictionPolicy evictionPolicy;
+
+    /**
+     * L2异步写入，未启用时为null
+     */
+    private final CacheWriteBehind writeBehind;
+
+    /**
+     * L2读取时间预算，未配置时为null
+     */
+    private final CacheReadBudget readBudget;
     private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>();
 
     @Override
@@ -47,6 +65,18 @@ public class MultiLevelCacheManager implements CacheManager {
         }
         
         log.debug("创建多级缓存: {}", name);
-        return new MultiLevelCache(name, l1Cache, l2Cache);
+        MultiLevelCache cache = new MultiLevelCache(name, l1Cache, l2Cache, circuitBreaker,
+                refreshPolicy.appliesTo(name) ? refreshPolicy : null, hotKeyPolicy,
+                hotKeyPolicy != null ? hotKeyPolicy.createDetector() : null, evictionPolicy, writeBehind,
+                readBudget);
+        circuitBreaker.addRecoveryListener(cache::replayPendingEvictions);
+        if (l2Cache instanceof BatchRedisCache batchCache) {
+            // 其他节点清空缓存（命名空间代数变化）时同步清空本地L1
+            batchCache.addRemoteClearListener(cache::clearLocal);
+        }
+        if (hotKeyPolicy != null) {
+            hotKeyPolicy.register(cache);
+        }
+        return cache;
     }
 }
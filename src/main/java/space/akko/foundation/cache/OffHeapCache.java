@@ -0,0 +1,400 @@
+package space.akko.foundation.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 堆外L1缓存
+ * 值序列化后存放在直接内存中，按固定大小的块分配，块之间以链表串联；
+ * 堆上只保留键到块链的索引。按段加锁，段内按LRU淘汰，总字节数受预算限制。
+ * 可选一个小容量的堆上前置缓存，保存最热键的反序列化结果
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class OffHeapCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final RedisSerializer<Object> serializer;
+    private final long valueTtlMillis;
+    private final long nullValueTtlMillis;
+    private final Segment[] segments;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> front;
+
+    /**
+     * @param maxBytes     字节预算（所有段合计）
+     * @param segmentCount 段数
+     * @param blockSize    块大小（字节）
+     * @param frontSize    堆上前置缓存容量，0表示不启用
+     */
+    public OffHeapCache(String name, RedisSerializer<Object> serializer, Duration valueTtl, Duration nullValueTtl,
+                        long maxBytes, int segmentCount, int blockSize, int frontSize) {
+        super(false);
+        this.name = name;
+        this.serializer = serializer;
+        this.valueTtlMillis = valueTtl.toMillis();
+        this.nullValueTtlMillis = nullValueTtl.toMillis();
+
+        // 每段是一块 ByteBuffer，容量上限为 Integer.MAX_VALUE 字节
+        long blocksPerSegment = Math.max(1, maxBytes / segmentCount / blockSize);
+        long segmentBytes = blocksPerSegment * blockSize;
+        if (segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format(
+                    "堆外缓存[%s]每段%d字节，超过单个直接内存缓冲区上限%d字节，请增加段数（当前%d）或减小字节预算",
+                    name, segmentBytes, Integer.MAX_VALUE, segmentCount));
+        }
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment((int) blocksPerSegment, blockSize);
+        }
+
+        this.front = frontSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(frontSize)
+                        .expireAfter(new CacheEntryExpiry(valueTtl, nullValueTtl))
+                        .build()
+                : null;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        if (front != null) {
+            Object value = front.getIfPresent(key);
+            if (value != null) {
+                return value;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        Slot slot = segmentFor(key).read(key, now, true);
+        if (slot == null) {
+            return null;
+        }
+        Object value = serializer.deserialize(slot.bytes());
+        if (front != null && value != null) {
+            // 前置缓存条目不超过堆外条目的剩余存活时间
+            front.policy().expireVariably().ifPresent(expiry ->
+                    expiry.put(key, value, slot.expireAt() - now, TimeUnit.MILLISECONDS));
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return CacheTombstone.isTombstone(value) ? null : (T) fromStoreValue(value);
+        }
+        T loaded;
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * 与堆上L1一致允许缓存null，以空值占位保存（使用空值TTL）
+     */
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        return userValue != null ? userValue : new CacheTombstone();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        byte[] bytes = serializer.serialize(storeValue);
+        if (bytes == null) {
+            return;
+        }
+        long ttl = CacheTombstone.isTombstone(storeValue) ? nullValueTtlMillis : valueTtlMillis;
+        boolean written = segmentFor(key).write(key, bytes, System.currentTimeMillis() + ttl);
+        if (!written) {
+            log.debug("缓存值超过堆外段容量，跳过: cache={}, key={}, bytes={}", name, key, bytes.length);
+        }
+        if (front != null) {
+            if (written) {
+                front.put(key, storeValue);
+            } else {
+                front.invalidate(key);
+            }
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (front != null) {
+            front.invalidate(key);
+        }
+        segmentFor(key).remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (front != null) {
+            front.invalidateAll();
+        }
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * 条目数
+     */
+    public long getEntryCount() {
+        long count = 0;
+        for (Segment segment : segments) {
+            count += segment.size();
+        }
+        return count;
+    }
+
+    /**
+     * 已占用的堆外字节数（按块计算）
+     */
+    public long getUsedBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.usedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 堆外字节预算
+     */
+    public long getCapacityBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.capacityBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * 按LRU顺序（由旧到新）列出各段中的键，最多返回 limit 个
+     */
+    public List<Object> keys(int limit) {
+        List<Object> keys = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (keys.size() >= limit) {
+                break;
+            }
+            segment.collectKeys(keys, limit);
+        }
+        return keys;
+    }
+
+    /**
+     * 读取存储值（可能是空值占位），不写入前置缓存、不改变LRU顺序，用于管理接口查看条目
+     *
+     * @return 不存在或已过期时为null
+     */
+    public Object peek(Object key) {
+        Slot slot = segmentFor(key).read(key, System.currentTimeMillis(), false);
+        return slot != null ? serializer.deserialize(slot.bytes()) : null;
+    }
+
+    /**
+     * 条目剩余存活时间，不存在或已过期时为null
+     */
+    public Duration getExpiresAfter(Object key) {
+        long remaining = segmentFor(key).expireAt(key) - System.currentTimeMillis();
+        return remaining > 0 ? Duration.ofMillis(remaining) : null;
+    }
+
+    private Segment segmentFor(Object key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[Math.floorMod(hash, segments.length)];
+    }
+
+    /**
+     * 块链索引
+     */
+    private record Entry(int firstBlock, int length, int blocks, long expireAt) {
+    }
+
+    /**
+     * 读取结果
+     */
+    private record Slot(byte[] bytes, long expireAt) {
+    }
+
+    /**
+     * 段：一块直接内存 + 块链表 + LRU索引
+     */
+    private static final class Segment {
+
+        private final ByteBuffer buffer;
+        private final int blockSize;
+        private final int[] nextBlock;
+        /**
+         * 按插入顺序排列，读取命中时移到末尾（LRU），查看条目时不移动
+         */
+        private final LinkedHashMap<Object, Entry> index = new LinkedHashMap<>();
+        private int freeHead;
+        private int freeBlocks;
+
+        Segment(int blockCount, int blockSize) {
+            this.buffer = ByteBuffer.allocateDirect(Math.multiplyExact(blockCount, blockSize));
+            this.blockSize = blockSize;
+            this.nextBlock = new int[blockCount];
+            resetFreeList();
+        }
+
+        synchronized Slot read(Object key, long now, boolean touch) {
+            Entry entry = index.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expireAt() <= now) {
+                index.remove(key);
+                release(entry);
+                return null;
+            }
+            if (touch) {
+                index.remove(key);
+                index.put(key, entry);
+            }
+
+            byte[] bytes = new byte[entry.length()];
+            int block = entry.firstBlock();
+            for (int offset = 0; offset < bytes.length; offset += blockSize) {
+                buffer.get(block * blockSize, bytes, offset, Math.min(blockSize, bytes.length - offset));
+                block = nextBlock[block];
+            }
+            return new Slot(bytes, entry.expireAt());
+        }
+
+        synchronized boolean write(Object key, byte[] bytes, long expireAt) {
+            int blocks = Math.max(1, (bytes.length + blockSize - 1) / blockSize);
+            if (blocks > nextBlock.length) {
+                remove(key);
+                return false;
+            }
+
+            Entry previous = index.remove(key);
+            if (previous != null) {
+                release(previous);
+            }
+            // LRU淘汰直到空闲块足够
+            Iterator<Map.Entry<Object, Entry>> iterator = index.entrySet().iterator();
+            while (freeBlocks < blocks && iterator.hasNext()) {
+                Entry eldest = iterator.next().getValue();
+                iterator.remove();
+                release(eldest);
+            }
+
+            int first = freeHead;
+            int block = first;
+            for (int i = 0; i < blocks; i++) {
+                int offset = i * blockSize;
+                int length = Math.min(blockSize, bytes.length - offset);
+                if (length > 0) {
+                    buffer.put(block * blockSize, bytes, offset, length);
+                }
+                int next = nextBlock[block];
+                if (i == blocks - 1) {
+                    // 从空闲链表上摘下整条块链
+                    freeHead = next;
+                    nextBlock[block] = -1;
+                }
+                block = next;
+            }
+            freeBlocks -= blocks;
+
+            index.put(key, new Entry(first, bytes.length, blocks, expireAt));
+            return true;
+        }
+
+        synchronized void remove(Object key) {
+            Entry entry = index.remove(key);
+            if (entry != null) {
+                release(entry);
+            }
+        }
+
+        synchronized void clear() {
+            index.clear();
+            resetFreeList();
+        }
+
+        synchronized void collectKeys(List<Object> keys, int limit) {
+            for (Object key : index.keySet()) {
+                if (keys.size() >= limit) {
+                    return;
+                }
+                keys.add(key);
+            }
+        }
+
+        synchronized long expireAt(Object key) {
+            Entry entry = index.get(key);
+            return entry != null ? entry.expireAt() : 0L;
+        }
+
+        synchronized int size() {
+            return index.size();
+        }
+
+        synchronized long usedBytes() {
+            return (long) (nextBlock.length - freeBlocks) * blockSize;
+        }
+
+        long capacityBytes() {
+            return (long) nextBlock.length * blockSize;
+        }
+
+        /**
+         * 将条目占用的块归还到空闲链表头部
+         */
+        private void release(Entry entry) {
+            int block = entry.firstBlock();
+            int last = block;
+            for (int i = 1; i < entry.blocks(); i++) {
+                last = nextBlock[last];
+            }
+            nextBlock[last] = freeHead;
+            freeHead = block;
+            freeBlocks += entry.blocks();
+        }
+
+        private void resetFreeList() {
+            for (int i = 0; i < nextBlock.length - 1; i++) {
+                nextBlock[i] = i + 1;
+            }
+            nextBlock[nextBlock.length - 1] = -1;
+            freeHead = 0;
+            freeBlocks = nextBlock.length;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * L1缓存管理器包装：指定的缓存使用 {@link OffHeapCache}，其余缓存交给原管理器
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class OffHeapCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Set<String> offHeapCacheNames;
+    private final RedisSerializer<Object> serializer;
+    private final Duration valueTtl;
+    private final Duration nullValueTtl;
+    private final long maxBytes;
+    private final int segments;
+    private final int blockSize;
+    private final int frontSize;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, OffHeapCache> cacheMap = new ConcurrentHashMap<>();
+
+    public OffHeapCacheManager(CacheManager delegate, Set<String> offHeapCacheNames, RedisSerializer<Object> serializer,
+                               Duration valueTtl, Duration nullValueTtl, long maxBytes, int segments,
+                               int blockSize, int frontSize, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.offHeapCacheNames = offHeapCacheNames;
+        this.serializer = serializer;
+        this.valueTtl = valueTtl;
+        this.nullValueTtl = nullValueTtl;
+        this.maxBytes = maxBytes;
+        this.segments = segments;
+        this.blockSize = blockSize;
+        this.frontSize = frontSize;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!offHeapCacheNames.contains(name)) {
+            return delegate.getCache(name);
+        }
+        return cacheMap.computeIfAbsent(name, this::createOffHeapCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(delegate.getCacheNames());
+        names.addAll(cacheMap.keySet());
+        return names;
+    }
+
+    /**
+     * 创建堆外缓存并注册占用指标
+     */
+    private OffHeapCache createOffHeapCache(String name) {
+        log.info("创建堆外L1缓存: {}, 预算: {}字节", name, maxBytes);
+        OffHeapCache cache = new OffHeapCache(name, serializer, valueTtl, nullValueTtl,
+                maxBytes, segments, blockSize, frontSize);
+        Gauge.builder("cache.offheap.used.bytes", cache, OffHeapCache::getUsedBytes)
+                .description("堆外L1缓存已占用字节数")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.offheap.entries", cache, OffHeapCache::getEntryCount)
+                .description("堆外L1缓存条目数")
+                .tag("cache", name)
+                .register(meterRegistry);
+        return cache;
+    }
+}
@@ -0,0 +1,371 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * L2（Redis）缓存熔断器
+ * 按最近N次调用的失败率或慢调用率熔断，熔断期间多级缓存只使用L1，
+ * 由后台探测任务定期PING Redis，恢复后进入半开状态重新放量。
+ * L2分片时每个分片另有一个熔断器（以 shard 标签区分指标），见 {@link RedisShardRing}
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class RedisCircuitBreaker implements DisposableBean {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /**
+         * 关闭：正常访问L2
+         */
+        CLOSED,
+
+        /**
+         * 半开：探测成功后放量，根据调用结果决定关闭或重新熔断
+         */
+        HALF_OPEN,
+
+        /**
+         * 打开：跳过L2，仅使用L1
+         */
+        OPEN
+    }
+
+    /**
+     * 窗口槽位编码：已记录、失败、慢调用
+     */
+    private static final int RECORDED = 1;
+    private static final int FAILURE = 2;
+    private static final int SLOW = 4;
+
+    private final RedisConnectionFactory connectionFactory;
+    private final int windowSize;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final int minimumCalls;
+    private final int halfOpenCalls;
+
+    /**
+     * 当前状态及其滑动窗口，状态切换时整体替换
+     */
+    private final AtomicReference<Window> window;
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService probeExecutor;
+
+    @Getter
+    private volatile long openedAt;
+
+    private final Counter rejectedCounter;
+    private final MeterRegistry meterRegistry;
+    private final Tags tags;
+
+    /**
+     * 日志中的熔断器标识，无标签时为空
+     */
+    private final String label;
+
+    public RedisCircuitBreaker(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry,
+                               int windowSize, int minimumCalls, int failureRateThreshold,
+                               Duration slowCallThreshold, int slowCallRateThreshold,
+                               int halfOpenCalls, Duration probeInterval) {
+        this(connectionFactory, meterRegistry, Tags.empty(), windowSize, minimumCalls, failureRateThreshold,
+                slowCallThreshold, slowCallRateThreshold, halfOpenCalls, probeInterval);
+    }
+
+    /**
+     * @param tags 指标标签，用于区分多个熔断器（如L2分片）
+     */
+    public RedisCircuitBreaker(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry, Tags tags,
+                               int windowSize, int minimumCalls, int failureRateThreshold,
+                               Duration slowCallThreshold, int slowCallRateThreshold,
+                               int halfOpenCalls, Duration probeInterval) {
+        this.connectionFactory = connectionFactory;
+        this.meterRegistry = meterRegistry;
+        this.tags = tags;
+        this.label = tags.stream().map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(", ", "[", "]")).replace("[]", "");
+        this.windowSize = windowSize;
+        this.window = new AtomicReference<>(new Window(State.CLOSED, windowSize));
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.halfOpenCalls = Math.min(halfOpenCalls, windowSize);
+
+        Gauge.builder("cache.l2.circuit.state", window, w -> w.get().state.ordinal())
+                .description("L2缓存熔断器状态：0-关闭，1-半开，2-打开")
+                .tags(tags)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("cache.l2.circuit.rejected")
+                .description("熔断期间跳过的L2调用次数")
+                .tags(tags)
+                .register(meterRegistry);
+
+        this.probeExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-circuit-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = probeInterval.toMillis();
+        probeExecutor.scheduleWithFixedDelay(this::probe, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 当前状态
+     */
+    public State getState() {
+        return window.get().state;
+    }
+
+    /**
+     * 是否允许访问L2
+     */
+    public boolean isCallPermitted() {
+        return getState() != State.OPEN;
+    }
+
+    /**
+     * 注册恢复监听器，在探测成功、重新放量之前执行（例如补偿熔断期间跳过的L2清除）
+     * 监听器抛出异常时保持熔断状态
+     */
+    public void addRecoveryListener(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    /**
+     * 在熔断保护下执行L2调用，熔断或调用失败时返回fallback的结果
+     */
+    public <T> T execute(Supplier<T> call, Supplier<T> fallback) {
+        if (!isCallPermitted()) {
+            rejectedCounter.increment();
+            return fallback.get();
+        }
+
+        try {
+            return invoke(call);
+        } catch (RuntimeException e) {
+            log.debug("L2缓存调用失败: {}", e.getMessage());
+            return fallback.get();
+        }
+    }
+
+    /**
+     * 在熔断保护下执行L2调用，调用失败时记录后抛出原异常，用于不能静默跳过的操作（如清除）
+     *
+     * @throws IllegalStateException 熔断中
+     */
+    public <T> T executeOrThrow(Supplier<T> call) {
+        if (!isCallPermitted()) {
+            rejectedCounter.increment();
+            throw new IllegalStateException("L2缓存熔断中，跳过调用" + label);
+        }
+        return invoke(call);
+    }
+
+    /**
+     * 在熔断保护下执行异步L2调用，按异步结果记录，熔断或失败时以fallback的结果完成
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call, Supplier<T> fallback) {
+        if (!isCallPermitted()) {
+            rejectedCounter.increment();
+            return CompletableFuture.completedFuture(fallback.get());
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            record(true, false);
+            return CompletableFuture.completedFuture(fallback.get());
+        }
+        return future.handle((result, e) -> {
+            if (e != null) {
+                record(true, false);
+                log.debug("L2缓存异步调用失败: {}", e.getMessage());
+                return fallback.get();
+            }
+            record(false, System.nanoTime() - start > slowCallThresholdNanos);
+            return result;
+        });
+    }
+
+    private <T> T invoke(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            record(false, System.nanoTime() - start > slowCallThresholdNanos);
+            return result;
+        } catch (CacheReadBudget.BudgetExceededException e) {
+            // 超过调用方的等待预算不代表Redis故障，不计入统计
+            throw e;
+        } catch (RuntimeException e) {
+            record(true, false);
+            throw e;
+        }
+    }
+
+    /**
+     * 在熔断保护下执行无返回值的L2调用
+     *
+     * @return 是否成功执行
+     */
+    public boolean run(Runnable call) {
+        return execute(() -> {
+            call.run();
+            return Boolean.TRUE;
+        }, () -> Boolean.FALSE);
+    }
+
+    /**
+     * 记录调用结果并评估状态
+     * 窗口为无锁环形数组加原子计数，只有需要切换状态时才加锁
+     */
+    private void record(boolean failure, boolean slow) {
+        Window current = window.get();
+        if (current.state == State.OPEN) {
+            return;
+        }
+
+        int code = RECORDED | (failure ? FAILURE : 0) | (slow ? SLOW : 0);
+        int index = Math.floorMod(current.cursor.getAndIncrement(), windowSize);
+        // 覆盖最早的一次调用，计数按新旧结果的差值调整
+        int evicted = current.slots.getAndSet(index, code);
+        if (evicted == 0) {
+            current.calls.incrementAndGet();
+        }
+        adjust(current.failures, evicted, code, FAILURE);
+        adjust(current.slows, evicted, code, SLOW);
+
+        int calls = current.calls.get();
+        int requiredCalls = current.state == State.HALF_OPEN ? halfOpenCalls : minimumCalls;
+        if (calls < requiredCalls) {
+            return;
+        }
+
+        int failureRate = current.failures.get() * 100 / calls;
+        int slowCallRate = current.slows.get() * 100 / calls;
+        if (failureRate >= failureRateThreshold || slowCallRate >= slowCallRateThreshold) {
+            synchronized (this) {
+                if (window.get() == current) {
+                    log.warn("L2缓存熔断{}: 失败率={}%, 慢调用率={}%, 统计调用数={}",
+                            label, failureRate, slowCallRate, calls);
+                    transitionTo(State.OPEN);
+                }
+            }
+        } else if (current.state == State.HALF_OPEN) {
+            synchronized (this) {
+                if (window.get() == current) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+        }
+    }
+
+    private static void adjust(AtomicInteger counter, int evicted, int code, int flag) {
+        int delta = (code & flag) - (evicted & flag);
+        if (delta != 0) {
+            counter.addAndGet(Integer.signum(delta));
+        }
+    }
+
+    /**
+     * 后台探测Redis是否恢复
+     */
+    private void probe() {
+        if (window.get().state != State.OPEN) {
+            return;
+        }
+
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.ping();
+        } catch (Exception e) {
+            log.debug("Redis探测失败，保持熔断: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            recoveryListeners.forEach(Runnable::run);
+        } catch (Exception e) {
+            log.warn("Redis恢复处理失败，保持熔断: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            transitionTo(State.HALF_OPEN);
+        }
+    }
+
+    /**
+     * 切换状态并换上新的统计窗口，调用方需持有锁
+     * 切换前已读到旧窗口的调用继续写入旧窗口，不影响新状态的统计
+     */
+    private void transitionTo(State target) {
+        State previous = window.get().state;
+        if (previous == target) {
+            return;
+        }
+
+        window.set(new Window(target, windowSize));
+        if (target == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        }
+
+        log.warn("L2缓存熔断器状态变更{}: {} -> {}", label, previous, target);
+        meterRegistry.counter("cache.l2.circuit.transitions",
+                tags.and("from", previous.name(), "to", target.name())).increment();
+    }
+
+    @Override
+    public void destroy() {
+        probeExecutor.shutdownNow();
+    }
+
+    /**
+     * 某一状态下的滑动窗口（按调用次数）
+     */
+    private static final class Window {
+
+        private final State state;
+
+        /**
+         * 环形槽位，0 表示尚未记录
+         */
+        private final AtomicIntegerArray slots;
+        private final AtomicLong cursor = new AtomicLong();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger slows = new AtomicInteger();
+
+        private Window(State state, int size) {
+            this.state = state;
+            this.slots = new AtomicIntegerArray(size);
+        }
+    }
+}
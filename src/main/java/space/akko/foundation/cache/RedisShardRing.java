@@ -0,0 +1,241 @@
+package space.akko.foundation.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * L2 Redis 分片环
+ * 客户端一致性哈希：每个分片在环上放置若干虚拟节点，键（包含缓存名和代数前缀的完整Redis键）
+ * 按哈希值顺时针落到第一个虚拟节点所属的分片；增删分片只影响相邻区间的键。
+ * 每个分片使用独立的连接工厂。多分片时每个分片的所有操作都经过该分片自己的熔断器：
+ * 分片熔断期间读取按未命中处理、写入跳过、清除抛出异常（由调用方补偿），只影响该分片的键区间；
+ * 单分片时不另设熔断器，异常照常抛出，由L2熔断器处理
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+public class RedisShardRing implements DisposableBean {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final List<RedisConnectionFactory> shards;
+    private final List<String> shardNames;
+    private final TreeMap<Long, Integer> ring = new TreeMap<>();
+    private final List<RedisCircuitBreaker> breakers;
+    private final ExecutorService fanOutExecutor;
+    private final boolean ownsFactories;
+
+    /**
+     * @param shards         分片连接工厂
+     * @param shardNames     分片名称（用于日志、指标和虚拟节点哈希，应保持稳定）
+     * @param virtualNodes   每个分片的虚拟节点数
+     * @param breakerFactory 按分片连接工厂和名称创建分片熔断器，多分片时使用
+     * @param ownsFactories  关闭时是否销毁连接工厂
+     */
+    public RedisShardRing(List<RedisConnectionFactory> shards, List<String> shardNames, int virtualNodes,
+                          BiFunction<RedisConnectionFactory, String, RedisCircuitBreaker> breakerFactory,
+                          boolean ownsFactories) {
+        this.shards = List.copyOf(shards);
+        this.shardNames = List.copyOf(shardNames);
+        this.ownsFactories = ownsFactories;
+        List<RedisCircuitBreaker> shardBreakers = new ArrayList<>();
+        if (shards.size() > 1) {
+            for (int shard = 0; shard < shards.size(); shard++) {
+                shardBreakers.add(breakerFactory.apply(shards.get(shard), shardNames.get(shard)));
+            }
+        }
+        this.breakers = List.copyOf(shardBreakers);
+        for (int shard = 0; shard < shards.size(); shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(hash((shardNames.get(shard) + "#" + node).getBytes(StandardCharsets.UTF_8)), shard);
+            }
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.fanOutExecutor = shards.size() > 1
+                ? Executors.newFixedThreadPool(shards.size(), r -> {
+                    Thread thread = new Thread(r, "redis-shard-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * 单个Redis（不分片）
+     */
+    public static RedisShardRing single(RedisConnectionFactory connectionFactory) {
+        return new RedisShardRing(List.of(connectionFactory), List.of("default"), 1, null, false);
+    }
+
+    /**
+     * 分片数
+     */
+    public int size() {
+        return shards.size();
+    }
+
+    /**
+     * 分片名称
+     */
+    public String nameOf(int shard) {
+        return shardNames.get(shard);
+    }
+
+    /**
+     * 分片的连接工厂
+     */
+    public RedisConnectionFactory connectionFactory(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * 键所在的分片
+     */
+    public int shardOf(byte[] key) {
+        if (shards.size() == 1) {
+            return 0;
+        }
+        Map.Entry<Long, Integer> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * 按分片分组，值为键在原列表中的下标
+     */
+    public Map<Integer, List<Integer>> groupByShard(List<byte[]> keys) {
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            groups.computeIfAbsent(shardOf(keys.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        return groups;
+    }
+
+    /**
+     * 分片当前是否可用（分片熔断器未打开）
+     */
+    public boolean isAvailable(int shard) {
+        return breakers.isEmpty() || breakers.get(shard).isCallPermitted();
+    }
+
+    /**
+     * 分片熔断器当前状态，单分片时为null
+     */
+    public RedisCircuitBreaker.State stateOf(int shard) {
+        return breakers.isEmpty() ? null : breakers.get(shard).getState();
+    }
+
+    /**
+     * 在分片上执行读取或写入：分片熔断或调用失败时返回fallback的结果（单分片时异常照常抛出）
+     */
+    public <T> T execute(int shard, Supplier<T> call, Supplier<T> fallback) {
+        return breakers.isEmpty() ? call.get() : breakers.get(shard).execute(call, fallback);
+    }
+
+    /**
+     * 在分片上执行不能静默跳过的操作（如清除）：分片熔断或调用失败时抛出异常
+     */
+    public <T> T executeOrThrow(int shard, Supplier<T> call) {
+        return breakers.isEmpty() ? call.get() : breakers.get(shard).executeOrThrow(call);
+    }
+
+    /**
+     * 在分片上执行异步读取或写入：分片熔断或调用失败时以fallback的结果完成（单分片时按原结果完成）
+     */
+    public <T> CompletableFuture<T> executeAsync(int shard, Supplier<CompletableFuture<T>> call, Supplier<T> fallback) {
+        return breakers.isEmpty() ? call.get() : breakers.get(shard).executeAsync(call, fallback);
+    }
+
+    /**
+     * 在多个分片上并行执行操作，返回各分片的结果；熔断或失败的分片不出现在结果中
+     * （单分片时异常照常抛出）
+     */
+    public <T> Map<Integer, T> fanOut(Iterable<Integer> targetShards, IntFunction<T> operation) {
+        if (breakers.isEmpty()) {
+            Map<Integer, T> results = new LinkedHashMap<>();
+            for (int shard : targetShards) {
+                results.put(shard, operation.apply(shard));
+            }
+            return results;
+        }
+
+        Map<Integer, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        for (int shard : targetShards) {
+            if (!isAvailable(shard)) {
+                continue;
+            }
+            futures.put(shard, CompletableFuture.supplyAsync(
+                    () -> breakers.get(shard).executeOrThrow(() -> operation.apply(shard)), fanOutExecutor));
+        }
+
+        Map<Integer, T> results = new LinkedHashMap<>();
+        futures.forEach((shard, future) -> {
+            try {
+                results.put(shard, future.join());
+            } catch (CompletionException e) {
+                // 已计入分片熔断器，按未命中或跳过处理
+                log.debug("Redis分片调用失败: shard={}, error={}", shardNames.get(shard), e.getMessage());
+            }
+        });
+        return results;
+    }
+
+    /**
+     * 全部分片
+     */
+    public List<Integer> allShards() {
+        List<Integer> all = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            all.add(shard);
+        }
+        return all;
+    }
+
+    /**
+     * 64位 FNV-1a，末尾混合使虚拟节点在环上分布更均匀
+     */
+    private static long hash(byte[] bytes) {
+        long hash = FNV_OFFSET;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdownNow();
+        }
+        breakers.forEach(RedisCircuitBreaker::destroy);
+        if (ownsFactories) {
+            for (RedisConnectionFactory shard : shards) {
+                if (shard instanceof DisposableBean disposable) {
+                    disposable.destroy();
+                }
+            }
+        }
+    }
+}
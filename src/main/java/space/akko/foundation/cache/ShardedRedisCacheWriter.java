@@ -0,0 +1,140 @@
+package space.akko.foundation.cache;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * 分片的Redis缓存写入器
+ * 单键操作按 {@link RedisShardRing} 路由到键所在分片的写入器，按前缀清除在所有分片上执行。
+ * 所有操作都经过分片熔断器：熔断或失败的分片上读取返回未命中、写入跳过；
+ * 清除失败时抛出异常，由多级缓存在熔断恢复后补偿
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public class ShardedRedisCacheWriter implements RedisCacheWriter {
+
+    private final RedisShardRing shardRing;
+    private final List<RedisCacheWriter> writers;
+
+    public ShardedRedisCacheWriter(RedisShardRing shardRing) {
+        this(shardRing, createWriters(shardRing));
+    }
+
+    private ShardedRedisCacheWriter(RedisShardRing shardRing, List<RedisCacheWriter> writers) {
+        this.shardRing = shardRing;
+        this.writers = writers;
+    }
+
+    private static List<RedisCacheWriter> createWriters(RedisShardRing shardRing) {
+        List<RedisCacheWriter> writers = new ArrayList<>(shardRing.size());
+        for (int shard = 0; shard < shardRing.size(); shard++) {
+            writers.add(RedisCacheWriter.nonLockingRedisCacheWriter(shardRing.connectionFactory(shard)));
+        }
+        return writers;
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return route(key, writer -> writer.get(name, key));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return route(key, writer -> writer.get(name, key, ttl));
+    }
+
+    @Override
+    public boolean supportsAsyncRetrieve() {
+        return writers.stream().allMatch(RedisCacheWriter::supportsAsyncRetrieve);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        int shard = shardRing.shardOf(key);
+        return shardRing.executeAsync(shard, () -> writers.get(shard).retrieve(name, key, ttl), () -> null);
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        route(key, writer -> {
+            writer.put(name, key, value, ttl);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        int shard = shardRing.shardOf(key);
+        return shardRing.executeAsync(shard, () -> writers.get(shard).store(name, key, value, ttl), () -> null);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        return route(key, writer -> writer.putIfAbsent(name, key, value, ttl));
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        // 清除不能静默跳过，失败时由调用方补偿
+        int shard = shardRing.shardOf(key);
+        shardRing.executeOrThrow(shard, () -> {
+            writers.get(shard).remove(name, key);
+            return null;
+        });
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        RuntimeException failure = null;
+        for (int shard = 0; shard < writers.size(); shard++) {
+            RedisCacheWriter writer = writers.get(shard);
+            try {
+                shardRing.executeOrThrow(shard, () -> {
+                    writer.clean(name, pattern);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        writers.forEach(writer -> writer.clearStatistics(name));
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new ShardedRedisCacheWriter(shardRing, writers.stream()
+                .map(writer -> writer.withStatisticsCollector(cacheStatisticsCollector))
+                .toList());
+    }
+
+    /**
+     * 统计收集器由各分片共享，任一分片的统计即为整体统计
+     */
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return writers.get(0).getCacheStatistics(cacheName);
+    }
+
+    /**
+     * 在键所在分片上执行读取或写入，分片熔断或失败时返回null（失败计入分片熔断器）
+     */
+    private byte[] route(byte[] key, Function<RedisCacheWriter, byte[]> operation) {
+        int shard = shardRing.shardOf(key);
+        return shardRing.execute(shard, () -> operation.apply(writers.get(shard)), () -> null);
+    }
+}
@@ -0,0 +1,86 @@
+package space.akko.foundation.common;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 游标分页结果封装
+ * 不返回页码，通过 {@link #nextCursor} 读取下一页；总记录数按需返回，可能为估算值
+ *
+ * @param <T> 数据类型
+ * @author akko
+ * @since 1.0.0
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "游标分页结果")
+public class CursorPageResult<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 数据列表
+     */
+    @Schema(description = "数据列表")
+    private List<T> records;
+
+    /**
+     * 每页大小
+     */
+    @Schema(description = "每页大小", example = "10")
+    private Long size;
+
+    /**
+     * 是否有下一页
+     */
+    @Schema(description = "是否有下一页", example = "true")
+    private Boolean hasNext;
+
+    /**
+     * 下一页游标，没有下一页时为空
+     */
+    @Schema(description = "下一页游标，没有下一页时为空")
+    private String nextCursor;
+
+    /**
+     * 总记录数，未请求统计时为空
+     */
+    @Schema(description = "总记录数，未请求统计时为空", example = "100")
+    private Long total;
+
+    /**
+     * 总记录数是否为估算值
+     */
+    @Schema(description = "总记录数是否为估算值", example = "false")
+    private Boolean totalEstimated;
+
+    public CursorPageResult() {
+    }
+
+    public CursorPageResult(List<T> records, Long size, String nextCursor) {
+        this.records = records;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    /**
+     * 创建游标分页结果
+     */
+    public static <T> CursorPageResult<T> of(List<T> records, Long size, String nextCursor) {
+        return new CursorPageResult<>(records, size, nextCursor);
+    }
+
+    /**
+     * 设置总记录数
+     */
+    public CursorPageResult<T> withTotal(Long total, boolean estimated) {
+        this.total = total;
+        this.totalEstimated = total != null ? estimated : null;
+        return this;
+    }
+}
@@ -0,0 +1,60 @@
+package space.akko.foundation.common;
+
+import space.akko.foundation.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 游标分页的续读位置
+ * 记录上一页最后一行的 (时间, ID)，下一页从其之后开始读取；对外编码为不透明的 URL 安全字符串，
+ * 时间精确到微秒（与 PostgreSQL timestamp 精度一致），并记录排序方向，方向不一致的游标视为无效
+ *
+ * @param time       最后一行的时间
+ * @param id         最后一行的ID
+ * @param descending 是否倒序
+ * @author akko
+ * @since 1.0.0
+ */
+public record SeekCursor(LocalDateTime time, long id, boolean descending) {
+
+    private static final String VERSION = "1";
+
+    /**
+     * 编码为续读令牌
+     */
+    public String encode() {
+        long micros = Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), 1_000_000L),
+                time.getNano() / 1_000);
+        String raw = VERSION + ':' + (descending ? 'd' : 'a') + ':' + micros + ':' + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码续读令牌
+     *
+     * @param token      续读令牌，为空时返回null（第一页）
+     * @param descending 本次查询的排序方向
+     * @throws BusinessException 令牌无效或与排序方向不一致
+     */
+    public static SeekCursor decode(String token, boolean descending) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 4 || !VERSION.equals(parts[0]) || !parts[1].equals(descending ? "d" : "a")) {
+                throw new BusinessException(ResultCode.BAD_REQUEST, "游标无效");
+            }
+            long micros = Long.parseLong(parts[2]);
+            LocalDateTime time = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+            return new SeekCursor(time, Long.parseLong(parts[3]), descending);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "游标无效");
+        }
+    }
+}
@@ -7,7 +7,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.RedisCredentials;
+import io.lettuce.core.RedisURI;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -17,17 +23,39 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import space.akko.foundation.cache.BatchRedisCacheManager;
+import space.akko.foundation.cache.CacheEntryExpiry;
+import space.akko.foundation.cache.CacheEvictionPolicy;
+import space.akko.foundation.cache.CacheGenerationTracker;
+import space.akko.foundation.cache.CacheRefreshPolicy;
+import space.akko.foundation.cache.CacheTombstone;
+import space.akko.foundation.cache.CacheReadBudget;
+import space.akko.foundation.cache.CacheWriteBehind;
+import space.akko.foundation.cache.HeapPressureCacheSizer;
+import space.akko.foundation.cache.HotKeyPolicy;
 import space.akko.foundation.cache.MultiLevelCacheManager;
+import space.akko.foundation.cache.OffHeapCacheManager;
+import space.akko.foundation.cache.RedisCircuitBreaker;
+import space.akko.foundation.cache.RedisShardRing;
 import space.akko.foundation.constant.CacheConstants;
 
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * 缓存配置
@@ -40,48 +68,404 @@ import java.util.concurrent.TimeUnit;
 @EnableCaching
 public class CacheConfig {
 
+    @Value("${platform.cache.l1.maximum-size:1000}")
+    private long l1MaximumSize;
+
+    @Value("${platform.cache.l1.expire-after-write:5m}")
+    private Duration l1ExpireAfterWrite;
+
+    @Value("${platform.cache.l1.adaptive.heap-fraction:0.1}")
+    private double adaptiveHeapFraction;
+
+    /**
+     * 估算的单个L1条目大小，用于将字节预算换算为条目数
+     */
+    @Value("${platform.cache.l1.adaptive.entry-size:2KB}")
+    private DataSize adaptiveEntrySize;
+
+    /**
+     * 各缓存的预算份额，格式为 cacheName:share
+     */
+    @Value("${platform.cache.l1.adaptive.shares:user:0.3,role:0.1,permission:0.2,menu:0.1,dictionary:0.15,config:0.05}")
+    private List<String> adaptiveShares;
+
+    @Value("${platform.cache.l1.adaptive.default-share:0.1}")
+    private double adaptiveDefaultShare;
+
+    @Value("${platform.cache.l1.adaptive.minimum-size:100}")
+    private long adaptiveMinimumSize;
+
+    @Value("${platform.cache.l1.adaptive.pressure-threshold:0.8}")
+    private double adaptivePressureThreshold;
+
+    @Value("${platform.cache.l1.adaptive.recovery-threshold:0.6}")
+    private double adaptiveRecoveryThreshold;
+
+    @Value("${platform.cache.l1.adaptive.shrink-factor:0.5}")
+    private double adaptiveShrinkFactor;
+
+    @Value("${platform.cache.l1.adaptive.grow-factor:1.25}")
+    private double adaptiveGrowFactor;
+
+    @Value("${platform.cache.l1.adaptive.minimum-scale:0.1}")
+    private double adaptiveMinimumScale;
+
+    @Value("${platform.cache.l1.adaptive.check-interval:10s}")
+    private Duration adaptiveCheckInterval;
+
+    @Value("${platform.cache.l2.default-ttl:30m}")
+    private Duration l2DefaultTtl;
+
+    /**
+     * 空值占位的过期时间，L1和L2共用
+     */
+    @Value("${platform.cache.null-value-ttl:" + CacheConstants.NULL_CACHE_TTL + "s}")
+    private Duration nullValueTtl;
+
+    /**
+     * 轮询其他节点清空缓存（命名空间代数变化）的间隔
+     */
+    @Value("${platform.cache.l2.generation-poll-interval:1s}")
+    private Duration generationPollInterval;
+
+    /**
+     * L2分片的Redis地址（redis://[:password@]host:port[/database]），为空时使用默认Redis
+     */
+    @Value("${platform.cache.l2.shards:}")
+    private List<String> l2Shards;
+
+    @Value("${platform.cache.l2.virtual-nodes:160}")
+    private int l2VirtualNodes;
+
+    /**
+     * 分片熔断后探测该分片是否恢复的间隔（分片熔断器的其余参数与L2熔断器相同）
+     */
+    @Value("${platform.cache.l2.shard-down-time:10s}")
+    private Duration l2ShardDownTime;
+
+    @Value("${spring.data.redis.timeout:2000ms}")
+    private Duration redisTimeout;
+
+    /**
+     * 单次L2读取的等待上限
+     */
+    @Value("${platform.cache.l2.read.timeout:20ms}")
+    private Duration l2ReadTimeout;
+
+    /**
+     * 对冲读取的只读副本（redis://host:port），为空时不对冲；仅在不分片时生效
+     */
+    @Value("${platform.cache.l2.read.replica:}")
+    private String l2ReadReplica;
+
+    @Value("${platform.cache.l2.read.hedge-delay:5ms}")
+    private Duration l2ReadHedgeDelay;
+
+    @Value("${platform.cache.l2.circuit-breaker.window-size:100}")
+    private int breakerWindowSize;
+
+    @Value("${platform.cache.l2.circuit-breaker.minimum-calls:20}")
+    private int breakerMinimumCalls;
+
+    @Value("${platform.cache.l2.circuit-breaker.failure-rate-threshold:50}")
+    private int breakerFailureRateThreshold;
+
+    @Value("${platform.cache.l2.circuit-breaker.slow-call-threshold:200ms}")
+    private Duration breakerSlowCallThreshold;
+
+    @Value("${platform.cache.l2.circuit-breaker.slow-call-rate-threshold:80}")
+    private int breakerSlowCallRateThreshold;
+
+    @Value("${platform.cache.l2.circuit-breaker.half-open-calls:10}")
+    private int breakerHalfOpenCalls;
+
+    @Value("${platform.cache.l2.circuit-breaker.probe-interval:5s}")
+    private Duration breakerProbeInterval;
+
+    @Value("${platform.cache.l1.off-heap.enabled:false}")
+    private boolean offHeapEnabled;
+
+    @Value("${platform.cache.l1.off-heap.caches:dictionary,permission}")
+    private Set<String> offHeapCaches;
+
+    /**
+     * 每个堆外缓存的字节预算
+     */
+    @Value("${platform.cache.l1.off-heap.max-bytes:64MB}")
+    private DataSize offHeapMaxBytes;
+
+    @Value("${platform.cache.l1.off-heap.segments:16}")
+    private int offHeapSegments;
+
+    @Value("${platform.cache.l1.off-heap.block-size:256B}")
+    private DataSize offHeapBlockSize;
+
+    /**
+     * 堆上前置缓存容量，0表示不启用
+     */
+    @Value("${platform.cache.l1.off-heap.front-size:100}")
+    private int offHeapFrontSize;
+
+    @Value("${platform.cache.refresh-ahead.caches:role,dictionary,config}")
+    private Set<String> refreshAheadCaches;
+
+    /**
+     * L1条目存活超过TTL的该比例后异步刷新
+     */
+    @Value("${platform.cache.refresh-ahead.refresh-fraction:0.8}")
+    private double refreshFraction;
+
+    /**
+     * XFetch提前过期系数，越大越倾向于提前重新计算
+     */
+    @Value("${platform.cache.refresh-ahead.xfetch-beta:1.0}")
+    private double xfetchBeta;
+
+    @Value("${platform.cache.refresh-ahead.threads:2}")
+    private int refreshThreads;
+
+    @Value("${platform.cache.refresh-ahead.queue-capacity:100}")
+    private int refreshQueueCapacity;
+
+    @Value("${platform.cache.hot-key.top-k:16}")
+    private int hotKeyTopK;
+
+    @Value("${platform.cache.hot-key.sketch-width:1024}")
+    private int hotKeySketchWidth;
+
+    /**
+     * 计数衰减周期（访问次数）
+     */
+    @Value("${platform.cache.hot-key.sample-size:10000}")
+    private int hotKeySampleSize;
+
+    @Value("${platform.cache.hot-key.refresh-interval:30s}")
+    private Duration hotKeyRefreshInterval;
+
+    @Value("${platform.cache.l2.write-behind.queue-capacity:10000}")
+    private int writeBehindCapacity;
+
+    @Value("${platform.cache.l2.write-behind.batch-size:200}")
+    private int writeBehindBatchSize;
+
+    @Value("${platform.cache.l2.write-behind.flush-interval:10ms}")
+    private Duration writeBehindFlushInterval;
+
+    /**
+     * 事务提交后的第二次清除延迟，为0时不启用延迟双删
+     */
+    @Value("${platform.cache.eviction.double-delete-delay:500ms}")
+    private Duration doubleDeleteDelay;
+
     /**
      * L1缓存管理器（Caffeine本地缓存）
      */
     @Bean(CacheConstants.L1_CACHE_NAME)
-    public CacheManager l1CacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    public CacheManager l1CacheManager(MeterRegistry meterRegistry,
+                                       ObjectProvider<HeapPressureCacheSizer> heapPressureCacheSizer) {
+        HeapPressureCacheSizer sizer = heapPressureCacheSizer.getIfAvailable();
+        CaffeineCacheManager cacheManager = sizer == null ? new CaffeineCacheManager() : new CaffeineCacheManager() {
+            // 按堆预算设置每个缓存的最大条目数，覆盖统一的 maximumSize
+            @Override
+            protected com.github.benmanes.caffeine.cache.Cache<Object, Object> createNativeCaffeineCache(String name) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                        super.createNativeCaffeineCache(name);
+                sizer.register(name, nativeCache);
+                return nativeCache;
+            }
+        };
         cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(5, TimeUnit.MINUTES)
+                .maximumSize(l1MaximumSize)
+                .expireAfter(new CacheEntryExpiry(l1ExpireAfterWrite, nullValueTtl))
                 .recordStats());
-        return cacheManager;
+        if (!offHeapEnabled) {
+            return cacheManager;
+        }
+
+        // 大体量、读多写少的缓存以序列化形式存放在堆外，减少GC压力
+        log.info("启用堆外L1缓存: {}", offHeapCaches);
+        return new OffHeapCacheManager(cacheManager, offHeapCaches, jackson2JsonRedisSerializer(),
+                l1ExpireAfterWrite, nullValueTtl, offHeapMaxBytes.toBytes(), offHeapSegments,
+                (int) offHeapBlockSize.toBytes(), offHeapFrontSize, meterRegistry);
+    }
+
+    /**
+     * L1缓存堆预算（按老年代压力收缩和恢复），需显式启用，启用后每个L1缓存的最大条目数由预算换算，
+     * 不再使用 platform.cache.l1.maximum-size
+     */
+    @Bean
+    @ConditionalOnProperty(name = "platform.cache.l1.adaptive.enabled", havingValue = "true")
+    public HeapPressureCacheSizer heapPressureCacheSizer(MeterRegistry meterRegistry) {
+        Map<String, Double> shares = new HashMap<>();
+        for (String share : adaptiveShares) {
+            String[] parts = share.split(":");
+            shares.put(parts[0].trim(), Double.parseDouble(parts[1].trim()));
+        }
+        return new HeapPressureCacheSizer(adaptiveHeapFraction, adaptiveEntrySize.toBytes(), shares,
+                adaptiveDefaultShare, adaptiveMinimumSize, adaptivePressureThreshold, adaptiveRecoveryThreshold,
+                adaptiveShrinkFactor, adaptiveGrowFactor, adaptiveMinimumScale, adaptiveCheckInterval, meterRegistry);
     }
 
     /**
      * L2缓存管理器（Redis分布式缓存）
      */
     @Bean(CacheConstants.L2_CACHE_NAME)
-    public CacheManager l2CacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public CacheManager l2CacheManager(RedisShardRing redisShardRing,
+                                       CacheGenerationTracker cacheGenerationTracker) {
         try {
+            // 空值占位使用较短的TTL，普通值使用默认TTL；键前缀包含命名空间代数
             RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                    .entryTtl(Duration.ofMinutes(30))
+                    .entryTtl((key, value) -> CacheTombstone.isTombstone(value) ? nullValueTtl : l2DefaultTtl)
+                    .computePrefixWith(cacheGenerationTracker)
                     .serializeKeysWith(RedisSerializationContext.SerializationPair
                             .fromSerializer(new StringRedisSerializer()))
                     .serializeValuesWith(RedisSerializationContext.SerializationPair
                             .fromSerializer(jackson2JsonRedisSerializer()))
+                    // null由多级缓存转换为CacheTombstone后写入，此处不直接缓存null
                     .disableCachingNullValues();
 
-            return RedisCacheManager.builder(redisConnectionFactory)
-                    .cacheDefaults(config)
-                    .build();
+            // 支持批量MGET/管道写入的Redis缓存管理器
+            BatchRedisCacheManager cacheManager = new BatchRedisCacheManager(redisShardRing, config,
+                    cacheGenerationTracker);
+            cacheManager.afterPropertiesSet();
+            return cacheManager;
         } catch (Exception e) {
             log.warn("Redis缓存管理器创建失败，使用本地缓存作为备选: {}", e.getMessage());
             // 如果Redis不可用，返回本地缓存作为备选
             CaffeineCacheManager fallbackManager = new CaffeineCacheManager();
             fallbackManager.setCaffeine(Caffeine.newBuilder()
                     .maximumSize(500)
-                    .expireAfterWrite(30, TimeUnit.MINUTES)
+                    .expireAfter(new CacheEntryExpiry(l2DefaultTtl, nullValueTtl))
                     .recordStats());
             return fallbackManager;
         }
     }
 
+    /**
+     * L2分片环：未配置分片时只包含默认Redis
+     * 代数计数器、熔断探测等仍使用默认Redis
+     */
+    @Bean
+    public RedisShardRing redisShardRing(RedisConnectionFactory redisConnectionFactory, MeterRegistry meterRegistry) {
+        List<String> shardUris = l2Shards.stream().filter(StringUtils::hasText).map(String::trim).toList();
+        if (shardUris.isEmpty()) {
+            return RedisShardRing.single(redisConnectionFactory);
+        }
+
+        List<RedisConnectionFactory> factories = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (String shardUri : shardUris) {
+            RedisURI uri = RedisURI.create(shardUri);
+            // 每个分片独立的连接工厂
+            factories.add(createConnectionFactory(uri));
+            names.add(uri.getHost() + ":" + uri.getPort());
+        }
+        log.info("启用L2分片: {}, 虚拟节点数: {}", names, l2VirtualNodes);
+        return new RedisShardRing(factories, names, l2VirtualNodes, (factory, name) ->
+                new RedisCircuitBreaker(factory, meterRegistry, Tags.of("shard", name),
+                        breakerWindowSize, breakerMinimumCalls, breakerFailureRateThreshold,
+                        breakerSlowCallThreshold, breakerSlowCallRateThreshold,
+                        breakerHalfOpenCalls, l2ShardDownTime), true);
+    }
+
+    /**
+     * L2读取时间预算（限时异步读取，可选向只读副本对冲）
+     */
+    @Bean
+    @ConditionalOnProperty(name = "platform.cache.l2.read.enabled", havingValue = "true", matchIfMissing = true)
+    public CacheReadBudget cacheReadBudget(MeterRegistry meterRegistry) {
+        RedisConnectionFactory replicaFactory = null;
+        if (StringUtils.hasText(l2ReadReplica)) {
+            if (l2Shards.stream().anyMatch(StringUtils::hasText)) {
+                log.warn("L2已分片，忽略对冲读取副本: {}", l2ReadReplica);
+            } else {
+                replicaFactory = createConnectionFactory(RedisURI.create(l2ReadReplica.trim()));
+            }
+        }
+        log.info("启用L2读取时间预算: {}, 对冲读取: {}", l2ReadTimeout, replicaFactory != null ? l2ReadHedgeDelay : "关闭");
+        return new CacheReadBudget(l2ReadTimeout, l2ReadHedgeDelay, replicaFactory, meterRegistry);
+    }
+
+    /**
+     * 按Redis URI创建独立的连接工厂
+     */
+    private LettuceConnectionFactory createConnectionFactory(RedisURI uri) {
+        RedisStandaloneConfiguration standalone = new RedisStandaloneConfiguration(uri.getHost(), uri.getPort());
+        standalone.setDatabase(uri.getDatabase());
+        // URI中的静态凭据，解析时立即返回
+        RedisCredentials credentials = uri.getCredentialsProvider().resolveCredentials().block();
+        if (credentials != null) {
+            if (credentials.hasUsername()) {
+                standalone.setUsername(credentials.getUsername());
+            }
+            if (credentials.hasPassword()) {
+                standalone.setPassword(RedisPassword.of(credentials.getPassword()));
+            }
+        }
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(standalone,
+                LettuceClientConfiguration.builder().commandTimeout(redisTimeout).build());
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    /**
+     * 缓存命名空间代数（O(1)清空缓存）
+     */
+    @Bean
+    public CacheGenerationTracker cacheGenerationTracker(RedisConnectionFactory redisConnectionFactory) {
+        return new CacheGenerationTracker(redisConnectionFactory, generationPollInterval);
+    }
+
+    /**
+     * L2缓存熔断器
+     */
+    @Bean
+    public RedisCircuitBreaker redisCircuitBreaker(RedisConnectionFactory redisConnectionFactory,
+                                                   MeterRegistry meterRegistry) {
+        return new RedisCircuitBreaker(redisConnectionFactory, meterRegistry,
+                breakerWindowSize, breakerMinimumCalls, breakerFailureRateThreshold,
+                breakerSlowCallThreshold, breakerSlowCallRateThreshold,
+                breakerHalfOpenCalls, breakerProbeInterval);
+    }
+
+    /**
+     * 缓存预刷新策略
+     */
+    @Bean
+    public CacheRefreshPolicy cacheRefreshPolicy(MeterRegistry meterRegistry) {
+        return new CacheRefreshPolicy(refreshAheadCaches, refreshFraction, l1ExpireAfterWrite, l2DefaultTtl,
+                xfetchBeta, refreshThreads, refreshQueueCapacity, meterRegistry);
+    }
+
+    /**
+     * 热点键探测与固定策略
+     */
+    @Bean
+    @ConditionalOnProperty(name = "platform.cache.hot-key.enabled", havingValue = "true", matchIfMissing = true)
+    public HotKeyPolicy hotKeyPolicy() {
+        return new HotKeyPolicy(hotKeySketchWidth, hotKeyTopK, hotKeySampleSize, hotKeyRefreshInterval,
+                l1ExpireAfterWrite, nullValueTtl);
+    }
+
+    /**
+     * 缓存清除策略（事务提交后清除、延迟双删）
+     */
+    @Bean
+    public CacheEvictionPolicy cacheEvictionPolicy() {
+        return new CacheEvictionPolicy(doubleDeleteDelay);
+    }
+
+    /**
+     * L2异步批量写入
+     */
+    @Bean
+    @ConditionalOnProperty(name = "platform.cache.l2.write-behind.enabled", havingValue = "true")
+    public CacheWriteBehind cacheWriteBehind(RedisCircuitBreaker redisCircuitBreaker, MeterRegistry meterRegistry) {
+        log.info("启用L2异步写入，批量大小: {}, 写入间隔: {}", writeBehindBatchSize, writeBehindFlushInterval);
+        return new CacheWriteBehind(writeBehindCapacity, writeBehindBatchSize, writeBehindFlushInterval,
+                redisCircuitBreaker, meterRegistry);
+    }
+
     /**
      * 多级缓存管理器
      */
@@ -89,9 +473,17 @@ public class CacheConfig {
     @Primary
     @ConditionalOnProperty(name = "platform.cache.multi-level.enabled", havingValue = "true", matchIfMissing = true)
     public CacheManager multiLevelCacheManager(@Qualifier(CacheConstants.L1_CACHE_NAME) CacheManager l1CacheManager,
-                                              @Qualifier(CacheConstants.L2_CACHE_NAME) CacheManager l2CacheManager) {
+                                              @Qualifier(CacheConstants.L2_CACHE_NAME) CacheManager l2CacheManager,
+                                              RedisCircuitBreaker redisCircuitBreaker,
+                                              CacheRefreshPolicy cacheRefreshPolicy,
+                                              ObjectProvider<HotKeyPolicy> hotKeyPolicy,
+                                              CacheEvictionPolicy cacheEvictionPolicy,
+                                              ObjectProvider<CacheWriteBehind> cacheWriteBehind,
+                                              ObjectProvider<CacheReadBudget> cacheReadBudget) {
         log.info("启用多级缓存管理器");
-        return new MultiLevelCacheManager(l1CacheManager, l2CacheManager);
+        return new MultiLevelCacheManager(l1CacheManager, l2CacheManager, redisCircuitBreaker,
+                cacheRefreshPolicy, hotKeyPolicy.getIfAvailable(), cacheEvictionPolicy,
+                cacheWriteBehind.getIfAvailable(), cacheReadBudget.getIfAvailable());
     }
 
     /**
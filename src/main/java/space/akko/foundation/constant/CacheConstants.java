@@ -22,6 +22,16 @@ public final class CacheConstants {
      */
     public static final String CACHE_KEY_PREFIX = "backend";
 
+    /**
+     * 缓存命名空间代数键前缀，完整键为 backend:cache-generation:{cacheName}
+     */
+    public static final String CACHE_GENERATION_KEY_PREFIX = CACHE_KEY_PREFIX + CACHE_KEY_SEPARATOR + "cache-generation" + CACHE_KEY_SEPARATOR;
+
+    /**
+     * 集群限流令牌桶键前缀，完整键为 backend:rate-limit:{ruleName}:{subject}
+     */
+    public static final String RATE_LIMIT_KEY_PREFIX = CACHE_KEY_PREFIX + CACHE_KEY_SEPARATOR + "rate-limit" + CACHE_KEY_SEPARATOR;
+
     /**
      * 用户缓存名称
      */
@@ -0,0 +1,178 @@
+package space.akko.foundation.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import space.akko.foundation.annotation.OperationLog;
+import space.akko.foundation.annotation.RequirePermission;
+import space.akko.foundation.cache.CacheInspector;
+import space.akko.foundation.cache.CacheWarmer;
+import space.akko.foundation.cache.HotKeyDetector;
+import space.akko.foundation.cache.MultiLevelCache;
+import space.akko.foundation.common.Result;
+import space.akko.foundation.common.ResultCode;
+import space.akko.foundation.exception.BusinessException;
+import space.akko.foundation.utils.CacheUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 缓存管理控制器
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Tag(name = "缓存管理", description = "缓存状态查看和管理接口")
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheAdminController {
+
+    private final CacheManager cacheManager;
+    private final CacheInspector cacheInspector;
+    private final List<CacheWarmer> cacheWarmers;
+
+    /**
+     * 单次采样或按模式清除的键数量上限
+     */
+    @Value("${platform.cache.admin.max-keys:1000}")
+    private int maxKeys;
+
+    @Operation(summary = "获取缓存列表", description = "获取各缓存在L1和L2中的条目数和估算字节数")
+    @GetMapping
+    @RequirePermission("CACHE_LIST")
+    public Result<List<CacheInspector.CacheSummary>> getCaches() {
+        List<CacheInspector.CacheSummary> summaries = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                summaries.add(cacheInspector.summarize(cache));
+            }
+        }
+        return Result.success(summaries);
+    }
+
+    @Operation(summary = "采样缓存键", description = "按glob模式采样缓存键（L1和L2合并去重）")
+    @GetMapping("/{cacheName}/keys")
+    @RequirePermission("CACHE_LIST")
+    public Result<List<String>> sampleKeys(
+            @Parameter(description = "缓存名称", required = true) @PathVariable String cacheName,
+            @Parameter(description = "键模式，支持*和?") @RequestParam(defaultValue = "*") String pattern,
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "100") int limit) {
+        Cache cache = requireCache(cacheName);
+        return Result.success(cacheInspector.sampleKeys(cache, pattern, Math.min(limit, maxKeys)));
+    }
+
+    @Operation(summary = "查看缓存条目", description = "查看单个键在各层级中是否存在、写入时长和剩余存活时间")
+    @GetMapping("/{cacheName}/entry")
+    @RequirePermission("CACHE_LIST")
+    public Result<CacheInspector.CacheEntryInfo> getEntry(
+            @Parameter(description = "缓存名称", required = true) @PathVariable String cacheName,
+            @Parameter(description = "缓存键", required = true) @RequestParam String key) {
+        Cache cache = requireCache(cacheName);
+        CacheInspector.CacheEntryInfo entry = cacheInspector.inspect(cache, key);
+        if (entry.levels().stream().noneMatch(CacheInspector.LevelEntry::present)) {
+            throw new BusinessException(ResultCode.CACHE_KEY_NOT_FOUND);
+        }
+        return Result.success(entry);
+    }
+
+    @Operation(summary = "清除缓存条目", description = "按键或键模式清除两级缓存中的条目")
+    @DeleteMapping("/{cacheName}/entries")
+    @RequirePermission("CACHE_MANAGE")
+    @OperationLog(operationType = "DELETE", operationName = "清除缓存条目", resourceType = "CACHE")
+    public Result<Integer> evictEntries(
+            @Parameter(description = "缓存名称", required = true) @PathVariable String cacheName,
+            @Parameter(description = "缓存键") @RequestParam(required = false) String key,
+            @Parameter(description = "键模式，支持*和?") @RequestParam(required = false) String pattern) {
+        if (!StringUtils.hasText(key) && !StringUtils.hasText(pattern)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "请指定缓存键或键模式");
+        }
+        Cache cache = requireCache(cacheName);
+        Set<Object> keys = StringUtils.hasText(key)
+                ? cacheInspector.resolveKeys(cache, key)
+                : cacheInspector.matchKeys(cache, pattern, maxKeys);
+        CacheUtils.evictAll(cache, keys);
+        log.info("管理接口清除缓存: cache={}, key={}, pattern={}, count={}", cacheName, key, pattern, keys.size());
+        return Result.success("缓存清除成功", keys.size());
+    }
+
+    @Operation(summary = "预热缓存", description = "同步执行指定缓存的预热任务")
+    @PostMapping("/{cacheName}/warm-up")
+    @RequirePermission("CACHE_MANAGE")
+    @OperationLog(operationType = "UPDATE", operationName = "预热缓存", resourceType = "CACHE")
+    public Result<Long> warmUp(
+            @Parameter(description = "缓存名称", required = true) @PathVariable String cacheName) {
+        List<CacheWarmer> warmers = cacheWarmers.stream()
+                .filter(warmer -> warmer.getName().equals(cacheName))
+                .toList();
+        if (warmers.isEmpty()) {
+            throw new BusinessException(ResultCode.CACHE_ERROR, "该缓存没有预热任务: " + cacheName);
+        }
+        long start = System.nanoTime();
+        warmers.forEach(CacheWarmer::warmUp);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("管理接口预热缓存: cache={}, 耗时: {}ms", cacheName, elapsed);
+        return Result.success("缓存预热完成", elapsed);
+    }
+
+    @Operation(summary = "获取热点键", description = "获取各缓存当前的热点键及其估算访问频率")
+    @GetMapping("/hot-keys")
+    @RequirePermission("CACHE_LIST")
+    public Result<Map<String, List<Map<String, Object>>>> getHotKeys(
+            @Parameter(description = "缓存名称，为空时返回全部") @RequestParam(required = false) String cacheName) {
+        Map<String, List<Map<String, Object>>> result = new LinkedHashMap<>();
+        List<String> cacheNames = cacheName != null ? List.of(requireCache(cacheName).getName())
+                : new ArrayList<>(cacheManager.getCacheNames());
+        for (String name : cacheNames) {
+            Cache cache = cacheManager.getCache(name);
+            if (!(cache instanceof MultiLevelCache multiLevelCache)) {
+                continue;
+            }
+            Set<Object> pinnedKeys = multiLevelCache.getPinnedKeys();
+            List<Map<String, Object>> hotKeys = new ArrayList<>();
+            for (HotKeyDetector.HotKey hotKey : multiLevelCache.getHotKeys()) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("key", String.valueOf(hotKey.key()));
+                item.put("estimatedCount", hotKey.count());
+                item.put("pinned", pinnedKeys.contains(hotKey.key()));
+                hotKeys.add(item);
+            }
+            result.put(name, hotKeys);
+        }
+        return Result.success(result);
+    }
+
+    /**
+     * 只接受已创建的缓存：缓存管理器对未知名称会动态创建缓存
+     */
+    private Cache requireCache(String cacheName) {
+        if (!cacheManager.getCacheNames().contains(cacheName)) {
+            throw new BusinessException(ResultCode.CACHE_ERROR, "缓存不存在: " + cacheName);
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            throw new BusinessException(ResultCode.CACHE_ERROR, "缓存不存在: " + cacheName);
+        }
+        return cache;
+    }
+}
@@ -1,11 +1,13 @@
 package space.akko.foundation.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.BindException;
@@ -56,6 +58,18 @@ public class GlobalExceptionHandler {
                 .traceId(TraceUtils.getTraceId());
     }
 
+    /**
+     * 处理限流异常
+     */
+    @ExceptionHandler(RateLimitException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public Result<Void> handleRateLimitException(RateLimitException e, HttpServletResponse response) {
+        log.debug("请求被限流: retryAfter={}s", e.getRetryAfterSeconds());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        return Result.<Void>error(e.getCode(), e.getMessage())
+                .traceId(TraceUtils.getTraceId());
+    }
+
     /**
      * 处理参数验证异常
      */
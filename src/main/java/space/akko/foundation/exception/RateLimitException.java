@@ -0,0 +1,26 @@
+package space.akko.foundation.exception;
+
+import lombok.Getter;
+import space.akko.foundation.common.ResultCode;
+
+/**
+ * 限流异常
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Getter
+public class RateLimitException extends BaseException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 建议的重试等待时间（秒）
+     */
+    private final long retryAfterSeconds;
+
+    public RateLimitException(long retryAfterSeconds) {
+        super(ResultCode.TOO_MANY_REQUESTS);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,107 @@
+package space.akko.foundation.filter;
+
+import cn.hutool.core.util.StrUtil;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import space.akko.foundation.common.ResultCode;
+import space.akko.foundation.ratelimit.RateLimitRule;
+import space.akko.foundation.ratelimit.RateLimiter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流过滤器
+ * 按配置的路由规则限流，在进入控制器之前拒绝超限的请求（429，附带 Retry-After）。
+ * 规则格式为 {@code [请求方法 ]路径模式=维度:次数/周期}，多条规则以逗号分隔，如
+ * {@code POST /api/auth/login=ip:10/1m}；请求匹配的每条规则都需通过。
+ * 在JWT认证过滤器之后执行，USER维度可以取得当前用户
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@Order(3)
+@ConditionalOnProperty(name = "platform.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter implements Filter {
+
+    private final RateLimiter rateLimiter;
+    private final List<RouteRule> rules;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimiter rateLimiter, @Value("${platform.rate-limit.rules:}") String rules) {
+        this.rateLimiter = rateLimiter;
+        this.rules = parseRules(rules);
+        log.info("加载路由限流规则: {} 条", this.rules.size());
+    }
+
+    private static List<RouteRule> parseRules(String rules) {
+        List<RouteRule> parsed = new ArrayList<>();
+        for (String entry : StrUtil.splitTrim(rules, ',')) {
+            int equals = entry.lastIndexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("限流规则格式应为 [请求方法 ]路径模式=维度:次数/周期，实际为: " + entry);
+            }
+            String route = entry.substring(0, equals).trim();
+            int space = route.indexOf(' ');
+            String method = space > 0 ? route.substring(0, space).toUpperCase(Locale.ROOT) : null;
+            String pattern = space > 0 ? route.substring(space + 1).trim() : route;
+            parsed.add(new RouteRule(method, pattern, RateLimitRule.parse(route, entry.substring(equals + 1))));
+        }
+        return parsed;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (!rules.isEmpty()) {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+            String uri = httpRequest.getRequestURI();
+            String method = httpRequest.getMethod();
+            for (RouteRule rule : rules) {
+                if ((rule.method() == null || rule.method().equals(method)) && pathMatcher.match(rule.pattern(), uri)) {
+                    long retryAfterMillis = rateLimiter.tryAcquire(rule.rule());
+                    if (retryAfterMillis > 0) {
+                        log.debug("请求被限流 - Rule: {}, URI: {}", rule.rule().getName(), uri);
+                        sendTooManyRequestsResponse((HttpServletResponse) response, retryAfterMillis);
+                        return;
+                    }
+                }
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * 发送限流响应
+     */
+    private void sendTooManyRequestsResponse(HttpServletResponse response, long retryAfterMillis) throws IOException {
+        long retryAfterSeconds = Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999));
+        response.setStatus(ResultCode.TOO_MANY_REQUESTS.getCode());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json;charset=UTF-8");
+        response.getWriter().write(String.format(
+            "{\"code\":%d,\"message\":\"%s\",\"timestamp\":%d}",
+            ResultCode.TOO_MANY_REQUESTS.getCode(), ResultCode.TOO_MANY_REQUESTS.getMessage(),
+            System.currentTimeMillis()));
+    }
+
+    private record RouteRule(String method, String pattern, RateLimitRule rule) {
+    }
+}
@@ -0,0 +1,68 @@
+package space.akko.foundation.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+import space.akko.foundation.annotation.RateLimit;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * 限流规则：每个周期补充 limit 个令牌、最多积累 limit 个令牌的令牌桶
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class RateLimitRule {
+
+    /**
+     * 规则名称，同名规则共用令牌桶
+     */
+    private final String name;
+    private final RateLimit.Dimension dimension;
+    private final long limit;
+    private final Duration period;
+
+    /**
+     * 由注解创建规则
+     *
+     * @param defaultName 注解未指定名称时使用的名称
+     */
+    public static RateLimitRule of(RateLimit annotation, String defaultName) {
+        String name = annotation.name().isEmpty() ? defaultName : annotation.name();
+        return new RateLimitRule(name, annotation.dimension(), annotation.limit(),
+                Duration.ofSeconds(Math.max(1, annotation.periodSeconds())));
+    }
+
+    /**
+     * 解析配置中的规则定义：{@code 维度:次数/周期}，如 {@code ip:20/10s}
+     *
+     * @param name 规则名称
+     * @throws IllegalArgumentException 格式错误
+     */
+    public static RateLimitRule parse(String name, String definition) {
+        int colon = definition.indexOf(':');
+        int slash = definition.indexOf('/', colon + 1);
+        if (colon <= 0 || slash <= colon + 1 || slash == definition.length() - 1) {
+            throw new IllegalArgumentException("限流规则格式应为 维度:次数/周期，实际为: " + definition);
+        }
+        RateLimit.Dimension dimension = RateLimit.Dimension.valueOf(
+                definition.substring(0, colon).trim().toUpperCase(Locale.ROOT));
+        long limit = Long.parseLong(definition.substring(colon + 1, slash).trim());
+        Duration period = DurationStyle.detectAndParse(definition.substring(slash + 1).trim());
+        if (limit <= 0 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("限流次数和周期必须大于0: " + definition);
+        }
+        return new RateLimitRule(name, dimension, limit, period);
+    }
+
+    /**
+     * 每纳秒补充的令牌数
+     */
+    double refillPerNano() {
+        return (double) limit / period.toNanos();
+    }
+}
@@ -0,0 +1,356 @@
+package space.akko.foundation.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import space.akko.foundation.annotation.RateLimit;
+import space.akko.foundation.constant.CacheConstants;
+import space.akko.foundation.utils.SecurityUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 限流器
+ * 每个（规则, 对象）一个本地令牌桶，令牌桶按键散列到若干分段，每个分段一把锁、按最近使用淘汰，
+ * 取令牌只在本地内存中完成，不访问数据库和Redis。
+ * 启用Redis同步时，后台定期把各令牌桶自上次同步以来消耗的令牌数通过Lua脚本扣减到Redis中的集群令牌桶，
+ * 并以集群剩余令牌数校正本地令牌桶；同步间隔内集群总量最多超出（节点数 - 1）× 间隔内消耗的令牌数。
+ * Redis不可用时按本地令牌桶限流，消耗数保留到下次同步。
+ * 按IP限流时以连接的对端地址为限流对象，只有对端是配置的可信代理时才按 X-Forwarded-For 取客户端地址，
+ * 防止客户端伪造转发头绕过限流
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "platform.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimiter implements InitializingBean, DisposableBean {
+
+    private static final int SYNC_BATCH_SIZE = 100;
+
+    /**
+     * 集群令牌桶同步脚本
+     * KEYS[i]：令牌桶；ARGV[1]：本节点当前时间（毫秒）；
+     * ARGV[4i-2..4i+1]：容量、每毫秒补充的令牌数、本节点上次同步以来消耗的令牌数、过期时间（毫秒）。
+     * 按Redis时间补充令牌后扣减消耗数（最多欠下一个容量），返回各令牌桶的剩余令牌数。
+     * Redis 3.2 以下不支持按效果复制，脚本中读取 TIME 后不能再写入，改用本节点时间
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SYNC_SCRIPT = new DefaultRedisScript<>("""
+            local nowMs = tonumber(ARGV[1])
+            if redis.replicate_commands and redis.replicate_commands() then
+                local now = redis.call('TIME')
+                nowMs = tonumber(now[1]) * 1000 + math.floor(tonumber(now[2]) / 1000)
+            end
+            local result = {}
+            for i, key in ipairs(KEYS) do
+                local capacity = tonumber(ARGV[4 * i - 2])
+                local rate = tonumber(ARGV[4 * i - 1])
+                local consumed = tonumber(ARGV[4 * i])
+                local state = redis.call('HMGET', key, 'tokens', 'ts')
+                local tokens = tonumber(state[1]) or capacity
+                local ts = tonumber(state[2]) or nowMs
+                tokens = math.min(capacity, tokens + math.max(0, nowMs - ts) * rate) - consumed
+                tokens = math.max(tokens, -capacity)
+                redis.call('HMSET', key, 'tokens', tostring(tokens), 'ts', tostring(nowMs))
+                redis.call('PEXPIRE', key, ARGV[4 * i + 1])
+                result[i] = tostring(tokens)
+            end
+            return result
+            """, List.class);
+
+    private final Stripe[] stripes;
+    private final StringRedisTemplate redisTemplate;
+    private final ScheduledExecutorService syncer;
+    private final long syncIntervalMillis;
+    private final Counter rejectedCounter;
+    private final Counter syncFailedCounter;
+    private final List<IpAddressMatcher> trustedProxies;
+
+    /**
+     * @param stripes        令牌桶分段数（向上取整为2的幂）
+     * @param maxBuckets     本地令牌桶总数上限，超出时淘汰各分段中最久未使用的令牌桶
+     * @param redisSync      是否与Redis中的集群令牌桶同步
+     * @param syncInterval   同步间隔
+     * @param trustedProxies 可信代理的地址或网段（CIDR）
+     */
+    public RateLimiter(ObjectProvider<RedisConnectionFactory> redisConnectionFactory, MeterRegistry meterRegistry,
+                       @Value("${platform.rate-limit.stripes:64}") int stripes,
+                       @Value("${platform.rate-limit.max-buckets:100000}") int maxBuckets,
+                       @Value("${platform.rate-limit.redis-sync.enabled:true}") boolean redisSync,
+                       @Value("${platform.rate-limit.redis-sync.interval:1s}") Duration syncInterval,
+                       @Value("${platform.rate-limit.trusted-proxies:}") String[] trustedProxies) {
+        int size = Integer.highestOneBit(Math.max(stripes, 2) - 1) << 1;
+        int bucketsPerStripe = Math.max(16, maxBuckets / size);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe(bucketsPerStripe);
+        }
+
+        RedisConnectionFactory connectionFactory = redisSync ? redisConnectionFactory.getIfAvailable() : null;
+        this.redisTemplate = connectionFactory != null ? new StringRedisTemplate(connectionFactory) : null;
+        if (redisTemplate != null) {
+            this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "rate-limit-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.syncer = null;
+        }
+        this.syncIntervalMillis = syncInterval.toMillis();
+
+        this.rejectedCounter = Counter.builder("rate.limit.rejected")
+                .description("被限流拒绝的请求数")
+                .register(meterRegistry);
+        this.syncFailedCounter = Counter.builder("rate.limit.sync.failed")
+                .description("与Redis同步集群令牌桶失败的次数")
+                .register(meterRegistry);
+        this.trustedProxies = Arrays.stream(trustedProxies)
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    /**
+     * 构造完成后开始定期同步集群令牌桶
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (syncer != null) {
+            syncer.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 当前请求在指定维度上的限流对象
+     */
+    public String subjectOf(RateLimit.Dimension dimension) {
+        return switch (dimension) {
+            case USER -> {
+                Long userId = SecurityUtils.getCurrentUserId();
+                yield userId != null ? "user:" + userId : "ip:" + clientIp(SecurityUtils.getCurrentRequest());
+            }
+            case IP -> clientIp(SecurityUtils.getCurrentRequest());
+            case ROUTE -> "*";
+        };
+    }
+
+    /**
+     * 客户端地址：对端不是可信代理时即为对端地址；否则从 X-Forwarded-For 的右端向左跳过可信代理，
+     * 取第一个不可信的地址（更左侧的内容可由客户端任意填写，不予采信）
+     */
+    String clientIp(HttpServletRequest request) {
+        if (request == null) {
+            return "unknown";
+        }
+        String remoteAddr = request.getRemoteAddr();
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (!isTrustedProxy(remoteAddr) || forwardedFor == null || forwardedFor.isBlank()) {
+            return remoteAddr;
+        }
+        String[] hops = forwardedFor.split(",");
+        String client = remoteAddr;
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // 不是IP地址
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按当前请求的限流对象取一个令牌
+     *
+     * @return 0表示通过，否则为建议的重试等待时间（毫秒）
+     */
+    public long tryAcquire(RateLimitRule rule) {
+        return tryAcquire(rule, subjectOf(rule.getDimension()));
+    }
+
+    /**
+     * 从对象的令牌桶中取一个令牌
+     *
+     * @return 0表示通过，否则为建议的重试等待时间（毫秒）
+     */
+    public long tryAcquire(RateLimitRule rule, String subject) {
+        String key = rule.getName() + CacheConstants.CACHE_KEY_SEPARATOR + subject;
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        long now = System.nanoTime();
+        double refillPerNano = rule.refillPerNano();
+
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(key, rule.getLimit(), now);
+                stripe.put(key, bucket);
+            }
+            bucket.rule = rule;
+            bucket.tokens = Math.min(rule.getLimit(), bucket.tokens + (now - bucket.refilledAt) * refillPerNano);
+            bucket.refilledAt = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                bucket.consumed++;
+                return 0L;
+            }
+            rejectedCounter.increment();
+            // 集群校正后令牌数可能为负，等待时间相应变长
+            long waitNanos = (long) Math.ceil((1 - bucket.tokens) / refillPerNano);
+            return Math.max(1L, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        }
+    }
+
+    /**
+     * 把上次同步以来有消耗的令牌桶同步到Redis，并以集群剩余令牌数校正本地令牌桶
+     */
+    void sync() {
+        List<SyncEntry> entries = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Bucket bucket : stripe.values()) {
+                    if (bucket.consumed > 0) {
+                        entries.add(new SyncEntry(stripe, bucket, bucket.consumed));
+                        bucket.consumed = 0;
+                    }
+                }
+            }
+        }
+
+        for (int from = 0; from < entries.size(); from += SYNC_BATCH_SIZE) {
+            List<SyncEntry> batch = entries.subList(from, Math.min(from + SYNC_BATCH_SIZE, entries.size()));
+            try {
+                syncBatch(batch);
+            } catch (Exception e) {
+                syncFailedCounter.increment();
+                log.debug("同步集群令牌桶失败，按本地令牌桶限流: {}", e.getMessage());
+                // 消耗数保留到下次同步
+                for (SyncEntry entry : entries.subList(from, entries.size())) {
+                    synchronized (entry.stripe()) {
+                        entry.bucket().consumed += entry.consumed();
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private void syncBatch(List<SyncEntry> batch) {
+        List<String> keys = new ArrayList<>(batch.size());
+        String[] args = new String[batch.size() * 4 + 1];
+        args[0] = String.valueOf(System.currentTimeMillis());
+        for (int i = 0; i < batch.size(); i++) {
+            SyncEntry entry = batch.get(i);
+            RateLimitRule rule = entry.bucket().rule;
+            keys.add(CacheConstants.RATE_LIMIT_KEY_PREFIX + entry.bucket().key);
+            args[4 * i + 1] = String.valueOf(rule.getLimit());
+            args[4 * i + 2] = String.valueOf(rule.refillPerNano() * 1_000_000);
+            args[4 * i + 3] = String.valueOf(entry.consumed());
+            args[4 * i + 4] = String.valueOf(Math.max(1000L, rule.getPeriod().toMillis() * 2));
+        }
+
+        List<?> remaining = redisTemplate.execute(SYNC_SCRIPT, keys, (Object[]) args);
+        if (remaining == null || remaining.size() != batch.size()) {
+            throw new IllegalStateException("集群令牌桶同步脚本返回数量不一致");
+        }
+        long now = System.nanoTime();
+        for (int i = 0; i < batch.size(); i++) {
+            SyncEntry entry = batch.get(i);
+            double clusterTokens = Double.parseDouble(remaining.get(i).toString());
+            synchronized (entry.stripe()) {
+                Bucket bucket = entry.bucket();
+                // 扣除脚本执行期间本地新消耗的令牌
+                bucket.tokens = Math.min(bucket.rule.getLimit(), clusterTokens - bucket.consumed);
+                bucket.refilledAt = now;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+    }
+
+    /**
+     * 令牌桶分段，按最近使用顺序淘汰
+     */
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+
+        private final int maxBuckets;
+
+        Stripe(int maxBuckets) {
+            super(16, 0.75f, true);
+            this.maxBuckets = maxBuckets;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxBuckets;
+        }
+    }
+
+    private static final class Bucket {
+
+        private final String key;
+        private RateLimitRule rule;
+        private double tokens;
+        private long refilledAt;
+
+        /**
+         * 上次同步以来消耗的令牌数
+         */
+        private long consumed;
+
+        Bucket(String key, long capacity, long now) {
+            this.key = key;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+    }
+
+    private record SyncEntry(Stripe stripe, Bucket bucket, long consumed) {
+    }
+}
@@ -0,0 +1,91 @@
+package space.akko.foundation.utils;
+
+import org.springframework.cache.Cache;
+import space.akko.foundation.cache.MultiLevelCache;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 缓存批量操作工具类
+ * 多级缓存使用批量实现，其他缓存逐个操作
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public final class CacheUtils {
+
+    private CacheUtils() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * 批量获取，未命中的键通过批量加载函数一次加载并写入缓存
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> Map<K, V> getAll(Cache cache, Collection<K> keys, Function<Set<K>, Map<K, V>> bulkLoader) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        if (cache == null) {
+            return bulkLoader.apply(new LinkedHashSet<>(keys));
+        }
+        if (cache instanceof MultiLevelCache multiLevelCache) {
+            return multiLevelCache.getAll(keys, bulkLoader);
+        }
+
+        Map<K, V> result = new LinkedHashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : keys) {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if (wrapper == null) {
+                missing.add(key);
+            } else if (wrapper.get() != null) {
+                result.put(key, (V) wrapper.get());
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<K, V> loaded = bulkLoader.apply(missing);
+            for (K key : missing) {
+                V value = loaded != null ? loaded.get(key) : null;
+                cache.put(key, value);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量写入
+     */
+    public static void putAll(Cache cache, Map<?, ?> entries) {
+        if (cache == null || entries.isEmpty()) {
+            return;
+        }
+        if (cache instanceof MultiLevelCache multiLevelCache) {
+            multiLevelCache.putAll(entries);
+        } else {
+            entries.forEach(cache::put);
+        }
+    }
+
+    /**
+     * 批量清除
+     */
+    public static void evictAll(Cache cache, Collection<?> keys) {
+        if (cache == null || keys.isEmpty()) {
+            return;
+        }
+        if (cache instanceof MultiLevelCache multiLevelCache) {
+            multiLevelCache.evictAll(keys);
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package space.akko.platform.audit.anomaly;
+
+import java.util.Arrays;
+
+/**
+ * 一类检测对象（用户或IP）的基线
+ * 对象按键散列到固定容量的槽位（开放寻址，最多探测 {@value #MAX_PROBES} 个槽位），
+ * 槽位已满时淘汰最久未活动的对象。每个槽位保存：
+ * <ul>
+ *     <li>按分钟的滑动窗口：最近若干分钟的操作次数和失败次数（环形）</li>
+ *     <li>每分钟操作次数的EWMA均值和方差、每分钟失败率的EWMA，分钟结束时更新</li>
+ *     <li>非工作时间操作占比的EWMA，每次操作时更新</li>
+ * </ul>
+ * 全部状态存放在按槽位（和窗口分钟）展开的基本类型数组中，内存占用固定，不随对象数量增长。
+ * 非线程安全，由调用方加锁
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class AnomalyBaselines {
+
+    private static final int MAX_PROBES = 8;
+
+    /**
+     * 两次操作之间的空闲分钟最多按这么多分钟计入基线，更久的空闲不再继续衰减
+     */
+    private static final int MAX_IDLE_MINUTES = 240;
+    private static final int TYPES = AnomalyType.values().length;
+
+    private final int mask;
+    private final int windowMinutes;
+    private final double alpha;
+    private final double offHoursAlpha;
+
+    private final String[] keys;
+    private final long[] lastMinute;
+    private final int[] bucketCounts;
+    private final int[] bucketErrors;
+    private final double[] rateMean;
+    private final double[] rateVariance;
+    private final double[] errorMean;
+    private final int[] baselineMinutes;
+    private final double[] offHoursShare;
+    private final long[] events;
+    private final long[] alertedPeriods;
+
+    private long evictions;
+
+    /**
+     * @param capacity      槽位数（向上取整为2的幂）
+     * @param windowMinutes 滑动窗口分钟数
+     * @param alpha         每分钟基线的EWMA系数
+     * @param offHoursAlpha 非工作时间占比的EWMA系数（每次操作）
+     */
+    AnomalyBaselines(int capacity, int windowMinutes, double alpha, double offHoursAlpha) {
+        int size = Integer.highestOneBit(Math.max(capacity, MAX_PROBES) - 1) << 1;
+        this.mask = size - 1;
+        this.windowMinutes = windowMinutes;
+        this.alpha = alpha;
+        this.offHoursAlpha = offHoursAlpha;
+        this.keys = new String[size];
+        this.lastMinute = new long[size];
+        this.bucketCounts = new int[size * windowMinutes];
+        this.bucketErrors = new int[size * windowMinutes];
+        this.rateMean = new double[size];
+        this.rateVariance = new double[size];
+        this.errorMean = new double[size];
+        this.baselineMinutes = new int[size];
+        this.offHoursShare = new double[size];
+        this.events = new long[size];
+        this.alertedPeriods = new long[size * TYPES];
+    }
+
+    /**
+     * 查找对象的槽位，不存在时分配（必要时淘汰最久未活动的对象）
+     */
+    int slot(String key, long minute) {
+        int hash = key.hashCode();
+        int start = (hash ^ (hash >>> 16)) & mask;
+        int victim = start;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int slot = (start + probe) & mask;
+            if (keys[slot] == null) {
+                reset(slot, key, minute);
+                return slot;
+            }
+            if (keys[slot].equals(key)) {
+                return slot;
+            }
+            if (lastMinute[slot] < lastMinute[victim]) {
+                victim = slot;
+            }
+        }
+        evictions++;
+        reset(victim, key, minute);
+        return victim;
+    }
+
+    private void reset(int slot, String key, long minute) {
+        keys[slot] = key;
+        lastMinute[slot] = minute;
+        Arrays.fill(bucketCounts, slot * windowMinutes, (slot + 1) * windowMinutes, 0);
+        Arrays.fill(bucketErrors, slot * windowMinutes, (slot + 1) * windowMinutes, 0);
+        rateMean[slot] = 0;
+        rateVariance[slot] = 0;
+        errorMean[slot] = 0;
+        baselineMinutes[slot] = 0;
+        offHoursShare[slot] = 0;
+        events[slot] = 0;
+        Arrays.fill(alertedPeriods, slot * TYPES, (slot + 1) * TYPES, Long.MIN_VALUE);
+    }
+
+    /**
+     * 计入一次操作；进入新的分钟时先把已结束的分钟计入基线，并清空移出窗口的分钟
+     * 早于当前分钟的乱序操作计入当前分钟
+     */
+    void record(int slot, long minute, boolean failure) {
+        long last = lastMinute[slot];
+        if (minute > last) {
+            closeMinutes(slot, last, minute);
+            lastMinute[slot] = minute;
+        }
+        int bucket = bucket(slot, lastMinute[slot]);
+        bucketCounts[bucket]++;
+        if (failure) {
+            bucketErrors[bucket]++;
+        }
+    }
+
+    private void closeMinutes(int slot, long last, long minute) {
+        int bucket = bucket(slot, last);
+        observeMinute(slot, bucketCounts[bucket], bucketErrors[bucket]);
+        long idle = Math.min(minute - last - 1, MAX_IDLE_MINUTES);
+        for (long i = 0; i < idle; i++) {
+            observeMinute(slot, 0, 0);
+        }
+        long leaving = Math.min(minute - last, windowMinutes);
+        for (long i = 1; i <= leaving; i++) {
+            int expired = bucket(slot, last + i);
+            bucketCounts[expired] = 0;
+            bucketErrors[expired] = 0;
+        }
+    }
+
+    /**
+     * 把一分钟的操作次数和失败率计入EWMA基线
+     */
+    private void observeMinute(int slot, int count, int errors) {
+        double diff = count - rateMean[slot];
+        rateMean[slot] += alpha * diff;
+        rateVariance[slot] = (1 - alpha) * (rateVariance[slot] + alpha * diff * diff);
+        if (count > 0) {
+            errorMean[slot] += alpha * ((double) errors / count - errorMean[slot]);
+        }
+        if (baselineMinutes[slot] < Integer.MAX_VALUE) {
+            baselineMinutes[slot]++;
+        }
+    }
+
+    private int bucket(int slot, long minute) {
+        return slot * windowMinutes + (int) Math.floorMod(minute, (long) windowMinutes);
+    }
+
+    /**
+     * 计入一次操作是否在非工作时间，返回计入前的非工作时间占比
+     */
+    double recordOffHours(int slot, boolean offHours) {
+        double previous = offHoursShare[slot];
+        offHoursShare[slot] += offHoursAlpha * ((offHours ? 1 : 0) - previous);
+        events[slot]++;
+        return previous;
+    }
+
+    /**
+     * 同一对象的同一类异常在同一周期内只触发一次，返回本次是否应触发
+     */
+    boolean markAlerted(int slot, AnomalyType type, long period) {
+        int index = slot * TYPES + type.ordinal();
+        if (alertedPeriods[index] == period) {
+            return false;
+        }
+        alertedPeriods[index] = period;
+        return true;
+    }
+
+    int windowCount(int slot) {
+        int sum = 0;
+        for (int i = slot * windowMinutes; i < (slot + 1) * windowMinutes; i++) {
+            sum += bucketCounts[i];
+        }
+        return sum;
+    }
+
+    int windowErrors(int slot) {
+        int sum = 0;
+        for (int i = slot * windowMinutes; i < (slot + 1) * windowMinutes; i++) {
+            sum += bucketErrors[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 基线下窗口内的预期操作次数
+     */
+    double expectedWindowCount(int slot) {
+        return rateMean[slot] * windowMinutes;
+    }
+
+    /**
+     * 基线下窗口内操作次数的标准差（按各分钟独立估算）
+     * 每分钟方差不低于均值（泊松噪声），避免稳定负载下方差趋近0时微小波动即超过阈值
+     */
+    double windowStdDev(int slot) {
+        return Math.sqrt(Math.max(rateVariance[slot], rateMean[slot]) * windowMinutes);
+    }
+
+    double errorBaseline(int slot) {
+        return errorMean[slot];
+    }
+
+    int baselineMinutes(int slot) {
+        return baselineMinutes[slot];
+    }
+
+    long events(int slot) {
+        return events[slot];
+    }
+
+    long evictions() {
+        return evictions;
+    }
+}
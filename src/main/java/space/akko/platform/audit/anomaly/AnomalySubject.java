@@ -0,0 +1,20 @@
+package space.akko.platform.audit.anomaly;
+
+/**
+ * 异常检测对象类型
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public enum AnomalySubject {
+
+    /**
+     * 用户名
+     */
+    USER,
+
+    /**
+     * IP地址
+     */
+    IP
+}
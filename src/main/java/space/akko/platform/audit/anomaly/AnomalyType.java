@@ -0,0 +1,32 @@
+package space.akko.platform.audit.anomaly;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 审计异常类型
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public enum AnomalyType {
+
+    /**
+     * 滑动窗口内的操作次数远高于基线
+     */
+    HIGH_RATE("操作频率异常"),
+
+    /**
+     * 滑动窗口内的失败率远高于基线
+     */
+    HIGH_ERROR_RATE("失败率异常"),
+
+    /**
+     * 很少在非工作时间活动的对象在非工作时间操作
+     */
+    OFF_HOURS("非工作时间活动");
+
+    private final String description;
+}
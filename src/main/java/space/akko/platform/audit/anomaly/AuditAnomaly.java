@@ -0,0 +1,43 @@
+package space.akko.platform.audit.anomaly;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 审计异常事件
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Data
+public class AuditAnomaly {
+
+    private Long id;
+    private AnomalyType anomalyType;
+    private AnomalySubject subjectType;
+    private String subjectValue;
+
+    /**
+     * 触发异常的操作时间
+     */
+    private LocalDateTime detectedAt;
+
+    /**
+     * 观测值：窗口内操作次数、窗口内失败率，非工作时间活动为1
+     */
+    private double observedValue;
+
+    /**
+     * 基线值：窗口内预期操作次数、失败率基线或非工作时间活动占比
+     */
+    private double baselineValue;
+    private double thresholdValue;
+
+    /**
+     * 滑动窗口内的操作次数
+     */
+    private int windowCount;
+    private String traceId;
+    private LocalDateTime createdAt;
+}
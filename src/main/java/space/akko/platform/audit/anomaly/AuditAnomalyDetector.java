@@ -0,0 +1,310 @@
+package space.akko.platform.audit.anomaly;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import space.akko.platform.audit.model.entity.AuditOperationLog;
+import space.akko.platform.audit.repository.AuditAnomalyRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 审计日志流式异常检测
+ * 写入管道在每条日志提交时（积压丢弃和采样之前）把日志交给检测器，检测器按用户和IP分别维护基线（见 {@link AnomalyBaselines}），
+ * 在内存中即时判断三类异常：
+ * <ul>
+ *     <li>操作频率：滑动窗口内的操作次数超过基线预期加若干倍标准差，且不少于最小次数</li>
+ *     <li>失败率：滑动窗口内的失败率超过基线加余量，且不低于最小失败率</li>
+ *     <li>非工作时间：非工作时间操作占比很低的对象在非工作时间操作</li>
+ * </ul>
+ * 检测不读写审计日志表；发现的异常放入有界队列，由定时任务批量写入异常事件表。
+ * 基线按对象散列分为 {@value #STRIPES} 段，各段独立加锁，请求线程只在所属段上短暂互斥；
+ * 告警在锁外构造、计数和输出日志
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "platform.audit.anomaly.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditAnomalyDetector implements InitializingBean, DisposableBean {
+
+    private static final int MAX_VALUE_LENGTH = 200;
+    private static final int STRIPE_BITS = 4;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private final AuditAnomalyRepository anomalyRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 按对象分段的基线，每段以自身为锁
+     */
+    private final AnomalyBaselines[] users;
+    private final AnomalyBaselines[] ips;
+    private final int windowMinutes;
+    private final double rateSigma;
+    private final int minWindowCount;
+    private final int warmupMinutes;
+    private final double minErrorRate;
+    private final double errorRateMargin;
+    private final int minErrorSamples;
+    private final int workStartHour;
+    private final int workEndHour;
+    private final double offHoursShareMax;
+    private final long offHoursWarmupEvents;
+    private final Duration retention;
+
+    private final BlockingQueue<AuditAnomaly> pending;
+    private final Map<AnomalyType, Counter> detectedCounters = new EnumMap<>(AnomalyType.class);
+    private final Counter droppedCounter;
+
+    /**
+     * @param capacity             每类对象（用户、IP）的基线槽位数（各段平分）
+     * @param windowMinutes        滑动窗口分钟数
+     * @param alpha                每分钟基线的EWMA系数
+     * @param warmupMinutes        基线至少覆盖这么多分钟后才检测频率和失败率
+     * @param rateSigma            频率阈值：基线预期加几倍标准差
+     * @param minWindowCount       频率异常的窗口内最小操作次数
+     * @param minErrorRate         失败率异常的最小失败率
+     * @param errorRateMargin      失败率阈值：基线加这么多
+     * @param minErrorSamples      检测失败率的窗口内最小操作次数
+     * @param workStartHour        工作时间开始（小时，含）
+     * @param workEndHour          工作时间结束（小时，不含）
+     * @param offHoursShareMax     非工作时间占比低于该值的对象在非工作时间操作时视为异常
+     * @param offHoursWarmupEvents 至少有这么多次操作后才检测非工作时间活动
+     * @param pendingCapacity      等待写入的异常事件上限，超出时丢弃
+     * @param retention            异常事件保留时间
+     */
+    public AuditAnomalyDetector(AuditAnomalyRepository anomalyRepository, MeterRegistry meterRegistry,
+                                @Value("${platform.audit.anomaly.capacity:4096}") int capacity,
+                                @Value("${platform.audit.anomaly.window-minutes:5}") int windowMinutes,
+                                @Value("${platform.audit.anomaly.alpha:0.05}") double alpha,
+                                @Value("${platform.audit.anomaly.warmup-minutes:30}") int warmupMinutes,
+                                @Value("${platform.audit.anomaly.rate-sigma:4}") double rateSigma,
+                                @Value("${platform.audit.anomaly.min-window-count:50}") int minWindowCount,
+                                @Value("${platform.audit.anomaly.min-error-rate:0.5}") double minErrorRate,
+                                @Value("${platform.audit.anomaly.error-rate-margin:0.3}") double errorRateMargin,
+                                @Value("${platform.audit.anomaly.min-error-samples:10}") int minErrorSamples,
+                                @Value("${platform.audit.anomaly.work-start-hour:8}") int workStartHour,
+                                @Value("${platform.audit.anomaly.work-end-hour:20}") int workEndHour,
+                                @Value("${platform.audit.anomaly.off-hours-share-max:0.02}") double offHoursShareMax,
+                                @Value("${platform.audit.anomaly.off-hours-warmup-events:200}") long offHoursWarmupEvents,
+                                @Value("${platform.audit.anomaly.pending-capacity:1000}") int pendingCapacity,
+                                @Value("${platform.audit.anomaly.retention:180d}") Duration retention) {
+        this.anomalyRepository = anomalyRepository;
+        this.meterRegistry = meterRegistry;
+        this.windowMinutes = Math.max(1, windowMinutes);
+        this.users = stripes(capacity, this.windowMinutes, alpha);
+        this.ips = stripes(capacity, this.windowMinutes, alpha);
+        this.rateSigma = rateSigma;
+        this.minWindowCount = minWindowCount;
+        this.warmupMinutes = warmupMinutes;
+        this.minErrorRate = minErrorRate;
+        this.errorRateMargin = errorRateMargin;
+        this.minErrorSamples = Math.max(1, minErrorSamples);
+        this.workStartHour = workStartHour;
+        this.workEndHour = workEndHour;
+        this.offHoursShareMax = offHoursShareMax;
+        this.offHoursWarmupEvents = offHoursWarmupEvents;
+        this.retention = retention;
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, pendingCapacity));
+
+        for (AnomalyType type : AnomalyType.values()) {
+            detectedCounters.put(type, Counter.builder("audit.anomaly.detected")
+                    .description("检测到的审计异常数")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.droppedCounter = Counter.builder("audit.anomaly.dropped")
+                .description("等待写入的队列已满而丢弃的审计异常数")
+                .register(meterRegistry);
+    }
+
+    private static AnomalyBaselines[] stripes(int capacity, int windowMinutes, double alpha) {
+        AnomalyBaselines[] stripes = new AnomalyBaselines[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            // 非工作时间占比按操作次数更新，系数比分钟基线小一个数量级
+            stripes[i] = new AnomalyBaselines(Math.max(1, capacity / STRIPES), windowMinutes, alpha, alpha / 10);
+        }
+        return stripes;
+    }
+
+    /**
+     * 按散列的高位选择分段，与段内按低位选择槽位互不相关
+     */
+    private static AnomalyBaselines stripeOf(AnomalyBaselines[] stripes, String value) {
+        return stripes[(value.hashCode() * 0x9E3779B9) >>> (Integer.SIZE - STRIPE_BITS)];
+    }
+
+    /**
+     * 构造完成后注册淘汰数指标
+     */
+    @Override
+    public void afterPropertiesSet() {
+        FunctionCounter.builder("audit.anomaly.evicted", this, detector -> detector.evictions())
+                .description("槽位不足时被淘汰的检测对象数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 检测一条日志
+     */
+    public void observe(AuditOperationLog auditLog) {
+        LocalDateTime time = auditLog.getOperationTime() != null ? auditLog.getOperationTime() : LocalDateTime.now();
+        long minute = Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60L);
+        boolean failure = Boolean.FALSE.equals(auditLog.getIsSuccess());
+        int hour = time.getHour();
+        boolean offHours = hour < workStartHour || hour >= workEndHour;
+
+        observe(users, AnomalySubject.USER, auditLog.getUsername(), auditLog, time, minute, failure, offHours);
+        observe(ips, AnomalySubject.IP, auditLog.getIpAddress(), auditLog, time, minute, failure, offHours);
+    }
+
+    private void observe(AnomalyBaselines[] stripes, AnomalySubject subject, String value, AuditOperationLog auditLog,
+                         LocalDateTime time, long minute, boolean failure, boolean offHours) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (value.length() > MAX_VALUE_LENGTH) {
+            value = value.substring(0, MAX_VALUE_LENGTH);
+        }
+        AnomalyBaselines baselines = stripeOf(stripes, value);
+        List<Detection> detections = null;
+        int count;
+        synchronized (baselines) {
+            int slot = baselines.slot(value, minute);
+            baselines.record(slot, minute, failure);
+            long windowPeriod = Math.floorDiv(minute, (long) windowMinutes);
+            count = baselines.windowCount(slot);
+
+            if (baselines.baselineMinutes(slot) >= warmupMinutes) {
+                double expected = baselines.expectedWindowCount(slot);
+                double rateThreshold = Math.max(minWindowCount, expected + rateSigma * baselines.windowStdDev(slot));
+                if (count > rateThreshold && baselines.markAlerted(slot, AnomalyType.HIGH_RATE, windowPeriod)) {
+                    detections = add(detections, new Detection(AnomalyType.HIGH_RATE, count, expected, rateThreshold));
+                }
+
+                if (count >= minErrorSamples) {
+                    double errorRate = (double) baselines.windowErrors(slot) / count;
+                    double errorBaseline = baselines.errorBaseline(slot);
+                    double errorThreshold = Math.max(minErrorRate, errorBaseline + errorRateMargin);
+                    if (errorRate > errorThreshold
+                            && baselines.markAlerted(slot, AnomalyType.HIGH_ERROR_RATE, windowPeriod)) {
+                        detections = add(detections,
+                                new Detection(AnomalyType.HIGH_ERROR_RATE, errorRate, errorBaseline, errorThreshold));
+                    }
+                }
+            }
+
+            boolean established = baselines.events(slot) >= offHoursWarmupEvents;
+            double offHoursShare = baselines.recordOffHours(slot, offHours);
+            if (offHours && established && offHoursShare < offHoursShareMax
+                    && baselines.markAlerted(slot, AnomalyType.OFF_HOURS, Math.floorDiv(minute, 60L))) {
+                detections = add(detections, new Detection(AnomalyType.OFF_HOURS, 1, offHoursShare, offHoursShareMax));
+            }
+        }
+
+        if (detections != null) {
+            for (Detection detection : detections) {
+                raise(detection, subject, value, auditLog, time, count);
+            }
+        }
+    }
+
+    /**
+     * 绝大多数日志没有告警，需要时才创建列表
+     */
+    private static List<Detection> add(List<Detection> detections, Detection detection) {
+        List<Detection> target = detections != null ? detections : new ArrayList<>(2);
+        target.add(detection);
+        return target;
+    }
+
+    private void raise(Detection detection, AnomalySubject subject, String value, AuditOperationLog auditLog,
+                       LocalDateTime time, int windowCount) {
+        AuditAnomaly anomaly = new AuditAnomaly();
+        anomaly.setAnomalyType(detection.type());
+        anomaly.setSubjectType(subject);
+        anomaly.setSubjectValue(value);
+        anomaly.setDetectedAt(time);
+        anomaly.setObservedValue(detection.observed());
+        anomaly.setBaselineValue(detection.baseline());
+        anomaly.setThresholdValue(detection.threshold());
+        anomaly.setWindowCount(windowCount);
+        anomaly.setTraceId(auditLog.getTraceId());
+
+        detectedCounters.get(detection.type()).increment();
+        log.warn("检测到审计异常: type={}, {}={}, observed={}, baseline={}, threshold={}",
+                detection.type(), subject, value, detection.observed(), detection.baseline(), detection.threshold());
+        if (!pending.offer(anomaly)) {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * 把等待中的异常事件写入异常事件表；失败时放回队列（放不下的丢弃），下次重试
+     */
+    public void flush() {
+        List<AuditAnomaly> batch = new ArrayList<>(pending.size());
+        pending.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            anomalyRepository.insertBatch(batch);
+        } catch (Exception e) {
+            log.warn("写入审计异常事件失败，下次重试: {}", e.getMessage());
+            for (AuditAnomaly anomaly : batch) {
+                if (!pending.offer(anomaly)) {
+                    droppedCounter.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * 删除超过保留时间的异常事件
+     */
+    public int prune() {
+        return anomalyRepository.deleteBefore(LocalDateTime.now().minus(retention));
+    }
+
+    private long evictions() {
+        return evictions(users) + evictions(ips);
+    }
+
+    private static long evictions(AnomalyBaselines[] stripes) {
+        long evictions = 0;
+        for (AnomalyBaselines baselines : stripes) {
+            synchronized (baselines) {
+                evictions += baselines.evictions();
+            }
+        }
+        return evictions;
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+
+    /**
+     * 在锁内判定、在锁外上报的一次告警
+     */
+    private record Detection(AnomalyType type, double observed, double baseline, double threshold) {
+    }
+}
@@ -0,0 +1,105 @@
+package space.akko.platform.audit.archive;
+
+import space.akko.platform.audit.model.entity.AuditOperationLog;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 归档文件的列定义，顺序即文件中列块的顺序
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+enum ArchiveColumn {
+
+    ID(Type.LONG, AuditOperationLog::getId, AuditOperationLog::setId),
+    TRACE_ID(Type.STRING, AuditOperationLog::getTraceId, AuditOperationLog::setTraceId),
+    USER_ID(Type.LONG, AuditOperationLog::getUserId, AuditOperationLog::setUserId),
+    USERNAME(Type.STRING, AuditOperationLog::getUsername, AuditOperationLog::setUsername),
+    OPERATION_TYPE(Type.STRING, AuditOperationLog::getOperationType, AuditOperationLog::setOperationType),
+    OPERATION_NAME(Type.STRING, AuditOperationLog::getOperationName, AuditOperationLog::setOperationName),
+    RESOURCE_TYPE(Type.STRING, AuditOperationLog::getResourceType, AuditOperationLog::setResourceType),
+    RESOURCE_ID(Type.STRING, AuditOperationLog::getResourceId, AuditOperationLog::setResourceId),
+    REQUEST_METHOD(Type.STRING, AuditOperationLog::getRequestMethod, AuditOperationLog::setRequestMethod),
+    REQUEST_URL(Type.STRING, AuditOperationLog::getRequestUrl, AuditOperationLog::setRequestUrl),
+    REQUEST_PARAMS(Type.STRING, AuditOperationLog::getRequestParams, AuditOperationLog::setRequestParams),
+    REQUEST_BODY(Type.STRING, AuditOperationLog::getRequestBody, AuditOperationLog::setRequestBody),
+    RESPONSE_BODY(Type.STRING, AuditOperationLog::getResponseBody, AuditOperationLog::setResponseBody),
+    IP_ADDRESS(Type.STRING, AuditOperationLog::getIpAddress, AuditOperationLog::setIpAddress),
+    USER_AGENT(Type.STRING, AuditOperationLog::getUserAgent, AuditOperationLog::setUserAgent),
+    EXECUTION_TIME(Type.LONG, AuditOperationLog::getExecutionTime, AuditOperationLog::setExecutionTime),
+    IS_SUCCESS(Type.BOOLEAN, AuditOperationLog::getIsSuccess, AuditOperationLog::setIsSuccess),
+    ERROR_MESSAGE(Type.STRING, AuditOperationLog::getErrorMessage, AuditOperationLog::setErrorMessage),
+    OPERATION_TIME(Type.LONG, log -> toMicros(log.getOperationTime()),
+            (log, micros) -> log.setOperationTime(fromMicros(micros))),
+    CREATED_AT(Type.LONG, log -> toMicros(log.getCreatedAt()),
+            (log, micros) -> log.setCreatedAt(fromMicros(micros))),
+    UPDATED_AT(Type.LONG, log -> toMicros(log.getUpdatedAt()),
+            (log, micros) -> log.setUpdatedAt(fromMicros(micros))),
+    CREATED_BY(Type.LONG, AuditOperationLog::getCreatedBy, AuditOperationLog::setCreatedBy),
+    UPDATED_BY(Type.LONG, AuditOperationLog::getUpdatedBy, AuditOperationLog::setUpdatedBy),
+    IS_DELETED(Type.BOOLEAN, AuditOperationLog::getIsDeleted, AuditOperationLog::setIsDeleted),
+    VERSION(Type.LONG, log -> log.getVersion() != null ? log.getVersion().longValue() : null,
+            (log, version) -> log.setVersion(version != null ? version.intValue() : null));
+
+    private final Type type;
+    private final Function<AuditOperationLog, Object> getter;
+    private final BiConsumer<AuditOperationLog, Object> setter;
+
+    @SuppressWarnings("unchecked")
+    <T> ArchiveColumn(Type type, Function<AuditOperationLog, T> getter, BiConsumer<AuditOperationLog, T> setter) {
+        this.type = type;
+        this.getter = (Function<AuditOperationLog, Object>) getter;
+        this.setter = (BiConsumer<AuditOperationLog, Object>) setter;
+    }
+
+    /**
+     * 编码一个行组中本列的值
+     */
+    @SuppressWarnings("unchecked")
+    byte[] encode(List<AuditOperationLog> rows) {
+        List<Object> values = rows.stream().map(getter).toList();
+        return switch (type) {
+            case STRING -> ColumnCodec.encodeStrings((List<String>) (List<?>) values);
+            case LONG -> ColumnCodec.encodeLongs((List<Long>) (List<?>) values);
+            case BOOLEAN -> ColumnCodec.encodeBooleans((List<Boolean>) (List<?>) values);
+        };
+    }
+
+    /**
+     * 解码本列的值
+     */
+    Object[] decode(byte[] block, int rows) {
+        return switch (type) {
+            case STRING -> ColumnCodec.decodeStrings(block, rows);
+            case LONG -> ColumnCodec.decodeLongs(block, rows);
+            case BOOLEAN -> ColumnCodec.decodeBooleans(block, rows);
+        };
+    }
+
+    void set(AuditOperationLog log, Object value) {
+        setter.accept(log, value);
+    }
+
+    /**
+     * 时间按epoch微秒存储，与PostgreSQL timestamp的精度一致
+     */
+    static Long toMicros(LocalDateTime time) {
+        return time != null ? time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000 : null;
+    }
+
+    static LocalDateTime fromMicros(Long micros) {
+        return micros != null
+                ? LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC)
+                : null;
+    }
+
+    private enum Type {
+        STRING, LONG, BOOLEAN
+    }
+}
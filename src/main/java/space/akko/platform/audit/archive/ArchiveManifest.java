@@ -0,0 +1,40 @@
+package space.akko.platform.audit.archive;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 归档清单：每个归档文件的行组位置和用于跳过行组的摘要
+ *
+ * @param files 归档文件，按日期升序
+ * @author akko
+ * @since 1.0.0
+ */
+public record ArchiveManifest(List<ArchiveFile> files) {
+
+    /**
+     * 一天的归档文件；首次归档后补写的迟到行另存为同一天的追加文件
+     *
+     * @param file      文件名（相对归档目录）
+     * @param day       日期（对应的分区）
+     * @param rowCount  总行数
+     * @param rowGroups 行组
+     */
+    public record ArchiveFile(String file, LocalDate day, long rowCount, List<RowGroup> rowGroups) {
+    }
+
+    /**
+     * 行组：列块依次存放在 offset 之后，最后一块为追踪ID的布隆过滤器
+     *
+     * @param rowCount     行数
+     * @param offset       行组在文件中的起始位置
+     * @param blockLengths 各列块（及布隆过滤器）的字节数
+     * @param minTime      最早操作时间（epoch微秒）
+     * @param maxTime      最晚操作时间（epoch微秒）
+     * @param minUserId    最小用户ID，没有用户时为null
+     * @param maxUserId    最大用户ID，没有用户时为null
+     */
+    public record RowGroup(int rowCount, long offset, int[] blockLengths, long minTime, long maxTime,
+                           Long minUserId, Long maxUserId) {
+    }
+}
@@ -0,0 +1,413 @@
+package space.akko.platform.audit.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import space.akko.platform.audit.archive.ArchiveManifest.ArchiveFile;
+import space.akko.platform.audit.archive.ArchiveManifest.RowGroup;
+import space.akko.platform.audit.model.entity.AuditOperationLog;
+import space.akko.platform.audit.repository.AuditLogRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * 审计日志冷归档
+ * 保留期结束、分区删除之前，把每天的审计日志通过 MyBatis {@link Cursor} 流式读出，
+ * 按行组写入本地的列式压缩文件（列编码见 {@link ColumnCodec}），并在清单中记录每个行组的
+ * 时间范围、用户ID范围和追踪ID布隆过滤器的位置。按追踪ID或用户查询时先用清单和布隆过滤器跳过行组，
+ * 只解码命中行组的相关列，不需要把数据导回数据库。
+ * 已归档的某天在数据库中又出现清单中没有的行（迟到写入或分区删除失败后新增的行）时，
+ * 把这些行另存为当天的追加文件，不重写已有文件
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "platform.audit.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditLogArchiver {
+
+    private static final String MANIFEST_FILE = "manifest.json";
+    private static final byte[] MAGIC = {'A', 'U', 'D', 'C', 2};
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final ArchiveColumn[] COLUMNS = ArchiveColumn.values();
+    private static final int BLOOM_HASHES = 5;
+
+    private final AuditLogRepository auditLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int rowGroupSize;
+
+    private volatile ArchiveManifest manifest;
+
+    /**
+     * @param directory    归档目录
+     * @param rowGroupSize 每个行组的行数
+     */
+    public AuditLogArchiver(AuditLogRepository auditLogRepository, PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            @Value("${platform.audit.archive.dir:./data/audit-archive}") String directory,
+                            @Value("${platform.audit.archive.row-group-size:8192}") int rowGroupSize)
+            throws IOException {
+        this.auditLogRepository = auditLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.rowGroupSize = Math.max(1, rowGroupSize);
+
+        Files.createDirectories(this.directory);
+        Path manifestFile = this.directory.resolve(MANIFEST_FILE);
+        this.manifest = Files.exists(manifestFile)
+                ? objectMapper.readValue(manifestFile.toFile(), ArchiveManifest.class)
+                : new ArchiveManifest(List.of());
+    }
+
+    /**
+     * 归档指定日期之前的每一天：尚未归档的整天归档，已归档的只追加清单中没有的行；
+     * 失败时抛出异常（调用方不应删除对应分区）
+     *
+     * @return 本次写入归档文件的天数
+     */
+    public synchronized int archiveBefore(LocalDate beforeDate) {
+        LocalDateTime earliest = auditLogRepository.selectEarliestOperationTime();
+        if (earliest == null) {
+            return 0;
+        }
+        int archived = 0;
+        for (LocalDate day = earliest.toLocalDate(); day.isBefore(beforeDate); day = day.plusDays(1)) {
+            List<ArchiveFile> files = filesOf(day);
+            boolean written;
+            if (files.isEmpty()) {
+                written = archiveDay(day, fileName(day, 0), row -> true);
+            } else {
+                Set<Long> archivedIds = archivedIds(files);
+                written = archiveDay(day, fileName(day, files.size()), row -> !archivedIds.contains(row.getId()));
+            }
+            if (written) {
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    private List<ArchiveFile> filesOf(LocalDate day) {
+        return manifest.files().stream().filter(file -> file.day().equals(day)).toList();
+    }
+
+    /**
+     * 第一个文件为 audit-日期.col，追加文件依次为 audit-日期-1.col、audit-日期-2.col……
+     */
+    private static String fileName(LocalDate day, int part) {
+        return "audit-" + day.format(FILE_DATE) + (part == 0 ? "" : "-" + part) + ".col";
+    }
+
+    /**
+     * 已归档文件中的全部ID
+     */
+    private Set<Long> archivedIds(List<ArchiveFile> files) {
+        Set<Long> ids = new HashSet<>();
+        for (ArchiveFile file : files) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(file.file()), StandardOpenOption.READ)) {
+                for (RowGroup group : file.rowGroups()) {
+                    for (Object id : decodeColumn(channel, group, ArchiveColumn.ID)) {
+                        ids.add((Long) id);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 归档一天中满足条件的行：写入临时文件，完成后改名并更新清单；没有需要归档的行时不生成文件
+     */
+    private boolean archiveDay(LocalDate day, String fileName, Predicate<AuditOperationLog> include) {
+        Path temp = directory.resolve(fileName + ".tmp");
+        ArchiveFile archiveFile = transactionTemplate.execute(status -> {
+            try (Cursor<AuditOperationLog> cursor = auditLogRepository.selectForArchive(
+                    day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+                 FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(MAGIC));
+                List<RowGroup> rowGroups = new ArrayList<>();
+                List<AuditOperationLog> rows = new ArrayList<>(rowGroupSize);
+                long rowCount = 0;
+                for (AuditOperationLog auditLog : cursor) {
+                    if (!include.test(auditLog)) {
+                        continue;
+                    }
+                    rows.add(auditLog);
+                    if (rows.size() >= rowGroupSize) {
+                        rowGroups.add(writeRowGroup(channel, rows));
+                        rowCount += rows.size();
+                        rows.clear();
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    rowGroups.add(writeRowGroup(channel, rows));
+                    rowCount += rows.size();
+                }
+                channel.force(true);
+                return rowCount > 0 ? new ArchiveFile(fileName, day, rowCount, rowGroups) : null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        try {
+            if (archiveFile == null) {
+                Files.deleteIfExists(temp);
+                return false;
+            }
+            Files.move(temp, directory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            List<ArchiveFile> files = new ArrayList<>(manifest.files());
+            files.add(archiveFile);
+            files.sort(Comparator.comparing(ArchiveFile::day));
+            writeManifest(new ArchiveManifest(files));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("归档审计日志: day={}, file={}, rows={}, rowGroups={}", day, fileName, archiveFile.rowCount(),
+                archiveFile.rowGroups().size());
+        return true;
+    }
+
+    private RowGroup writeRowGroup(FileChannel channel, List<AuditOperationLog> rows) throws IOException {
+        long offset = channel.position();
+        int[] blockLengths = new int[COLUMNS.length + 1];
+        for (ArchiveColumn column : COLUMNS) {
+            byte[] block = column.encode(rows);
+            blockLengths[column.ordinal()] = block.length;
+            channel.write(ByteBuffer.wrap(block));
+        }
+        byte[] bloom = buildBloom(rows);
+        blockLengths[COLUMNS.length] = bloom.length;
+        channel.write(ByteBuffer.wrap(bloom));
+
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        Long minUserId = null;
+        Long maxUserId = null;
+        for (AuditOperationLog row : rows) {
+            Long time = ArchiveColumn.toMicros(row.getOperationTime());
+            if (time != null) {
+                minTime = Math.min(minTime, time);
+                maxTime = Math.max(maxTime, time);
+            }
+            Long userId = row.getUserId();
+            if (userId != null) {
+                minUserId = minUserId == null ? userId : Math.min(minUserId, userId);
+                maxUserId = maxUserId == null ? userId : Math.max(maxUserId, userId);
+            }
+        }
+        return new RowGroup(rows.size(), offset, blockLengths, minTime, maxTime, minUserId, maxUserId);
+    }
+
+    private void writeManifest(ArchiveManifest newManifest) throws IOException {
+        Path temp = directory.resolve(MANIFEST_FILE + ".tmp");
+        objectMapper.writeValue(temp.toFile(), newManifest);
+        Files.move(temp, directory.resolve(MANIFEST_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        this.manifest = newManifest;
+    }
+
+    // ==================== 查询 ====================
+
+    /**
+     * 按追踪ID查询归档的审计日志
+     */
+    public List<AuditOperationLog> findByTraceId(String traceId) {
+        List<AuditOperationLog> result = new ArrayList<>();
+        for (ArchiveFile file : manifest.files()) {
+            scan(file, group -> true, (channel, group) -> {
+                if (!mightContain(readBlock(channel, group, COLUMNS.length), traceId)) {
+                    return null;
+                }
+                Object[] traceIds = decodeColumn(channel, group, ArchiveColumn.TRACE_ID);
+                return row -> traceId.equals(traceIds[row]);
+            }, result);
+        }
+        result.sort(Comparator.comparing(AuditOperationLog::getOperationTime,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        return result;
+    }
+
+    /**
+     * 按用户查询时间范围内归档的审计日志，按操作时间倒序
+     */
+    public List<AuditOperationLog> findByUserId(Long userId, LocalDateTime startTime, LocalDateTime endTime,
+                                                int limit) {
+        long start = startTime != null ? ArchiveColumn.toMicros(startTime) : Long.MIN_VALUE;
+        long end = endTime != null ? ArchiveColumn.toMicros(endTime) : Long.MAX_VALUE;
+        List<AuditOperationLog> result = new ArrayList<>();
+        // 从最近的一天开始，凑满数量后停止
+        List<ArchiveFile> files = new ArrayList<>(manifest.files());
+        files.sort(Comparator.comparing(ArchiveFile::day).reversed());
+        for (ArchiveFile file : files) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if ((startTime != null && file.day().isBefore(startTime.toLocalDate()))
+                    || (endTime != null && file.day().isAfter(endTime.toLocalDate()))) {
+                continue;
+            }
+            scan(file, group -> group.minUserId() != null && group.minUserId() <= userId
+                            && userId <= group.maxUserId() && group.maxTime() >= start && group.minTime() <= end,
+                    (channel, group) -> {
+                        Object[] userIds = decodeColumn(channel, group, ArchiveColumn.USER_ID);
+                        Object[] times = decodeColumn(channel, group, ArchiveColumn.OPERATION_TIME);
+                        return row -> userId.equals(userIds[row]) && times[row] != null
+                                && (Long) times[row] >= start && (Long) times[row] <= end;
+                    }, result);
+        }
+        result.sort(Comparator.comparing(AuditOperationLog::getOperationTime,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * 扫描文件中的行组：先按清单摘要跳过，再用过滤列找出命中的行，只对有命中的行组解码其余列
+     */
+    private void scan(ArchiveFile file, Predicate<RowGroup> groupFilter, RowMatcher matcher,
+                      List<AuditOperationLog> result) {
+        try (FileChannel channel = FileChannel.open(directory.resolve(file.file()), StandardOpenOption.READ)) {
+            for (RowGroup group : file.rowGroups()) {
+                if (!groupFilter.test(group)) {
+                    continue;
+                }
+                IntPredicate match = matcher.match(channel, group);
+                if (match == null) {
+                    continue;
+                }
+                List<Integer> hits = new ArrayList<>();
+                for (int row = 0; row < group.rowCount(); row++) {
+                    if (match.test(row)) {
+                        hits.add(row);
+                    }
+                }
+                if (!hits.isEmpty()) {
+                    result.addAll(materialize(channel, group, hits));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<AuditOperationLog> materialize(FileChannel channel, RowGroup group, List<Integer> rows)
+            throws IOException {
+        List<AuditOperationLog> logs = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            logs.add(new AuditOperationLog());
+        }
+        for (ArchiveColumn column : COLUMNS) {
+            Object[] values = decodeColumn(channel, group, column);
+            for (int i = 0; i < rows.size(); i++) {
+                column.set(logs.get(i), values[rows.get(i)]);
+            }
+        }
+        return logs;
+    }
+
+    private Object[] decodeColumn(FileChannel channel, RowGroup group, ArchiveColumn column) throws IOException {
+        return column.decode(readBlock(channel, group, column.ordinal()), group.rowCount());
+    }
+
+    private byte[] readBlock(FileChannel channel, RowGroup group, int index) throws IOException {
+        long position = group.offset();
+        for (int i = 0; i < index; i++) {
+            position += group.blockLengths()[i];
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(group.blockLengths()[index]);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("归档文件不完整");
+            }
+        }
+        return buffer.array();
+    }
+
+    // ==================== 布隆过滤器 ====================
+
+    /**
+     * 追踪ID布隆过滤器：每个元素约10位，双重哈希生成 {@value #BLOOM_HASHES} 个位置
+     */
+    private static byte[] buildBloom(List<AuditOperationLog> rows) {
+        int bits = Math.max(64, (rows.size() * 10 + 63) / 64 * 64);
+        byte[] bloom = new byte[bits / 8];
+        for (AuditOperationLog row : rows) {
+            if (row.getTraceId() != null) {
+                long hash = hash(row.getTraceId());
+                int h1 = (int) hash;
+                int h2 = (int) (hash >>> 32);
+                for (int i = 0; i < BLOOM_HASHES; i++) {
+                    int bit = Math.floorMod(h1 + i * h2, bits);
+                    bloom[bit >> 3] |= (byte) (1 << (bit & 7));
+                }
+            }
+        }
+        return bloom;
+    }
+
+    private static boolean mightContain(byte[] bloom, String traceId) {
+        int bits = bloom.length * 8;
+        long hash = hash(traceId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            if ((bloom[bit >> 3] & (1 << (bit & 7))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64位 FNV-1a
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * 为行组生成行匹配条件，返回null表示整个行组可以跳过
+     */
+    @FunctionalInterface
+    private interface RowMatcher {
+        IntPredicate match(FileChannel channel, RowGroup group) throws IOException;
+    }
+}
@@ -0,0 +1,277 @@
+package space.akko.platform.audit.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 归档文件的列编码
+ * 字符串列：重复度高时使用字典编码，编码值再做游程编码（RLE）；否则按长度前缀逐行存储。
+ * 整数列：空值位图 + 差分后的 ZigZag 变长整数。布尔列：游程编码。
+ * 每个列块编码后再用 Deflate 压缩
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+final class ColumnCodec {
+
+    private static final byte STRING_DICTIONARY = 0;
+    private static final byte STRING_PLAIN = 1;
+    private static final byte NO_NULLS = 0;
+    private static final byte WITH_NULLS = 1;
+
+    private ColumnCodec() {
+    }
+
+    // ==================== 字符串 ====================
+
+    static byte[] encodeStrings(List<String> values) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        for (String value : values) {
+            if (value != null) {
+                dictionary.putIfAbsent(value, dictionary.size());
+            }
+        }
+        Output out = new Output();
+        if (dictionary.size() * 2 <= values.size()) {
+            out.write(STRING_DICTIONARY);
+            String[] entries = new String[dictionary.size()];
+            dictionary.forEach((value, code) -> entries[code] = value);
+            out.writeVarInt(entries.length);
+            for (String entry : entries) {
+                out.writeString(entry);
+            }
+            // 游程：(编码值+1，0表示null) × 连续行数
+            int i = 0;
+            while (i < values.size()) {
+                String value = values.get(i);
+                int run = 1;
+                while (i + run < values.size() && Objects.equals(values.get(i + run), value)) {
+                    run++;
+                }
+                out.writeVarInt(value == null ? 0 : dictionary.get(value) + 1);
+                out.writeVarInt(run);
+                i += run;
+            }
+        } else {
+            out.write(STRING_PLAIN);
+            for (String value : values) {
+                if (value == null) {
+                    out.writeVarInt(0);
+                } else {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeVarInt(bytes.length + 1);
+                    out.write(bytes, 0, bytes.length);
+                }
+            }
+        }
+        return deflate(out.toByteArray());
+    }
+
+    static String[] decodeStrings(byte[] block, int rows) {
+        ByteBuffer in = ByteBuffer.wrap(inflate(block));
+        String[] values = new String[rows];
+        if (in.get() == STRING_DICTIONARY) {
+            String[] entries = new String[readVarInt(in)];
+            for (int i = 0; i < entries.length; i++) {
+                entries[i] = readString(in);
+            }
+            int row = 0;
+            while (row < rows) {
+                int code = readVarInt(in);
+                int run = readVarInt(in);
+                String value = code == 0 ? null : entries[code - 1];
+                for (int i = 0; i < run; i++) {
+                    values[row++] = value;
+                }
+            }
+        } else {
+            for (int row = 0; row < rows; row++) {
+                int length = readVarInt(in);
+                if (length > 0) {
+                    values[row] = new String(in.array(), in.position(), length - 1, StandardCharsets.UTF_8);
+                    in.position(in.position() + length - 1);
+                }
+            }
+        }
+        return values;
+    }
+
+    // ==================== 整数 ====================
+
+    static byte[] encodeLongs(List<Long> values) {
+        Output out = new Output();
+        boolean hasNull = values.stream().anyMatch(Objects::isNull);
+        out.write(hasNull ? WITH_NULLS : NO_NULLS);
+        if (hasNull) {
+            byte[] bitmap = new byte[(values.size() + 7) / 8];
+            for (int i = 0; i < values.size(); i++) {
+                if (values.get(i) != null) {
+                    bitmap[i >> 3] |= (byte) (1 << (i & 7));
+                }
+            }
+            out.write(bitmap, 0, bitmap.length);
+        }
+        long previous = 0;
+        for (Long value : values) {
+            if (value != null) {
+                out.writeVarLong(zigZag(value - previous));
+                previous = value;
+            }
+        }
+        return deflate(out.toByteArray());
+    }
+
+    static Long[] decodeLongs(byte[] block, int rows) {
+        ByteBuffer in = ByteBuffer.wrap(inflate(block));
+        byte[] bitmap = null;
+        if (in.get() == WITH_NULLS) {
+            bitmap = new byte[(rows + 7) / 8];
+            in.get(bitmap);
+        }
+        Long[] values = new Long[rows];
+        long previous = 0;
+        for (int row = 0; row < rows; row++) {
+            if (bitmap == null || (bitmap[row >> 3] & (1 << (row & 7))) != 0) {
+                previous += unZigZag(readVarLong(in));
+                values[row] = previous;
+            }
+        }
+        return values;
+    }
+
+    // ==================== 布尔 ====================
+
+    static byte[] encodeBooleans(List<Boolean> values) {
+        Output out = new Output();
+        int i = 0;
+        while (i < values.size()) {
+            Boolean value = values.get(i);
+            int run = 1;
+            while (i + run < values.size() && Objects.equals(values.get(i + run), value)) {
+                run++;
+            }
+            out.write(value == null ? 0 : value ? 2 : 1);
+            out.writeVarInt(run);
+            i += run;
+        }
+        return deflate(out.toByteArray());
+    }
+
+    static Boolean[] decodeBooleans(byte[] block, int rows) {
+        ByteBuffer in = ByteBuffer.wrap(inflate(block));
+        Boolean[] values = new Boolean[rows];
+        int row = 0;
+        while (row < rows) {
+            byte value = in.get();
+            int run = readVarInt(in);
+            for (int i = 0; i < run; i++) {
+                values[row++] = value == 0 ? null : value == 2;
+            }
+        }
+        return values;
+    }
+
+    // ==================== 压缩与变长整数 ====================
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && !inflater.finished() && inflater.needsInput()) {
+                    throw new UncheckedIOException(new IOException("列块数据不完整"));
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("列块解压失败", e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        return (int) readVarLong(in);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = readVarInt(in);
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    /**
+     * 支持变长整数的字节输出
+     */
+    private static final class Output extends ByteArrayOutputStream {
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xffffffffL);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7fL) != 0) {
+                write((int) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+}
@@ -4,6 +4,10 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,15 +16,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import space.akko.foundation.annotation.OperationLog;
 import space.akko.foundation.annotation.RequirePermission;
-import space.akko.foundation.common.PageResult;
+import space.akko.foundation.common.CursorPageResult;
 import space.akko.foundation.common.Result;
+import space.akko.platform.audit.export.AuditExportFormat;
 import space.akko.platform.audit.model.request.AuditLogQueryRequest;
+import space.akko.platform.audit.model.vo.AuditAnomalyVO;
 import space.akko.platform.audit.model.vo.AuditLogVO;
 import space.akko.platform.audit.service.AuditLogService;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 
@@ -36,14 +44,16 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AuditLogController {
 
+    private static final DateTimeFormatter EXPORT_FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
     private final AuditLogService auditLogService;
 
-    @Operation(summary = "分页查询审计日志", description = "根据条件分页查询审计日志")
+    @Operation(summary = "分页查询审计日志", description = "根据条件游标分页查询审计日志，通过返回的nextCursor读取下一页")
     @GetMapping
     @RequirePermission("AUDIT_LOG_LIST")
     @OperationLog(operationType = "QUERY", operationName = "分页查询审计日志", resourceType = "AUDIT_LOG")
-    public Result<PageResult<AuditLogVO>> getAuditLogPage(AuditLogQueryRequest request) {
-        PageResult<AuditLogVO> result = auditLogService.getAuditLogPage(request);
+    public Result<CursorPageResult<AuditLogVO>> getAuditLogPage(AuditLogQueryRequest request) {
+        CursorPageResult<AuditLogVO> result = auditLogService.getAuditLogPage(request);
         return Result.success(result);
     }
 
@@ -71,10 +81,10 @@ public class AuditLogController {
     @GetMapping("/user/{userId}")
     @RequirePermission("AUDIT_LOG_LIST")
     @OperationLog(operationType = "QUERY", operationName = "根据用户查询日志", resourceType = "AUDIT_LOG")
-    public Result<PageResult<AuditLogVO>> getAuditLogsByUserId(
+    public Result<CursorPageResult<AuditLogVO>> getAuditLogsByUserId(
             @Parameter(description = "用户ID", required = true) @PathVariable Long userId,
             AuditLogQueryRequest request) {
-        PageResult<AuditLogVO> result = auditLogService.getAuditLogsByUserId(userId, request);
+        CursorPageResult<AuditLogVO> result = auditLogService.getAuditLogsByUserId(userId, request);
         return Result.success(result);
     }
 
@@ -82,14 +92,64 @@ public class AuditLogController {
     @GetMapping("/resource")
     @RequirePermission("AUDIT_LOG_LIST")
     @OperationLog(operationType = "QUERY", operationName = "根据资源查询日志", resourceType = "AUDIT_LOG")
-    public Result<PageResult<AuditLogVO>> getAuditLogsByResource(
+    public Result<CursorPageResult<AuditLogVO>> getAuditLogsByResource(
             @Parameter(description = "资源类型", required = true) @RequestParam String resourceType,
             @Parameter(description = "资源ID", required = true) @RequestParam String resourceId,
             AuditLogQueryRequest request) {
-        PageResult<AuditLogVO> result = auditLogService.getAuditLogsByResource(resourceType, resourceId, request);
+        CursorPageResult<AuditLogVO> result = auditLogService.getAuditLogsByResource(resourceType, resourceId, request);
         return Result.success(result);
     }
 
+    @Operation(summary = "关键词检索审计日志",
+            description = "在操作名称、请求URL、用户名和资源ID中检索关键词，按匹配度倒序；时间范围默认最近7天")
+    @GetMapping("/search")
+    @RequirePermission("AUDIT_LOG_LIST")
+    @OperationLog(operationType = "QUERY", operationName = "关键词检索审计日志", resourceType = "AUDIT_LOG")
+    public Result<List<AuditLogVO>> searchAuditLogs(
+            @Parameter(description = "检索词，至少3个字符（含中日韩文字的子串匹配至少2个字）", required = true) @RequestParam String keyword,
+            @Parameter(description = "开始时间") @RequestParam(required = false) LocalDateTime startTime,
+            @Parameter(description = "结束时间") @RequestParam(required = false) LocalDateTime endTime,
+            @Parameter(description = "是否按相似度匹配（容忍拼写差异），否则按子串匹配")
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @Parameter(description = "返回数量限制") @RequestParam(required = false) Integer limit) {
+        List<AuditLogVO> auditLogs = auditLogService.searchAuditLogs(keyword, startTime, endTime, fuzzy, limit);
+        return Result.success(auditLogs);
+    }
+
+    @Operation(summary = "查询异常操作", description = "查询流式异常检测发现的异常事件，按触发时间倒序；时间范围默认最近1天")
+    @GetMapping("/anomalies")
+    @RequirePermission("AUDIT_LOG_LIST")
+    @OperationLog(operationType = "QUERY", operationName = "查询异常操作", resourceType = "AUDIT_LOG")
+    public Result<List<AuditAnomalyVO>> getAbnormalOperations(
+            @Parameter(description = "开始时间") @RequestParam(required = false) LocalDateTime startTime,
+            @Parameter(description = "结束时间") @RequestParam(required = false) LocalDateTime endTime) {
+        List<AuditAnomalyVO> anomalies = auditLogService.detectAbnormalOperations(startTime, endTime);
+        return Result.success(anomalies);
+    }
+
+    @Operation(summary = "根据追踪ID查询归档日志", description = "在已归档（已从数据库删除）的审计日志中按追踪ID查询")
+    @GetMapping("/archive/trace/{traceId}")
+    @RequirePermission("AUDIT_LOG_DETAIL")
+    @OperationLog(operationType = "QUERY", operationName = "根据追踪ID查询归档日志", resourceType = "AUDIT_LOG")
+    public Result<List<AuditLogVO>> getArchivedAuditLogsByTraceId(
+            @Parameter(description = "追踪ID", required = true) @PathVariable String traceId) {
+        List<AuditLogVO> auditLogs = auditLogService.getArchivedAuditLogsByTraceId(traceId);
+        return Result.success(auditLogs);
+    }
+
+    @Operation(summary = "根据用户查询归档日志", description = "在已归档（已从数据库删除）的审计日志中按用户查询，按操作时间倒序")
+    @GetMapping("/archive/user/{userId}")
+    @RequirePermission("AUDIT_LOG_LIST")
+    @OperationLog(operationType = "QUERY", operationName = "根据用户查询归档日志", resourceType = "AUDIT_LOG")
+    public Result<List<AuditLogVO>> getArchivedAuditLogsByUserId(
+            @Parameter(description = "用户ID", required = true) @PathVariable Long userId,
+            @Parameter(description = "开始时间") @RequestParam(required = false) LocalDateTime startTime,
+            @Parameter(description = "结束时间") @RequestParam(required = false) LocalDateTime endTime,
+            @Parameter(description = "返回数量限制") @RequestParam(defaultValue = "100") int limit) {
+        List<AuditLogVO> auditLogs = auditLogService.getArchivedAuditLogsByUserId(userId, startTime, endTime, limit);
+        return Result.success(auditLogs);
+    }
+
     @Operation(summary = "删除审计日志", description = "根据日志ID删除审计日志")
     @DeleteMapping("/{logId}")
     @RequirePermission("AUDIT_LOG_DELETE")
@@ -161,13 +221,26 @@ public class AuditLogController {
         return Result.success(slowOperations);
     }
 
-    @Operation(summary = "导出审计日志", description = "根据查询条件导出审计日志")
+    @Operation(summary = "导出审计日志",
+            description = "根据查询条件流式导出审计日志（CSV/NDJSON），每行附带续读游标，中断后携带最后收到的游标继续导出")
     @PostMapping("/export")
     @RequirePermission("AUDIT_LOG_EXPORT")
     @OperationLog(operationType = "EXPORT", operationName = "导出审计日志", resourceType = "AUDIT_LOG")
-    public Result<String> exportAuditLogs(@RequestBody AuditLogQueryRequest request) {
-        String exportData = auditLogService.exportAuditLogs(request);
-        return Result.success("审计日志导出成功", exportData);
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestBody AuditLogQueryRequest request,
+            @Parameter(description = "导出格式：csv / ndjson") @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "是否gzip压缩") @RequestParam(defaultValue = "false") boolean gzip) {
+        AuditExportFormat exportFormat = AuditExportFormat.of(format);
+        StreamingResponseBody body = auditLogService.exportAuditLogs(request, exportFormat, gzip);
+
+        String fileName = "audit-logs-" + LocalDateTime.now().format(EXPORT_FILE_TIME) + "."
+                + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
     }
 
     @Operation(summary = "生成审计报告", description = "生成指定时间范围的审计报告")
@@ -0,0 +1,41 @@
+package space.akko.platform.audit.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import space.akko.foundation.common.ResultCode;
+import space.akko.foundation.exception.BusinessException;
+
+/**
+ * 审计日志导出格式
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public enum AuditExportFormat {
+
+    /**
+     * 逗号分隔，首行为表头
+     */
+    CSV("text/csv", "csv"),
+
+    /**
+     * 每行一个JSON对象
+     */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    /**
+     * 解析请求参数（不区分大小写）
+     */
+    public static AuditExportFormat of(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "不支持的导出格式: " + value);
+        }
+    }
+}
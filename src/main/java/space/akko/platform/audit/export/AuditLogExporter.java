@@ -0,0 +1,294 @@
+package space.akko.platform.audit.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import space.akko.foundation.common.ResultCode;
+import space.akko.foundation.common.SeekCursor;
+import space.akko.foundation.exception.BusinessException;
+import space.akko.platform.audit.model.dto.AuditLogDTO;
+import space.akko.platform.audit.model.request.AuditLogQueryRequest;
+import space.akko.platform.audit.repository.AuditLogRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 审计日志流式导出
+ * 通过 MyBatis {@link Cursor}（服务端游标，按批读取）逐行读出并直接写入响应流，内存占用与导出行数无关；
+ * 写出在 MVC 异步线程上进行，不占用请求线程。每行附带续读游标，中断后可携带最后收到的游标从断点继续导出。
+ * 每个导出在传输期间占用一个数据库连接，同时进行的导出数受限，超出时返回 429。
+ * 导出名额在响应体开始执行时获取、结束时释放，响应体未执行（如异步处理未能开始）时不占用名额；
+ * 超时只作用于导出响应，不影响其他异步请求
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class AuditLogExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 每写出若干行刷新一次，使客户端及时收到数据
+     */
+    private static final int FLUSH_ROWS = 1000;
+
+    private static final String[] CSV_HEADER = {
+            "id", "traceId", "userId", "username", "realName", "operationType", "operationName",
+            "resourceType", "resourceId", "requestMethod", "requestUrl", "requestParams", "requestBody",
+            "responseBody", "ipAddress", "userAgent", "executionTime", "isSuccess", "errorMessage",
+            "operationTime", "createdAt", "cursor"
+    };
+
+    private final AuditLogRepository auditLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Semaphore permits;
+    private final Duration timeout;
+    private final Counter rowCounter;
+
+    /**
+     * @param maxConcurrent 同时进行的导出数上限
+     * @param timeout       单个导出响应的最长时间
+     */
+    public AuditLogExporter(AuditLogRepository auditLogRepository, PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${platform.audit.export.max-concurrent:2}") int maxConcurrent,
+                            @Value("${platform.audit.export.timeout:30m}") Duration timeout) {
+        this.auditLogRepository = auditLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+        this.timeout = timeout;
+        this.rowCounter = Counter.builder("audit.export.rows")
+                .description("导出的审计日志行数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 创建导出响应体并为当前请求设置导出超时；游标无效或导出数已满时立即抛出异常，响应尚未开始。
+     * 名额在响应体中获取，并发请求恰好同时通过检查时，后执行的响应体同样以 429 结束
+     *
+     * @param request 查询条件，cursor 不为空时从该位置之后继续导出（不再输出表头）
+     * @param gzip    是否gzip压缩
+     */
+    public StreamingResponseBody export(AuditLogQueryRequest request, AuditExportFormat format, boolean gzip) {
+        boolean descending = !"asc".equalsIgnoreCase(request.getSortOrder());
+        SeekCursor cursor = SeekCursor.decode(request.getCursor(), descending);
+        if (permits.availablePermits() == 0) {
+            throw tooManyExports();
+        }
+        applyTimeout();
+        return outputStream -> {
+            if (!permits.tryAcquire()) {
+                throw tooManyExports();
+            }
+            long start = System.currentTimeMillis();
+            try {
+                long rows = write(request, cursor, descending, format, gzip, outputStream);
+                log.info("审计日志导出完成: format={}, rows={}, elapsed={}ms", format, rows,
+                        System.currentTimeMillis() - start);
+            } catch (UncheckedIOException e) {
+                // 客户端断开等写出失败，事务回滚并关闭游标
+                log.warn("审计日志导出中断: {}", e.getMessage());
+                throw e.getCause();
+            } finally {
+                permits.release();
+            }
+        };
+    }
+
+    private static BusinessException tooManyExports() {
+        return new BusinessException(ResultCode.TOO_MANY_REQUESTS, "导出任务过多，请稍后重试");
+    }
+
+    /**
+     * 导出超时只设置在当前请求上，异步处理开始时生效
+     */
+    private void applyTimeout() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(attributes.getRequest())
+                    .getAsyncWebRequest();
+            if (asyncWebRequest != null) {
+                asyncWebRequest.setTimeout(timeout.toMillis());
+            }
+        }
+    }
+
+    private long write(AuditLogQueryRequest request, SeekCursor cursor, boolean descending,
+                       AuditExportFormat format, boolean gzip, OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : null;
+        OutputStream out = new BufferedOutputStream(gzipStream != null ? gzipStream : outputStream, BUFFER_SIZE);
+        RowWriter rowWriter = format == AuditExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+        if (cursor == null) {
+            rowWriter.writeHeader();
+        }
+
+        Long rows = transactionTemplate.execute(status -> {
+            long count = 0;
+            try (Cursor<AuditLogDTO> logs = auditLogRepository.selectAuditLogsForExport(request,
+                    cursor != null ? cursor.time() : null, cursor != null ? cursor.id() : null, descending)) {
+                for (AuditLogDTO auditLog : logs) {
+                    String next = new SeekCursor(auditLog.getOperationTime(), auditLog.getId(), descending).encode();
+                    rowWriter.writeRow(auditLog, next);
+                    if (++count % FLUSH_ROWS == 0) {
+                        rowWriter.flush();
+                        rowCounter.increment(FLUSH_ROWS);
+                    }
+                }
+                rowWriter.flush();
+                rowCounter.increment(count % FLUSH_ROWS);
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        if (gzipStream != null) {
+            gzipStream.finish();
+        }
+        outputStream.flush();
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * 按格式写出一行
+     */
+    private interface RowWriter {
+
+        void writeHeader() throws IOException;
+
+        void writeRow(AuditLogDTO auditLog, String cursor) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    /**
+     * CSV：UTF-8 带BOM（便于表格软件识别），字段按需加引号；以公式字符开头的文本加单引号前缀，防止公式注入
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write('\uFEFF');
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void writeRow(AuditLogDTO auditLog, String cursor) throws IOException {
+            Object[] values = {
+                    auditLog.getId(), auditLog.getTraceId(), auditLog.getUserId(), auditLog.getUsername(),
+                    auditLog.getRealName(), auditLog.getOperationType(), auditLog.getOperationName(),
+                    auditLog.getResourceType(), auditLog.getResourceId(), auditLog.getRequestMethod(),
+                    auditLog.getRequestUrl(), auditLog.getRequestParams(), auditLog.getRequestBody(),
+                    auditLog.getResponseBody(), auditLog.getIpAddress(), auditLog.getUserAgent(),
+                    auditLog.getExecutionTime(), auditLog.getIsSuccess(), auditLog.getErrorMessage(),
+                    auditLog.getOperationTime(), auditLog.getCreatedAt(), cursor
+            };
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString(), values[i] instanceof String);
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeField(String value, boolean text) throws IOException {
+            if (text && !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * NDJSON：每行一个日志对象，附加 cursor 字段
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        /**
+         * 不在每行后刷新，由调用方按批刷新
+         */
+        private final ObjectWriter rowWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeHeader() {
+            // 无表头
+        }
+
+        @Override
+        public void writeRow(AuditLogDTO auditLog, String cursor) throws IOException {
+            ObjectNode node = objectMapper.valueToTree(auditLog);
+            node.put("cursor", cursor);
+            rowWriter.writeValue(generator, node);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
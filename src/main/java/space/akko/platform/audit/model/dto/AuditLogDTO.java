@@ -1,5 +1,6 @@
 package space.akko.platform.audit.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
@@ -77,4 +78,8 @@ public class AuditLogDTO {
 
     @Schema(description = "创建时间", example = "2024-01-01T10:00:00")
     private LocalDateTime createdAt;
+
+    @Schema(description = "关键词检索的匹配度（0~1），仅检索结果返回", example = "0.8")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double score;
 }
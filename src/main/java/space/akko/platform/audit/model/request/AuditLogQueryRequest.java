@@ -60,15 +60,16 @@ public class AuditLogQueryRequest {
     @Schema(description = "关键词搜索（操作名称、资源ID）", example = "用户")
     private String keyword;
 
-    @Schema(description = "页码", example = "1")
-    private Long current = 1L;
+    @Schema(description = "游标（上一页返回的nextCursor），为空时查询第一页")
+    private String cursor;
 
     @Schema(description = "每页大小", example = "10")
     private Long size = 10L;
 
-    @Schema(description = "排序字段", example = "operation_time")
-    private String sortField = "operation_time";
+    @Schema(description = "总记录数统计方式：none-不统计，estimated-估算，exact-精确统计",
+            example = "none", allowableValues = {"none", "estimated", "exact"})
+    private String countMode = "none";
 
-    @Schema(description = "排序方向", example = "desc", allowableValues = {"asc", "desc"})
+    @Schema(description = "排序方向（按操作时间）", example = "desc", allowableValues = {"asc", "desc"})
     private String sortOrder = "desc";
 }
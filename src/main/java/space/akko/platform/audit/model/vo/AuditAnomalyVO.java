@@ -0,0 +1,52 @@
+package space.akko.platform.audit.model.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 审计异常事件视图对象
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Data
+@Schema(description = "审计异常事件视图对象")
+public class AuditAnomalyVO {
+
+    @Schema(description = "异常事件ID", example = "1")
+    private Long id;
+
+    @Schema(description = "异常类型", example = "HIGH_RATE")
+    private String anomalyType;
+
+    @Schema(description = "异常类型显示名称", example = "操作频率异常")
+    private String anomalyTypeName;
+
+    @Schema(description = "检测对象类型", example = "USER")
+    private String subjectType;
+
+    @Schema(description = "用户名或IP地址", example = "admin")
+    private String subjectValue;
+
+    @Schema(description = "触发异常的操作时间", example = "2024-01-01 10:00:00")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime detectedAt;
+
+    @Schema(description = "观测值（窗口内操作次数、失败率，非工作时间活动为1）", example = "320")
+    private Double observedValue;
+
+    @Schema(description = "基线值", example = "40.5")
+    private Double baselineValue;
+
+    @Schema(description = "触发阈值", example = "120")
+    private Double thresholdValue;
+
+    @Schema(description = "滑动窗口内的操作次数", example = "320")
+    private Integer windowCount;
+
+    @Schema(description = "触发异常的操作的追踪ID", example = "trace_123456")
+    private String traceId;
+}
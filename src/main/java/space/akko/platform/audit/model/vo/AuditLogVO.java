@@ -1,6 +1,7 @@
 package space.akko.platform.audit.model.vo;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
@@ -101,4 +102,8 @@ public class AuditLogVO {
     @Schema(description = "创建时间", example = "2024-01-01 10:00:00")
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
+
+    @Schema(description = "关键词检索的匹配度（0~1），仅检索结果返回", example = "0.8")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double score;
 }
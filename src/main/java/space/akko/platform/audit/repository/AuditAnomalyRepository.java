@@ -0,0 +1,35 @@
+package space.akko.platform.audit.repository;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import space.akko.platform.audit.anomaly.AuditAnomaly;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 审计异常事件Repository
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Mapper
+public interface AuditAnomalyRepository {
+
+    /**
+     * 批量写入异常事件
+     */
+    int insertBatch(@Param("anomalies") List<AuditAnomaly> anomalies);
+
+    /**
+     * 查询时间范围内的异常事件，按触发时间倒序
+     */
+    List<AuditAnomaly> selectAnomalies(@Param("startTime") LocalDateTime startTime,
+                                       @Param("endTime") LocalDateTime endTime,
+                                       @Param("limit") int limit);
+
+    /**
+     * 删除指定时间之前的异常事件
+     */
+    int deleteBefore(@Param("before") LocalDateTime before);
+}
@@ -1,17 +1,16 @@
 package space.akko.platform.audit.repository;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
-import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 import space.akko.platform.audit.model.dto.AuditLogDTO;
 import space.akko.platform.audit.model.entity.AuditOperationLog;
 import space.akko.platform.audit.model.request.AuditLogQueryRequest;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 /**
  * 审计日志Repository
@@ -23,97 +22,87 @@ import java.util.Map;
 public interface AuditLogRepository extends BaseMapper<AuditOperationLog> {
 
     /**
-     * 分页查询审计日志
+     * 游标分页查询审计日志，按 (操作时间, ID) 排序
+     *
+     * @param cursorTime 上一页最后一行的操作时间，为null时查询第一页
+     * @param cursorId   上一页最后一行的ID
+     * @param descending 是否倒序
+     * @param limit      返回数量
      */
-    IPage<AuditLogDTO> selectAuditLogPage(Page<AuditLogDTO> page, @Param("query") AuditLogQueryRequest query);
+    List<AuditLogDTO> selectAuditLogsByKeyset(@Param("query") AuditLogQueryRequest query,
+                                              @Param("cursorTime") LocalDateTime cursorTime,
+                                              @Param("cursorId") Long cursorId,
+                                              @Param("descending") boolean descending,
+                                              @Param("limit") int limit);
 
     /**
-     * 根据追踪ID查询审计日志
-     */
-    List<AuditLogDTO> selectAuditLogsByTraceId(@Param("traceId") String traceId);
-
-    /**
-     * 根据用户ID查询审计日志
+     * 流式读取审计日志（导出），按 (操作时间, ID) 排序，需在事务内使用
+     *
+     * @param cursorTime 从该位置之后开始读取，为null时从头读取
      */
-    IPage<AuditLogDTO> selectAuditLogsByUserId(Page<AuditLogDTO> page, 
-                                              @Param("userId") Long userId, 
-                                              @Param("query") AuditLogQueryRequest query);
+    Cursor<AuditLogDTO> selectAuditLogsForExport(@Param("query") AuditLogQueryRequest query,
+                                                 @Param("cursorTime") LocalDateTime cursorTime,
+                                                 @Param("cursorId") Long cursorId,
+                                                 @Param("descending") boolean descending);
 
     /**
-     * 根据资源查询审计日志
+     * 精确统计审计日志数量
      */
-    IPage<AuditLogDTO> selectAuditLogsByResource(Page<AuditLogDTO> page,
-                                                @Param("resourceType") String resourceType,
-                                                @Param("resourceId") String resourceId,
-                                                @Param("query") AuditLogQueryRequest query);
+    long countAuditLogs(@Param("query") AuditLogQueryRequest query);
 
     /**
-     * 清理过期的审计日志
+     * 审计日志数量查询的执行计划（用于估算数量）
      */
-    int deleteExpiredAuditLogs(@Param("beforeTime") LocalDateTime beforeTime);
+    List<String> explainAuditLogCount(@Param("query") AuditLogQueryRequest query);
 
     /**
-     * 获取操作类型统计
+     * 关键词检索审计日志，按匹配度倒序
+     *
+     * @param keyword 检索词，用于计算匹配度和相似度匹配
+     * @param pattern 子串匹配的ILIKE模式（已转义通配符）
+     * @param fuzzy   是否按相似度匹配，否则按子串匹配
      */
-    List<Map<String, Object>> selectOperationTypeStatistics(@Param("startTime") LocalDateTime startTime,
-                                                           @Param("endTime") LocalDateTime endTime);
+    List<AuditLogDTO> searchAuditLogs(@Param("keyword") String keyword,
+                                      @Param("pattern") String pattern,
+                                      @Param("fuzzy") boolean fuzzy,
+                                      @Param("startTime") LocalDateTime startTime,
+                                      @Param("endTime") LocalDateTime endTime,
+                                      @Param("limit") int limit);
 
     /**
-     * 获取用户操作统计
-     */
-    List<Map<String, Object>> selectUserOperationStatistics(@Param("startTime") LocalDateTime startTime,
-                                                           @Param("endTime") LocalDateTime endTime,
-                                                           @Param("limit") Integer limit);
-
-    /**
-     * 获取资源操作统计
-     */
-    List<Map<String, Object>> selectResourceOperationStatistics(@Param("startTime") LocalDateTime startTime,
-                                                               @Param("endTime") LocalDateTime endTime,
-                                                               @Param("limit") Integer limit);
-
-    /**
-     * 获取IP访问统计
+     * 根据追踪ID查询审计日志
      */
-    List<Map<String, Object>> selectIpAccessStatistics(@Param("startTime") LocalDateTime startTime,
-                                                      @Param("endTime") LocalDateTime endTime,
-                                                      @Param("limit") Integer limit);
+    List<AuditLogDTO> selectAuditLogsByTraceId(@Param("traceId") String traceId);
 
     /**
-     * 获取错误操作统计
+     * 批量插入审计日志（一条多行INSERT）
      */
-    List<Map<String, Object>> selectErrorOperationStatistics(@Param("startTime") LocalDateTime startTime,
-                                                            @Param("endTime") LocalDateTime endTime);
+    int insertBatch(@Param("logs") List<AuditOperationLog> logs);
 
     /**
-     * 获取慢操作列表
+     * 流式读取时间范围内的审计日志（归档），需在事务内使用
      */
-    List<AuditLogDTO> selectSlowOperations(@Param("minExecutionTime") Long minExecutionTime,
-                                         @Param("limit") Integer limit);
+    Cursor<AuditOperationLog> selectForArchive(@Param("startTime") LocalDateTime startTime,
+                                               @Param("endTime") LocalDateTime endTime);
 
     /**
-     * 获取审计日志趋势数据
+     * 最早的操作时间
      */
-    List<Map<String, Object>> selectAuditLogTrend(@Param("startTime") LocalDateTime startTime,
-                                                 @Param("endTime") LocalDateTime endTime,
-                                                 @Param("granularity") String granularity);
+    LocalDateTime selectEarliestOperationTime();
 
     /**
-     * 检查用户操作频率
+     * 创建从指定日期开始连续若干天的按天分区，返回新建的分区数
      */
-    int countUserOperations(@Param("userId") Long userId,
-                           @Param("operationType") String operationType,
-                           @Param("afterTime") LocalDateTime afterTime);
+    int createPartitions(@Param("fromDate") LocalDate fromDate, @Param("days") int days);
 
     /**
-     * 检测异常操作
+     * 解除挂载并删除指定日期之前的按天分区，返回删除的分区名
      */
-    List<AuditLogDTO> selectAbnormalOperations(@Param("startTime") LocalDateTime startTime,
-                                             @Param("endTime") LocalDateTime endTime);
+    List<String> dropPartitionsBefore(@Param("beforeDate") LocalDate beforeDate);
 
     /**
-     * 获取审计日志总体统计
+     * 获取慢操作列表
      */
-    Map<String, Object> selectAuditLogOverallStatistics(@Param("startTime") LocalDateTime startTime,
-                                                       @Param("endTime") LocalDateTime endTime);
+    List<AuditLogDTO> selectSlowOperations(@Param("minExecutionTime") Long minExecutionTime,
+                                         @Param("limit") Integer limit);
 }
@@ -0,0 +1,78 @@
+package space.akko.platform.audit.repository;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import space.akko.platform.audit.rollup.RollupCount;
+import space.akko.platform.audit.rollup.RollupDimension;
+import space.akko.platform.audit.rollup.RollupLevel;
+import space.akko.platform.audit.rollup.RollupRange;
+import space.akko.platform.audit.rollup.RollupStat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 审计日志统计汇总Repository
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Mapper
+public interface AuditRollupRepository {
+
+    /**
+     * 把计数累加到分钟表
+     */
+    int upsertMinuteCounts(@Param("counts") List<RollupCount> counts);
+
+    /**
+     * 从下一级汇总表重新汇总 [from, to) 内的时间桶（覆盖已有结果，可重复执行）
+     */
+    int mergeLevel(@Param("source") RollupLevel source, @Param("target") RollupLevel target,
+                   @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * 删除指定时间之前的时间桶
+     */
+    int deleteBefore(@Param("level") RollupLevel level, @Param("before") LocalDateTime before);
+
+    /**
+     * 最早的时间桶
+     */
+    LocalDateTime selectEarliestBucket(@Param("level") RollupLevel level);
+
+    /**
+     * 各级汇总已完整覆盖到的时间
+     */
+    List<Map<String, Object>> selectWatermarks();
+
+    /**
+     * 更新汇总进度
+     */
+    int upsertWatermark(@Param("level") RollupLevel level, @Param("mergedUntil") LocalDateTime mergedUntil);
+
+    /**
+     * 按维度值汇总，按次数（或失败次数）倒序
+     *
+     * @param byFailures 是否按失败次数排序并只返回有失败的维度值
+     */
+    List<RollupStat> selectDimensionStats(@Param("ranges") List<RollupRange> ranges,
+                                          @Param("dimension") RollupDimension dimension,
+                                          @Param("byFailures") boolean byFailures,
+                                          @Param("limit") int limit);
+
+    /**
+     * 按时间桶汇总
+     *
+     * @param level 时间桶粒度
+     */
+    List<RollupStat> selectTrend(@Param("ranges") List<RollupRange> ranges,
+                                 @Param("dimension") RollupDimension dimension,
+                                 @Param("level") RollupLevel level);
+
+    /**
+     * 区间内不同维度值的数量
+     */
+    long countDistinct(@Param("ranges") List<RollupRange> ranges, @Param("dimension") RollupDimension dimension);
+}
@@ -0,0 +1,297 @@
+package space.akko.platform.audit.rollup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import space.akko.platform.audit.model.entity.AuditOperationLog;
+import space.akko.platform.audit.repository.AuditRollupRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 审计日志统计汇总
+ * 写入管道在每条日志提交时（积压丢弃和采样之前，统计不受丢弃影响）按分钟、按维度（操作类型、用户、资源类型、IP）
+ * 在内存中累计次数、失败次数和执行时间，
+ * 分钟结束后追加到分钟表；定时任务把完整的小时从分钟表汇总到小时表、完整的天从小时表汇总到天表，
+ * 并记录各级已汇总到的时间。查询时整天读天表、整小时读小时表、其余读分钟表，耗时与原始日志量无关。
+ * 当前分钟的计数在分钟结束并追加后才可查询
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "platform.audit.rollup.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditLogRollup implements DisposableBean {
+
+    private static final String TOTAL_VALUE = "*";
+    private static final int MAX_VALUE_LENGTH = 200;
+    private static final int UPSERT_BATCH_SIZE = 500;
+
+    private final AuditRollupRepository rollupRepository;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+
+    private final Map<CounterKey, Cell> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 上次汇总后追加的最早时间桶，汇总时从这里开始重新汇总
+     */
+    private final AtomicReference<LocalDateTime> dirtySince = new AtomicReference<>();
+    private final Counter flushFailedCounter;
+
+    /**
+     * @param minuteRetention 分钟表保留时间
+     * @param hourRetention   小时表保留时间（天表一直保留）
+     */
+    public AuditLogRollup(AuditRollupRepository rollupRepository, MeterRegistry meterRegistry,
+                          @Value("${platform.audit.rollup.minute-retention:2d}") Duration minuteRetention,
+                          @Value("${platform.audit.rollup.hour-retention:90d}") Duration hourRetention) {
+        this.rollupRepository = rollupRepository;
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+
+        Gauge.builder("audit.rollup.pending", counters, Map::size)
+                .description("尚未追加到分钟表的计数单元数")
+                .register(meterRegistry);
+        this.flushFailedCounter = Counter.builder("audit.rollup.flush.failed")
+                .description("追加到分钟表失败的次数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 累计一条日志
+     */
+    public void record(AuditOperationLog auditLog) {
+        LocalDateTime minute = RollupLevel.MINUTE.floor(
+                auditLog.getOperationTime() != null ? auditLog.getOperationTime() : LocalDateTime.now());
+        boolean failure = Boolean.FALSE.equals(auditLog.getIsSuccess());
+        long executionTime = auditLog.getExecutionTime() != null ? auditLog.getExecutionTime() : 0L;
+
+        add(minute, RollupDimension.TOTAL, TOTAL_VALUE, failure, executionTime);
+        add(minute, RollupDimension.OPERATION_TYPE, auditLog.getOperationType(), failure, executionTime);
+        add(minute, RollupDimension.USER, auditLog.getUsername(), failure, executionTime);
+        add(minute, RollupDimension.RESOURCE, auditLog.getResourceType(), failure, executionTime);
+        add(minute, RollupDimension.IP, auditLog.getIpAddress(), failure, executionTime);
+    }
+
+    private void add(LocalDateTime minute, RollupDimension dimension, String value, boolean failure,
+                     long executionTime) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (value.length() > MAX_VALUE_LENGTH) {
+            value = value.substring(0, MAX_VALUE_LENGTH);
+        }
+        // 在 compute 内修改，与追加时的 remove 互斥，不会丢失计数
+        counters.compute(new CounterKey(minute, dimension, value), (key, cell) -> {
+            Cell target = cell != null ? cell : new Cell();
+            target.total++;
+            target.failures += failure ? 1 : 0;
+            target.executionTime += executionTime;
+            return target;
+        });
+    }
+
+    /**
+     * 把已结束分钟的计数追加到分钟表；失败时放回内存，下次重试
+     *
+     * @param all 是否包括当前分钟（关闭时）
+     */
+    public void flush(boolean all) {
+        LocalDateTime currentMinute = RollupLevel.MINUTE.floor(LocalDateTime.now());
+        List<RollupCount> counts = new ArrayList<>();
+        for (CounterKey key : counters.keySet()) {
+            if (!all && !key.minute().isBefore(currentMinute)) {
+                continue;
+            }
+            Cell cell = counters.remove(key);
+            if (cell != null) {
+                counts.add(new RollupCount(key.minute(), key.dimension(), key.value(),
+                        cell.total, cell.failures, cell.executionTime));
+            }
+        }
+
+        for (int from = 0; from < counts.size(); from += UPSERT_BATCH_SIZE) {
+            List<RollupCount> batch = counts.subList(from, Math.min(from + UPSERT_BATCH_SIZE, counts.size()));
+            try {
+                rollupRepository.upsertMinuteCounts(batch);
+                batch.stream().map(RollupCount::getBucketTime).min(LocalDateTime::compareTo)
+                        .ifPresent(earliest -> dirtySince.accumulateAndGet(earliest,
+                                (current, next) -> current == null || next.isBefore(current) ? next : current));
+            } catch (Exception e) {
+                flushFailedCounter.increment();
+                log.warn("追加审计统计计数失败，下次重试: {}", e.getMessage());
+                counts.subList(from, counts.size()).forEach(this::restore);
+                return;
+            }
+        }
+    }
+
+    private void restore(RollupCount count) {
+        counters.compute(new CounterKey(count.getBucketTime(), count.getDimension(), count.getDimensionValue()),
+                (key, cell) -> {
+                    Cell target = cell != null ? cell : new Cell();
+                    target.total += count.getTotalCount();
+                    target.failures += count.getFailureCount();
+                    target.executionTime += count.getExecutionTimeSum();
+                    return target;
+                });
+    }
+
+    /**
+     * 把完整的小时汇总到小时表、完整的天汇总到天表，并删除超过保留时间的分钟和小时桶。
+     * 每次从上次进度前一个时间桶（或更早追加过计数的时间桶）开始重新汇总，可重复执行
+     */
+    public void merge() {
+        LocalDateTime late = dirtySince.getAndSet(null);
+        try {
+            Map<RollupLevel, LocalDateTime> watermarks = watermarks();
+            LocalDateTime now = LocalDateTime.now();
+
+            LocalDateTime hourTo = RollupLevel.HOUR.floor(now);
+            LocalDateTime hourFrom = mergeFrom(RollupLevel.HOUR, watermarks.get(RollupLevel.HOUR), late,
+                    now.minus(minuteRetention));
+            if (hourFrom != null && hourFrom.isBefore(hourTo)) {
+                rollupRepository.mergeLevel(RollupLevel.MINUTE, RollupLevel.HOUR, hourFrom, hourTo);
+                rollupRepository.upsertWatermark(RollupLevel.HOUR, hourTo);
+            }
+
+            LocalDateTime dayTo = RollupLevel.DAY.floor(hourTo);
+            LocalDateTime dayFrom = mergeFrom(RollupLevel.DAY, watermarks.get(RollupLevel.DAY), hourFrom,
+                    now.minus(hourRetention));
+            if (dayFrom != null && dayFrom.isBefore(dayTo)) {
+                rollupRepository.mergeLevel(RollupLevel.HOUR, RollupLevel.DAY, dayFrom, dayTo);
+                rollupRepository.upsertWatermark(RollupLevel.DAY, dayTo);
+            }
+
+            // 只删除已汇总到上一级的时间桶
+            rollupRepository.deleteBefore(RollupLevel.MINUTE, min(now.minus(minuteRetention), hourTo));
+            rollupRepository.deleteBefore(RollupLevel.HOUR, min(now.minus(hourRetention), dayTo));
+        } catch (RuntimeException e) {
+            if (late != null) {
+                dirtySince.accumulateAndGet(late,
+                        (current, next) -> current == null || next.isBefore(current) ? next : current);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 重新汇总的起点：上次进度的前一个时间桶；尚未汇总过时从下一级最早的时间桶开始。
+     * 不早于下一级的保留期，避免用已删除了部分数据的下一级覆盖已有的汇总结果
+     *
+     * @param retainedSince 下一级保留数据的最早时间
+     */
+    private LocalDateTime mergeFrom(RollupLevel level, LocalDateTime watermark, LocalDateTime late,
+                                    LocalDateTime retainedSince) {
+        LocalDateTime from;
+        if (watermark != null) {
+            from = watermark.minus(1, level.getChronoUnit());
+        } else {
+            LocalDateTime earliest = rollupRepository.selectEarliestBucket(level.finer());
+            from = earliest != null ? level.floor(earliest) : null;
+        }
+        if (late != null) {
+            from = from != null ? min(from, level.floor(late)) : level.floor(late);
+        }
+        LocalDateTime lowerBound = level.ceil(retainedSince);
+        return from != null && from.isBefore(lowerBound) ? lowerBound : from;
+    }
+
+    /**
+     * 各级汇总已完整覆盖到的时间
+     */
+    public Map<RollupLevel, LocalDateTime> watermarks() {
+        Map<RollupLevel, LocalDateTime> watermarks = new EnumMap<>(RollupLevel.class);
+        for (Map<String, Object> row : rollupRepository.selectWatermarks()) {
+            Object mergedUntil = row.get("mergedUntil");
+            watermarks.put(RollupLevel.valueOf((String) row.get("level")), mergedUntil instanceof Timestamp timestamp
+                    ? timestamp.toLocalDateTime() : (LocalDateTime) mergedUntil);
+        }
+        return watermarks;
+    }
+
+    /**
+     * 按维度值统计，按次数倒序
+     */
+    public List<RollupStat> topValues(RollupDimension dimension, LocalDateTime start, LocalDateTime end, int limit) {
+        List<RollupRange> ranges = RollupRange.plan(start, end, RollupLevel.DAY, watermarks());
+        return ranges.isEmpty() ? List.of()
+                : rollupRepository.selectDimensionStats(ranges, dimension, false, limit);
+    }
+
+    /**
+     * 按维度值统计失败次数，只返回有失败的维度值
+     */
+    public List<RollupStat> topFailures(RollupDimension dimension, LocalDateTime start, LocalDateTime end,
+                                        int limit) {
+        List<RollupRange> ranges = RollupRange.plan(start, end, RollupLevel.DAY, watermarks());
+        return ranges.isEmpty() ? List.of()
+                : rollupRepository.selectDimensionStats(ranges, dimension, true, limit);
+    }
+
+    /**
+     * 全部操作的合计
+     */
+    public RollupStat total(LocalDateTime start, LocalDateTime end) {
+        List<RollupStat> stats = topValues(RollupDimension.TOTAL, start, end, 1);
+        return stats.isEmpty() ? new RollupStat() : stats.get(0);
+    }
+
+    /**
+     * 区间内不同维度值的数量
+     */
+    public long countDistinct(RollupDimension dimension, LocalDateTime start, LocalDateTime end) {
+        List<RollupRange> ranges = RollupRange.plan(start, end, RollupLevel.DAY, watermarks());
+        return ranges.isEmpty() ? 0 : rollupRepository.countDistinct(ranges, dimension);
+    }
+
+    /**
+     * 按时间桶统计全部操作
+     *
+     * @param level 时间桶粒度
+     */
+    public List<RollupStat> trend(LocalDateTime start, LocalDateTime end, RollupLevel level) {
+        List<RollupRange> ranges = RollupRange.plan(start, end, level, watermarks());
+        return ranges.isEmpty() ? List.of()
+                : rollupRepository.selectTrend(ranges, RollupDimension.TOTAL, level);
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * 关闭时追加全部计数（写入管道已在此前停止）
+     */
+    @Override
+    public void destroy() {
+        flush(true);
+    }
+
+    private record CounterKey(LocalDateTime minute, RollupDimension dimension, String value) {
+    }
+
+    /**
+     * 只在 {@link ConcurrentHashMap#compute} 内修改
+     */
+    private static final class Cell {
+        private long total;
+        private long failures;
+        private long executionTime;
+    }
+}
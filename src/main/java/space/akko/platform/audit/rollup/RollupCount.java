@@ -0,0 +1,24 @@
+package space.akko.platform.audit.rollup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 追加到分钟表的计数
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class RollupCount {
+
+    private final LocalDateTime bucketTime;
+    private final RollupDimension dimension;
+    private final String dimensionValue;
+    private final long totalCount;
+    private final long failureCount;
+    private final long executionTimeSum;
+}
@@ -0,0 +1,35 @@
+package space.akko.platform.audit.rollup;
+
+/**
+ * 审计日志统计维度
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public enum RollupDimension {
+
+    /**
+     * 全部操作（维度值固定为 *）
+     */
+    TOTAL,
+
+    /**
+     * 操作类型
+     */
+    OPERATION_TYPE,
+
+    /**
+     * 用户名
+     */
+    USER,
+
+    /**
+     * 资源类型
+     */
+    RESOURCE,
+
+    /**
+     * IP地址
+     */
+    IP
+}
@@ -0,0 +1,68 @@
+package space.akko.platform.audit.rollup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 统计汇总的时间粒度，每级对应一张汇总表
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public enum RollupLevel {
+
+    MINUTE("audit_log_rollup_minute", "minute", ChronoUnit.MINUTES),
+    HOUR("audit_log_rollup_hour", "hour", ChronoUnit.HOURS),
+    DAY("audit_log_rollup_day", "day", ChronoUnit.DAYS);
+
+    /**
+     * 汇总表名
+     */
+    private final String table;
+
+    /**
+     * PostgreSQL date_trunc 的精度
+     */
+    private final String unit;
+
+    private final ChronoUnit chronoUnit;
+
+    /**
+     * 解析请求参数（不区分大小写），无法识别时按小时
+     */
+    public static RollupLevel of(String value) {
+        for (RollupLevel level : values()) {
+            if (level.unit.equalsIgnoreCase(value) || level.name().equalsIgnoreCase(value)) {
+                return level;
+            }
+        }
+        return HOUR;
+    }
+
+    /**
+     * 下一级（更细）粒度，分钟级没有下一级
+     */
+    public RollupLevel finer() {
+        return this == DAY ? HOUR : MINUTE;
+    }
+
+    /**
+     * 向下取整到本粒度
+     */
+    public LocalDateTime floor(LocalDateTime time) {
+        return time.truncatedTo(chronoUnit);
+    }
+
+    /**
+     * 向上取整到本粒度
+     */
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        return floor.equals(time) ? floor : floor.plus(1, chronoUnit);
+    }
+}
@@ -0,0 +1,62 @@
+package space.akko.platform.audit.rollup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 从某一级汇总表读取的时间区间 [from, to)
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Getter
+@AllArgsConstructor
+public class RollupRange {
+
+    private final RollupLevel level;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    /**
+     * 把查询区间拆分为各级汇总表的区间：整天且已汇总的部分读天表，其余整小时且已汇总的部分读小时表，
+     * 剩余部分读分钟表。起止时间按分钟对齐
+     *
+     * @param coarsest   允许使用的最粗粒度（趋势查询不能粗于请求的粒度）
+     * @param watermarks 各级汇总已完整覆盖到的时间，缺失表示尚未汇总
+     */
+    public static List<RollupRange> plan(LocalDateTime start, LocalDateTime end, RollupLevel coarsest,
+                                         Map<RollupLevel, LocalDateTime> watermarks) {
+        List<RollupRange> ranges = new ArrayList<>();
+        split(coarsest, RollupLevel.MINUTE.floor(start), RollupLevel.MINUTE.ceil(end), watermarks, ranges);
+        return ranges;
+    }
+
+    private static void split(RollupLevel level, LocalDateTime start, LocalDateTime end,
+                              Map<RollupLevel, LocalDateTime> watermarks, List<RollupRange> ranges) {
+        if (!start.isBefore(end)) {
+            return;
+        }
+        if (level == RollupLevel.MINUTE) {
+            ranges.add(new RollupRange(level, start, end));
+            return;
+        }
+        LocalDateTime watermark = watermarks.get(level);
+        LocalDateTime from = level.ceil(start);
+        LocalDateTime to = level.floor(end);
+        if (watermark != null && watermark.isBefore(to)) {
+            to = level.floor(watermark);
+        }
+        if (watermark == null || !from.isBefore(to)) {
+            split(level.finer(), start, end, watermarks, ranges);
+            return;
+        }
+        split(level.finer(), start, from, watermarks, ranges);
+        ranges.add(new RollupRange(level, from, to));
+        split(level.finer(), to, end, watermarks, ranges);
+    }
+}
@@ -0,0 +1,31 @@
+package space.akko.platform.audit.rollup;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 统计汇总查询结果
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Data
+public class RollupStat {
+
+    /**
+     * 时间桶（趋势查询）
+     */
+    private LocalDateTime bucketTime;
+
+    /**
+     * 维度值
+     */
+    private String name;
+
+    private long total;
+
+    private long failures;
+
+    private long executionTimeSum;
+}
@@ -1,9 +1,12 @@
 package space.akko.platform.audit.service;
 
-import space.akko.foundation.common.PageResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import space.akko.foundation.common.CursorPageResult;
+import space.akko.platform.audit.export.AuditExportFormat;
 import space.akko.platform.audit.model.dto.AuditLogDTO;
 import space.akko.platform.audit.model.entity.AuditOperationLog;
 import space.akko.platform.audit.model.request.AuditLogQueryRequest;
+import space.akko.platform.audit.model.vo.AuditAnomalyVO;
 import space.akko.platform.audit.model.vo.AuditLogVO;
 
 import java.time.LocalDateTime;
@@ -34,9 +37,9 @@ public interface AuditLogService {
     AuditLogVO getAuditLogById(Long logId);
 
     /**
-     * 分页查询审计日志
+     * 游标分页查询审计日志
      */
-    PageResult<AuditLogVO> getAuditLogPage(AuditLogQueryRequest request);
+    CursorPageResult<AuditLogVO> getAuditLogPage(AuditLogQueryRequest request);
 
     /**
      * 根据追踪ID查询审计日志
@@ -46,13 +49,21 @@ public interface AuditLogService {
     /**
      * 根据用户ID查询审计日志
      */
-    PageResult<AuditLogVO> getAuditLogsByUserId(Long userId, AuditLogQueryRequest request);
+    CursorPageResult<AuditLogVO> getAuditLogsByUserId(Long userId, AuditLogQueryRequest request);
 
     /**
      * 根据资源查询审计日志
      */
-    PageResult<AuditLogVO> getAuditLogsByResource(String resourceType, String resourceId, 
-                                                 AuditLogQueryRequest request);
+    CursorPageResult<AuditLogVO> getAuditLogsByResource(String resourceType, String resourceId,
+                                                       AuditLogQueryRequest request);
+
+    /**
+     * 关键词检索审计日志，按匹配度倒序
+     *
+     * @param fuzzy 是否按相似度匹配（容忍拼写差异），否则按子串匹配
+     */
+    List<AuditLogVO> searchAuditLogs(String keyword, LocalDateTime startTime, LocalDateTime endTime,
+                                     boolean fuzzy, Integer limit);
 
     /**
      * 删除审计日志
@@ -65,10 +76,26 @@ public interface AuditLogService {
     void batchDeleteAuditLogs(List<Long> logIds);
 
     /**
-     * 清理过期的审计日志
+     * 清理过期的审计日志（先归档，再删除过期的分区）
      */
     void cleanExpiredAuditLogs(int retentionDays);
 
+    /**
+     * 预先创建从今天开始若干天的审计日志分区
+     */
+    void createAuditLogPartitions(int days);
+
+    /**
+     * 根据追踪ID查询已归档的审计日志
+     */
+    List<AuditLogVO> getArchivedAuditLogsByTraceId(String traceId);
+
+    /**
+     * 根据用户ID查询已归档的审计日志
+     */
+    List<AuditLogVO> getArchivedAuditLogsByUserId(Long userId, LocalDateTime startTime, LocalDateTime endTime,
+                                                  int limit);
+
     /**
      * 获取审计日志统计信息
      */
@@ -105,9 +132,12 @@ public interface AuditLogService {
     List<AuditLogVO> getSlowOperations(Long minExecutionTime, int limit);
 
     /**
-     * 导出审计日志
+     * 流式导出审计日志
+     *
+     * @param request 查询条件，cursor 不为空时从该位置之后继续导出
+     * @param gzip    是否gzip压缩
      */
-    String exportAuditLogs(AuditLogQueryRequest request);
+    StreamingResponseBody exportAuditLogs(AuditLogQueryRequest request, AuditExportFormat format, boolean gzip);
 
     /**
      * 获取审计日志趋势
@@ -115,14 +145,9 @@ public interface AuditLogService {
     Map<String, Object> getAuditLogTrend(LocalDateTime startTime, LocalDateTime endTime, String granularity);
 
     /**
-     * 检查用户操作频率
-     */
-    boolean checkUserOperationFrequency(Long userId, String operationType, int maxCount, int timeWindowMinutes);
-
-    /**
-     * 获取异常操作检测
+     * 查询流式异常检测发现的异常事件，按触发时间倒序
      */
-    List<AuditLogVO> detectAbnormalOperations(LocalDateTime startTime, LocalDateTime endTime);
+    List<AuditAnomalyVO> detectAbnormalOperations(LocalDateTime startTime, LocalDateTime endTime);
 
     /**
      * 生成审计报告
@@ -3,19 +3,39 @@ package space.akko.platform.audit.service.impl;
 import cn.hutool.core.bean.BeanUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import space.akko.foundation.common.PageResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import space.akko.foundation.common.CursorPageResult;
+import space.akko.foundation.common.ResultCode;
+import space.akko.foundation.common.SeekCursor;
+import space.akko.foundation.exception.BusinessException;
+import space.akko.platform.audit.anomaly.AuditAnomaly;
+import space.akko.platform.audit.archive.AuditLogArchiver;
+import space.akko.platform.audit.export.AuditExportFormat;
+import space.akko.platform.audit.export.AuditLogExporter;
 import space.akko.platform.audit.model.dto.AuditLogDTO;
 import space.akko.platform.audit.model.entity.AuditOperationLog;
 import space.akko.platform.audit.model.request.AuditLogQueryRequest;
+import space.akko.platform.audit.model.vo.AuditAnomalyVO;
 import space.akko.platform.audit.model.vo.AuditLogVO;
+import space.akko.platform.audit.repository.AuditAnomalyRepository;
 import space.akko.platform.audit.repository.AuditLogRepository;
+import space.akko.platform.audit.rollup.AuditLogRollup;
+import space.akko.platform.audit.rollup.RollupDimension;
+import space.akko.platform.audit.rollup.RollupLevel;
+import space.akko.platform.audit.rollup.RollupStat;
 import space.akko.platform.audit.service.AuditLogService;
+import space.akko.platform.audit.writer.AuditLogWriter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * 审计日志服务实现
@@ -28,21 +48,79 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AuditLogServiceImpl implements AuditLogService {
 
+    /**
+     * 每页最大数量
+     */
+    private static final long MAX_PAGE_SIZE = 500L;
+
+    /**
+     * 按维度统计时返回的维度值数量
+     */
+    private static final int STATISTICS_LIMIT = 50;
+
+    /**
+     * 执行计划中的估算行数
+     */
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    /**
+     * 检索词最小长度（少于3个字符时提取不出三元组，无法使用索引）
+     */
+    private static final int SEARCH_MIN_KEYWORD_LENGTH = 3;
+
+    /**
+     * 含中日韩文字的检索词按子串匹配时的最小长度：两个字已是完整的词，
+     * 此时同样提取不出三元组，只在时间范围内的分区中扫描（受检索跨度和语句超时限制）。
+     * pg_trgm 只把数据库区域设置（LC_CTYPE）中的字母数字字符计入三元组，
+     * 中日韩文字需要非 C 区域设置（如 zh_CN.UTF-8 或 en_US.UTF-8）才能被索引和按相似度匹配
+     */
+    private static final int SEARCH_MIN_CJK_KEYWORD_LENGTH = 2;
+
+    /**
+     * 检索结果最大数量
+     */
+    private static final int SEARCH_MAX_LIMIT = 200;
+
+    /**
+     * 异常事件查询返回的最大数量
+     */
+    private static final int ANOMALY_LIMIT = 500;
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditAnomalyRepository auditAnomalyRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditLogExporter auditLogExporter;
+
+    /**
+     * 冷归档，未启用时为null（过期分区直接删除）
+     */
+    private final ObjectProvider<AuditLogArchiver> auditLogArchiver;
+
+    /**
+     * 统计汇总，未启用时为null（统计接口返回空结果）
+     */
+    private final ObjectProvider<AuditLogRollup> auditLogRollup;
+
+    /**
+     * 关键词检索允许的最大时间跨度（天）
+     */
+    @Value("${platform.audit.search.max-days:31}")
+    private long searchMaxDays;
 
+    /**
+     * 同步写入，数据库不可用时进入本地暂存
+     */
     @Override
     public void recordOperationLog(AuditOperationLog operationLog) {
-        try {
-            auditLogRepository.insert(operationLog);
-        } catch (Exception e) {
-            log.error("保存操作日志失败: {}", e.getMessage(), e);
-        }
+        auditLogWriter.writeNow(operationLog);
     }
 
+    /**
+     * 放入审计日志写入管道，由写入线程批量写入
+     */
     @Override
-    @Async
     public void recordOperationLogAsync(AuditOperationLog operationLog) {
-        recordOperationLog(operationLog);
+        auditLogWriter.submit(operationLog);
     }
 
     @Override
@@ -54,10 +132,32 @@ public class AuditLogServiceImpl implements AuditLogService {
         return convertToVO(auditLog);
     }
 
+    /**
+     * 按 (操作时间, ID) 定位续读，多取一行判断是否有下一页；总记录数按请求精确统计、估算或不统计
+     */
     @Override
-    public PageResult<AuditLogVO> getAuditLogPage(AuditLogQueryRequest request) {
-        // TODO: 实现分页查询
-        return PageResult.empty(request.getCurrent(), request.getSize());
+    public CursorPageResult<AuditLogVO> getAuditLogPage(AuditLogQueryRequest request) {
+        boolean descending = !"asc".equalsIgnoreCase(request.getSortOrder());
+        SeekCursor cursor = SeekCursor.decode(request.getCursor(), descending);
+        long size = request.getSize() != null ? Math.min(Math.max(request.getSize(), 1L), MAX_PAGE_SIZE) : 10L;
+
+        List<AuditLogDTO> rows = auditLogRepository.selectAuditLogsByKeyset(request,
+                cursor != null ? cursor.time() : null, cursor != null ? cursor.id() : null,
+                descending, (int) size + 1);
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, (int) size);
+            AuditLogDTO last = rows.get(rows.size() - 1);
+            nextCursor = new SeekCursor(last.getOperationTime(), last.getId(), descending).encode();
+        }
+        CursorPageResult<AuditLogVO> result = CursorPageResult.of(
+                rows.stream().map(this::convertToVO).toList(), size, nextCursor);
+
+        return switch (request.getCountMode() != null ? request.getCountMode().toLowerCase() : "none") {
+            case "exact" -> result.withTotal(auditLogRepository.countAuditLogs(request), false);
+            case "estimated" -> result.withTotal(estimateAuditLogCount(request), true);
+            default -> result;
+        };
     }
 
     @Override
@@ -67,16 +167,50 @@ public class AuditLogServiceImpl implements AuditLogService {
     }
 
     @Override
-    public PageResult<AuditLogVO> getAuditLogsByUserId(Long userId, AuditLogQueryRequest request) {
-        // TODO: 实现根据用户ID查询
-        return PageResult.empty(request.getCurrent(), request.getSize());
+    public CursorPageResult<AuditLogVO> getAuditLogsByUserId(Long userId, AuditLogQueryRequest request) {
+        request.setUserId(userId);
+        return getAuditLogPage(request);
     }
 
     @Override
-    public PageResult<AuditLogVO> getAuditLogsByResource(String resourceType, String resourceId,
-                                                        AuditLogQueryRequest request) {
-        // TODO: 实现根据资源查询
-        return PageResult.empty(request.getCurrent(), request.getSize());
+    public CursorPageResult<AuditLogVO> getAuditLogsByResource(String resourceType, String resourceId,
+                                                              AuditLogQueryRequest request) {
+        request.setResourceType(resourceType);
+        request.setResourceId(resourceId);
+        return getAuditLogPage(request);
+    }
+
+    /**
+     * 时间范围默认最近7天，跨度受限，只扫描范围内的分区；子串匹配时转义检索词中的通配符
+     */
+    @Override
+    public List<AuditLogVO> searchAuditLogs(String keyword, LocalDateTime startTime, LocalDateTime endTime,
+                                            boolean fuzzy, Integer limit) {
+        String trimmed = keyword != null ? keyword.trim() : "";
+        int minLength = !fuzzy && containsCjk(trimmed) ? SEARCH_MIN_CJK_KEYWORD_LENGTH : SEARCH_MIN_KEYWORD_LENGTH;
+        if (trimmed.codePointCount(0, trimmed.length()) < minLength) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "检索词至少" + minLength + "个字符");
+        }
+        LocalDateTime end = endTime != null ? endTime : LocalDateTime.now();
+        LocalDateTime start = startTime != null ? startTime : end.minusDays(7);
+        if (!start.isBefore(end)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "开始时间必须早于结束时间");
+        }
+        if (start.plusDays(searchMaxDays).isBefore(end)) {
+            throw new BusinessException(ResultCode.BAD_REQUEST, "检索时间跨度不能超过" + searchMaxDays + "天");
+        }
+        int size = limit != null ? Math.min(Math.max(limit, 1), SEARCH_MAX_LIMIT) : 50;
+
+        String pattern = "%" + trimmed.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return auditLogRepository.searchAuditLogs(trimmed, pattern, fuzzy, start, end, size).stream()
+                .map(this::convertToVO)
+                .toList();
+    }
+
+    private static boolean containsCjk(String value) {
+        return value.codePoints().mapToObj(Character.UnicodeScript::of).anyMatch(script ->
+                script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                        || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL);
     }
 
     @Override
@@ -91,47 +225,102 @@ public class AuditLogServiceImpl implements AuditLogService {
         }
     }
 
+    /**
+     * 按整个分区解除挂载并删除，不产生逐行删除的锁和WAL；启用冷归档时先归档，归档失败则不删除
+     */
     @Override
     public void cleanExpiredAuditLogs(int retentionDays) {
-        LocalDateTime beforeTime = LocalDateTime.now().minusDays(retentionDays);
-        int deletedCount = auditLogRepository.deleteExpiredAuditLogs(beforeTime);
-        log.info("清理过期审计日志完成，删除数量: {}", deletedCount);
+        LocalDate beforeDate = LocalDate.now().minusDays(retentionDays);
+        AuditLogArchiver archiver = auditLogArchiver.getIfAvailable();
+        if (archiver != null) {
+            int archived = archiver.archiveBefore(beforeDate);
+            log.info("归档过期审计日志完成，归档天数: {}", archived);
+        }
+        List<String> dropped = auditLogRepository.dropPartitionsBefore(beforeDate);
+        log.info("清理过期审计日志完成，删除分区: {}", dropped);
     }
 
+    @Override
+    public void createAuditLogPartitions(int days) {
+        int created = auditLogRepository.createPartitions(LocalDate.now(), days);
+        if (created > 0) {
+            log.info("创建审计日志分区: {}", created);
+        }
+    }
+
+    @Override
+    public List<AuditLogVO> getArchivedAuditLogsByTraceId(String traceId) {
+        AuditLogArchiver archiver = auditLogArchiver.getIfAvailable();
+        if (archiver == null) {
+            return List.of();
+        }
+        return archiver.findByTraceId(traceId).stream().map(this::convertToVO).toList();
+    }
+
+    @Override
+    public List<AuditLogVO> getArchivedAuditLogsByUserId(Long userId, LocalDateTime startTime,
+                                                         LocalDateTime endTime, int limit) {
+        AuditLogArchiver archiver = auditLogArchiver.getIfAvailable();
+        if (archiver == null) {
+            return List.of();
+        }
+        return archiver.findByUserId(userId, startTime, endTime, limit).stream().map(this::convertToVO).toList();
+    }
+
+    /**
+     * 从统计汇总读取，不扫描原始日志；未启用统计汇总时返回空结果
+     */
     @Override
     public Map<String, Object> getAuditLogStatistics(LocalDateTime startTime, LocalDateTime endTime) {
-        // TODO: 实现统计功能
-        return Map.of();
+        AuditLogRollup rollup = auditLogRollup.getIfAvailable();
+        if (rollup == null) {
+            return Map.of();
+        }
+        RollupStat total = rollup.total(startTime, endTime);
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("totalCount", total.getTotal());
+        statistics.put("successCount", total.getTotal() - total.getFailures());
+        statistics.put("failureCount", total.getFailures());
+        statistics.put("avgExecutionTime", total.getTotal() > 0
+                ? (double) total.getExecutionTimeSum() / total.getTotal() : 0D);
+        statistics.put("uniqueUsers", rollup.countDistinct(RollupDimension.USER, startTime, endTime));
+        statistics.put("uniqueIps", rollup.countDistinct(RollupDimension.IP, startTime, endTime));
+        return statistics;
     }
 
     @Override
     public Map<String, Long> getOperationTypeStatistics(LocalDateTime startTime, LocalDateTime endTime) {
-        // TODO: 实现操作类型统计
-        return Map.of();
+        return dimensionStatistics(RollupDimension.OPERATION_TYPE, startTime, endTime);
     }
 
     @Override
     public Map<String, Long> getUserOperationStatistics(LocalDateTime startTime, LocalDateTime endTime) {
-        // TODO: 实现用户操作统计
-        return Map.of();
+        return dimensionStatistics(RollupDimension.USER, startTime, endTime);
     }
 
     @Override
     public Map<String, Long> getResourceOperationStatistics(LocalDateTime startTime, LocalDateTime endTime) {
-        // TODO: 实现资源操作统计
-        return Map.of();
+        return dimensionStatistics(RollupDimension.RESOURCE, startTime, endTime);
     }
 
     @Override
     public Map<String, Long> getIpAccessStatistics(LocalDateTime startTime, LocalDateTime endTime) {
-        // TODO: 实现IP访问统计
-        return Map.of();
+        return dimensionStatistics(RollupDimension.IP, startTime, endTime);
     }
 
+    /**
+     * 按操作类型统计失败次数
+     */
     @Override
     public Map<String, Long> getErrorOperationStatistics(LocalDateTime startTime, LocalDateTime endTime) {
-        // TODO: 实现错误操作统计
-        return Map.of();
+        AuditLogRollup rollup = auditLogRollup.getIfAvailable();
+        if (rollup == null) {
+            return Map.of();
+        }
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        rollup.topFailures(RollupDimension.OPERATION_TYPE, startTime, endTime, STATISTICS_LIMIT)
+                .forEach(stat -> statistics.put(stat.getName(), stat.getFailures()));
+        return statistics;
     }
 
     @Override
@@ -141,28 +330,46 @@ public class AuditLogServiceImpl implements AuditLogService {
     }
 
     @Override
-    public String exportAuditLogs(AuditLogQueryRequest request) {
-        // TODO: 实现导出功能
-        return "";
+    public StreamingResponseBody exportAuditLogs(AuditLogQueryRequest request, AuditExportFormat format,
+                                                 boolean gzip) {
+        return auditLogExporter.export(request, format, gzip);
     }
 
+    /**
+     * 按 minute / hour / day 粒度统计每个时间桶的操作次数和失败次数
+     */
     @Override
     public Map<String, Object> getAuditLogTrend(LocalDateTime startTime, LocalDateTime endTime, String granularity) {
-        // TODO: 实现趋势分析
-        return Map.of();
-    }
-
-    @Override
-    public boolean checkUserOperationFrequency(Long userId, String operationType, int maxCount, int timeWindowMinutes) {
-        LocalDateTime afterTime = LocalDateTime.now().minusMinutes(timeWindowMinutes);
-        int count = auditLogRepository.countUserOperations(userId, operationType, afterTime);
-        return count <= maxCount;
+        AuditLogRollup rollup = auditLogRollup.getIfAvailable();
+        if (rollup == null) {
+            return Map.of();
+        }
+        RollupLevel level = RollupLevel.of(granularity);
+        List<Map<String, Object>> points = rollup.trend(startTime, endTime, level).stream()
+                .map(stat -> {
+                    Map<String, Object> point = new LinkedHashMap<>();
+                    point.put("time", stat.getBucketTime());
+                    point.put("totalCount", stat.getTotal());
+                    point.put("failureCount", stat.getFailures());
+                    return point;
+                })
+                .toList();
+        Map<String, Object> trend = new LinkedHashMap<>();
+        trend.put("granularity", level.getUnit());
+        trend.put("points", points);
+        return trend;
     }
 
+    /**
+     * 异常由写入管道中的检测器实时发现并写入异常事件表，这里只读取异常事件表；时间范围默认最近1天
+     */
     @Override
-    public List<AuditLogVO> detectAbnormalOperations(LocalDateTime startTime, LocalDateTime endTime) {
-        // TODO: 实现异常操作检测
-        return List.of();
+    public List<AuditAnomalyVO> detectAbnormalOperations(LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime end = endTime != null ? endTime : LocalDateTime.now();
+        LocalDateTime start = startTime != null ? startTime : end.minusDays(1);
+        return auditAnomalyRepository.selectAnomalies(start, end, ANOMALY_LIMIT).stream()
+                .map(this::convertToVO)
+                .toList();
     }
 
     @Override
@@ -171,22 +378,70 @@ public class AuditLogServiceImpl implements AuditLogService {
         return Map.of();
     }
 
+    /**
+     * 按维度值统计操作次数，按次数倒序
+     */
+    private Map<String, Long> dimensionStatistics(RollupDimension dimension, LocalDateTime startTime,
+                                                  LocalDateTime endTime) {
+        AuditLogRollup rollup = auditLogRollup.getIfAvailable();
+        if (rollup == null) {
+            return Map.of();
+        }
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        rollup.topValues(dimension, startTime, endTime, STATISTICS_LIMIT)
+                .forEach(stat -> statistics.put(stat.getName(), stat.getTotal()));
+        return statistics;
+    }
+
+    /**
+     * 使用规划器的行数估算，不扫描数据；无法解析执行计划时返回null
+     */
+    private Long estimateAuditLogCount(AuditLogQueryRequest request) {
+        List<String> plan = auditLogRepository.explainAuditLogCount(request);
+        if (plan.isEmpty()) {
+            return null;
+        }
+        Matcher matcher = PLAN_ROWS.matcher(plan.get(0));
+        return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
     /**
      * 转换为VO
      */
     private AuditLogVO convertToVO(AuditOperationLog auditLog) {
         AuditLogVO vo = new AuditLogVO();
         BeanUtil.copyProperties(auditLog, vo);
+        fillDisplayFields(vo);
+        return vo;
+    }
 
-        // 设置显示名称
-        vo.setOperationTypeName(getOperationTypeName(auditLog.getOperationType()));
-        vo.setResourceTypeName(getResourceTypeName(auditLog.getResourceType()));
-        vo.setStatusName(auditLog.getIsSuccess() ? "成功" : "失败");
-        vo.setExecutionTimeDisplay(auditLog.getExecutionTime() + "ms");
+    /**
+     * 转换为VO
+     */
+    private AuditLogVO convertToVO(AuditLogDTO auditLog) {
+        AuditLogVO vo = new AuditLogVO();
+        BeanUtil.copyProperties(auditLog, vo);
+        fillDisplayFields(vo);
+        return vo;
+    }
 
+    private AuditAnomalyVO convertToVO(AuditAnomaly anomaly) {
+        AuditAnomalyVO vo = new AuditAnomalyVO();
+        BeanUtil.copyProperties(anomaly, vo);
+        vo.setAnomalyTypeName(anomaly.getAnomalyType() != null ? anomaly.getAnomalyType().getDescription() : null);
         return vo;
     }
 
+    /**
+     * 设置显示名称
+     */
+    private void fillDisplayFields(AuditLogVO vo) {
+        vo.setOperationTypeName(getOperationTypeName(vo.getOperationType()));
+        vo.setResourceTypeName(getResourceTypeName(vo.getResourceType()));
+        vo.setStatusName(Boolean.FALSE.equals(vo.getIsSuccess()) ? "失败" : "成功");
+        vo.setExecutionTimeDisplay(vo.getExecutionTime() + "ms");
+    }
+
     /**
      * 获取操作类型显示名称
      */
@@ -208,6 +463,9 @@ public class AuditLogServiceImpl implements AuditLogService {
      * 获取资源类型显示名称
      */
     private String getResourceTypeName(String resourceType) {
+        if (resourceType == null) {
+            return null;
+        }
         return switch (resourceType) {
             case "USER" -> "用户";
             case "ROLE" -> "角色";
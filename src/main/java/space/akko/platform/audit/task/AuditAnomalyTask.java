@@ -0,0 +1,50 @@
+package space.akko.platform.audit.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import space.akko.platform.audit.anomaly.AuditAnomalyDetector;
+
+/**
+ * 审计异常检测定时任务
+ * 定期把检测到的异常事件写入异常事件表，每天删除超过保留时间的异常事件
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "platform.audit.anomaly.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditAnomalyTask {
+
+    private final AuditAnomalyDetector auditAnomalyDetector;
+
+    /**
+     * 写入检测到的异常事件
+     */
+    @Scheduled(fixedDelayString = "${platform.audit.anomaly.flush-interval:5s}")
+    public void flushAnomalies() {
+        try {
+            auditAnomalyDetector.flush();
+        } catch (Exception e) {
+            log.error("写入审计异常事件失败", e);
+        }
+    }
+
+    /**
+     * 删除过期的异常事件
+     * 每天凌晨3点30分执行
+     */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void pruneAnomalies() {
+        try {
+            int deleted = auditAnomalyDetector.prune();
+            log.info("删除过期的审计异常事件: {}", deleted);
+        } catch (Exception e) {
+            log.error("删除过期的审计异常事件失败", e);
+        }
+    }
+}
@@ -3,12 +3,15 @@ package space.akko.platform.audit.task;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import space.akko.platform.audit.service.AuditLogService;
 
 /**
- * 审计日志清理定时任务
+ * 审计日志分区维护定时任务
+ * 预先创建未来的按天分区，按保留天数删除过期的分区
  * 
  * @author akko
  * @since 1.0.0
@@ -24,7 +27,27 @@ public class AuditLogCleanupTask {
     private int retentionDays;
 
     /**
-     * 清理过期的审计日志
+     * 预先创建分区的天数
+     */
+    @Value("${platform.audit.log.partition-premake-days:7}")
+    private int partitionPremakeDays;
+
+    /**
+     * 预先创建未来的按天分区
+     * 启动时和每天凌晨0点30分执行
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 30 0 * * ?")
+    public void createFuturePartitions() {
+        try {
+            auditLogService.createAuditLogPartitions(partitionPremakeDays);
+        } catch (Exception e) {
+            log.error("创建审计日志分区失败", e);
+        }
+    }
+
+    /**
+     * 清理过期的审计日志（删除过期的分区）
      * 每天凌晨3点执行
      */
     @Scheduled(cron = "0 0 3 * * ?")
@@ -0,0 +1,49 @@
+package space.akko.platform.audit.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import space.akko.platform.audit.rollup.AuditLogRollup;
+
+/**
+ * 审计日志统计汇总定时任务
+ * 定期把已结束分钟的计数追加到分钟表，每小时把完整的小时、天汇总到上一级
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "platform.audit.rollup.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditRollupTask {
+
+    private final AuditLogRollup auditLogRollup;
+
+    /**
+     * 追加已结束分钟的计数
+     */
+    @Scheduled(fixedDelayString = "${platform.audit.rollup.flush-interval:10s}")
+    public void flushMinuteCounts() {
+        try {
+            auditLogRollup.flush(false);
+        } catch (Exception e) {
+            log.error("追加审计统计计数失败", e);
+        }
+    }
+
+    /**
+     * 汇总到小时表和天表
+     * 每小时第5分钟执行（等待上一小时最后一分钟的计数追加完成）
+     */
+    @Scheduled(cron = "0 5 * * * ?")
+    public void mergeRollups() {
+        try {
+            auditLogRollup.merge();
+        } catch (Exception e) {
+            log.error("汇总审计统计失败", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package space.akko.platform.audit.writer;
+
+/**
+ * 审计缓冲区积压时的处理策略
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public enum AuditBackpressure {
+
+    /**
+     * 缓冲区已满时阻塞请求线程，超过等待上限后丢弃
+     */
+    BLOCK,
+
+    /**
+     * 缓冲区已满时丢弃最早的日志，保留新日志
+     */
+    DROP_OLDEST,
+
+    /**
+     * 缓冲区超过高水位后按比例采样成功的操作，失败的操作始终保留
+     */
+    SAMPLE;
+
+    /**
+     * 解析配置值（不区分大小写，可用短横线）
+     */
+    public static AuditBackpressure of(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,404 @@
+package space.akko.platform.audit.writer;
+
+import cn.hutool.json.JSONUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import space.akko.platform.audit.anomaly.AuditAnomalyDetector;
+import space.akko.platform.audit.model.entity.AuditOperationLog;
+import space.akko.platform.audit.repository.AuditLogRepository;
+import space.akko.platform.audit.rollup.AuditLogRollup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 审计日志写入管道
+ * 操作日志切面把日志放入有界无锁环形缓冲区后立即返回，写入线程按批量大小或时间间隔
+ * 取出日志并以一条多行 INSERT 写入数据库。缓冲区积压时按 {@link AuditBackpressure} 处理；
+ * 应用关闭时停止接收并写完缓冲区中剩余的日志，超过关闭等待时间时剩余日志转入本地暂存。
+ * 启用 {@link AuditSpool} 时写入失败的批次追加到本地暂存，写入线程在两次取出缓冲区之间每次回放一批
+ * （至少一次，可能重复），回放不会长时间占用写入线程；暂存中有未回放的记录时新批次也先进入暂存，保证写入顺序。
+ * 写入线程空闲时挂起，缓冲区由空变为非空或积满一批时由提交线程唤醒。同步写入（{@link #writeNow}、停止接收后的提交）
+ * 在请求线程中执行，此时同样可能追加暂存并刷盘。
+ * 启用 {@link AuditLogRollup} 时每条日志在提交时（积压丢弃和采样之前）计入按分钟的统计汇总，
+ * 启用 {@link AuditAnomalyDetector} 时同样在提交时经过流式异常检测，被丢弃的日志同样计入和检测
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private final AuditLogRepository auditLogRepository;
+
+    /**
+     * 本地暂存，未启用时为null（写入失败只输出到日志文件）
+     */
+    private final AuditSpool spool;
+
+    /**
+     * 统计汇总，未启用时为null
+     */
+    private final AuditLogRollup rollup;
+
+    /**
+     * 异常检测，未启用时为null
+     */
+    private final AuditAnomalyDetector anomalyDetector;
+    private final long replayIntervalNanos;
+    private final AuditRingBuffer<AuditOperationLog> buffer;
+    private final AuditBackpressure backpressure;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long blockTimeoutNanos;
+    private final double sampleRate;
+    private final int sampleThreshold;
+    private final int writerThreads;
+    private final Duration drainTimeout;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Counter droppedFullCounter;
+    private final Counter droppedOldestCounter;
+    private final Counter sampledOutCounter;
+
+    private final List<Thread> writers = new CopyOnWriteArrayList<>();
+
+    /**
+     * 挂起等待的写入线程数，大于0时提交线程按需唤醒
+     */
+    private final AtomicInteger idleWriters = new AtomicInteger();
+    private volatile boolean running;
+    private volatile long nextReplay;
+
+    /**
+     * @param bufferSize      缓冲区容量
+     * @param batchSize       单条 INSERT 写入的最大行数
+     * @param flushInterval   批次未满时的最长等待时间
+     * @param backpressure    缓冲区积压时的处理策略
+     * @param blockTimeout    BLOCK 策略下请求线程的最长等待时间
+     * @param sampleRate      SAMPLE 策略下超过高水位后成功操作的保留比例
+     * @param sampleThreshold SAMPLE 策略的高水位（占容量的比例）
+     * @param writerThreads   写入线程数
+     * @param drainTimeout    关闭时写完剩余日志的最长时间
+     * @param replayInterval  本地暂存的回放间隔
+     */
+    public AuditLogWriter(AuditLogRepository auditLogRepository, ObjectProvider<AuditSpool> spool,
+                          ObjectProvider<AuditLogRollup> rollup, ObjectProvider<AuditAnomalyDetector> anomalyDetector,
+                          MeterRegistry meterRegistry,
+                          @Value("${platform.audit.writer.buffer-size:8192}") int bufferSize,
+                          @Value("${platform.audit.writer.batch-size:200}") int batchSize,
+                          @Value("${platform.audit.writer.flush-interval:200ms}") Duration flushInterval,
+                          @Value("${platform.audit.writer.backpressure:drop-oldest}") String backpressure,
+                          @Value("${platform.audit.writer.block-timeout:50ms}") Duration blockTimeout,
+                          @Value("${platform.audit.writer.sample-rate:0.1}") double sampleRate,
+                          @Value("${platform.audit.writer.sample-threshold:0.75}") double sampleThreshold,
+                          @Value("${platform.audit.writer.threads:1}") int writerThreads,
+                          @Value("${platform.audit.writer.drain-timeout:10s}") Duration drainTimeout,
+                          @Value("${platform.audit.spool.replay-interval:5s}") Duration replayInterval) {
+        this.auditLogRepository = auditLogRepository;
+        this.spool = spool.getIfAvailable();
+        this.rollup = rollup.getIfAvailable();
+        this.anomalyDetector = anomalyDetector.getIfAvailable();
+        this.replayIntervalNanos = replayInterval.toNanos();
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+        this.backpressure = AuditBackpressure.of(backpressure);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.sampleRate = sampleRate;
+        this.sampleThreshold = (int) (buffer.capacity() * sampleThreshold);
+        this.writerThreads = Math.max(1, writerThreads);
+        this.drainTimeout = drainTimeout;
+
+        Gauge.builder("audit.writer.queue.depth", buffer, AuditRingBuffer::size)
+                .description("等待写入的审计日志数")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.writer.flush")
+                .description("审计日志批量写入耗时")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.writer.written")
+                .description("写入数据库的审计日志数")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.writer.failed")
+                .description("写入失败且未能暂存（仅输出到日志文件）的审计日志数")
+                .register(meterRegistry);
+        this.droppedFullCounter = droppedCounter(meterRegistry, "full");
+        this.droppedOldestCounter = droppedCounter(meterRegistry, "oldest");
+        this.sampledOutCounter = droppedCounter(meterRegistry, "sampled");
+    }
+
+    private static Counter droppedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("audit.writer.dropped")
+                .description("因缓冲区积压未写入的审计日志数")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 在调用线程写入（同步记录日志）
+     */
+    public void writeNow(AuditOperationLog auditLog) {
+        observe(auditLog);
+        write(List.of(auditLog));
+    }
+
+    /**
+     * 放入写入缓冲区；已停止接收时在调用线程直接写入
+     */
+    public void submit(AuditOperationLog auditLog) {
+        observe(auditLog);
+        if (!running) {
+            write(List.of(auditLog));
+            return;
+        }
+        switch (backpressure) {
+            case BLOCK -> offerBlocking(auditLog);
+            case DROP_OLDEST -> offerDropOldest(auditLog);
+            case SAMPLE -> offerSampled(auditLog);
+        }
+        if (!running) {
+            // 放入期间 stop() 可能已写完缓冲区，剩余日志由提交线程写出
+            drainStopped();
+            return;
+        }
+        wakeWriter();
+    }
+
+    /**
+     * 缓冲区由空变为非空（开始计时写入间隔）或积满一批时唤醒挂起的写入线程，其余情况写入线程按超时醒来
+     */
+    private void wakeWriter() {
+        if (idleWriters.get() == 0) {
+            return;
+        }
+        int size = buffer.size();
+        if (size == 1 || size >= batchSize) {
+            writers.forEach(LockSupport::unpark);
+        }
+    }
+
+    /**
+     * 停止接收后在调用线程写出缓冲区中的剩余日志
+     */
+    private void drainStopped() {
+        List<AuditOperationLog> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 在积压处理之前计入统计汇总并经过异常检测，二者不受丢弃和采样影响；写入和暂存回放不再重复处理
+     */
+    private void observe(AuditOperationLog auditLog) {
+        if (rollup != null) {
+            rollup.record(auditLog);
+        }
+        if (anomalyDetector != null) {
+            anomalyDetector.observe(auditLog);
+        }
+    }
+
+    private void offerBlocking(AuditOperationLog auditLog) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (!buffer.offer(auditLog)) {
+            if (System.nanoTime() - deadline >= 0) {
+                droppedFullCounter.increment();
+                return;
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    private void offerDropOldest(AuditOperationLog auditLog) {
+        while (!buffer.offer(auditLog)) {
+            if (buffer.poll() != null) {
+                droppedOldestCounter.increment();
+            }
+        }
+    }
+
+    private void offerSampled(AuditOperationLog auditLog) {
+        boolean failure = Boolean.FALSE.equals(auditLog.getIsSuccess());
+        if (!failure && buffer.size() >= sampleThreshold && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOutCounter.increment();
+            return;
+        }
+        if (!buffer.offer(auditLog)) {
+            droppedFullCounter.increment();
+        }
+    }
+
+    /**
+     * 写入线程：凑满一批或等待超过写入间隔后写出，两次取出之间回放一批本地暂存，无事可做时挂起
+     */
+    private void runWriter() {
+        List<AuditOperationLog> batch = new ArrayList<>(batchSize);
+        long batchStart = 0;
+        while (running) {
+            if (buffer.drainTo(batch, batchSize - batch.size()) > 0 && batchStart == 0) {
+                batchStart = System.nanoTime();
+            }
+            boolean worked = false;
+            if (batch.size() >= batchSize || (!batch.isEmpty() && System.nanoTime() - batchStart >= flushIntervalNanos)) {
+                write(batch);
+                batch.clear();
+                batchStart = 0;
+                worked = true;
+            }
+            worked |= replaySpool();
+            if (!worked) {
+                long waitNanos = batch.isEmpty()
+                        ? flushIntervalNanos
+                        : flushIntervalNanos - (System.nanoTime() - batchStart);
+                idle(batch.isEmpty() ? 1 : batchSize - batch.size(), waitNanos);
+            }
+        }
+        // 停止后写完自己手中的批次，缓冲区剩余部分由 stop() 写出
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    /**
+     * 以一条多行 INSERT 写入；失败时追加到本地暂存，未启用暂存时输出到日志文件
+     */
+    private void write(List<AuditOperationLog> batch) {
+        if (spool != null && spool.hasPending()) {
+            // 暂存回放完成前保持写入顺序
+            spill(batch);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            auditLogRepository.insertBatch(batch);
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            log.error("批量写入审计日志失败，数量: {}, 原因: {}", batch.size(), e.getMessage());
+            spill(batch);
+            nextReplay = System.nanoTime() + replayIntervalNanos;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void spill(List<AuditOperationLog> batch) {
+        if (spool != null) {
+            try {
+                spool.append(batch);
+                return;
+            } catch (Exception e) {
+                log.error("写入本地暂存失败: {}", e.getMessage());
+            }
+        }
+        failedCounter.increment(batch.size());
+        batch.forEach(auditLog -> log.info("操作日志: {}", JSONUtil.toJsonStr(auditLog)));
+    }
+
+    /**
+     * 挂起写入线程，直到缓冲区中有 needed 条日志（由提交线程唤醒）或等待超时
+     */
+    private void idle(int needed, long waitNanos) {
+        if (waitNanos <= 0) {
+            return;
+        }
+        idleWriters.incrementAndGet();
+        try {
+            // 先登记再检查，避免提交线程在登记前放入日志而错过唤醒
+            if (running && buffer.size() < needed) {
+                LockSupport.parkNanos(this, waitNanos);
+            }
+        } finally {
+            idleWriters.decrementAndGet();
+        }
+    }
+
+    /**
+     * 到达回放间隔时把本地暂存的一批回放到数据库，失败后等待下一个间隔
+     *
+     * @return 是否回放了记录
+     */
+    private boolean replaySpool() {
+        if (spool == null || System.nanoTime() - nextReplay < 0 || !spool.hasPending()) {
+            return false;
+        }
+        try {
+            return spool.replay(auditLogRepository::insertBatch, batchSize, batchSize) > 0;
+        } catch (Exception e) {
+            log.warn("回放本地暂存失败，{}后重试: {}", Duration.ofNanos(replayIntervalNanos), e.getMessage());
+            nextReplay = System.nanoTime() + replayIntervalNanos;
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < writerThreads; i++) {
+            Thread writer = new Thread(this::runWriter, "audit-writer-" + (i + 1));
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+        log.info("启用审计日志写入管道，缓冲区: {}, 批量大小: {}, 积压策略: {}",
+                buffer.capacity(), batchSize, backpressure);
+    }
+
+    /**
+     * 停止接收并写完缓冲区中的剩余日志；超过关闭等待时间时，未写出的批次和缓冲区剩余日志转入本地暂存
+     * （未启用暂存时输出到日志文件），下次启动后回放。超时后仍在写入的写入线程按其写入结果处理
+     */
+    @Override
+    public void stop() {
+        running = false;
+        writers.forEach(LockSupport::unpark);
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        for (Thread writer : writers) {
+            try {
+                writer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        writers.clear();
+
+        List<AuditOperationLog> batch = new ArrayList<>(batchSize);
+        int remaining = buffer.size();
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                buffer.drainTo(batch, Integer.MAX_VALUE);
+                log.warn("审计日志写入超时，剩余{}条转入本地暂存", batch.size());
+                spill(batch);
+                return;
+            }
+            write(batch);
+            batch.clear();
+        }
+        if (remaining > 0) {
+            log.info("审计日志写入管道已停止，关闭前写出: {}", remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
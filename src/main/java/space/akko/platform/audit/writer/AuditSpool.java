@@ -0,0 +1,440 @@
+package space.akko.platform.audit.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import space.akko.platform.audit.model.entity.AuditOperationLog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 审计日志本地暂存（spool）
+ * 数据库不可用时，写入失败的审计日志追加到本地内存映射的分段文件中，数据库恢复后按写入顺序回放。
+ * 每条记录为 [长度][CRC32][JSON]，长度为0或校验失败处视为段的末尾（进程崩溃时未写完的记录）。
+ * 段写满后切换到新段；总大小超过上限时删除最早的段。每批回放写入数据库后推进检查点，
+ * 重启或回放失败后从检查点继续。回放为至少一次：写入数据库成功、检查点更新之前进程退出时，
+ * 该批记录会再次回放
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "platform.audit.spool.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditSpool implements InitializingBean, DisposableBean {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String CHECKPOINT_FILE = "replay.checkpoint";
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxSegments;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 段序号 -> 段文件，lock保护
+     */
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock replayLock = new ReentrantLock();
+
+    private long activeSequence;
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+
+    /**
+     * 回放检查点：正在回放的段和段内偏移
+     */
+    private long checkpointSequence;
+    private int checkpointOffset;
+
+    private final Counter appendedCounter;
+    private final Counter replayedCounter;
+    private final Counter droppedDiskCounter;
+    private final Counter droppedOversizeCounter;
+    private final Counter corruptCounter;
+
+    /**
+     * @param directory    暂存目录
+     * @param segmentSize  单个段文件的大小
+     * @param maxSize      暂存总大小上限，超出时删除最早的段
+     */
+    public AuditSpool(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                      @Value("${platform.audit.spool.dir:./data/audit-spool}") String directory,
+                      @Value("${platform.audit.spool.segment-size:16MB}") DataSize segmentSize,
+                      @Value("${platform.audit.spool.max-size:1GB}") DataSize maxSize) throws IOException {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.directory = Path.of(directory);
+        this.segmentBytes = (int) Math.min(Integer.MAX_VALUE, segmentSize.toBytes());
+        this.maxSegments = Math.max(2, maxSize.toBytes() / segmentBytes);
+
+        this.appendedCounter = Counter.builder("audit.spool.appended")
+                .description("写入本地暂存的审计日志数")
+                .register(meterRegistry);
+        this.replayedCounter = Counter.builder("audit.spool.replayed")
+                .description("从本地暂存回放到数据库的审计日志数")
+                .register(meterRegistry);
+        this.droppedDiskCounter = droppedCounter(meterRegistry, "disk");
+        this.droppedOversizeCounter = droppedCounter(meterRegistry, "oversize");
+        this.corruptCounter = droppedCounter(meterRegistry, "corrupt");
+    }
+
+    /**
+     * 构造完成后打开暂存目录并注册段数指标
+     */
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        open();
+        Gauge.builder("audit.spool.segments", this, spool -> spool.segments.size())
+                .description("本地暂存的段文件数")
+                .register(meterRegistry);
+    }
+
+    private static Counter droppedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("audit.spool.dropped")
+                .description("本地暂存丢弃的审计日志数（或段数）")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 打开暂存目录：恢复已有段和检查点，最后一个段继续追加
+     */
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(file -> segments.put(sequenceOf(file), file));
+        }
+        readCheckpoint();
+        if (segments.isEmpty()) {
+            // 序号接着检查点继续，避免新段沿用已回放段的检查点偏移
+            activate(checkpointSequence + 1);
+        } else {
+            activate(segments.lastKey());
+            activeBuffer.position(endOf(activeBuffer));
+        }
+        if (hasPending()) {
+            log.warn("本地暂存中有未回放的审计日志，段数: {}", segments.size());
+        }
+    }
+
+    /**
+     * 是否有未回放的记录（回放完成前新的日志也追加到暂存，保证写入顺序）
+     */
+    public boolean hasPending() {
+        lock.lock();
+        try {
+            return segments.size() > 1 || activeBuffer.position() > startOffset(activeSequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 追加一批记录并刷到磁盘
+     */
+    public void append(List<AuditOperationLog> logs) {
+        List<byte[]> payloads = new ArrayList<>(logs.size());
+        for (AuditOperationLog auditLog : logs) {
+            try {
+                byte[] payload = objectMapper.writeValueAsBytes(auditLog);
+                if (payload.length + HEADER_BYTES > segmentBytes) {
+                    droppedOversizeCounter.increment();
+                    log.error("审计日志超过暂存段大小，丢弃: traceId={}", auditLog.getTraceId());
+                    continue;
+                }
+                payloads.add(payload);
+            } catch (IOException e) {
+                log.error("序列化审计日志失败: {}", e.getMessage());
+            }
+        }
+
+        lock.lock();
+        try {
+            for (byte[] payload : payloads) {
+                if (activeBuffer.remaining() < payload.length + HEADER_BYTES) {
+                    rotate();
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                activeBuffer.putInt(payload.length);
+                activeBuffer.putInt((int) crc.getValue());
+                activeBuffer.put(payload);
+            }
+            activeBuffer.force();
+            appendedCounter.increment(payloads.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 按写入顺序回放到数据库，每批回放成功后推进检查点；写入失败时停止，下次从检查点继续
+     *
+     * @param writer    批量写入数据库，失败时抛出异常
+     * @param batchSize 每批回放的记录数
+     * @return 本次回放的记录数
+     */
+    public int replay(Consumer<List<AuditOperationLog>> writer, int batchSize) {
+        return replay(writer, batchSize, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 按写入顺序回放至多 maxRecords 条记录（分片回放，调用方可在两片之间处理其他工作），
+     * 未回放完的段保留，下次从检查点继续
+     *
+     * @param writer     批量写入数据库，失败时抛出异常
+     * @param batchSize  每批回放的记录数
+     * @param maxRecords 本次最多回放的记录数
+     * @return 本次回放的记录数，另一个线程正在回放时为0
+     */
+    public int replay(Consumer<List<AuditOperationLog>> writer, int batchSize, int maxRecords) {
+        if (!replayLock.tryLock()) {
+            return 0;
+        }
+        int replayed = 0;
+        try {
+            while (replayed < maxRecords) {
+                Segment segment = nextSegment();
+                if (segment == null) {
+                    return replayed;
+                }
+                int limit = maxRecords - replayed;
+                int count = replaySegment(segment, writer, batchSize, limit);
+                replayed += count;
+                if (count == limit) {
+                    // 本片已满，段可能还有记录
+                    return replayed;
+                }
+                lock.lock();
+                try {
+                    if (segments.remove(segment.sequence()) != null) {
+                        Files.deleteIfExists(segment.file());
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return replayed;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            replayLock.unlock();
+            if (replayed > 0) {
+                log.debug("本地暂存回放，数量: {}", replayed);
+            }
+        }
+    }
+
+    /**
+     * 取出最早的待回放段；只剩活动段且其中有记录时先切换到新段
+     */
+    private Segment nextSegment() throws IOException {
+        lock.lock();
+        try {
+            if (segments.size() == 1) {
+                if (activeBuffer.position() <= startOffset(activeSequence)) {
+                    return null;
+                }
+                rotate();
+            }
+            long sequence = segments.firstKey();
+            return new Segment(sequence, segments.get(sequence));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 从检查点回放段内至多 limit 条记录，返回值小于 limit 表示已到段末尾
+     */
+    private int replaySegment(Segment segment, Consumer<List<AuditOperationLog>> writer, int batchSize,
+                              int limit) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment.file(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int offset = startOffset(segment.sequence());
+        buffer.position(offset);
+
+        int replayed = 0;
+        List<AuditOperationLog> batch = new ArrayList<>(Math.min(batchSize, limit));
+        while (true) {
+            AuditOperationLog auditLog = readRecord(buffer, segment);
+            if (auditLog != null) {
+                batch.add(auditLog);
+            }
+            if (batch.size() >= Math.min(batchSize, limit - replayed) || (auditLog == null && !batch.isEmpty())) {
+                writer.accept(batch);
+                replayedCounter.increment(batch.size());
+                replayed += batch.size();
+                batch.clear();
+                writeCheckpoint(segment.sequence(), buffer.position());
+            }
+            if (auditLog == null || replayed >= limit) {
+                return replayed;
+            }
+        }
+    }
+
+    /**
+     * 读取下一条记录，到达段末尾或校验失败时返回null
+     */
+    private AuditOperationLog readRecord(ByteBuffer buffer, Segment segment) {
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                return null;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                corruptCounter.increment();
+                log.error("本地暂存记录校验失败，跳过段的剩余部分: segment={}, offset={}", segment.file(), start);
+                buffer.position(buffer.limit());
+                return null;
+            }
+            try {
+                return objectMapper.readValue(payload, AuditOperationLog.class);
+            } catch (IOException e) {
+                corruptCounter.increment();
+                log.error("本地暂存记录无法解析，跳过: segment={}, offset={}", segment.file(), start);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 切换到新段，总段数超过上限时删除最早的段
+     */
+    private void rotate() throws IOException {
+        activeBuffer.force();
+        activeChannel.close();
+        activate(activeSequence + 1);
+        while (segments.size() > maxSegments) {
+            long oldest = segments.firstKey();
+            Files.deleteIfExists(segments.remove(oldest));
+            droppedDiskCounter.increment();
+            log.error("本地暂存超过大小上限，删除最早的段: {}", oldest);
+        }
+    }
+
+    private void activate(long sequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        activeSequence = sequence;
+        segments.put(sequence, file);
+    }
+
+    /**
+     * 已写入部分的末尾（第一条无效记录的位置）
+     */
+    private int endOf(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(0);
+        while (view.remaining() >= HEADER_BYTES) {
+            int start = view.position();
+            int length = view.getInt();
+            int checksum = view.getInt();
+            if (length <= 0 || length > view.remaining()) {
+                return start;
+            }
+            byte[] payload = new byte[length];
+            view.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                return start;
+            }
+        }
+        return view.position();
+    }
+
+    /**
+     * 段内回放的起始偏移：检查点所在段从检查点开始，其他段从头开始
+     */
+    private int startOffset(long sequence) {
+        return sequence == checkpointSequence ? checkpointOffset : 0;
+    }
+
+    private void readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        String[] parts = Files.readString(file, StandardCharsets.UTF_8).trim().split(" ");
+        checkpointSequence = Long.parseLong(parts[0]);
+        checkpointOffset = Integer.parseInt(parts[1]);
+    }
+
+    /**
+     * 原子替换检查点文件
+     */
+    private void writeCheckpoint(long sequence, int offset) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, sequence + " " + offset, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        checkpointSequence = sequence;
+        checkpointOffset = offset;
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        lock.lock();
+        try {
+            activeBuffer.force();
+            activeChannel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Segment(long sequence, Path file) {
+    }
+}
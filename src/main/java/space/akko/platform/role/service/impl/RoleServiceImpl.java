@@ -6,6 +6,9 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
@@ -14,6 +17,7 @@ import space.akko.foundation.common.PageResult;
 import space.akko.foundation.common.ResultCode;
 import space.akko.foundation.constant.CacheConstants;
 import space.akko.foundation.exception.BusinessException;
+import space.akko.foundation.utils.CacheUtils;
 import space.akko.platform.role.model.dto.RoleDTO;
 import space.akko.platform.role.model.entity.RoleDefinition;
 import space.akko.platform.role.model.entity.UserRoleMapping;
@@ -43,6 +47,11 @@ public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
     private final UserRoleMappingRepository userRoleMappingRepository;
+    /**
+     * 多级缓存（带空值标记的 get(key, loader) 依赖其负缓存），按名称注入，新增其他 CacheManager 时不会被绕过
+     */
+    @Qualifier(CacheConstants.MULTI_LEVEL_CACHE_NAME)
+    private final CacheManager cacheManager;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -157,18 +166,29 @@ public class RoleServiceImpl implements RoleService {
         for (Long roleId : roleIds) {
             deleteRole(roleId);
         }
+        // 内部调用不经过缓存代理，统一批量清除
+        CacheUtils.evictAll(cacheManager.getCache(CacheConstants.ROLE_CACHE), roleIds);
 
         log.info("批量删除角色成功，数量: {}", roleIds.size());
     }
 
     @Override
-    @Cacheable(value = CacheConstants.ROLE_CACHE, key = "#roleId")
     public RoleVO getRoleById(Long roleId) {
-        RoleDTO roleDTO = roleRepository.selectRoleDetailById(roleId);
-        if (roleDTO == null) {
+        // 不存在的角色以空值占位缓存，避免对无效ID的重复查询穿透到数据库
+        Cache cache = cacheManager.getCache(CacheConstants.ROLE_CACHE);
+        RoleVO role = cache != null ? cache.get(roleId, () -> loadRoleById(roleId)) : loadRoleById(roleId);
+        if (role == null) {
             throw new BusinessException(ResultCode.DATA_NOT_FOUND, "角色不存在");
         }
-        return convertDTOToVO(roleDTO);
+        return role;
+    }
+
+    /**
+     * 从数据库加载角色，不存在时返回null
+     */
+    private RoleVO loadRoleById(Long roleId) {
+        RoleDTO roleDTO = roleRepository.selectRoleDetailById(roleId);
+        return roleDTO != null ? convertDTOToVO(roleDTO) : null;
     }
 
     @Override
@@ -189,7 +209,8 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
-    @Cacheable(value = CacheConstants.ROLE_CACHE, key = "'tree:' + #parentId")
+    // sync模式经由Cache#get(key, valueLoader)加载，角色树可以按预刷新策略异步刷新
+    @Cacheable(value = CacheConstants.ROLE_CACHE, key = "'tree:' + #parentId", sync = true)
     public List<RoleVO> getRoleTree(Long parentId) {
         List<RoleDTO> roleDTOs = roleRepository.selectRoleTree(parentId);
         return buildRoleTree(roleDTOs, parentId);
@@ -224,6 +245,7 @@ public class RoleServiceImpl implements RoleService {
         }
 
         roleRepository.batchUpdateStatus(roleIds, isActive);
+        CacheUtils.evictAll(cacheManager.getCache(CacheConstants.ROLE_CACHE), roleIds);
         log.info("批量更新角色状态成功，数量: {}", roleIds.size());
     }
 
@@ -0,0 +1,31 @@
+package space.akko.platform.role.task;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import space.akko.foundation.cache.CacheWarmer;
+import space.akko.foundation.constant.CacheConstants;
+import space.akko.platform.role.service.RoleService;
+
+/**
+ * 角色缓存预热：加载角色树
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RoleCacheWarmer implements CacheWarmer {
+
+    private final RoleService roleService;
+
+    @Override
+    public String getName() {
+        return CacheConstants.ROLE_CACHE;
+    }
+
+    @Override
+    public void warmUp() {
+        // 与角色树接口默认参数一致
+        roleService.getRoleTree(null);
+    }
+}
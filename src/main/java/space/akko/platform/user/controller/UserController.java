@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import space.akko.foundation.annotation.OperationLog;
+import space.akko.foundation.annotation.RateLimit;
 import space.akko.foundation.annotation.RequirePermission;
 import space.akko.foundation.common.PageResult;
 import space.akko.foundation.common.Result;
@@ -59,6 +60,16 @@ public class UserController {
         return Result.success(user);
     }
 
+    @Operation(summary = "批量获取用户详情", description = "根据用户ID列表批量获取用户详细信息")
+    @GetMapping("/batch")
+    @RequirePermission("USER_DETAIL")
+    @OperationLog(operationType = "QUERY", operationName = "批量获取用户详情", resourceType = "USER")
+    public Result<List<UserVO>> getUsersByIds(
+            @Parameter(description = "用户ID列表", required = true) @RequestParam List<Long> userIds) {
+        List<UserVO> users = userService.getUsersByIds(userIds);
+        return Result.success(users);
+    }
+
     @Operation(summary = "创建用户", description = "创建新用户")
     @PostMapping
     @RequirePermission("USER_CREATE")
@@ -167,6 +178,7 @@ public class UserController {
 
     @Operation(summary = "检查用户名是否存在", description = "检查用户名是否已被使用")
     @GetMapping("/check/username")
+    @RateLimit(name = "user-check", limit = 20, periodSeconds = 60)
     public Result<Boolean> checkUsername(
             @Parameter(description = "用户名", required = true) @RequestParam String username) {
         boolean exists = userService.existsByUsername(username);
@@ -175,6 +187,7 @@ public class UserController {
 
     @Operation(summary = "检查邮箱是否存在", description = "检查邮箱是否已被使用")
     @GetMapping("/check/email")
+    @RateLimit(name = "user-check", limit = 20, periodSeconds = 60)
     public Result<Boolean> checkEmail(
             @Parameter(description = "邮箱", required = true) @RequestParam String email) {
         boolean exists = userService.existsByEmail(email);
@@ -183,6 +196,7 @@ public class UserController {
 
     @Operation(summary = "检查手机号是否存在", description = "检查手机号是否已被使用")
     @GetMapping("/check/phone")
+    @RateLimit(name = "user-check", limit = 20, periodSeconds = 60)
     public Result<Boolean> checkPhoneNumber(
             @Parameter(description = "手机号", required = true) @RequestParam String phoneNumber) {
         boolean exists = userService.existsByPhoneNumber(phoneNumber);
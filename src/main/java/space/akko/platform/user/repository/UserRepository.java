@@ -9,6 +9,7 @@ import space.akko.platform.user.model.dto.UserDTO;
 import space.akko.platform.user.model.entity.UserProfile;
 import space.akko.platform.user.model.request.UserQueryRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -56,15 +57,25 @@ public interface UserRepository extends BaseMapper<UserProfile> {
     boolean existsByPhoneNumber(@Param("phoneNumber") String phoneNumber);
 
     /**
-     * 分页查询用户（带角色信息）
+     * 分页查询用户ID
      */
-    IPage<UserDTO> selectUserPage(Page<UserDTO> page, @Param("query") UserQueryRequest query);
+    IPage<Long> selectUserIdPage(Page<Long> page, @Param("query") UserQueryRequest query);
 
     /**
      * 根据用户ID查询用户详情（带角色和权限信息）
      */
     UserDTO selectUserDetailById(@Param("userId") Long userId);
 
+    /**
+     * 根据用户ID批量查询用户详情（带角色和权限信息）
+     */
+    List<UserDTO> selectUserDetailByIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 查询最近登录的活跃用户ID（用于缓存预热）
+     */
+    List<Long> selectRecentActiveUserIds(@Param("limit") int limit);
+
     /**
      * 根据角色ID查询用户列表
      */
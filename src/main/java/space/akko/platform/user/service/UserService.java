@@ -61,6 +61,11 @@ public interface UserService {
      */
     UserVO getUserById(Long userId);
 
+    /**
+     * 根据ID批量获取用户，不存在的用户不出现在结果中
+     */
+    List<UserVO> getUsersByIds(List<Long> userIds);
+
     /**
      * 根据用户名获取用户
      */
@@ -8,9 +8,11 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import space.akko.foundation.common.PageResult;
@@ -19,6 +21,7 @@ import space.akko.foundation.constant.CacheConstants;
 import space.akko.foundation.constant.SecurityConstants;
 import space.akko.foundation.exception.BusinessException;
 import space.akko.foundation.exception.SecurityException;
+import space.akko.foundation.utils.CacheUtils;
 import space.akko.foundation.utils.JwtUtils;
 import space.akko.foundation.utils.PasswordUtils;
 import space.akko.foundation.utils.SecurityUtils;
@@ -36,9 +39,12 @@ import space.akko.platform.user.repository.UserRepository;
 import space.akko.platform.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * 用户服务实现
@@ -53,6 +59,11 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserCredentialRepository userCredentialRepository;
+    /**
+     * 多级缓存（带空值标记的 get(key, loader) 依赖其负缓存），按名称注入，新增其他 CacheManager 时不会被绕过
+     */
+    @Qualifier(CacheConstants.MULTI_LEVEL_CACHE_NAME)
+    private final CacheManager cacheManager;
 
     @Value("${platform.security.jwt.secret}")
     private String jwtSecret;
@@ -275,17 +286,51 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.deleteBatchIds(userIds);
+        CacheUtils.evictAll(cacheManager.getCache(CacheConstants.USER_CACHE), userIds);
         log.info("批量删除用户成功，数量: {}", userIds.size());
     }
 
     @Override
-    @Cacheable(value = CacheConstants.USER_CACHE, key = "#userId")
     public UserVO getUserById(Long userId) {
-        UserDTO userDTO = userRepository.selectUserDetailById(userId);
-        if (userDTO == null) {
+        // 不存在的用户以空值占位缓存，避免对无效ID的重复查询穿透到数据库
+        Cache cache = cacheManager.getCache(CacheConstants.USER_CACHE);
+        UserVO user = cache != null ? cache.get(userId, () -> loadUserById(userId)) : loadUserById(userId);
+        if (user == null) {
             throw new BusinessException(ResultCode.USER_NOT_FOUND);
         }
-        return convertDTOToVO(userDTO);
+        return user;
+    }
+
+    @Override
+    public List<UserVO> getUsersByIds(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+
+        // 缓存批量命中，未命中的用户一次查询加载，不存在的用户以空值占位缓存
+        Map<Long, UserVO> users = CacheUtils.getAll(cacheManager.getCache(CacheConstants.USER_CACHE),
+                userIds, this::loadUsersByIds);
+        return userIds.stream()
+                .distinct()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * 从数据库批量加载用户
+     */
+    private Map<Long, UserVO> loadUsersByIds(Collection<Long> userIds) {
+        return userRepository.selectUserDetailByIds(userIds).stream()
+                .collect(Collectors.toMap(UserDTO::getId, this::convertDTOToVO, (a, b) -> a));
+    }
+
+    /**
+     * 从数据库加载用户，不存在时返回null
+     */
+    private UserVO loadUserById(Long userId) {
+        UserDTO userDTO = userRepository.selectUserDetailById(userId);
+        return userDTO != null ? convertDTOToVO(userDTO) : null;
     }
 
     @Override
@@ -300,12 +345,11 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public PageResult<UserVO> getUserPage(UserQueryRequest request) {
-        Page<UserDTO> page = new Page<>(request.getCurrent(), request.getSize());
-        IPage<UserDTO> result = userRepository.selectUserPage(page, request);
+        Page<Long> page = new Page<>(request.getCurrent(), request.getSize());
+        IPage<Long> result = userRepository.selectUserIdPage(page, request);
 
-        List<UserVO> records = result.getRecords().stream()
-                .map(this::convertDTOToVO)
-                .toList();
+        // 分页只查询用户ID，当前页的用户详情按ID批量从缓存读取（一次L2往返），未命中的一次查询加载
+        List<UserVO> records = getUsersByIds(result.getRecords());
 
         return PageResult.of(records, result.getTotal(), result.getCurrent(), result.getSize());
     }
@@ -362,6 +406,7 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.batchUpdateStatus(userIds, isActive);
+        CacheUtils.evictAll(cacheManager.getCache(CacheConstants.USER_CACHE), userIds);
         log.info("批量更新用户状态成功，数量: {}", userIds.size());
     }
 
@@ -0,0 +1,43 @@
+package space.akko.platform.user.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import space.akko.foundation.cache.CacheWarmer;
+import space.akko.foundation.constant.CacheConstants;
+import space.akko.platform.user.repository.UserRepository;
+import space.akko.platform.user.service.UserService;
+
+import java.util.List;
+
+/**
+ * 用户缓存预热：加载最近最活跃的N个用户
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserCacheWarmer implements CacheWarmer {
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+
+    @Value("${platform.cache.warm-up.top-users:200}")
+    private int topUsers;
+
+    @Override
+    public String getName() {
+        return CacheConstants.USER_CACHE;
+    }
+
+    @Override
+    public void warmUp() {
+        List<Long> userIds = userRepository.selectRecentActiveUserIds(topUsers);
+        // 通过批量读取路径加载，同时填充L1和L2
+        int loaded = userService.getUsersByIds(userIds).size();
+        log.debug("用户缓存预热，加载用户数: {}", loaded);
+    }
+}
@@ -0,0 +1,30 @@
+-- 审计异常事件表
+-- 写入管道中的流式检测器按用户、IP维护操作频率、失败率和非工作时间活动的基线，
+-- 偏离基线时写入本表；异常查询只读本表，不扫描原始日志
+
+CREATE TABLE platform_schema.audit_anomaly (
+    id BIGSERIAL PRIMARY KEY,
+    anomaly_type VARCHAR(20) NOT NULL,
+    subject_type VARCHAR(10) NOT NULL,
+    subject_value VARCHAR(200) NOT NULL,
+    detected_at TIMESTAMP NOT NULL,
+    observed_value DOUBLE PRECISION NOT NULL,
+    baseline_value DOUBLE PRECISION NOT NULL,
+    threshold_value DOUBLE PRECISION NOT NULL,
+    window_count INTEGER NOT NULL,
+    trace_id VARCHAR(64),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_audit_anomaly_detected_at ON platform_schema.audit_anomaly (detected_at);
+
+COMMENT ON TABLE platform_schema.audit_anomaly IS '审计异常事件表';
+COMMENT ON COLUMN platform_schema.audit_anomaly.anomaly_type IS '异常类型：HIGH_RATE/HIGH_ERROR_RATE/OFF_HOURS';
+COMMENT ON COLUMN platform_schema.audit_anomaly.subject_type IS '检测对象类型：USER/IP';
+COMMENT ON COLUMN platform_schema.audit_anomaly.subject_value IS '用户名或IP地址';
+COMMENT ON COLUMN platform_schema.audit_anomaly.detected_at IS '触发异常的操作时间';
+COMMENT ON COLUMN platform_schema.audit_anomaly.observed_value IS '观测值（窗口内操作次数、失败率或非工作时间操作）';
+COMMENT ON COLUMN platform_schema.audit_anomaly.baseline_value IS '基线值';
+COMMENT ON COLUMN platform_schema.audit_anomaly.threshold_value IS '触发阈值';
+COMMENT ON COLUMN platform_schema.audit_anomaly.window_count IS '滑动窗口内的操作次数';
+COMMENT ON COLUMN platform_schema.audit_anomaly.trace_id IS '触发异常的操作的追踪ID';
@@ -0,0 +1,36 @@
+-- 缓存失效通知增加发起会话的 application_name（source）
+-- 应用各节点以 应用名@节点标识 作为连接的 application_name：发起节点清除两级缓存，其他节点只清除本地L1；
+-- 迁移脚本、手工SQL等非本集群写入由各节点分别清除两级缓存
+
+CREATE OR REPLACE FUNCTION platform_schema.notify_cache_invalidation()
+RETURNS TRIGGER AS $$
+DECLARE
+    row_data JSONB;
+    source TEXT := coalesce(current_setting('application_name', true), '');
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        row_data := to_jsonb(OLD);
+        PERFORM pg_notify('cache_invalidation', json_build_object(
+            'table', TG_TABLE_NAME,
+            'id', row_data ->> 'id',
+            'userId', row_data ->> 'user_id',
+            'roleId', row_data ->> 'role_id',
+            'source', source)::text);
+    END IF;
+
+    -- 更新时新旧记录都通知（关联ID可能被修改），同一事务内相同的负载只会投递一次
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        row_data := to_jsonb(NEW);
+        PERFORM pg_notify('cache_invalidation', json_build_object(
+            'table', TG_TABLE_NAME,
+            'id', row_data ->> 'id',
+            'userId', row_data ->> 'user_id',
+            'roleId', row_data ->> 'role_id',
+            'source', source)::text);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION platform_schema.notify_cache_invalidation() IS '数据变更时发送缓存失效通知（包含发起会话的application_name）';
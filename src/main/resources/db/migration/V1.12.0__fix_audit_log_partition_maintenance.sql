@@ -0,0 +1,82 @@
+-- 按天分区维护函数修正
+-- 1. 默认分区中已有某天的行时，直接创建该天的分区会因默认分区约束冲突而失败：
+--    先建独立表，把默认分区中该天的行移入后再挂载为分区
+-- 2. 单天失败只记录警告并跳过，不影响其他天
+-- 3. 多个节点同时执行维护时以事务级咨询锁串行化
+
+-- 创建从 from_date 开始连续 days 天的按天分区（已存在的跳过），返回新建的分区数
+CREATE OR REPLACE FUNCTION platform_schema.create_audit_log_partitions(from_date DATE, days INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_day DATE;
+    partition_name TEXT;
+    moved BIGINT;
+    created INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('platform_schema.audit_operation_log.partitions'));
+
+    FOR i IN 0 .. days - 1 LOOP
+        partition_day := from_date + i;
+        partition_name := 'audit_operation_log_p' || to_char(partition_day, 'YYYYMMDD');
+        IF to_regclass('platform_schema.' || partition_name) IS NOT NULL THEN
+            CONTINUE;
+        END IF;
+
+        BEGIN
+            IF EXISTS (SELECT 1 FROM platform_schema.audit_operation_log_default
+                       WHERE operation_time >= partition_day AND operation_time < partition_day + 1) THEN
+                -- 默认分区中已有该天的行：建表、移入、挂载
+                EXECUTE format('CREATE TABLE platform_schema.%I '
+                               '(LIKE platform_schema.audit_operation_log INCLUDING DEFAULTS INCLUDING CONSTRAINTS)',
+                               partition_name);
+                EXECUTE format('WITH moved AS (DELETE FROM platform_schema.audit_operation_log_default '
+                               'WHERE operation_time >= %L AND operation_time < %L RETURNING *) '
+                               'INSERT INTO platform_schema.%I SELECT * FROM moved',
+                               partition_day, partition_day + 1, partition_name);
+                GET DIAGNOSTICS moved = ROW_COUNT;
+                EXECUTE format('ALTER TABLE platform_schema.audit_operation_log ATTACH PARTITION platform_schema.%I '
+                               'FOR VALUES FROM (%L) TO (%L)', partition_name, partition_day, partition_day + 1);
+                RAISE NOTICE '分区 % 创建时从默认分区移入 % 行', partition_name, moved;
+            ELSE
+                EXECUTE format('CREATE TABLE platform_schema.%I PARTITION OF platform_schema.audit_operation_log '
+                               'FOR VALUES FROM (%L) TO (%L)', partition_name, partition_day, partition_day + 1);
+            END IF;
+            created := created + 1;
+        EXCEPTION WHEN OTHERS THEN
+            RAISE WARNING '创建分区 % 失败，跳过: %', partition_name, SQLERRM;
+        END;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 解除挂载并删除 before_date 之前的按天分区，清理默认分区中的过期行，返回删除的分区名
+CREATE OR REPLACE FUNCTION platform_schema.drop_audit_log_partitions(before_date DATE)
+RETURNS SETOF TEXT AS $$
+DECLARE
+    partition_name TEXT;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('platform_schema.audit_operation_log.partitions'));
+
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'platform_schema.audit_operation_log'::regclass
+          AND c.relname ~ '^audit_operation_log_p[0-9]{8}$'
+          AND to_date(substring(c.relname FROM '[0-9]{8}$'), 'YYYYMMDD') < before_date
+        ORDER BY c.relname
+    LOOP
+        BEGIN
+            EXECUTE format('ALTER TABLE platform_schema.audit_operation_log DETACH PARTITION platform_schema.%I',
+                           partition_name);
+            EXECUTE format('DROP TABLE platform_schema.%I', partition_name);
+            RETURN NEXT partition_name;
+        EXCEPTION WHEN OTHERS THEN
+            RAISE WARNING '删除分区 % 失败，跳过: %', partition_name, SQLERRM;
+        END;
+    END LOOP;
+
+    DELETE FROM platform_schema.audit_operation_log_default WHERE operation_time < before_date;
+END;
+$$ LANGUAGE plpgsql;
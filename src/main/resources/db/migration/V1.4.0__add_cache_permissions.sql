@@ -0,0 +1,15 @@
+-- 缓存管理权限
+INSERT INTO platform_schema.permission_resource (resource_code, resource_name, resource_type, resource_url, http_method, description) VALUES
+('CACHE_LIST', '缓存查看', 'API', '/api/cache/**', 'GET', '查看缓存状态和热点键'),
+('CACHE_MANAGE', '缓存管理', 'API', '/api/cache/**', 'POST', '清除和预热缓存');
+
+-- 给超级管理员角色分配缓存管理权限
+INSERT INTO platform_schema.role_permission_mapping (role_id, resource_id, action_id, is_granted)
+SELECT
+    (SELECT id FROM platform_schema.role_definition WHERE role_code = 'SUPER_ADMIN'),
+    pr.id,
+    pa.id,
+    true
+FROM platform_schema.permission_resource pr
+CROSS JOIN platform_schema.permission_action pa
+WHERE pr.resource_code IN ('CACHE_LIST', 'CACHE_MANAGE');
@@ -0,0 +1,56 @@
+-- 缓存失效通知：相关表的数据变更通过 NOTIFY 通知应用清除缓存
+-- 通道：cache_invalidation，负载：{"table": 表名, "id": 主键, "userId": 用户ID, "roleId": 角色ID}
+
+CREATE OR REPLACE FUNCTION platform_schema.notify_cache_invalidation()
+RETURNS TRIGGER AS $$
+DECLARE
+    row_data JSONB;
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        row_data := to_jsonb(OLD);
+        PERFORM pg_notify('cache_invalidation', json_build_object(
+            'table', TG_TABLE_NAME,
+            'id', row_data ->> 'id',
+            'userId', row_data ->> 'user_id',
+            'roleId', row_data ->> 'role_id')::text);
+    END IF;
+
+    -- 更新时新旧记录都通知（关联ID可能被修改），同一事务内相同的负载只会投递一次
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        row_data := to_jsonb(NEW);
+        PERFORM pg_notify('cache_invalidation', json_build_object(
+            'table', TG_TABLE_NAME,
+            'id', row_data ->> 'id',
+            'userId', row_data ->> 'user_id',
+            'roleId', row_data ->> 'role_id')::text);
+    END IF;
+
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION platform_schema.notify_cache_invalidation() IS '数据变更时发送缓存失效通知';
+
+CREATE TRIGGER trg_user_profile_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON platform_schema.user_profile
+    FOR EACH ROW EXECUTE FUNCTION platform_schema.notify_cache_invalidation();
+
+CREATE TRIGGER trg_role_definition_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON platform_schema.role_definition
+    FOR EACH ROW EXECUTE FUNCTION platform_schema.notify_cache_invalidation();
+
+CREATE TRIGGER trg_role_permission_mapping_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON platform_schema.role_permission_mapping
+    FOR EACH ROW EXECUTE FUNCTION platform_schema.notify_cache_invalidation();
+
+CREATE TRIGGER trg_user_role_mapping_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON platform_schema.user_role_mapping
+    FOR EACH ROW EXECUTE FUNCTION platform_schema.notify_cache_invalidation();
+
+CREATE TRIGGER trg_dictionary_item_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON platform_schema.dictionary_item
+    FOR EACH ROW EXECUTE FUNCTION platform_schema.notify_cache_invalidation();
+
+CREATE TRIGGER trg_config_system_cache_invalidation
+    AFTER INSERT OR UPDATE OR DELETE ON foundation_schema.config_system
+    FOR EACH ROW EXECUTE FUNCTION platform_schema.notify_cache_invalidation();
@@ -0,0 +1,130 @@
+-- 操作日志表按 operation_time 按天分区
+-- 过期数据按整个分区解除挂载并删除，不再执行大范围 DELETE；带时间范围的查询可裁剪分区
+
+ALTER TABLE platform_schema.audit_operation_log RENAME TO audit_operation_log_legacy;
+ALTER TABLE platform_schema.audit_operation_log_legacy
+    RENAME CONSTRAINT audit_operation_log_pkey TO audit_operation_log_legacy_pkey;
+
+CREATE TABLE platform_schema.audit_operation_log (
+    id BIGINT NOT NULL DEFAULT nextval('platform_schema.audit_operation_log_id_seq'),
+    trace_id VARCHAR(64),
+    user_id BIGINT,
+    username VARCHAR(100),
+    operation_type VARCHAR(50) NOT NULL,
+    operation_name VARCHAR(200),
+    resource_type VARCHAR(50),
+    resource_id VARCHAR(100),
+    request_method VARCHAR(10),
+    request_url VARCHAR(500),
+    request_params TEXT,
+    request_body TEXT,
+    response_body TEXT,
+    ip_address INET,
+    user_agent TEXT,
+    execution_time BIGINT,
+    is_success BOOLEAN DEFAULT TRUE,
+    error_message TEXT,
+    operation_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_by BIGINT,
+    updated_by BIGINT,
+    is_deleted BOOLEAN DEFAULT FALSE,
+    version INTEGER DEFAULT 0,
+    PRIMARY KEY (id, operation_time)
+) PARTITION BY RANGE (operation_time);
+
+ALTER SEQUENCE platform_schema.audit_operation_log_id_seq OWNED BY platform_schema.audit_operation_log.id;
+
+-- 默认分区：接收尚未创建分区的时间范围，正常情况下为空
+CREATE TABLE platform_schema.audit_operation_log_default
+    PARTITION OF platform_schema.audit_operation_log DEFAULT;
+
+-- 创建从 from_date 开始连续 days 天的按天分区（已存在的跳过），返回新建的分区数
+CREATE OR REPLACE FUNCTION platform_schema.create_audit_log_partitions(from_date DATE, days INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    partition_day DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    FOR i IN 0 .. days - 1 LOOP
+        partition_day := from_date + i;
+        partition_name := 'audit_operation_log_p' || to_char(partition_day, 'YYYYMMDD');
+        IF to_regclass('platform_schema.' || partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE platform_schema.%I PARTITION OF platform_schema.audit_operation_log '
+                           'FOR VALUES FROM (%L) TO (%L)', partition_name, partition_day, partition_day + 1);
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 解除挂载并删除 before_date 之前的按天分区，清理默认分区中的过期行，返回删除的分区名
+CREATE OR REPLACE FUNCTION platform_schema.drop_audit_log_partitions(before_date DATE)
+RETURNS SETOF TEXT AS $$
+DECLARE
+    partition_name TEXT;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'platform_schema.audit_operation_log'::regclass
+          AND c.relname ~ '^audit_operation_log_p[0-9]{8}$'
+          AND to_date(substring(c.relname FROM '[0-9]{8}$'), 'YYYYMMDD') < before_date
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE platform_schema.audit_operation_log DETACH PARTITION platform_schema.%I',
+                       partition_name);
+        EXECUTE format('DROP TABLE platform_schema.%I', partition_name);
+        RETURN NEXT partition_name;
+    END LOOP;
+
+    DELETE FROM platform_schema.audit_operation_log_default WHERE operation_time < before_date;
+END;
+$$ LANGUAGE plpgsql;
+
+-- 为已有数据和未来7天创建分区后迁移数据
+SELECT platform_schema.create_audit_log_partitions(
+    LEAST(CURRENT_DATE, (SELECT MIN(operation_time)::DATE FROM platform_schema.audit_operation_log_legacy)),
+    (CURRENT_DATE - LEAST(CURRENT_DATE,
+        (SELECT MIN(operation_time)::DATE FROM platform_schema.audit_operation_log_legacy))) + 8);
+
+INSERT INTO platform_schema.audit_operation_log
+    (id, trace_id, user_id, username, operation_type, operation_name, resource_type, resource_id,
+     request_method, request_url, request_params, request_body, response_body, ip_address, user_agent,
+     execution_time, is_success, error_message, operation_time, created_at, updated_at, created_by,
+     updated_by, is_deleted, version)
+SELECT id, trace_id, user_id, username, operation_type, operation_name, resource_type, resource_id,
+       request_method, request_url, request_params, request_body, response_body, ip_address, user_agent,
+       execution_time, is_success, error_message, COALESCE(operation_time, created_at, CURRENT_TIMESTAMP),
+       created_at, updated_at, created_by, updated_by, is_deleted, version
+FROM platform_schema.audit_operation_log_legacy;
+
+DROP TABLE platform_schema.audit_operation_log_legacy;
+
+CREATE INDEX idx_audit_log_user_id ON platform_schema.audit_operation_log(user_id);
+CREATE INDEX idx_audit_log_operation_time ON platform_schema.audit_operation_log(operation_time);
+CREATE INDEX idx_audit_log_trace_id ON platform_schema.audit_operation_log(trace_id);
+
+COMMENT ON TABLE platform_schema.audit_operation_log IS '操作日志表（按操作时间按天分区）';
+COMMENT ON COLUMN platform_schema.audit_operation_log.trace_id IS '追踪ID';
+COMMENT ON COLUMN platform_schema.audit_operation_log.user_id IS '用户ID';
+COMMENT ON COLUMN platform_schema.audit_operation_log.username IS '用户名';
+COMMENT ON COLUMN platform_schema.audit_operation_log.operation_type IS '操作类型';
+COMMENT ON COLUMN platform_schema.audit_operation_log.operation_name IS '操作名称';
+COMMENT ON COLUMN platform_schema.audit_operation_log.resource_type IS '资源类型';
+COMMENT ON COLUMN platform_schema.audit_operation_log.resource_id IS '资源ID';
+COMMENT ON COLUMN platform_schema.audit_operation_log.request_method IS '请求方法';
+COMMENT ON COLUMN platform_schema.audit_operation_log.request_url IS '请求URL';
+COMMENT ON COLUMN platform_schema.audit_operation_log.request_params IS '请求参数';
+COMMENT ON COLUMN platform_schema.audit_operation_log.request_body IS '请求体';
+COMMENT ON COLUMN platform_schema.audit_operation_log.response_body IS '响应体';
+COMMENT ON COLUMN platform_schema.audit_operation_log.ip_address IS 'IP地址';
+COMMENT ON COLUMN platform_schema.audit_operation_log.user_agent IS '用户代理';
+COMMENT ON COLUMN platform_schema.audit_operation_log.execution_time IS '执行时间(毫秒)';
+COMMENT ON COLUMN platform_schema.audit_operation_log.is_success IS '是否成功';
+COMMENT ON COLUMN platform_schema.audit_operation_log.error_message IS '错误信息';
+COMMENT ON COLUMN platform_schema.audit_operation_log.operation_time IS '操作时间';
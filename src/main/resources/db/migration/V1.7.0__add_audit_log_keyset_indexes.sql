@@ -0,0 +1,16 @@
+-- 审计日志游标分页索引
+-- 列表查询按 (operation_time, id) 定位续读并排序，复合索引使任意页都只需一次索引定位加顺序读取；
+-- 按用户、按资源的查询以等值条件为前缀。B-tree 可反向扫描，同时支持正序和倒序
+
+CREATE INDEX idx_audit_log_time_id
+    ON platform_schema.audit_operation_log(operation_time, id);
+
+CREATE INDEX idx_audit_log_user_time_id
+    ON platform_schema.audit_operation_log(user_id, operation_time, id);
+
+CREATE INDEX idx_audit_log_resource_time_id
+    ON platform_schema.audit_operation_log(resource_type, resource_id, operation_time, id);
+
+-- 已被以上索引的前缀覆盖
+DROP INDEX platform_schema.idx_audit_log_user_id;
+DROP INDEX platform_schema.idx_audit_log_operation_time;
@@ -0,0 +1,34 @@
+-- 审计日志统计汇总表
+-- 写入管道按分钟、按维度累计计数后追加到分钟表（同一键累加），定时任务把完整的小时、天从下一级重新汇总；
+-- 统计接口按时间范围组合读取天、小时、分钟表，不扫描原始日志
+
+CREATE TABLE platform_schema.audit_log_rollup_minute (
+    bucket_time TIMESTAMP NOT NULL,
+    dimension VARCHAR(20) NOT NULL,
+    dimension_value VARCHAR(200) NOT NULL,
+    total_count BIGINT NOT NULL DEFAULT 0,
+    failure_count BIGINT NOT NULL DEFAULT 0,
+    execution_time_sum BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_time, dimension, dimension_value)
+);
+
+CREATE TABLE platform_schema.audit_log_rollup_hour (LIKE platform_schema.audit_log_rollup_minute INCLUDING ALL);
+
+CREATE TABLE platform_schema.audit_log_rollup_day (LIKE platform_schema.audit_log_rollup_minute INCLUDING ALL);
+
+-- 各级汇总已完整覆盖到的时间（不含），之后的时间从下一级读取
+CREATE TABLE platform_schema.audit_log_rollup_watermark (
+    level VARCHAR(10) PRIMARY KEY,
+    merged_until TIMESTAMP NOT NULL
+);
+
+COMMENT ON TABLE platform_schema.audit_log_rollup_minute IS '审计日志按分钟统计汇总';
+COMMENT ON TABLE platform_schema.audit_log_rollup_hour IS '审计日志按小时统计汇总';
+COMMENT ON TABLE platform_schema.audit_log_rollup_day IS '审计日志按天统计汇总';
+COMMENT ON TABLE platform_schema.audit_log_rollup_watermark IS '审计日志统计汇总进度';
+COMMENT ON COLUMN platform_schema.audit_log_rollup_minute.bucket_time IS '时间桶起始时间';
+COMMENT ON COLUMN platform_schema.audit_log_rollup_minute.dimension IS '维度：TOTAL/OPERATION_TYPE/USER/RESOURCE/IP';
+COMMENT ON COLUMN platform_schema.audit_log_rollup_minute.dimension_value IS '维度值';
+COMMENT ON COLUMN platform_schema.audit_log_rollup_minute.total_count IS '操作次数';
+COMMENT ON COLUMN platform_schema.audit_log_rollup_minute.failure_count IS '失败次数';
+COMMENT ON COLUMN platform_schema.audit_log_rollup_minute.execution_time_sum IS '执行时间合计(毫秒)';
@@ -0,0 +1,17 @@
+-- 审计日志关键词检索
+-- pg_trgm 三元组 GIN 索引支持任意位置的 LIKE / ILIKE 匹配和相似度匹配，
+-- 列表查询中的模糊过滤条件和检索接口都可使用索引，不再顺序扫描；建在分区表上，每个分区各自建索引
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA platform_schema;
+
+CREATE INDEX idx_audit_log_username_trgm
+    ON platform_schema.audit_operation_log USING gin (username gin_trgm_ops);
+
+CREATE INDEX idx_audit_log_operation_name_trgm
+    ON platform_schema.audit_operation_log USING gin (operation_name gin_trgm_ops);
+
+CREATE INDEX idx_audit_log_request_url_trgm
+    ON platform_schema.audit_operation_log USING gin (request_url gin_trgm_ops);
+
+CREATE INDEX idx_audit_log_resource_id_trgm
+    ON platform_schema.audit_operation_log USING gin (resource_id gin_trgm_ops);
@@ -0,0 +1,121 @@
+package space.akko.foundation.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 缓存清除策略测试：事务提交后执行、回滚不清除、无事务立即清除，以及延迟双删
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class CacheEvictionPolicyTest {
+
+    private CacheEvictionPolicy policy;
+
+    @AfterEach
+    void close() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (policy != null) {
+            policy.destroy();
+        }
+    }
+
+    @Test
+    void evictsImmediatelyOutsideTransaction() {
+        policy = new CacheEvictionPolicy(Duration.ZERO);
+        AtomicInteger evictions = new AtomicInteger();
+
+        policy.evict(evictions::incrementAndGet);
+
+        assertEquals(1, evictions.get());
+    }
+
+    @Test
+    void evictionIsDeferredUntilCommit() {
+        policy = new CacheEvictionPolicy(Duration.ZERO);
+        AtomicInteger evictions = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        policy.evict(evictions::incrementAndGet);
+        assertEquals(0, evictions.get(), "提交前不应清除");
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(1, evictions.get());
+    }
+
+    @Test
+    void rollbackSkipsEviction() {
+        policy = new CacheEvictionPolicy(Duration.ZERO);
+        AtomicInteger evictions = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        policy.evict(evictions::incrementAndGet);
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, evictions.get());
+    }
+
+    @Test
+    void secondDeleteRunsAfterDelay() throws InterruptedException {
+        policy = new CacheEvictionPolicy(Duration.ofMillis(100));
+        AtomicInteger evictions = new AtomicInteger();
+        CountDownLatch secondDelete = new CountDownLatch(2);
+        long start = System.nanoTime();
+
+        policy.evict(() -> {
+            evictions.incrementAndGet();
+            secondDelete.countDown();
+        });
+        assertEquals(1, evictions.get());
+
+        assertTrue(secondDelete.await(5, TimeUnit.SECONDS), "延迟后应再清除一次");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        assertEquals(2, evictions.get());
+    }
+
+    @Test
+    void secondDeleteFollowsCommit() throws InterruptedException {
+        policy = new CacheEvictionPolicy(Duration.ofMillis(50));
+        CountDownLatch evictions = new CountDownLatch(2);
+        TransactionSynchronizationManager.initSynchronization();
+
+        policy.evict(evictions::countDown);
+        assertEquals(2, evictions.getCount(), "提交前不应清除，也不应安排延迟清除");
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(1, evictions.getCount());
+        assertTrue(evictions.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failedSecondDeleteIsSwallowed() throws InterruptedException {
+        policy = new CacheEvictionPolicy(Duration.ofMillis(20));
+        AtomicInteger evictions = new AtomicInteger();
+        CountDownLatch secondDelete = new CountDownLatch(1);
+
+        policy.evict(() -> {
+            if (evictions.incrementAndGet() == 2) {
+                secondDelete.countDown();
+                throw new IllegalStateException("Redis不可用");
+            }
+        });
+
+        assertTrue(secondDelete.await(5, TimeUnit.SECONDS));
+        assertEquals(2, evictions.get());
+    }
+}
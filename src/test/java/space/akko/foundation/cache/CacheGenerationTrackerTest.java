@@ -0,0 +1,105 @@
+package space.akko.foundation.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import space.akko.support.EmbeddedRedis;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 缓存命名空间代数测试：两个节点（两个代数跟踪器）共用一个Redis
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class CacheGenerationTrackerTest {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    private EmbeddedRedis redis;
+    private final List<LettuceConnectionFactory> factories = new ArrayList<>();
+    private final List<CacheGenerationTracker> trackers = new ArrayList<>();
+
+    @BeforeEach
+    void startRedis() {
+        redis = EmbeddedRedis.start();
+    }
+
+    @AfterEach
+    void stopRedis() {
+        trackers.forEach(CacheGenerationTracker::destroy);
+        factories.forEach(LettuceConnectionFactory::destroy);
+        redis.close();
+    }
+
+    private CacheGenerationTracker tracker(LettuceConnectionFactory factory) {
+        factories.add(factory);
+        CacheGenerationTracker tracker = new CacheGenerationTracker(factory, POLL_INTERVAL);
+        trackers.add(tracker);
+        return tracker;
+    }
+
+    @Test
+    void incrementOnOneNodeIsSeenByTheOther() throws InterruptedException {
+        CacheGenerationTracker nodeA = tracker(redis.connectionFactory());
+        CacheGenerationTracker nodeB = tracker(redis.connectionFactory());
+        assertEquals("user::0::", nodeA.compute("user"));
+        assertEquals("user::0::", nodeB.compute("user"));
+
+        CountDownLatch cleared = new CountDownLatch(1);
+        nodeB.addListener("user", cleared::countDown);
+
+        assertEquals(1, nodeA.increment("user"));
+        assertEquals("user::1::", nodeA.compute("user"), "清空的节点立即使用新代数");
+
+        assertTrue(cleared.await(2, TimeUnit.SECONDS), "另一个节点应在轮询后收到清空通知");
+        assertEquals("user::1::", nodeB.compute("user"));
+    }
+
+    @Test
+    void ownIncrementDoesNotNotifyLocalListeners() throws InterruptedException {
+        CacheGenerationTracker node = tracker(redis.connectionFactory());
+        node.current("role");
+        CountDownLatch notified = new CountDownLatch(1);
+        node.addListener("role", notified::countDown);
+
+        node.increment("role");
+        assertFalse(notified.await(300, TimeUnit.MILLISECONDS), "本节点的清空不应触发远程清空回调");
+    }
+
+    @Test
+    void newNodeStartsFromCurrentGeneration() {
+        CacheGenerationTracker nodeA = tracker(redis.connectionFactory());
+        nodeA.increment("menu");
+        nodeA.increment("menu");
+
+        CacheGenerationTracker nodeB = tracker(redis.connectionFactory());
+        assertEquals(2, nodeB.current("menu"));
+    }
+
+    @Test
+    void keepsLastKnownGenerationWhileRedisIsDown() {
+        CacheGenerationTracker nodeA = tracker(redis.connectionFactory());
+        nodeA.increment("config");
+        nodeA.increment("config");
+        assertEquals(2, nodeA.current("config"));
+
+        redis.stop();
+
+        assertEquals(2, nodeA.current("config"), "Redis不可用时继续使用已知代数，不能退回0代");
+        assertEquals("config::2::", nodeA.compute("config"));
+        assertThrows(RuntimeException.class, () -> nodeA.current("unknown"),
+                "未知代数且Redis不可用时本次L2操作失败，而不是使用0代");
+    }
+}
@@ -0,0 +1,122 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * L2读取时间预算测试：对冲读取的结果选择和超时的熔断统计
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class CacheReadBudgetTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CacheReadBudget budget;
+    private RedisCircuitBreaker breaker;
+
+    @AfterEach
+    void destroy() throws Exception {
+        if (budget != null) {
+            budget.destroy();
+        }
+        if (breaker != null) {
+            breaker.destroy();
+        }
+    }
+
+    private CacheReadBudget budget(Duration hedgeDelay) {
+        budget = new CacheReadBudget(Duration.ofMillis(200), hedgeDelay, new LettuceConnectionFactory(), meterRegistry);
+        return budget;
+    }
+
+    private double hedgedCount() {
+        return meterRegistry.counter("cache.l2.read.hedged").count();
+    }
+
+    @Test
+    void primaryFailureWaitsForReplica() throws Exception {
+        CacheReadBudget budget = budget(Duration.ofSeconds(10));
+        CompletableFuture<Cache.ValueWrapper> primary = CompletableFuture.failedFuture(new IllegalStateException("primary"));
+
+        Cache.ValueWrapper value = budget.hedge(primary, () ->
+                CompletableFuture.completedFuture(new SimpleValueWrapper("replica"))).get(1, TimeUnit.SECONDS);
+
+        assertEquals("replica", value.get(), "主节点快速失败时应取副本结果，且不等对冲延迟");
+        assertEquals(1.0, hedgedCount());
+    }
+
+    @Test
+    void failsOnlyWhenBothReadsFail() {
+        CacheReadBudget budget = budget(Duration.ofMillis(5));
+        CompletableFuture<Cache.ValueWrapper> primary = new CompletableFuture<>();
+        CompletableFuture<Cache.ValueWrapper> result = budget.hedge(primary, () ->
+                CompletableFuture.failedFuture(new IllegalStateException("replica")));
+
+        primary.completeExceptionally(new IllegalStateException("primary"));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void slowPrimaryIsHedgedAfterDelay() throws Exception {
+        CacheReadBudget budget = budget(Duration.ofMillis(20));
+        CompletableFuture<Cache.ValueWrapper> primary = new CompletableFuture<>();
+
+        Cache.ValueWrapper value = budget.hedge(primary, () ->
+                CompletableFuture.completedFuture(new SimpleValueWrapper("replica"))).get(1, TimeUnit.SECONDS);
+
+        assertEquals("replica", value.get());
+        assertEquals(1.0, hedgedCount());
+    }
+
+    @Test
+    void fastPrimaryIsNotHedged() throws Exception {
+        CacheReadBudget budget = budget(Duration.ofMillis(50));
+        AtomicInteger replicaReads = new AtomicInteger();
+
+        Cache.ValueWrapper value = budget.hedge(CompletableFuture.completedFuture(null), () -> {
+            replicaReads.incrementAndGet();
+            return CompletableFuture.completedFuture(new SimpleValueWrapper("replica"));
+        }).get(1, TimeUnit.SECONDS);
+
+        assertNull(value, "主节点未命中同样是成功结果");
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(0, replicaReads.get());
+        assertEquals(0.0, hedgedCount());
+    }
+
+    @Test
+    void budgetTimeoutsDoNotOpenTheBreaker() {
+        breaker = new RedisCircuitBreaker(new LettuceConnectionFactory(), meterRegistry,
+                10, 2, 50, Duration.ofSeconds(1), 100, 2, Duration.ofMinutes(1));
+        for (int i = 0; i < 20; i++) {
+            assertNull(breaker.execute(() -> {
+                throw new CacheReadBudget.BudgetExceededException("timeout");
+            }, () -> null), "超时按未命中处理");
+        }
+        assertEquals(RedisCircuitBreaker.State.CLOSED, breaker.getState());
+
+        for (int i = 0; i < 2; i++) {
+            breaker.execute(() -> {
+                throw new IllegalStateException("redis down");
+            }, () -> null);
+        }
+        assertEquals(RedisCircuitBreaker.State.OPEN, breaker.getState(), "命令失败照常计入");
+    }
+}
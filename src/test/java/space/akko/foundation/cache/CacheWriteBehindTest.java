@@ -0,0 +1,174 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * L2异步写入测试：同键合并、待写表容量、清除等待同键的写入批次、按缓存取消，以及关闭时写出剩余条目
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class CacheWriteBehindTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisCircuitBreaker circuitBreaker = new RedisCircuitBreaker(null, meterRegistry, 10, 5, 50,
+            Duration.ofSeconds(1), 100, 2, Duration.ofHours(1));
+    private CacheWriteBehind writeBehind;
+
+    @AfterEach
+    void close() {
+        if (writeBehind != null) {
+            writeBehind.destroy();
+        }
+        circuitBreaker.destroy();
+    }
+
+    private CacheWriteBehind newWriteBehind(int capacity, int batchSize, Duration flushInterval) {
+        writeBehind = new CacheWriteBehind(capacity, batchSize, flushInterval, circuitBreaker, meterRegistry);
+        return writeBehind;
+    }
+
+    private double written() {
+        return meterRegistry.counter("cache.l2.write-behind.written").count();
+    }
+
+    @Test
+    void writesToSameKeyAreCoalesced() {
+        // 间隔足够长，只在关闭时写出
+        CacheWriteBehind writeBehind = newWriteBehind(100, 10, Duration.ofHours(1));
+        ConcurrentMapCache l2 = new ConcurrentMapCache("user");
+
+        writeBehind.enqueue("user", l2, 1L, "v1");
+        writeBehind.enqueue("user", l2, 1L, "v2");
+        writeBehind.enqueue("user", l2, 1L, "v3");
+        writeBehind.destroy();
+
+        assertEquals("v3", l2.get(1L).get());
+        assertEquals(1.0, written());
+        assertEquals(2.0, meterRegistry.counter("cache.l2.write-behind.coalesced").count());
+    }
+
+    @Test
+    void fullTableDropsNewKeysButAcceptsOverwrites() {
+        CacheWriteBehind writeBehind = newWriteBehind(2, 10, Duration.ofHours(1));
+        ConcurrentMapCache l2 = new ConcurrentMapCache("user");
+
+        writeBehind.enqueue("user", l2, 1L, "a");
+        writeBehind.enqueue("user", l2, 2L, "b");
+        writeBehind.enqueue("user", l2, 3L, "c");
+        writeBehind.enqueue("user", l2, 2L, "b2");
+        writeBehind.destroy();
+
+        assertEquals(1.0, meterRegistry.counter("cache.l2.write-behind.dropped").count());
+        assertNull(l2.get(3L));
+        assertEquals("b2", l2.get(2L).get());
+    }
+
+    @Test
+    void cancelWaitsForInFlightPutOfSameKey() throws InterruptedException {
+        CacheWriteBehind writeBehind = newWriteBehind(100, 10, Duration.ofMillis(10));
+        BlockingCache l2 = new BlockingCache("user");
+        writeBehind.enqueue("user", l2, 1L, "stale");
+        assertTrue(l2.entered.await(5, TimeUnit.SECONDS), "后台线程应开始写入");
+
+        // 其他键不在写入中的批次里，取消立即返回
+        writeBehind.cancel("user", 2L);
+
+        CountDownLatch cancelled = new CountDownLatch(1);
+        Thread evictor = new Thread(() -> {
+            writeBehind.cancel("user", 1L);
+            l2.evict(1L);
+            cancelled.countDown();
+        });
+        evictor.start();
+        assertFalse(cancelled.await(200, TimeUnit.MILLISECONDS), "同键的写入完成前清除应等待");
+
+        l2.release.countDown();
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        evictor.join();
+        // 清除落在写入之后，L2不会残留旧值
+        assertNull(l2.get(1L));
+    }
+
+    @Test
+    void cancelDropsPendingPut() {
+        CacheWriteBehind writeBehind = newWriteBehind(100, 10, Duration.ofHours(1));
+        ConcurrentMapCache l2 = new ConcurrentMapCache("user");
+        writeBehind.enqueue("user", l2, 1L, "a");
+        writeBehind.enqueue("user", l2, 2L, "b");
+
+        writeBehind.cancel("user", 1L);
+        writeBehind.destroy();
+
+        assertNull(l2.get(1L));
+        assertEquals("b", l2.get(2L).get());
+    }
+
+    @Test
+    void cancelAllOnlyDropsThatCache() {
+        CacheWriteBehind writeBehind = newWriteBehind(100, 10, Duration.ofHours(1));
+        ConcurrentMapCache users = new ConcurrentMapCache("user");
+        ConcurrentMapCache roles = new ConcurrentMapCache("role");
+        for (long i = 0; i < 5; i++) {
+            writeBehind.enqueue("user", users, i, "u" + i);
+            writeBehind.enqueue("role", roles, i, "r" + i);
+        }
+
+        writeBehind.cancelAll("user");
+        writeBehind.destroy();
+
+        assertTrue(users.getNativeCache().isEmpty());
+        assertEquals(5, roles.getNativeCache().size());
+    }
+
+    @Test
+    void shutdownDrainsRemainingEntriesInBatches() {
+        CacheWriteBehind writeBehind = newWriteBehind(100, 2, Duration.ofHours(1));
+        ConcurrentMapCache l2 = new ConcurrentMapCache("user");
+        for (long i = 0; i < 5; i++) {
+            writeBehind.enqueue("user", l2, i, "v" + i);
+        }
+
+        writeBehind.destroy();
+
+        assertEquals(5, l2.getNativeCache().size());
+        assertEquals(5.0, written());
+        assertEquals(0.0, meterRegistry.get("cache.l2.write-behind.pending").gauge().value());
+    }
+
+    /**
+     * 写入时阻塞，直到测试放行
+     */
+    private static final class BlockingCache extends ConcurrentMapCache {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private BlockingCache(String name) {
+            super(name);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.put(key, value);
+        }
+    }
+}
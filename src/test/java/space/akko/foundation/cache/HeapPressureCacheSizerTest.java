@@ -0,0 +1,138 @@
+package space.akko.foundation.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * L1缓存堆预算测试：份额换算、压力阈值收缩、阈值之间的滞后区间、逐步恢复和下限
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class HeapPressureCacheSizerTest {
+
+    private static final double PRESSURE = 0.8;
+    private static final double RECOVERY = 0.6;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HeapPressureCacheSizer sizer;
+
+    @AfterEach
+    void close() {
+        if (sizer != null) {
+            sizer.destroy();
+        }
+    }
+
+    /**
+     * 未调用 afterPropertiesSet：不注册内存通知和定期检查，由测试直接传入使用率
+     */
+    private HeapPressureCacheSizer newSizer(long minimumSize) {
+        sizer = new HeapPressureCacheSizer(0.1, 1024, Map.of("user", 0.5), 0.1, minimumSize, PRESSURE,
+                RECOVERY, 0.5, 1.25, 0.1, Duration.ofHours(1), meterRegistry);
+        return sizer;
+    }
+
+    private static Cache<Object, Object> newCache() {
+        return Caffeine.newBuilder().maximumSize(1).build();
+    }
+
+    private static long maximumOf(Cache<Object, Object> cache) {
+        return cache.policy().eviction().orElseThrow().getMaximum();
+    }
+
+    private static long budgetEntries(double share, double scale) {
+        return (long) ((long) (Runtime.getRuntime().maxMemory() * 0.1) * share * scale / 1024);
+    }
+
+    @Test
+    void registeredCachesAreSizedByShare() {
+        HeapPressureCacheSizer sizer = newSizer(1);
+        Cache<Object, Object> user = newCache();
+        Cache<Object, Object> role = newCache();
+
+        sizer.register("user", user);
+        sizer.register("role", role);
+
+        assertEquals(budgetEntries(0.5, 1.0), maximumOf(user));
+        // 未配置份额的缓存使用默认份额
+        assertEquals(budgetEntries(0.1, 1.0), maximumOf(role));
+        assertEquals(budgetEntries(0.5, 1.0), meterRegistry.get("cache.l1.maximum.size").tag("cache", "user")
+                .gauge().value());
+    }
+
+    @Test
+    void pressureShrinksUntilMinimumScale() {
+        HeapPressureCacheSizer sizer = newSizer(1);
+        Cache<Object, Object> user = newCache();
+        sizer.register("user", user);
+
+        sizer.check(PRESSURE);
+        assertEquals(0.5, sizer.scale());
+        assertEquals(budgetEntries(0.5, 0.5), maximumOf(user));
+
+        for (int i = 0; i < 10; i++) {
+            sizer.check(0.95);
+        }
+        assertEquals(0.1, sizer.scale(), 1e-9);
+        assertEquals(budgetEntries(0.5, 0.1), maximumOf(user));
+        assertEquals(4.0, meterRegistry.counter("cache.l1.resize", "direction", "shrink").count());
+    }
+
+    @Test
+    void usageBetweenThresholdsKeepsScale() {
+        HeapPressureCacheSizer sizer = newSizer(1);
+        sizer.check(0.9);
+
+        // 滞后区间：低于压力阈值但未低于恢复阈值时既不收缩也不恢复
+        sizer.check(0.79);
+        sizer.check(RECOVERY);
+        assertEquals(0.5, sizer.scale());
+    }
+
+    @Test
+    void recoveryGrowsGraduallyToFullBudget() {
+        HeapPressureCacheSizer sizer = newSizer(1);
+        Cache<Object, Object> user = newCache();
+        sizer.register("user", user);
+        sizer.check(0.9);
+        sizer.check(0.9);
+        assertEquals(0.25, sizer.scale());
+
+        sizer.check(0.5);
+        assertEquals(0.3125, sizer.scale());
+        for (int i = 0; i < 10; i++) {
+            sizer.check(0.5);
+        }
+        assertEquals(1.0, sizer.scale());
+        assertEquals(budgetEntries(0.5, 1.0), maximumOf(user));
+        assertEquals(7.0, meterRegistry.counter("cache.l1.resize", "direction", "grow").count());
+    }
+
+    @Test
+    void unavailableUsageIsIgnored() {
+        HeapPressureCacheSizer sizer = newSizer(1);
+
+        sizer.check(-1);
+        assertEquals(1.0, sizer.scale());
+    }
+
+    @Test
+    void minimumSizeBoundsEachCache() {
+        HeapPressureCacheSizer sizer = newSizer(Long.MAX_VALUE / 2);
+        Cache<Object, Object> user = newCache();
+
+        sizer.register("user", user);
+        sizer.check(0.9);
+
+        assertEquals(Long.MAX_VALUE / 2, maximumOf(user));
+    }
+}
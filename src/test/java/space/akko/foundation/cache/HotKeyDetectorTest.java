@@ -0,0 +1,122 @@
+package space.akko.foundation.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 热点键探测器测试
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class HotKeyDetectorTest {
+
+    @Test
+    void findsSkewedKeysAmongBackgroundTraffic() {
+        HotKeyDetector detector = new HotKeyDetector(1024, 3, Integer.MAX_VALUE);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 20_000; i++) {
+            detector.record("cold:" + random.nextInt(5000));
+            if (i % 4 == 0) {
+                detector.record("hot:a");
+            }
+            if (i % 5 == 0) {
+                detector.record("hot:b");
+            }
+            if (i % 6 == 0) {
+                detector.record("hot:c");
+            }
+        }
+
+        List<HotKeyDetector.HotKey> hotKeys = detector.getHotKeys();
+        assertEquals(3, hotKeys.size());
+        assertEquals(Set.of("hot:a", "hot:b", "hot:c"),
+                hotKeys.stream().map(HotKeyDetector.HotKey::key).collect(Collectors.toSet()));
+        assertEquals("hot:a", hotKeys.get(0).key(), "按估算频率降序");
+    }
+
+    @Test
+    void estimateNeverUnderCounts() {
+        HotKeyDetector detector = new HotKeyDetector(64, 4, Integer.MAX_VALUE);
+        for (int key = 0; key < 500; key++) {
+            for (int i = 0; i <= key % 7; i++) {
+                detector.record(key);
+            }
+        }
+        for (int key = 0; key < 500; key++) {
+            assertTrue(detector.estimate(key) >= key % 7 + 1, "Count-Min Sketch 只会高估");
+        }
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() throws InterruptedException {
+        HotKeyDetector detector = new HotKeyDetector(1024, 4, Integer.MAX_VALUE);
+        int threads = 8;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    detector.record("contended");
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals((long) threads * perThread, detector.estimate("contended"));
+        assertEquals("contended", detector.getHotKeys().get(0).key());
+    }
+
+    @Test
+    void agingHalvesCountsAndDropsFadedCandidates() {
+        HotKeyDetector detector = new HotKeyDetector(1024, 2, 100);
+        detector.record("once");
+        for (int i = 0; i < 98; i++) {
+            detector.record("busy");
+        }
+        assertEquals(98, detector.estimate("busy"));
+
+        // 第100次访问触发衰减
+        detector.record("busy");
+        assertEquals(49, detector.estimate("busy"));
+        assertEquals(0, detector.estimate("once"));
+        assertEquals(List.of("busy"),
+                detector.getHotKeys().stream().map(HotKeyDetector.HotKey::key).toList());
+    }
+
+    @Test
+    void candidateSetStaysBoundedAndAdmitsNewHotKey() {
+        HotKeyDetector detector = new HotKeyDetector(1024, 2, Integer.MAX_VALUE);
+        for (int i = 0; i < 10; i++) {
+            detector.record("a");
+            detector.record("b");
+        }
+        for (int i = 0; i < 30; i++) {
+            detector.record("c");
+        }
+        Set<Object> keys = detector.getHotKeys().stream()
+                .map(HotKeyDetector.HotKey::key).collect(Collectors.toSet());
+        assertEquals(2, keys.size());
+        assertTrue(keys.contains("c"));
+    }
+}
@@ -0,0 +1,171 @@
+package space.akko.foundation.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 堆上L1与堆外L1的GC停顿对比（合成负载）
+ * 不在默认测试中运行（类名不匹配surefire的默认规则），需显式指定：
+ * <pre>
+ * mvn test -Dtest=OffHeapCacheGcBenchmark -Dsurefire.failIfNoSpecifiedTests=false \
+ *     -Dbenchmark.entries=200000 -Dbenchmark.seconds=30 -Dbenchmark.mode=both
+ * </pre>
+ * 负载：预先写入 entries 个字典项大小的对象，多个线程随机读取，其中一部分操作写入新对象制造老年代更替。
+ * 通过GC通知统计负载期间每次收集的停顿时间。mode 可选 onheap、offheap 或 both（同一JVM中依次运行，
+ * 两次之间执行一次Full GC；需要完全隔离时分别以 onheap 和 offheap 各运行一次）
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class OffHeapCacheGcBenchmark {
+
+    private static final int ENTRIES = Integer.getInteger("benchmark.entries", 200_000);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 30);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 4);
+    private static final int WRITE_PERCENT = Integer.getInteger("benchmark.write-percent", 5);
+    private static final String MODE = System.getProperty("benchmark.mode", "both");
+
+    private static final Duration TTL = Duration.ofHours(1);
+
+    @Test
+    void compareGcPauses() throws Exception {
+        List<Report> reports = new ArrayList<>();
+        if (!"offheap".equals(MODE)) {
+            CaffeineCache onHeap = new CaffeineCache("benchmark", Caffeine.newBuilder()
+                    .maximumSize(ENTRIES)
+                    .expireAfter(new CacheEntryExpiry(TTL, TTL))
+                    .build());
+            reports.add(run("onheap", onHeap));
+        }
+        if (!"onheap".equals(MODE)) {
+            System.gc();
+            OffHeapCache offHeap = new OffHeapCache("benchmark", new GenericJackson2JsonRedisSerializer(), TTL, TTL,
+                    (long) ENTRIES * 1024, 16, 256, 100);
+            reports.add(run("offheap", offHeap));
+        }
+
+        System.out.printf("%n%-8s %12s %8s %12s %10s %10s%n", "mode", "ops/s", "gcs", "gcTotal(ms)", "p99(ms)", "max(ms)");
+        for (Report report : reports) {
+            System.out.printf("%-8s %12d %8d %12d %10d %10d%n", report.mode(), report.opsPerSecond(),
+                    report.pauses().size(), report.totalPauseMillis(), report.percentile(0.99), report.maxPauseMillis());
+        }
+        assertTrue(reports.stream().allMatch(report -> report.opsPerSecond() > 0));
+    }
+
+    private Report run(String mode, Cache cache) throws InterruptedException {
+        for (int i = 0; i < ENTRIES; i++) {
+            cache.put(i, dictionaryItem(i));
+        }
+
+        List<Long> pauses = Collections.synchronizedList(new ArrayList<>());
+        NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                // 并发收集周期不是停顿，不计入
+                if (!info.getGcName().contains("Concurrent")) {
+                    pauses.add(info.getGcInfo().getDuration());
+                }
+            }
+        };
+        List<NotificationEmitter> emitters = new ArrayList<>();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (bean instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+
+        LongAdder ops = new LongAdder();
+        long deadline = System.nanoTime() + Duration.ofSeconds(SECONDS).toNanos();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int key = random.nextInt(ENTRIES);
+                    if (random.nextInt(100) < WRITE_PERCENT) {
+                        cache.put(key, dictionaryItem(key));
+                    } else {
+                        cache.get(key);
+                    }
+                    ops.increment();
+                }
+                done.countDown();
+            }, "benchmark-" + mode + "-" + t);
+            worker.start();
+        }
+        done.await();
+
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (Exception ignored) {
+                // 监听器已移除
+            }
+        }
+        cache.clear();
+        return new Report(mode, ops.sum() / SECONDS, new ArrayList<>(pauses));
+    }
+
+    /**
+     * 字典项大小的对象（十余个字段，序列化后约300字节）
+     */
+    private static Map<String, Object> dictionaryItem(int id) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("id", (long) id);
+        item.put("categoryId", (long) (id % 100));
+        item.put("itemCode", "ITEM_" + id);
+        item.put("itemName", "字典项" + id);
+        item.put("itemValue", "value-" + id);
+        item.put("description", "合成负载中的字典项，用于比较GC停顿 #" + id);
+        item.put("sortOrder", id % 50);
+        item.put("isActive", Boolean.TRUE);
+        item.put("isDefault", Boolean.FALSE);
+        item.put("createdBy", 1L);
+        item.put("updatedBy", 1L);
+        item.put("version", 0);
+        return item;
+    }
+
+    private record Report(String mode, long opsPerSecond, List<Long> pauses) {
+
+        long totalPauseMillis() {
+            return pauses.stream().mapToLong(Long::longValue).sum();
+        }
+
+        long maxPauseMillis() {
+            return pauses.stream().mapToLong(Long::longValue).max().orElse(0);
+        }
+
+        long percentile(double p) {
+            if (pauses.isEmpty()) {
+                return 0;
+            }
+            List<Long> sorted = new ArrayList<>(pauses);
+            Collections.sort(sorted);
+            return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(p * sorted.size()) - 1));
+        }
+    }
+}
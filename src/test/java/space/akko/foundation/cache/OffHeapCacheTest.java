@@ -0,0 +1,118 @@
+package space.akko.foundation.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 堆外L1缓存测试
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class OffHeapCacheTest {
+
+    private OffHeapCache newCache(long maxBytes, int frontSize) {
+        return new OffHeapCache("test", new GenericJackson2JsonRedisSerializer(), Duration.ofMinutes(5),
+                Duration.ofSeconds(30), maxBytes, 1, 64, frontSize);
+    }
+
+    @Test
+    void loaderReturningNullIsCachedAsTombstone() {
+        OffHeapCache cache = newCache(64 * 1024, 0);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertNull(cache.get("missing", () -> {
+            calls.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get("missing", () -> {
+            calls.incrementAndGet();
+            return null;
+        }));
+        assertEquals(1, calls.get(), "空值应被缓存，第二次读取不再加载");
+
+        Cache.ValueWrapper wrapper = cache.get("missing");
+        assertNotNull(wrapper);
+        assertTrue(CacheTombstone.isTombstone(wrapper.get()));
+        Duration ttl = cache.getExpiresAfter("missing");
+        assertNotNull(ttl);
+        assertTrue(ttl.compareTo(Duration.ofSeconds(30)) <= 0, "空值占位使用空值TTL");
+    }
+
+    @Test
+    void putNullStoresTombstone() {
+        OffHeapCache cache = newCache(64 * 1024, 10);
+        cache.put("key", null);
+        assertTrue(CacheTombstone.isTombstone(cache.get("key").get()));
+    }
+
+    @Test
+    void valuesSpanningSeveralBlocksRoundTrip() {
+        OffHeapCache cache = newCache(64 * 1024, 0);
+        String value = "x".repeat(1000);
+        cache.put("key", value);
+        assertEquals(value, cache.get("key").get());
+        assertEquals(value, cache.get("key", () -> "loaded"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWithinBudget() {
+        // 1个段、16个64字节的块
+        OffHeapCache cache = newCache(16 * 64, 0);
+        for (int i = 0; i < 16; i++) {
+            cache.put(i, "v" + i);
+        }
+        // 访问0使其成为最近使用
+        assertNotNull(cache.get(0));
+        cache.put("big", "y".repeat(200));
+
+        assertNotNull(cache.get(0));
+        assertNull(cache.get(1), "最久未使用的条目应被淘汰");
+        assertTrue(cache.getUsedBytes() <= cache.getCapacityBytes());
+    }
+
+    @Test
+    void peekDoesNotChangeLruOrder() {
+        OffHeapCache cache = newCache(16 * 64, 0);
+        for (int i = 0; i < 16; i++) {
+            cache.put(i, "v" + i);
+        }
+        assertEquals("v0", cache.peek(0));
+        assertNull(cache.peek("missing"));
+        cache.put("big", "y".repeat(200));
+
+        assertNull(cache.get(0), "查看条目不应使其成为最近使用");
+        assertNotNull(cache.get(15));
+    }
+
+    @Test
+    void evictAndClear() {
+        OffHeapCache cache = newCache(64 * 1024, 10);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.evict("a");
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+        cache.clear();
+        assertNull(cache.get("b"));
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getUsedBytes());
+    }
+
+    @Test
+    void segmentLargerThanOneBufferIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> newCache(4L * 1024 * 1024 * 1024, 0));
+        assertTrue(e.getMessage().contains("段数"));
+    }
+}
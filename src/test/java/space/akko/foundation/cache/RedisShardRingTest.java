@@ -0,0 +1,122 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * L2 Redis 分片环测试（只测试路由，不连接Redis）
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class RedisShardRingTest {
+
+    private static final int KEYS = 30_000;
+
+    private final List<RedisShardRing> rings = new ArrayList<>();
+
+    @AfterEach
+    void destroyRings() throws Exception {
+        for (RedisShardRing ring : rings) {
+            ring.destroy();
+        }
+    }
+
+    private RedisShardRing ring(String... names) {
+        List<RedisConnectionFactory> factories = new ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            factories.add(new LettuceConnectionFactory());
+        }
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RedisShardRing ring = new RedisShardRing(factories, List.of(names), 160, (factory, name) ->
+                new RedisCircuitBreaker(factory, meterRegistry, Tags.of("shard", name),
+                        10, 5, 50, Duration.ofSeconds(1), 100, 2, Duration.ofMinutes(1)), false);
+        rings.add(ring);
+        return ring;
+    }
+
+    private static byte[] key(int i) {
+        return ("user::0::" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void routingIsStableAcrossInstances() {
+        RedisShardRing nodeA = ring("redis-a:6379", "redis-b:6379", "redis-c:6379");
+        RedisShardRing nodeB = ring("redis-a:6379", "redis-b:6379", "redis-c:6379");
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(nodeA.shardOf(key(i)), nodeB.shardOf(key(i)), "不同节点上同一个键应路由到同一分片");
+        }
+    }
+
+    @Test
+    void keysSpreadEvenlyAcrossShards() {
+        RedisShardRing ring = ring("redis-a:6379", "redis-b:6379", "redis-c:6379");
+        int[] counts = new int[ring.size()];
+        for (int i = 0; i < KEYS; i++) {
+            counts[ring.shardOf(key(i))]++;
+        }
+        for (int count : counts) {
+            double share = (double) count / KEYS;
+            assertTrue(share > 0.25 && share < 0.42, "分片负载偏差过大: " + share);
+        }
+    }
+
+    @Test
+    void addingShardOnlyMovesKeysToTheNewShard() {
+        RedisShardRing before = ring("redis-a:6379", "redis-b:6379", "redis-c:6379");
+        RedisShardRing after = ring("redis-a:6379", "redis-b:6379", "redis-c:6379", "redis-d:6379");
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            int from = before.shardOf(key(i));
+            int to = after.shardOf(key(i));
+            if (from != to) {
+                assertEquals(3, to, "新增分片时键只能迁移到新分片");
+                moved++;
+            }
+        }
+        double share = (double) moved / KEYS;
+        assertTrue(share > 0.15 && share < 0.35, "迁移比例应接近1/4: " + share);
+    }
+
+    @Test
+    void groupByShardKeepsOriginalIndexes() {
+        RedisShardRing ring = ring("redis-a:6379", "redis-b:6379");
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keys.add(key(i));
+        }
+        List<Integer> indexes = new ArrayList<>();
+        ring.groupByShard(keys).forEach((shard, shardIndexes) -> {
+            shardIndexes.forEach(index -> assertEquals(shard, ring.shardOf(keys.get(index))));
+            indexes.addAll(shardIndexes);
+        });
+        Collections.sort(indexes);
+        assertEquals(100, indexes.size());
+        assertEquals(99, indexes.get(99));
+    }
+
+    @Test
+    void singleShardPropagatesFailures() throws Exception {
+        RedisShardRing ring = RedisShardRing.single(new LettuceConnectionFactory());
+        rings.add(ring);
+        assertEquals(0, ring.shardOf(key(1)));
+        assertTrue(ring.isAvailable(0));
+        assertThrows(IllegalStateException.class, () -> ring.execute(0, () -> {
+            throw new IllegalStateException("down");
+        }, () -> null), "单分片时异常交给L2熔断器处理");
+    }
+}
@@ -0,0 +1,137 @@
+package space.akko.foundation.cache;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import space.akko.support.EmbeddedRedis;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分片Redis缓存写入器测试：三个本地Redis实例组成分片环
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class ShardedRedisCacheWriterTest {
+
+    private static final String CACHE = "user";
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final int KEYS = 300;
+
+    private final List<EmbeddedRedis> servers = new ArrayList<>();
+    private final List<LettuceConnectionFactory> factories = new ArrayList<>();
+    private RedisShardRing ring;
+    private ShardedRedisCacheWriter writer;
+
+    @BeforeEach
+    void startShards() {
+        List<RedisConnectionFactory> shards = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            EmbeddedRedis server = EmbeddedRedis.start();
+            servers.add(server);
+            LettuceConnectionFactory factory = server.connectionFactory();
+            factories.add(factory);
+            shards.add(factory);
+            names.add("127.0.0.1:" + server.getPort());
+        }
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ring = new RedisShardRing(shards, names, 160, (factory, name) ->
+                new RedisCircuitBreaker(factory, meterRegistry, Tags.of("shard", name),
+                        10, 4, 50, Duration.ofSeconds(5), 100, 2, Duration.ofMinutes(1)), false);
+        writer = new ShardedRedisCacheWriter(ring);
+    }
+
+    @AfterEach
+    void stopShards() throws Exception {
+        ring.destroy();
+        factories.forEach(LettuceConnectionFactory::destroy);
+        servers.forEach(EmbeddedRedis::close);
+    }
+
+    private static byte[] key(int i) {
+        return ("user::0::" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] value(int i) {
+        return ("value-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private boolean existsOn(int shard, byte[] key) {
+        try (RedisConnection connection = factories.get(shard).getConnection()) {
+            return Boolean.TRUE.equals(connection.keyCommands().exists(key));
+        }
+    }
+
+    @Test
+    void keysAreStoredOnlyOnTheirShard() {
+        int[] counts = new int[3];
+        for (int i = 0; i < KEYS; i++) {
+            writer.put(CACHE, key(i), value(i), TTL);
+        }
+        for (int i = 0; i < KEYS; i++) {
+            int shard = ring.shardOf(key(i));
+            counts[shard]++;
+            for (int other = 0; other < 3; other++) {
+                assertEquals(other == shard, existsOn(other, key(i)), "键只应写入所在分片: " + i);
+            }
+            assertArrayEquals(value(i), writer.get(CACHE, key(i)));
+        }
+        for (int count : counts) {
+            assertTrue(count > 0, "每个分片都应分到键");
+        }
+    }
+
+    @Test
+    void shardOutageOnlyAffectsItsKeys() {
+        for (int i = 0; i < KEYS; i++) {
+            writer.put(CACHE, key(i), value(i), TTL);
+        }
+        servers.get(1).stop();
+
+        int misses = 0;
+        for (int i = 0; i < KEYS; i++) {
+            byte[] cached = writer.get(CACHE, key(i));
+            if (ring.shardOf(key(i)) == 1) {
+                assertNull(cached, "宕机分片上的键按未命中处理");
+                misses++;
+            } else {
+                assertArrayEquals(value(i), cached, "其他分片不受影响");
+            }
+        }
+        assertTrue(misses > 0);
+        assertFalse(ring.isAvailable(1), "连续失败后分片熔断");
+        assertEquals(RedisCircuitBreaker.State.OPEN, ring.stateOf(1));
+        assertTrue(ring.isAvailable(0));
+        assertTrue(ring.isAvailable(2));
+
+        byte[] downKey = null;
+        for (int i = 0; downKey == null; i++) {
+            if (ring.shardOf(key(i)) == 1) {
+                downKey = key(i);
+            }
+        }
+        byte[] keyOnDownShard = downKey;
+        assertThrows(RuntimeException.class, () -> writer.remove(CACHE, keyOnDownShard), "清除不能静默跳过");
+        assertThrows(RuntimeException.class, () -> writer.clean(CACHE, "user::*".getBytes(StandardCharsets.UTF_8)));
+        // 写入跳过，不抛出异常
+        writer.put(CACHE, keyOnDownShard, value(0), TTL);
+        assertNull(writer.retrieve(CACHE, keyOnDownShard, TTL).join());
+    }
+}
@@ -0,0 +1,73 @@
+package space.akko.foundation.common;
+
+import org.junit.jupiter.api.Test;
+import space.akko.foundation.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 游标分页续读位置测试：编码往返、微秒精度、方向校验和无效令牌
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class SeekCursorTest {
+
+    @Test
+    void roundTripKeepsMicroseconds() {
+        SeekCursor cursor = new SeekCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 45, 123_456_000), 42L, true);
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, SeekCursor.decode(token, true));
+        assertFalse(token.contains("=") || token.contains("+") || token.contains("/"));
+    }
+
+    @Test
+    void roundTripBeforeEpoch() {
+        SeekCursor cursor = new SeekCursor(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000), 1L, false);
+
+        assertEquals(cursor, SeekCursor.decode(cursor.encode(), false));
+    }
+
+    @Test
+    void nanosecondsAreTruncatedToMicroseconds() {
+        SeekCursor cursor = new SeekCursor(LocalDateTime.of(2024, 3, 1, 0, 0, 0, 123_456_789), 7L, true);
+
+        assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0, 0, 123_456_000),
+                SeekCursor.decode(cursor.encode(), true).time());
+    }
+
+    @Test
+    void blankTokenMeansFirstPage() {
+        assertNull(SeekCursor.decode(null, true));
+        assertNull(SeekCursor.decode(" ", false));
+    }
+
+    @Test
+    void directionMismatchIsRejected() {
+        String token = new SeekCursor(LocalDateTime.of(2024, 3, 1, 0, 0), 7L, true).encode();
+
+        assertThrows(BusinessException.class, () -> SeekCursor.decode(token, false));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThrows(BusinessException.class, () -> SeekCursor.decode("not base64!", true));
+        assertThrows(BusinessException.class, () -> SeekCursor.decode(encode("1:d:abc:7"), true));
+        assertThrows(BusinessException.class, () -> SeekCursor.decode(encode("1:d:100"), true));
+        assertThrows(BusinessException.class, () -> SeekCursor.decode(encode("2:d:100:7"), true));
+        assertThrows(BusinessException.class, () -> SeekCursor.decode(encode("1:x:100:7"), true));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
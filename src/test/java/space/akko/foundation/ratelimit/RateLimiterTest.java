@@ -0,0 +1,173 @@
+package space.akko.foundation.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import space.akko.foundation.annotation.RateLimit;
+import space.akko.foundation.constant.CacheConstants;
+import space.akko.support.EmbeddedRedis;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 限流器测试：本地令牌桶的补充、经本地Redis的集群同步校正与欠额上限，以及可信代理下的客户端地址
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class RateLimiterTest {
+
+    private static final String SUBJECT = "10.0.0.1";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<RateLimiter> limiters = new ArrayList<>();
+    private EmbeddedRedis redis;
+    private LettuceConnectionFactory connectionFactory;
+
+    @AfterEach
+    void close() {
+        limiters.forEach(RateLimiter::destroy);
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    private RateLimiter limiter(RedisConnectionFactory factory, String... trustedProxies) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+                factory != null ? Map.of("redisConnectionFactory", factory) : Map.of());
+        ObjectProvider<RedisConnectionFactory> provider = beanFactory.getBeanProvider(RedisConnectionFactory.class);
+        // 未调用 afterPropertiesSet，不定期同步，由测试手动同步
+        RateLimiter limiter = new RateLimiter(provider, meterRegistry, 4, 1000, factory != null,
+                Duration.ofHours(1), trustedProxies);
+        limiters.add(limiter);
+        return limiter;
+    }
+
+    private LettuceConnectionFactory startRedis() {
+        redis = EmbeddedRedis.start();
+        connectionFactory = redis.connectionFactory();
+        return connectionFactory;
+    }
+
+    private double clusterTokens(RateLimitRule rule) {
+        Object tokens = new StringRedisTemplate(connectionFactory).opsForHash().get(
+                CacheConstants.RATE_LIMIT_KEY_PREFIX + rule.getName() + CacheConstants.CACHE_KEY_SEPARATOR + SUBJECT,
+                "tokens");
+        return Double.parseDouble(String.valueOf(tokens));
+    }
+
+    private static void consume(RateLimiter limiter, RateLimitRule rule, int times) {
+        for (int i = 0; i < times; i++) {
+            assertEquals(0L, limiter.tryAcquire(rule, SUBJECT));
+        }
+    }
+
+    @Test
+    void localBucketRefillsOverTime() throws InterruptedException {
+        RateLimiter limiter = limiter(null);
+        RateLimitRule rule = new RateLimitRule("refill", RateLimit.Dimension.IP, 2, Duration.ofMillis(200));
+
+        consume(limiter, rule, 2);
+        long wait = limiter.tryAcquire(rule, SUBJECT);
+        assertTrue(wait > 0 && wait <= 100, "等待时间应约为补充一个令牌的时间: " + wait);
+
+        Thread.sleep(wait + 20);
+        assertEquals(0L, limiter.tryAcquire(rule, SUBJECT));
+        assertEquals(1.0, meterRegistry.counter("rate.limit.rejected").count());
+    }
+
+    @Test
+    void syncReconcilesWithClusterConsumption() {
+        LettuceConnectionFactory factory = startRedis();
+        RateLimiter nodeA = limiter(factory);
+        RateLimiter nodeB = limiter(factory);
+        RateLimitRule rule = new RateLimitRule("reconcile", RateLimit.Dimension.IP, 10, Duration.ofHours(1));
+
+        consume(nodeA, rule, 6);
+        nodeA.sync();
+        assertEquals(4.0, clusterTokens(rule), 0.01);
+
+        // B 本地还有10个令牌，同步后按集群剩余的0个校正
+        consume(nodeB, rule, 4);
+        nodeB.sync();
+        assertEquals(0.0, clusterTokens(rule), 0.01);
+        assertTrue(nodeB.tryAcquire(rule, SUBJECT) > 0);
+    }
+
+    @Test
+    void clusterDebtIsClampedToOneCapacity() {
+        LettuceConnectionFactory factory = startRedis();
+        RateLimitRule rule = new RateLimitRule("debt", RateLimit.Dimension.IP, 5, Duration.ofMinutes(1));
+        List<RateLimiter> nodes = List.of(limiter(factory), limiter(factory), limiter(factory));
+
+        for (RateLimiter node : nodes) {
+            consume(node, rule, 5);
+        }
+        nodes.forEach(RateLimiter::sync);
+
+        // 集群共消耗15个，容量5：最多欠下一个容量
+        assertEquals(-5.0, clusterTokens(rule), 0.01);
+        // 欠额需先补回：等待约 (1 + 5) / (5/分钟) = 72秒
+        long wait = nodes.get(2).tryAcquire(rule, SUBJECT);
+        assertTrue(wait > 70_000 && wait <= 72_000, "等待时间应包含欠下的令牌: " + wait);
+    }
+
+    @Test
+    void failedSyncKeepsConsumptionForNextSync() {
+        RateLimiter limiter = limiter(EmbeddedRedis.connectionFactory(EmbeddedRedis.freePort()));
+        RateLimitRule rule = new RateLimitRule("offline", RateLimit.Dimension.IP, 3, Duration.ofHours(1));
+
+        consume(limiter, rule, 3);
+        limiter.sync();
+        limiter.sync();
+
+        assertEquals(2.0, meterRegistry.counter("rate.limit.sync.failed").count());
+        assertTrue(limiter.tryAcquire(rule, SUBJECT) > 0);
+    }
+
+    @Test
+    void forwardedForIsIgnoredFromUntrustedPeers() {
+        RateLimiter limiter = limiter(null);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("203.0.113.9");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+
+        assertEquals("203.0.113.9", limiter.clientIp(request));
+    }
+
+    @Test
+    void forwardedForIsWalkedThroughTrustedProxies() {
+        RateLimiter limiter = limiter(null, "10.0.0.0/8", "fd00::/8");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.2");
+        // 最左侧为客户端伪造的地址，右侧依次为各代理追加的对端地址
+        request.addHeader("X-Forwarded-For", "1.1.1.1, 198.51.100.7, fd00::5, 10.1.2.3");
+
+        assertEquals("198.51.100.7", limiter.clientIp(request));
+
+        request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.2");
+        request.addHeader("X-Forwarded-For", "not-an-ip, 10.1.2.3");
+        assertEquals("not-an-ip", limiter.clientIp(request));
+
+        request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.2");
+        assertEquals("10.0.0.2", limiter.clientIp(request));
+        assertEquals("unknown", limiter.clientIp(null));
+    }
+}
@@ -0,0 +1,166 @@
+package space.akko.platform.audit.anomaly;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 异常检测基线测试：槽位分配与淘汰、滑动窗口、EWMA基线、空闲衰减和告警去重
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class AnomalyBaselinesTest {
+
+    private static final int WINDOW = 5;
+    private static final double ALPHA = 0.1;
+
+    @Test
+    void sameKeyKeepsItsSlot() {
+        AnomalyBaselines baselines = new AnomalyBaselines(1024, WINDOW, ALPHA, 0.1);
+        Set<Integer> slots = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            slots.add(baselines.slot("user-" + i, 0));
+        }
+
+        assertEquals(20, slots.size());
+        assertEquals(baselines.slot("user-3", 0), baselines.slot("user-3", 10));
+        assertEquals(0, baselines.evictions());
+    }
+
+    @Test
+    void fullTableEvictsLeastRecentlyActive() {
+        // 容量按最小值取8个槽位，每个键都会探测全部槽位
+        AnomalyBaselines baselines = new AnomalyBaselines(1, WINDOW, ALPHA, 0.1);
+        int[] slots = new int[8];
+        for (int i = 0; i < 8; i++) {
+            slots[i] = baselines.slot("user-" + i, i);
+            baselines.record(slots[i], i, false);
+        }
+
+        int newcomer = baselines.slot("user-8", 8);
+
+        assertEquals(1, baselines.evictions());
+        assertEquals(slots[0], newcomer);
+        assertEquals(0, baselines.windowCount(newcomer));
+        for (int i = 1; i < 8; i++) {
+            assertEquals(slots[i], baselines.slot("user-" + i, 8));
+        }
+    }
+
+    @Test
+    void windowDropsExpiredMinutes() {
+        AnomalyBaselines baselines = new AnomalyBaselines(16, WINDOW, ALPHA, 0.1);
+        int slot = baselines.slot("user", 0);
+        for (long minute = 0; minute < WINDOW; minute++) {
+            for (int i = 0; i < 3; i++) {
+                baselines.record(slot, minute, i == 0);
+            }
+        }
+        assertEquals(3 * WINDOW, baselines.windowCount(slot));
+        assertEquals(WINDOW, baselines.windowErrors(slot));
+
+        // 前进两分钟：最早的两分钟移出窗口
+        baselines.record(slot, WINDOW + 1, false);
+        assertEquals(3 * (WINDOW - 2) + 1, baselines.windowCount(slot));
+        assertEquals(WINDOW - 2, baselines.windowErrors(slot));
+
+        // 超过整个窗口的空闲后只剩新的一次
+        baselines.record(slot, 100, true);
+        assertEquals(1, baselines.windowCount(slot));
+        assertEquals(1, baselines.windowErrors(slot));
+    }
+
+    @Test
+    void lateEventsCountInCurrentMinute() {
+        AnomalyBaselines baselines = new AnomalyBaselines(16, WINDOW, ALPHA, 0.1);
+        int slot = baselines.slot("user", 10);
+        baselines.record(slot, 10, false);
+        baselines.record(slot, 7, false);
+
+        assertEquals(2, baselines.windowCount(slot));
+        assertEquals(0, baselines.baselineMinutes(slot));
+    }
+
+    @Test
+    void baselineConvergesToSteadyRate() {
+        AnomalyBaselines baselines = new AnomalyBaselines(16, WINDOW, ALPHA, 0.1);
+        int slot = baselines.slot("user", 0);
+        for (long minute = 0; minute <= 200; minute++) {
+            for (int i = 0; i < 10; i++) {
+                baselines.record(slot, minute, i < 2);
+            }
+        }
+
+        assertEquals(200, baselines.baselineMinutes(slot));
+        assertEquals(10.0 * WINDOW, baselines.expectedWindowCount(slot), 0.01);
+        assertEquals(0.2, baselines.errorBaseline(slot), 0.001);
+        // 稳定负载下方差趋近0，标准差按泊松噪声（方差不低于均值）估算
+        assertEquals(Math.sqrt(10.0 * WINDOW), baselines.windowStdDev(slot), 0.01);
+    }
+
+    @Test
+    void idleMinutesDecayBaselineUpToCap() {
+        AnomalyBaselines baselines = new AnomalyBaselines(16, WINDOW, ALPHA, 0.1);
+        int slot = baselines.slot("user", 0);
+        for (long minute = 0; minute <= 100; minute++) {
+            baselines.record(slot, minute, false);
+        }
+        double before = baselines.expectedWindowCount(slot);
+        int minutesBefore = baselines.baselineMinutes(slot);
+
+        baselines.record(slot, 100 + 10_000, false);
+
+        assertTrue(baselines.expectedWindowCount(slot) < before * 0.001);
+        // 结束的一分钟加上最多240分钟的空闲
+        assertEquals(minutesBefore + 1 + 240, baselines.baselineMinutes(slot));
+    }
+
+    @Test
+    void offHoursShareIsExponentiallyWeighted() {
+        AnomalyBaselines baselines = new AnomalyBaselines(16, WINDOW, ALPHA, 0.5);
+        int slot = baselines.slot("user", 0);
+
+        assertEquals(0.0, baselines.recordOffHours(slot, true));
+        assertEquals(0.5, baselines.recordOffHours(slot, true));
+        assertEquals(0.75, baselines.recordOffHours(slot, false));
+        assertEquals(3, baselines.events(slot));
+    }
+
+    @Test
+    void alertFiresOncePerPeriodAndType() {
+        AnomalyBaselines baselines = new AnomalyBaselines(16, WINDOW, ALPHA, 0.1);
+        int slot = baselines.slot("user", 0);
+
+        assertTrue(baselines.markAlerted(slot, AnomalyType.HIGH_RATE, 1));
+        assertFalse(baselines.markAlerted(slot, AnomalyType.HIGH_RATE, 1));
+        assertTrue(baselines.markAlerted(slot, AnomalyType.HIGH_ERROR_RATE, 1));
+        assertTrue(baselines.markAlerted(slot, AnomalyType.HIGH_RATE, 2));
+    }
+
+    @Test
+    void reusedSlotStartsFresh() {
+        AnomalyBaselines baselines = new AnomalyBaselines(1, WINDOW, ALPHA, 0.1);
+        int first = baselines.slot("user-0", 0);
+        baselines.record(first, 0, true);
+        baselines.recordOffHours(first, true);
+        baselines.markAlerted(first, AnomalyType.OFF_HOURS, 0);
+        for (int i = 1; i < 8; i++) {
+            baselines.slot("user-" + i, 1);
+        }
+
+        int reused = baselines.slot("user-8", 2);
+
+        assertEquals(first, reused);
+        assertNotEquals(0, baselines.evictions());
+        assertEquals(0, baselines.windowCount(reused));
+        assertEquals(0, baselines.events(reused));
+        assertTrue(baselines.markAlerted(reused, AnomalyType.OFF_HOURS, 0));
+    }
+}
@@ -0,0 +1,143 @@
+package space.akko.platform.audit.writer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 无锁环形缓冲区测试
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class AuditRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(2, new AuditRingBuffer<Integer>(1).capacity());
+        assertEquals(8, new AuditRingBuffer<Integer>(5).capacity());
+        assertEquals(1024, new AuditRingBuffer<Integer>(1024).capacity());
+    }
+
+    @Test
+    void offerFailsWhenFullAndPollIsFifo() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4), "缓冲区已满时写入失败");
+        assertEquals(4, buffer.size());
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll(), "缓冲区为空时返回null");
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void slotsAreReusedAcrossManyLaps() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(buffer.offer(i));
+            if (i % 3 == 2) {
+                assertTrue(buffer.offer(-i));
+                assertEquals(i, buffer.poll());
+                assertEquals(-i, buffer.poll());
+            } else {
+                assertEquals(i, buffer.poll());
+            }
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void drainToRespectsLimit() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(16);
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i);
+        }
+        List<Integer> target = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(target, 4));
+        assertEquals(List.of(0, 1, 2, 3), target);
+        assertEquals(6, buffer.drainTo(target, 100));
+        assertEquals(10, target.size());
+        assertEquals(0, buffer.drainTo(target, 100));
+    }
+
+    @Test
+    void concurrentProducersAndConsumersDeliverEachElementOnce() throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 20_000;
+        int total = producers * perProducer;
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(256);
+        BitSet seen = new BitSet(total);
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger consumed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                executor.execute(() -> {
+                    await(start);
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!buffer.offer(base + i)) {
+                            Thread.yield();
+                        }
+                    }
+                });
+            }
+            for (int c = 0; c < consumers; c++) {
+                executor.execute(() -> {
+                    await(start);
+                    while (consumed.get() < total) {
+                        Integer element = buffer.poll();
+                        if (element == null) {
+                            Thread.yield();
+                            continue;
+                        }
+                        synchronized (seen) {
+                            if (seen.get(element)) {
+                                duplicates.incrementAndGet();
+                            }
+                            seen.set(element);
+                        }
+                        consumed.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS), "并发读写未在限定时间内完成");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(0, duplicates.get(), "同一元素不应被取出两次");
+        assertEquals(total, seen.cardinality(), "每个元素都应被取出");
+        assertNull(buffer.poll());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package space.akko.platform.audit.writer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import space.akko.platform.audit.model.entity.AuditOperationLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 审计日志本地暂存测试：顺序回放、检查点续传、段末尾截断和校验失败
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+class AuditSpoolTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuditSpool spool;
+
+    @AfterEach
+    void close() throws IOException {
+        if (spool != null) {
+            spool.destroy();
+        }
+    }
+
+    private AuditSpool open(DataSize segmentSize, DataSize maxSize) throws IOException {
+        if (spool != null) {
+            spool.destroy();
+        }
+        spool = new AuditSpool(OBJECT_MAPPER, meterRegistry, directory.toString(), segmentSize, maxSize);
+        spool.afterPropertiesSet();
+        return spool;
+    }
+
+    private AuditSpool open() throws IOException {
+        return open(DataSize.ofKilobytes(64), DataSize.ofMegabytes(1));
+    }
+
+    private static AuditOperationLog auditLog(int i) {
+        AuditOperationLog auditLog = new AuditOperationLog();
+        auditLog.setTraceId(String.valueOf(i));
+        auditLog.setUsername("user" + i);
+        auditLog.setOperationType("UPDATE");
+        auditLog.setOperationName("更新用户");
+        auditLog.setIpAddress("10.0.0." + (i % 250));
+        auditLog.setIsSuccess(Boolean.TRUE);
+        auditLog.setOperationTime(LocalDateTime.of(2026, 1, 1, 12, 0).plusSeconds(i));
+        return auditLog;
+    }
+
+    private static List<AuditOperationLog> auditLogs(int from, int to) {
+        return IntStream.range(from, to).mapToObj(AuditSpoolTest::auditLog).toList();
+    }
+
+    private static List<String> traceIds(List<AuditOperationLog> logs) {
+        return logs.stream().map(AuditOperationLog::getTraceId).toList();
+    }
+
+    private static List<String> traceIds(int from, int to) {
+        return IntStream.range(from, to).mapToObj(String::valueOf).toList();
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(file -> file.toString().endsWith(".spool")).toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    /**
+     * 段内已写入部分的末尾
+     */
+    private static int endOf(ByteBuffer buffer) {
+        int position = 0;
+        while (true) {
+            int length = buffer.getInt(position);
+            if (length <= 0) {
+                return position;
+            }
+            position += 8 + length;
+        }
+    }
+
+    @Test
+    void replaysInAppendOrderAndClearsPending() throws IOException {
+        AuditSpool spool = open();
+        assertFalse(spool.hasPending());
+        spool.append(auditLogs(0, 5));
+        spool.append(auditLogs(5, 12));
+        assertTrue(spool.hasPending());
+
+        List<AuditOperationLog> replayed = new ArrayList<>();
+        assertEquals(12, spool.replay(replayed::addAll, 5));
+        assertEquals(traceIds(0, 12), traceIds(replayed));
+        assertFalse(spool.hasPending());
+        assertEquals(0, spool.replay(replayed::addAll, 5), "已回放的记录不再回放");
+    }
+
+    @Test
+    void slicedReplayResumesWhereThePreviousSliceStopped() throws IOException {
+        AuditSpool spool = open();
+        spool.append(auditLogs(0, 12));
+
+        List<AuditOperationLog> replayed = new ArrayList<>();
+        List<Integer> batchSizes = new ArrayList<>();
+        assertEquals(5, spool.replay(batch -> {
+            batchSizes.add(batch.size());
+            replayed.addAll(batch);
+        }, 2, 5));
+        assertEquals(List.of(2, 2, 1), batchSizes, "最后一批按剩余额度截断");
+        assertTrue(spool.hasPending());
+
+        // 两片之间追加的记录排在未回放的记录之后
+        spool.append(auditLogs(12, 14));
+        assertEquals(5, spool.replay(replayed::addAll, 2, 5));
+        assertEquals(4, spool.replay(replayed::addAll, 2, 5));
+        assertEquals(0, spool.replay(replayed::addAll, 2, 5));
+        assertEquals(traceIds(0, 14), traceIds(replayed));
+        assertFalse(spool.hasPending());
+    }
+
+    @Test
+    void failedReplayResumesFromCheckpointAfterRestart() throws IOException {
+        open().append(auditLogs(0, 5));
+
+        List<AuditOperationLog> replayed = new ArrayList<>();
+        assertThrows(IllegalStateException.class, () -> spool.replay(batch -> {
+            if (!replayed.isEmpty()) {
+                throw new IllegalStateException("database down");
+            }
+            replayed.addAll(batch);
+        }, 2));
+        assertEquals(traceIds(0, 2), traceIds(replayed));
+
+        // 重启后从检查点继续，失败的批次整批重新回放
+        AuditSpool reopened = open();
+        assertTrue(reopened.hasPending());
+        List<AuditOperationLog> resumed = new ArrayList<>();
+        assertEquals(3, reopened.replay(resumed::addAll, 2));
+        assertEquals(traceIds(2, 5), traceIds(resumed));
+        assertFalse(reopened.hasPending());
+    }
+
+    @Test
+    void replayIsAtLeastOnce() throws IOException {
+        AuditSpool spool = open();
+        spool.append(auditLogs(0, 3));
+
+        // 数据库写入成功但检查点未推进（如写入后进程退出），该批再次回放
+        List<AuditOperationLog> database = new ArrayList<>();
+        assertThrows(IllegalStateException.class, () -> spool.replay(batch -> {
+            database.addAll(batch);
+            throw new IllegalStateException("crash before checkpoint");
+        }, 10));
+        assertEquals(3, open().replay(database::addAll, 10));
+        assertEquals(6, database.size());
+    }
+
+    @Test
+    void tornTailIsTruncatedAndOverwritten() throws IOException {
+        open().append(auditLogs(0, 3));
+        spool.destroy();
+        spool = null;
+
+        // 模拟进程崩溃时写了一半的记录
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int end = endOf(buffer);
+            buffer.putInt(end, 1000);
+            buffer.putInt(end + 4, 42);
+            buffer.put(end + 8, (byte) '{');
+        }
+
+        AuditSpool reopened = open();
+        reopened.append(List.of(auditLog(3)));
+        List<AuditOperationLog> replayed = new ArrayList<>();
+        assertEquals(4, reopened.replay(replayed::addAll, 10));
+        assertEquals(traceIds(0, 4), traceIds(replayed), "半条记录之后的追加覆盖截断位置");
+    }
+
+    @Test
+    void checksumMismatchSkipsRestOfSegment() throws IOException {
+        open().append(auditLogs(0, 3));
+        spool.destroy();
+        spool = null;
+
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int second = 8 + buffer.getInt(0);
+            buffer.put(second + 20, (byte) (buffer.get(second + 20) ^ 0x01));
+        }
+
+        List<AuditOperationLog> replayed = new ArrayList<>();
+        assertEquals(1, open().replay(replayed::addAll, 10));
+        assertEquals(traceIds(0, 1), traceIds(replayed));
+        assertEquals(1.0, meterRegistry.counter("audit.spool.dropped", "reason", "corrupt").count());
+    }
+
+    @Test
+    void oldestSegmentsAreDroppedOverMaxSize() throws IOException {
+        AuditSpool spool = open(DataSize.ofKilobytes(4), DataSize.ofKilobytes(12));
+        for (int i = 0; i < 100; i++) {
+            spool.append(List.of(auditLog(i)));
+        }
+        assertTrue(meterRegistry.counter("audit.spool.dropped", "reason", "disk").count() > 0);
+
+        List<AuditOperationLog> replayed = new ArrayList<>();
+        int count = spool.replay(replayed::addAll, 10);
+        assertTrue(count > 0 && count < 100, "超过上限的最早记录被丢弃");
+        assertEquals(traceIds(100 - count, 100), traceIds(replayed), "保留最新的记录且顺序不变");
+    }
+}
@@ -0,0 +1,97 @@
+package space.akko.support;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 测试用的本地Redis实例（embedded-redis）
+ * 当前平台无法启动内置的redis-server时跳过测试
+ *
+ * @author akko
+ * @since 1.0.0
+ */
+public final class EmbeddedRedis implements AutoCloseable {
+
+    private final RedisServer server;
+    private final int port;
+
+    private EmbeddedRedis(RedisServer server, int port) {
+        this.server = server;
+        this.port = port;
+    }
+
+    /**
+     * 在空闲端口上启动一个Redis实例
+     */
+    public static EmbeddedRedis start() {
+        int port = freePort();
+        RedisServer server = RedisServer.builder()
+                .bind("127.0.0.1")
+                .port(port)
+                .setting("save \"\"")
+                .setting("appendonly no")
+                .build();
+        try {
+            server.start();
+        } catch (RuntimeException e) {
+            assumeTrue(false, "无法启动embedded-redis: " + e.getMessage());
+        }
+        return new EmbeddedRedis(server, port);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * 连接该实例的连接工厂（命令超时较短，便于测试故障场景）
+     */
+    public LettuceConnectionFactory connectionFactory() {
+        return connectionFactory(port);
+    }
+
+    /**
+     * 连接指定端口的连接工厂，可用于模拟不可达的Redis
+     */
+    public static LettuceConnectionFactory connectionFactory(int port) {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration("127.0.0.1", port),
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofMillis(500)).build());
+        factory.afterPropertiesSet();
+        factory.start();
+        return factory;
+    }
+
+    /**
+     * 未被占用的本地端口
+     */
+    public static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 停止实例（模拟Redis宕机）
+     */
+    public void stop() {
+        if (server.isActive()) {
+            server.stop();
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+}